@@ -0,0 +1,151 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.sitewhere.microservice.grpc.GrpcKeys;
+import com.sitewhere.microservice.security.SiteWhereAuthentication;
+import com.sitewhere.microservice.security.UserContext;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+
+/**
+ * GRPC interceptor that pushes the JWT and, for multitenant channels, the
+ * tenant token of the current user into call metadata. Encoded metadata is
+ * cached per {@link SiteWhereAuthentication} instance and merged into the
+ * headers of each call.
+ */
+public class AuthenticationClientInterceptor implements ClientInterceptor {
+
+    /** Static logger instance */
+    private static Logger LOGGER = LoggerFactory.getLogger(AuthenticationClientInterceptor.class);
+
+    /** Maximum number of cached header sets */
+    private static final int MAX_CACHED_HEADERS = 1000;
+
+    /** Indicates whether tenant token is added */
+    private boolean includeTenant;
+
+    /** Encoded headers for each authentication (compared by identity) */
+    private Cache<SiteWhereAuthentication, AuthenticationHeaders> headersCache = CacheBuilder.newBuilder()
+	    .weakKeys().maximumSize(MAX_CACHED_HEADERS).build();
+
+    public AuthenticationClientInterceptor(boolean includeTenant) {
+	this.includeTenant = includeTenant;
+    }
+
+    /*
+     * @see io.grpc.ClientInterceptor#interceptCall(io.grpc.MethodDescriptor,
+     * io.grpc.CallOptions, io.grpc.Channel)
+     */
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+	    CallOptions callOptions, Channel next) {
+	return new SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+
+	    /*
+	     * @see io.grpc.ForwardingClientCall#start(io.grpc.ClientCall.Listener,
+	     * io.grpc.Metadata)
+	     */
+	    @Override
+	    public void start(Listener<RespT> responseListener, Metadata headers) {
+		headers.merge(getHeaders(UserContext.getCurrentUser()));
+		super.start(responseListener, headers);
+	    }
+	};
+    }
+
+    /**
+     * Get encoded headers for an authentication, creating them if not cached or
+     * if the credentials have changed since they were cached.
+     * 
+     * @param authentication
+     * @return
+     */
+    protected Metadata getHeaders(SiteWhereAuthentication authentication) {
+	if (authentication == null) {
+	    throw new RuntimeException("Attempting to make remote call with no user context.");
+	}
+	String jwt = authentication.getJwt();
+	if (jwt == null) {
+	    throw new RuntimeException("Attempting to make remote call with no JWT provided.");
+	}
+	String tenantToken = includeTenant ? authentication.getTenantToken() : null;
+	AuthenticationHeaders cached = headersCache.getIfPresent(authentication);
+	if (cached == null || !cached.matches(jwt, tenantToken)) {
+	    if (LOGGER.isTraceEnabled()) {
+		LOGGER.trace("Encoding gRPC headers for JWT: " + jwt);
+	    }
+	    cached = new AuthenticationHeaders(jwt, tenantToken);
+	    headersCache.put(authentication, cached);
+	}
+	return cached.getMetadata();
+    }
+
+    public boolean isIncludeTenant() {
+	return includeTenant;
+    }
+
+    /**
+     * Encoded headers along with the values they were created from.
+     */
+    private static class AuthenticationHeaders {
+
+	/** JWT value */
+	private String jwt;
+
+	/** Tenant token value */
+	private String tenantToken;
+
+	/** Encoded metadata */
+	private Metadata metadata = new Metadata();
+
+	public AuthenticationHeaders(String jwt, String tenantToken) {
+	    this.jwt = jwt;
+	    this.tenantToken = tenantToken;
+	    metadata.put(GrpcKeys.JWT_KEY, jwt);
+	    if (tenantToken != null) {
+		metadata.put(GrpcKeys.TENANT_KEY, tenantToken);
+	    }
+	}
+
+	/**
+	 * Indicates whether headers were created from the given values.
+	 * 
+	 * @param jwt
+	 * @param tenantToken
+	 * @return
+	 */
+	public boolean matches(String jwt, String tenantToken) {
+	    return this.jwt.equals(jwt)
+		    && (this.tenantToken == null ? tenantToken == null : this.tenantToken.equals(tenantToken));
+	}
+
+	public Metadata getMetadata() {
+	    return metadata;
+	}
+    }
+}
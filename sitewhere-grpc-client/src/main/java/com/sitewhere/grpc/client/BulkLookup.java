@@ -0,0 +1,177 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.sitewhere.microservice.security.UserContext;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.microservice.cache.ICacheProvider;
+
+/**
+ * Resolves a collection of entities by id using asynchronous single-entity
+ * calls. Calls are issued in parallel with a bound on the number in flight
+ * rather than as sequential round trips. Cached channels resolve collections
+ * from the cache first and load the remainder in a single bulk call.
+ */
+public class BulkLookup {
+
+    /** Default maximum number of lookups in flight */
+    public static final int DEFAULT_MAX_CONCURRENT_CALLS = 32;
+
+    /**
+     * Look up entities with the default bound on concurrent calls.
+     * 
+     * @param ids
+     * @param lookup
+     * @return
+     * @throws SiteWhereException
+     */
+    public static <T> Map<UUID, T> lookup(Collection<UUID> ids, IAsyncLookup<T> lookup) throws SiteWhereException {
+	return lookup(ids, lookup, DEFAULT_MAX_CONCURRENT_CALLS);
+    }
+
+    /**
+     * Look up entities by id. Duplicate and null ids are ignored and ids that do
+     * not resolve to an entity are not included in the result. If any lookup
+     * fails, no further calls are issued and the failure is rethrown.
+     * 
+     * @param ids
+     * @param lookup
+     * @param maxConcurrentCalls
+     * @return
+     * @throws SiteWhereException
+     */
+    public static <T> Map<UUID, T> lookup(Collection<UUID> ids, IAsyncLookup<T> lookup, int maxConcurrentCalls)
+	    throws SiteWhereException {
+	Set<UUID> unique = new LinkedHashSet<>(ids);
+	unique.remove(null);
+	Map<UUID, T> results = new ConcurrentHashMap<>();
+	Semaphore permits = new Semaphore(Math.max(1, maxConcurrentCalls));
+	AtomicBoolean failed = new AtomicBoolean();
+	List<CompletableFuture<T>> calls = new ArrayList<>();
+	try {
+	    for (UUID id : unique) {
+		permits.acquire();
+		if (failed.get()) {
+		    permits.release();
+		    break;
+		}
+		calls.add(lookup.lookup(id).whenComplete((result, t) -> {
+		    if (t != null) {
+			failed.set(true);
+		    } else if (result != null) {
+			results.put(id, result);
+		    }
+		    permits.release();
+		}));
+	    }
+	    CompletableFuture.allOf(calls.toArray(new CompletableFuture[calls.size()])).join();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new SiteWhereException("Interrupted while waiting for bulk lookup.", e);
+	} catch (CompletionException e) {
+	    if (e.getCause() instanceof SiteWhereException) {
+		throw (SiteWhereException) e.getCause();
+	    }
+	    throw new SiteWhereException("Unable to complete bulk lookup.", e.getCause());
+	}
+	return new HashMap<>(results);
+    }
+
+    /**
+     * Look up entities by id, using cached values where available and loading
+     * the remaining entities in a single bulk call. Loaded entities are added to
+     * the cache. Null ids are ignored and ids that do not resolve to an entity
+     * are not included in the result.
+     * 
+     * @param ids
+     * @param cache
+     * @param loader
+     * @return
+     * @throws SiteWhereException
+     */
+    public static <T> Map<UUID, T> lookupCached(Collection<UUID> ids, ICacheProvider<UUID, T> cache,
+	    IBulkLoader<T> loader) throws SiteWhereException {
+	String tenantId = UserContext.getCurrentTenantId();
+	Map<UUID, T> results = new HashMap<>();
+	List<UUID> missing = new ArrayList<>();
+	for (UUID id : ids) {
+	    T cached = (id != null) ? cache.getCacheEntry(tenantId, id) : null;
+	    if (cached != null) {
+		results.put(id, cached);
+	    } else if (id != null) {
+		missing.add(id);
+	    }
+	}
+	if (!missing.isEmpty()) {
+	    Map<UUID, ? extends T> loaded = loader.load(missing);
+	    for (Map.Entry<UUID, ? extends T> entry : loaded.entrySet()) {
+		cache.setCacheEntry(tenantId, entry.getKey(), entry.getValue());
+	    }
+	    results.putAll(loaded);
+	}
+	return results;
+    }
+
+    /**
+     * Loads multiple entities by id in a single call.
+     * 
+     * @param <T>
+     */
+    @FunctionalInterface
+    public static interface IBulkLoader<T> {
+
+	/**
+	 * Load entities. Ids that do not resolve to an entity are not included in
+	 * the result.
+	 * 
+	 * @param ids
+	 * @return
+	 * @throws SiteWhereException
+	 */
+	Map<UUID, ? extends T> load(Collection<UUID> ids) throws SiteWhereException;
+    }
+
+    /**
+     * Asynchronous lookup of a single entity by id.
+     * 
+     * @param <T>
+     */
+    @FunctionalInterface
+    public static interface IAsyncLookup<T> {
+
+	/**
+	 * Look up entity. The future completes with null if no entity exists.
+	 * 
+	 * @param id
+	 * @return
+	 */
+	CompletableFuture<T> lookup(UUID id);
+    }
+}
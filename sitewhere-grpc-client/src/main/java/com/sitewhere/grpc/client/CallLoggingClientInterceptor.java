@@ -15,51 +15,46 @@
  */
 package com.sitewhere.grpc.client;
 
-import com.sitewhere.microservice.grpc.GrpcKeys;
-import com.sitewhere.microservice.security.SiteWhereAuthentication;
-import com.sitewhere.microservice.security.UserContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.grpc.CallOptions;
 import io.grpc.Channel;
 import io.grpc.ClientCall;
 import io.grpc.ClientInterceptor;
-import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
-import io.grpc.Metadata;
 import io.grpc.MethodDescriptor;
 
 /**
- * GRPC interceptor that pushes tenant token into GRPC call metadata.
+ * GRPC interceptor that logs outgoing calls at debug level. Description of
+ * the channel is computed once so that calls only allocate when debug logging
+ * is enabled.
  */
-public class TenantTokenClientInterceptor implements ClientInterceptor {
+public class CallLoggingClientInterceptor implements ClientInterceptor {
+
+    /** Logger shared with GrpcUtils so that existing log levels apply */
+    private static Logger LOGGER = LoggerFactory.getLogger(GrpcUtils.class);
+
+    /** Prefix for log messages */
+    private String prefix;
+
+    public CallLoggingClientInterceptor(String channelName, String target) {
+	this.prefix = channelName + " connected to '" + target + "' sending call to  ";
+    }
 
     /*
-     * (non-Javadoc)
-     * 
      * @see io.grpc.ClientInterceptor#interceptCall(io.grpc.MethodDescriptor,
      * io.grpc.CallOptions, io.grpc.Channel)
      */
     @Override
     public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
 	    CallOptions callOptions, Channel next) {
-	return new SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+	if (LOGGER.isDebugEnabled()) {
+	    LOGGER.debug(prefix + method.getFullMethodName() + ".");
+	}
+	return next.newCall(method, callOptions);
+    }
 
-	    /*
-	     * (non-Javadoc)
-	     * 
-	     * @see io.grpc.ForwardingClientCall#start(io.grpc.ClientCall.Listener,
-	     * io.grpc.Metadata)
-	     */
-	    @Override
-	    public void start(Listener<RespT> responseListener, Metadata headers) {
-		SiteWhereAuthentication authentication = UserContext.getCurrentUser();
-		if (authentication != null) {
-		    String tenantToken = authentication.getTenantToken();
-		    if (tenantToken != null) {
-			headers.put(GrpcKeys.TENANT_KEY, tenantToken);
-		    }
-		}
-		super.start(responseListener, headers);
-	    }
-	};
+    public String getPrefix() {
+	return prefix;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sitewhere.spi.microservice.grpc.IGrpcCallMonitor;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+
+/**
+ * GRPC interceptor that tracks in-flight calls and a moving average of call
+ * latency so that consumers can apply back-pressure when a downstream service
+ * slows down. While no calls are in flight the average decays over time, so a
+ * consumer that paused because of high latency is able to resume even though
+ * no new samples are recorded. Only unary calls are tracked, since streaming
+ * calls stay open for their whole lifetime and say nothing about latency.
+ */
+public class CallMonitorClientInterceptor implements ClientInterceptor, IGrpcCallMonitor {
+
+    /** Weight given to newest sample in moving average */
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    /** Time in milliseconds for average latency to halve while idle */
+    private static final long IDLE_HALF_LIFE_MS = 1000;
+
+    /** Number of calls in flight */
+    private AtomicInteger inFlightCalls = new AtomicInteger();
+
+    /** Bits of moving average latency (ms) stored as a double */
+    private AtomicLong averageLatencyBits = new AtomicLong(Double.doubleToLongBits(0));
+
+    /** Time of last recorded sample */
+    private volatile long lastSampleNanos = System.nanoTime();
+
+    /*
+     * @see io.grpc.ClientInterceptor#interceptCall(io.grpc.MethodDescriptor,
+     * io.grpc.CallOptions, io.grpc.Channel)
+     */
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+	    CallOptions callOptions, Channel next) {
+	if (method.getType() != MethodDescriptor.MethodType.UNARY) {
+	    return next.newCall(method, callOptions);
+	}
+	return new SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+
+	    /*
+	     * @see io.grpc.ForwardingClientCall#start(io.grpc.ClientCall.Listener,
+	     * io.grpc.Metadata)
+	     */
+	    @Override
+	    public void start(Listener<RespT> responseListener, Metadata headers) {
+		final long start = System.nanoTime();
+		inFlightCalls.incrementAndGet();
+		try {
+		    super.start(new SimpleForwardingClientCallListener<RespT>(responseListener) {
+
+			/*
+			 * @see io.grpc.ForwardingClientCallListener#onClose(io.grpc.Status,
+			 * io.grpc.Metadata)
+			 */
+			@Override
+			public void onClose(Status status, Metadata trailers) {
+			    inFlightCalls.decrementAndGet();
+			    recordLatency(System.nanoTime() - start);
+			    super.onClose(status, trailers);
+			}
+		    }, headers);
+		} catch (RuntimeException e) {
+		    inFlightCalls.decrementAndGet();
+		    throw e;
+		}
+	    }
+	};
+    }
+
+    /**
+     * Add a latency sample to the moving average.
+     * 
+     * @param elapsedNanos
+     */
+    protected void recordLatency(long elapsedNanos) {
+	double sample = (double) elapsedNanos / TimeUnit.MILLISECONDS.toNanos(1);
+	while (true) {
+	    long current = averageLatencyBits.get();
+	    double average = Double.longBitsToDouble(current);
+	    double updated = average + LATENCY_SMOOTHING * (sample - average);
+	    if (averageLatencyBits.compareAndSet(current, Double.doubleToLongBits(updated))) {
+		lastSampleNanos = System.nanoTime();
+		return;
+	    }
+	}
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.grpc.IGrpcCallMonitor#
+     * getInFlightCallCount()
+     */
+    @Override
+    public int getInFlightCallCount() {
+	return inFlightCalls.get();
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.grpc.IGrpcCallMonitor#
+     * getAverageLatencyMillis()
+     */
+    @Override
+    public double getAverageLatencyMillis() {
+	double average = Double.longBitsToDouble(averageLatencyBits.get());
+	if (inFlightCalls.get() > 0) {
+	    return average;
+	}
+	long idleMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastSampleNanos);
+	return average * Math.pow(0.5, (double) idleMs / IDLE_HALF_LIFE_MS);
+    }
+}
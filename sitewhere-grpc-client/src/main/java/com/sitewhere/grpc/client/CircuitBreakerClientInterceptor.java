@@ -0,0 +1,493 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sitewhere.microservice.configuration.model.instance.infrastructure.GrpcCircuitBreakerConfiguration;
+import com.sitewhere.spi.microservice.grpc.CircuitBreakerState;
+import com.sitewhere.spi.microservice.grpc.IGrpcCircuitBreaker;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.Status;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+
+/**
+ * GRPC interceptor that opens a circuit when the failure rate or slow-call
+ * rate over a window of recent calls exceeds configured thresholds. While open,
+ * calls fail immediately with {@link Status#UNAVAILABLE}, which is reported to
+ * callers as a service not available exception. After a wait period, a limited
+ * number of probe calls are allowed through and the circuit closes if all of
+ * them succeed. Permission is taken when a call is started and each call is
+ * tagged with the state generation in which it was admitted, so results of
+ * calls admitted before the last state change are ignored. Only unary calls
+ * are guarded. Streaming calls may stay open indefinitely, so they are passed
+ * through rather than holding a probe or counting toward the window.
+ */
+public class CircuitBreakerClientInterceptor implements ClientInterceptor, IGrpcCircuitBreaker {
+
+    /** Static logger instance */
+    private static Logger LOGGER = LoggerFactory.getLogger(CircuitBreakerClientInterceptor.class);
+
+    /** Circuit breaker settings */
+    private GrpcCircuitBreakerConfiguration configuration;
+
+    /** Description of target used in messages */
+    private String target;
+
+    /** Gauge updated with circuit state */
+    private Gauge.Child stateGauge;
+
+    /** Counter of calls rejected while open */
+    private Counter.Child rejectedCounter;
+
+    /** Current state */
+    private volatile CircuitBreakerState state = CircuitBreakerState.CLOSED;
+
+    /** Failure flags for calls in window */
+    private boolean[] failures;
+
+    /** Slow flags for calls in window */
+    private boolean[] slowCalls;
+
+    /** Next position in window */
+    private int windowIndex;
+
+    /** Number of calls recorded in window */
+    private int windowCount;
+
+    /** Number of failures in window */
+    private int failureCount;
+
+    /** Number of slow calls in window */
+    private int slowCount;
+
+    /** Time (ns) at which circuit was opened */
+    private long openedAt;
+
+    /** Probe calls remaining while half-open */
+    private int probesRemaining;
+
+    /** Probe calls that must succeed before closing */
+    private int probesPending;
+
+    /** Incremented on each state change */
+    private long generation;
+
+    public CircuitBreakerClientInterceptor(GrpcCircuitBreakerConfiguration configuration, String target,
+	    Gauge.Child stateGauge, Counter.Child rejectedCounter) {
+	this.configuration = configuration;
+	this.target = target;
+	this.stateGauge = stateGauge;
+	this.rejectedCounter = rejectedCounter;
+	int size = Math.max(1, configuration.getSlidingWindowSize());
+	this.failures = new boolean[size];
+	this.slowCalls = new boolean[size];
+	stateGauge.set(CircuitBreakerState.CLOSED.getMetricValue());
+    }
+
+    /*
+     * @see io.grpc.ClientInterceptor#interceptCall(io.grpc.MethodDescriptor,
+     * io.grpc.CallOptions, io.grpc.Channel)
+     */
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+	    CallOptions callOptions, Channel next) {
+	if (method.getType() != MethodType.UNARY) {
+	    return next.newCall(method, callOptions);
+	}
+	return new GuardedClientCall<ReqT, RespT>(method, callOptions, next);
+    }
+
+    /**
+     * Indicates whether a status indicates the remote service is unhealthy.
+     * Application errors are considered successful calls.
+     * 
+     * @param status
+     * @return
+     */
+    protected boolean isFailure(Status status) {
+	switch (status.getCode()) {
+	case UNAVAILABLE:
+	case DEADLINE_EXCEEDED:
+	case RESOURCE_EXHAUSTED:
+	    return true;
+	default:
+	    return false;
+	}
+    }
+
+    /**
+     * Check whether a call may proceed, moving from open to half-open once the
+     * wait period has elapsed.
+     * 
+     * @return generation in which call was admitted or -1 if not permitted
+     */
+    protected synchronized long tryAcquirePermission() {
+	switch (state) {
+	case CLOSED: {
+	    return generation;
+	}
+	case OPEN: {
+	    if (!isWaitElapsed()) {
+		return -1;
+	    }
+	    int probes = Math.max(1, configuration.getPermittedCallsInHalfOpenState());
+	    this.probesRemaining = probes - 1;
+	    this.probesPending = probes;
+	    transitionTo(CircuitBreakerState.HALF_OPEN);
+	    return generation;
+	}
+	case HALF_OPEN: {
+	    if (probesRemaining > 0) {
+		probesRemaining--;
+		return generation;
+	    }
+	    return -1;
+	}
+	default:
+	    return -1;
+	}
+    }
+
+    /**
+     * Return a permission for a call that could not be started.
+     * 
+     * @param admitted
+     */
+    protected synchronized void releasePermission(long admitted) {
+	if (admitted == generation && state == CircuitBreakerState.HALF_OPEN) {
+	    probesRemaining++;
+	}
+    }
+
+    /**
+     * Record result of a completed call and update state. Results of calls
+     * admitted in an earlier generation are ignored.
+     * 
+     * @param admitted
+     * @param failed
+     * @param slow
+     */
+    protected synchronized void recordResult(long admitted, boolean failed, boolean slow) {
+	if (admitted != generation) {
+	    return;
+	}
+	switch (state) {
+	case CLOSED: {
+	    if (windowCount == failures.length) {
+		failureCount -= failures[windowIndex] ? 1 : 0;
+		slowCount -= slowCalls[windowIndex] ? 1 : 0;
+	    } else {
+		windowCount++;
+	    }
+	    failures[windowIndex] = failed;
+	    slowCalls[windowIndex] = slow;
+	    failureCount += failed ? 1 : 0;
+	    slowCount += slow ? 1 : 0;
+	    windowIndex = (windowIndex + 1) % failures.length;
+	    if (windowCount >= configuration.getMinimumNumberOfCalls() && isThresholdExceeded()) {
+		open();
+	    }
+	    break;
+	}
+	case HALF_OPEN: {
+	    if (failed || slow) {
+		open();
+	    } else if (--probesPending == 0) {
+		resetWindow();
+		transitionTo(CircuitBreakerState.CLOSED);
+	    }
+	    break;
+	}
+	default:
+	}
+    }
+
+    /**
+     * Indicates whether failure or slow-call rate exceeds threshold.
+     * 
+     * @return
+     */
+    protected boolean isThresholdExceeded() {
+	double failureRate = (failureCount * 100.0) / windowCount;
+	double slowRate = (slowCount * 100.0) / windowCount;
+	return (failureRate >= configuration.getFailureRateThreshold())
+		|| (slowRate >= configuration.getSlowCallRateThreshold());
+    }
+
+    /**
+     * Open circuit.
+     */
+    protected void open() {
+	this.openedAt = System.nanoTime();
+	resetWindow();
+	transitionTo(CircuitBreakerState.OPEN);
+    }
+
+    /**
+     * Clear recorded results.
+     */
+    protected void resetWindow() {
+	this.windowIndex = 0;
+	this.windowCount = 0;
+	this.failureCount = 0;
+	this.slowCount = 0;
+    }
+
+    /**
+     * Indicates whether the open wait period has elapsed.
+     * 
+     * @return
+     */
+    protected boolean isWaitElapsed() {
+	return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - openedAt) >= configuration
+		.getWaitDurationInOpenStateMillis();
+    }
+
+    /**
+     * Change state and update metric.
+     * 
+     * @param updated
+     */
+    protected void transitionTo(CircuitBreakerState updated) {
+	if (state != updated) {
+	    LOGGER.info(String.format("Circuit breaker for '%s' changed from %s to %s.", target,
+		    state.name(), updated.name()));
+	    this.state = updated;
+	    this.generation++;
+	    stateGauge.set(updated.getMetricValue());
+	}
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.grpc.IGrpcCircuitBreaker#getState()
+     */
+    @Override
+    public CircuitBreakerState getState() {
+	return state;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.grpc.IGrpcCircuitBreaker#
+     * isCallPermitted()
+     */
+    @Override
+    public synchronized boolean isCallPermitted() {
+	switch (state) {
+	case CLOSED:
+	    return true;
+	case OPEN:
+	    return isWaitElapsed();
+	case HALF_OPEN:
+	    return probesRemaining > 0;
+	default:
+	    return false;
+	}
+    }
+
+    public GrpcCircuitBreakerConfiguration getConfiguration() {
+	return configuration;
+    }
+
+    /**
+     * Unary call that takes permission from the circuit breaker when started. The
+     * underlying call is only created once permission is granted and the result
+     * is recorded against the generation in which it was admitted.
+     *
+     * @param <ReqT>
+     * @param <RespT>
+     */
+    private class GuardedClientCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+	/** Method being called */
+	private MethodDescriptor<ReqT, RespT> method;
+
+	/** Call options */
+	private CallOptions callOptions;
+
+	/** Next channel in chain */
+	private Channel next;
+
+	/** Call created on start */
+	private ClientCall<ReqT, RespT> delegate;
+
+	public GuardedClientCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+	    this.method = method;
+	    this.callOptions = callOptions;
+	    this.next = next;
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#start(io.grpc.ClientCall.Listener,
+	 * io.grpc.Metadata)
+	 */
+	@Override
+	public void start(Listener<RespT> responseListener, Metadata headers) {
+	    final long admitted = tryAcquirePermission();
+	    if (admitted < 0) {
+		rejectedCounter.inc();
+		this.delegate = new RejectedClientCall<ReqT, RespT>(Status.UNAVAILABLE
+			.withDescription(String.format("Circuit breaker for '%s' is open.", target)),
+			callOptions.getExecutor());
+		delegate.start(responseListener, headers);
+		return;
+	    }
+	    final long start = System.nanoTime();
+	    try {
+		this.delegate = next.newCall(method, callOptions);
+		delegate.start(new SimpleForwardingClientCallListener<RespT>(responseListener) {
+
+		    /*
+		     * @see io.grpc.ForwardingClientCallListener#onClose(io.grpc.Status,
+		     * io.grpc.Metadata)
+		     */
+		    @Override
+		    public void onClose(Status status, Metadata trailers) {
+			long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			recordResult(admitted, isFailure(status), elapsed > configuration.getSlowCallDurationMillis());
+			super.onClose(status, trailers);
+		    }
+		}, headers);
+	    } catch (RuntimeException e) {
+		releasePermission(admitted);
+		throw e;
+	    }
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#request(int)
+	 */
+	@Override
+	public void request(int numMessages) {
+	    delegate.request(numMessages);
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#cancel(java.lang.String, java.lang.Throwable)
+	 */
+	@Override
+	public void cancel(String message, Throwable cause) {
+	    if (delegate != null) {
+		delegate.cancel(message, cause);
+	    }
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#halfClose()
+	 */
+	@Override
+	public void halfClose() {
+	    delegate.halfClose();
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#sendMessage(java.lang.Object)
+	 */
+	@Override
+	public void sendMessage(ReqT message) {
+	    delegate.sendMessage(message);
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#isReady()
+	 */
+	@Override
+	public boolean isReady() {
+	    return (delegate != null) && delegate.isReady();
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#setMessageCompression(boolean)
+	 */
+	@Override
+	public void setMessageCompression(boolean enabled) {
+	    delegate.setMessageCompression(enabled);
+	}
+    }
+
+    /**
+     * Call that is closed with an error without reaching the remote service.
+     * The listener is closed from the call executor after start returns, as
+     * required by the {@link ClientCall} contract.
+     *
+     * @param <ReqT>
+     * @param <RespT>
+     */
+    private static class RejectedClientCall<ReqT, RespT> extends ClientCall<ReqT, RespT> {
+
+	/** Status reported to listener */
+	private Status status;
+
+	/** Executor used to close listener */
+	private Executor executor;
+
+	public RejectedClientCall(Status status, Executor executor) {
+	    this.status = status;
+	    this.executor = (executor != null) ? executor : ForkJoinPool.commonPool();
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#start(io.grpc.ClientCall.Listener,
+	 * io.grpc.Metadata)
+	 */
+	@Override
+	public void start(Listener<RespT> responseListener, Metadata headers) {
+	    executor.execute(() -> responseListener.onClose(status, new Metadata()));
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#request(int)
+	 */
+	@Override
+	public void request(int numMessages) {
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#cancel(java.lang.String, java.lang.Throwable)
+	 */
+	@Override
+	public void cancel(String message, Throwable cause) {
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#halfClose()
+	 */
+	@Override
+	public void halfClose() {
+	}
+
+	/*
+	 * @see io.grpc.ClientCall#sendMessage(java.lang.Object)
+	 */
+	@Override
+	public void sendMessage(ReqT message) {
+	}
+    }
+}
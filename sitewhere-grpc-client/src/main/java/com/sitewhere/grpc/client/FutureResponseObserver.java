@@ -0,0 +1,128 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.sitewhere.spi.SiteWhereException;
+
+import io.grpc.MethodDescriptor;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Adapts a unary gRPC call made on an async stub to a
+ * {@link CompletableFuture}. The gRPC response is converted to the API model
+ * using the same converters as the blocking calls and errors are translated
+ * via {@link GrpcUtils#handleClientMethodException(MethodDescriptor, Throwable)}
+ * so callers see the same exceptions in both cases.
+ *
+ * @param <G> gRPC response type
+ * @param <R> API response type
+ */
+public class FutureResponseObserver<G, R> implements StreamObserver<G> {
+
+    /** Method being invoked */
+    private MethodDescriptor<?, ?> method;
+
+    /** Converts gRPC response to API response */
+    private IResponseConverter<G, R> converter;
+
+    /** Future completed with converted response */
+    private CompletableFuture<R> future = new CompletableFuture<>();
+
+    /** Last response received */
+    private G response;
+
+    public FutureResponseObserver(MethodDescriptor<?, ?> method, IResponseConverter<G, R> converter) {
+	this.method = method;
+	this.converter = converter;
+    }
+
+    /**
+     * Create a future that has already failed with the translated exception. Used
+     * when the request can not be built or sent.
+     * 
+     * @param method
+     * @param t
+     * @return
+     */
+    public static <R> CompletableFuture<R> failed(MethodDescriptor<?, ?> method, Throwable t) {
+	CompletableFuture<R> failed = new CompletableFuture<>();
+	failed.completeExceptionally(GrpcUtils.handleClientMethodException(method, t));
+	return failed;
+    }
+
+    /*
+     * @see io.grpc.stub.StreamObserver#onNext(java.lang.Object)
+     */
+    @Override
+    public void onNext(G value) {
+	this.response = value;
+    }
+
+    /*
+     * @see io.grpc.stub.StreamObserver#onError(java.lang.Throwable)
+     */
+    @Override
+    public void onError(Throwable t) {
+	getFuture().completeExceptionally(GrpcUtils.handleClientMethodException(getMethod(), t));
+    }
+
+    /*
+     * @see io.grpc.stub.StreamObserver#onCompleted()
+     */
+    @Override
+    public void onCompleted() {
+	try {
+	    R converted = getConverter().convert(response);
+	    GrpcUtils.logClientMethodResponse(getMethod(), converted);
+	    getFuture().complete(converted);
+	} catch (Throwable t) {
+	    getFuture().completeExceptionally(GrpcUtils.handleClientMethodException(getMethod(), t));
+	}
+    }
+
+    /**
+     * Converts a gRPC response into the corresponding API response.
+     *
+     * @param <G>
+     * @param <R>
+     */
+    @FunctionalInterface
+    public static interface IResponseConverter<G, R> {
+
+	/**
+	 * Convert gRPC response to API response.
+	 * 
+	 * @param gresponse
+	 * @return
+	 * @throws SiteWhereException
+	 */
+	public R convert(G gresponse) throws SiteWhereException;
+    }
+
+    public MethodDescriptor<?, ?> getMethod() {
+	return method;
+    }
+
+    public IResponseConverter<G, R> getConverter() {
+	return converter;
+    }
+
+    public CompletableFuture<R> getFuture() {
+	return future;
+    }
+}
@@ -15,18 +15,23 @@
  */
 package com.sitewhere.grpc.client;
 
-import java.net.InetAddress;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import com.sitewhere.grpc.client.spi.IGrpcChannel;
+import com.sitewhere.microservice.configuration.model.instance.infrastructure.GrpcCircuitBreakerConfiguration;
 import com.sitewhere.microservice.configuration.model.instance.infrastructure.GrpcConfiguration;
+import com.sitewhere.microservice.configuration.model.instance.infrastructure.GrpcMethodConfiguration;
+import com.sitewhere.microservice.grpc.GrpcCompression;
+import com.sitewhere.microservice.grpc.GrpcEventLoops;
+import com.sitewhere.microservice.grpc.KubernetesNameResolverProvider;
 import com.sitewhere.microservice.lifecycle.TenantEngineLifecycleComponent;
 import com.sitewhere.microservice.util.MarshalUtils;
 import com.sitewhere.spi.SiteWhereException;
@@ -35,8 +40,12 @@ import com.sitewhere.spi.microservice.grpc.IGrpcServiceIdentifier;
 import com.sitewhere.spi.microservice.instance.IInstanceSettings;
 import com.sitewhere.spi.microservice.lifecycle.ILifecycleProgressMonitor;
 
+import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
 import io.grpc.netty.NettyChannelBuilder;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
 
 /**
  * Management wrapper for a GRPC channel.
@@ -46,11 +55,20 @@ import io.grpc.netty.NettyChannelBuilder;
  */
 public abstract class GrpcChannel<B, A> extends TenantEngineLifecycleComponent implements IGrpcChannel<B, A> {
 
-    /** Number of seconds between DNS checks */
-    protected static final int DNS_CHECK_INTERVAL_SECS = 5;
+    /** Load balancing policy used when client load balancing is enabled */
+    protected static final String LOAD_BALANCING_POLICY = "round_robin";
 
-    /** Numer of retries for DNS checks */
-    protected static final int DNS_CHECK_RETRIES = 8;
+    /** Time to wait for channel to terminate before releasing event loops */
+    private static final long SHUTDOWN_TIMEOUT_SECS = 10;
+
+    /** Metric for circuit breaker state (0 closed, 1 half-open, 2 open) */
+    private static final Gauge CIRCUIT_BREAKER_STATE = createGaugeMetric("grpc_client_circuit_breaker_state",
+	    "State of gRPC client circuit breaker (0 closed, 1 half-open, 2 open)", "service");
+
+    /** Metric for calls rejected by circuit breaker */
+    private static final Counter CIRCUIT_BREAKER_REJECTED = createCounterMetric(
+	    "grpc_client_circuit_breaker_rejected_calls", "Count of gRPC client calls rejected by open circuit",
+	    "service");
 
     /** Instance settings */
     protected IInstanceSettings instanceSettings;
@@ -76,17 +94,32 @@ public abstract class GrpcChannel<B, A> extends TenantEngineLifecycleComponent i
     /** Asynchronous stub */
     protected A asyncStub;
 
-    /** Indicates whether DNS is currently verifying */
-    protected CountDownLatch dnsVerifying = new CountDownLatch(2);
+    /** Completed when channel becomes ready. Replaced if connection is lost */
+    protected volatile CompletableFuture<Void> readiness = new CompletableFuture<>();
+
+    /** Client interceptor for adding credentials of current user */
+    protected AuthenticationClientInterceptor authenticationInterceptor;
+
+    /** Client interceptor that tracks in-flight calls and latency */
+    protected CallMonitorClientInterceptor callMonitor;
+
+    /** Client interceptor that logs outgoing calls */
+    protected CallLoggingClientInterceptor callLogger;
 
-    /** Tracks whether DNS is verification succeeded */
-    protected AtomicBoolean dnsVerified = new AtomicBoolean(false);
+    /** Client interceptor that records call metrics */
+    protected MetricsClientInterceptor metricsInterceptor;
 
-    /** Client interceptor for adding JWT from Spring Security context */
-    protected JwtClientInterceptor jwtInterceptor;
+    /** Compression used for this channel (null to use configured default) */
+    protected String compression;
 
-    /** Thread for DNS resolution */
-    protected ExecutorService dnsExecutor = Executors.newSingleThreadExecutor();
+    /** Client interceptor that applies compression and message size limits */
+    protected MessageOptionsClientInterceptor messageOptionsInterceptor;
+
+    /** Client interceptor that fails fast when remote service is unhealthy */
+    protected CircuitBreakerClientInterceptor circuitBreaker;
+
+    /** Indicates whether shared event loops have been acquired */
+    private boolean eventLoopsAcquired;
 
     public GrpcChannel(IInstanceSettings instanceSettings, IFunctionIdentifier functionIdentifier,
 	    IGrpcServiceIdentifier grpcServiceIdentifier, int port) {
@@ -96,7 +129,9 @@ public abstract class GrpcChannel<B, A> extends TenantEngineLifecycleComponent i
 	this.hostname = GrpcChannel.computeHostname(instanceSettings, functionIdentifier);
 	this.port = port;
 
-	this.jwtInterceptor = new JwtClientInterceptor();
+	this.authenticationInterceptor = new AuthenticationClientInterceptor(false);
+	this.callMonitor = new CallMonitorClientInterceptor();
+	this.callLogger = new CallLoggingClientInterceptor(getClass().getSimpleName(), functionIdentifier.getPath());
     }
 
     /**
@@ -119,12 +154,21 @@ public abstract class GrpcChannel<B, A> extends TenantEngineLifecycleComponent i
     @Override
     public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
 	try {
-	    NettyChannelBuilder builder = NettyChannelBuilder.forAddress(getHostname(), getPort());
-	    builder.defaultServiceConfig(buildServiceConfiguration()).enableRetry().disableServiceConfigLookUp();
-	    builder.usePlaintext().intercept(getJwtInterceptor());
-	    this.channel = builder.build();
+	    if (!eventLoopsAcquired) {
+		GrpcEventLoops.acquire(getGrpcConfiguration().getEventLoopThreads());
+		this.eventLoopsAcquired = true;
+	    }
+	    this.messageOptionsInterceptor = createMessageOptionsInterceptor();
+	    this.circuitBreaker = createCircuitBreaker();
+	    this.metricsInterceptor = createMetricsInterceptor();
+	    this.channel = buildManagedChannel();
 	    this.blockingStub = createBlockingStub();
 	    this.asyncStub = createAsyncStub();
+
+	    // Readiness of a previous channel may have failed when it was shut down.
+	    this.readiness = new CompletableFuture<>();
+	    getChannel().getState(true);
+	    watchConnectivity(getChannel());
 	    getLogger().info(
 		    String.format("Creating gRPC client channel connected to %s:%d ...", getHostname(), getPort()));
 	} catch (Throwable t) {
@@ -133,41 +177,263 @@ public abstract class GrpcChannel<B, A> extends TenantEngineLifecycleComponent i
     }
 
     /**
-     * Build service configuration that enables retry support.
+     * Build managed channel. When a pool size greater than one is configured, a
+     * {@link ManagedChannelPool} is created that spreads calls across several
+     * connections.
+     * 
+     * @return
+     */
+    protected ManagedChannel buildManagedChannel() {
+	Map<String, Object> serviceConfig = buildServiceConfiguration();
+	int poolSize = Math.max(1, getGrpcConfiguration().getChannelPoolSize());
+	if (poolSize == 1) {
+	    return createChannelBuilder(serviceConfig).build();
+	}
+	List<ManagedChannel> channels = new ArrayList<>();
+	for (int i = 0; i < poolSize; i++) {
+	    channels.add(createChannelBuilder(serviceConfig).build());
+	}
+	getLogger().info(String.format("Using pool of %d channels for %s:%d.", poolSize, getHostname(), getPort()));
+	return new ManagedChannelPool(channels);
+    }
+
+    /**
+     * Create builder for a single channel. If client load balancing is enabled,
+     * calls are balanced across all pod addresses of the service, taken either
+     * from its Kubernetes endpoints or from DNS (which requires a headless
+     * service to expose individual pods).
+     * 
+     * @param serviceConfig
+     * @return
+     */
+    protected ManagedChannelBuilder<?> createChannelBuilder(Map<String, Object> serviceConfig) {
+	NettyChannelBuilder builder;
+	if (getGrpcConfiguration().isClientLoadBalancing()) {
+	    builder = NettyChannelBuilder.forTarget(getLoadBalancedTarget());
+	    builder.defaultLoadBalancingPolicy(LOAD_BALANCING_POLICY);
+	} else {
+	    builder = NettyChannelBuilder.forAddress(getHostname(), getPort());
+	}
+	GrpcEventLoops.configure(builder);
+	builder.defaultServiceConfig(serviceConfig).enableRetry().disableServiceConfigLookUp();
+	configureMessageHandling(builder);
+	configureConnectionManagement(builder);
+	builder.usePlaintext().intercept(getAuthenticationInterceptor()).intercept(getCallMonitor())
+		.intercept(getMetricsInterceptor());
+	configureCircuitBreaker(builder);
+	return builder;
+    }
+
+    /**
+     * Create interceptor that applies compression and message size limits to
+     * each call. A compression set on the channel takes precedence over the
+     * configured default.
+     * 
+     * @return
+     */
+    protected MessageOptionsClientInterceptor createMessageOptionsInterceptor() {
+	GrpcConfiguration grpc = getGrpcConfiguration();
+	String compression = getCompression() != null ? GrpcCompression.getCompression(getCompression())
+		: GrpcCompression.getCompression(grpc);
+	return new MessageOptionsClientInterceptor(compression, grpc.getMaxInboundMessageSize(),
+		grpc.getMaxOutboundMessageSize());
+    }
+
+    /**
+     * Register available codecs with the builder so that compressed responses
+     * can be decoded, and add interceptors that set message options for calls
+     * and log them.
+     * 
+     * @param builder
+     */
+    protected void configureMessageHandling(ManagedChannelBuilder<?> builder) {
+	builder.compressorRegistry(GrpcCompression.getCompressorRegistry());
+	builder.decompressorRegistry(GrpcCompression.getDecompressorRegistry());
+	builder.intercept(getMessageOptionsInterceptor()).intercept(getCallLogger());
+    }
+
+    /**
+     * Configure keep-alive pings and idle timeout so that connections are not
+     * silently dropped by intermediate load balancers and are kept open between
+     * bursts of calls.
+     * 
+     * @param builder
+     */
+    protected void configureConnectionManagement(NettyChannelBuilder builder) {
+	GrpcConfiguration grpc = getGrpcConfiguration();
+	if (grpc.getKeepAliveTimeSeconds() > 0) {
+	    builder.keepAliveTime(grpc.getKeepAliveTimeSeconds(), TimeUnit.SECONDS);
+	    builder.keepAliveTimeout(grpc.getKeepAliveTimeoutSeconds(), TimeUnit.SECONDS);
+	    builder.keepAliveWithoutCalls(grpc.isKeepAliveWithoutCalls());
+	}
+	if (grpc.getIdleTimeoutSeconds() > 0) {
+	    builder.idleTimeout(grpc.getIdleTimeoutSeconds(), TimeUnit.SECONDS);
+	}
+    }
+
+    /**
+     * Create interceptor that records call metrics. Channels bound to a tenant
+     * engine label calls with its tenant, while other channels use the tenant of
+     * the calling user.
+     * 
+     * @return
+     */
+    protected MetricsClientInterceptor createMetricsInterceptor() {
+	String[] labels = buildChannelLabels();
+	String tenant = getTenantEngine() != null ? labels[2] : null;
+	return new MetricsClientInterceptor(labels[0], labels[1], tenant);
+    }
+
+    /**
+     * Create circuit breaker for calls on the channel. Returns null if circuit
+     * breaking is disabled.
+     * 
+     * @return
+     */
+    protected CircuitBreakerClientInterceptor createCircuitBreaker() {
+	GrpcCircuitBreakerConfiguration config = getGrpcConfiguration().getCircuitBreaker();
+	if (config == null || !config.isEnabled()) {
+	    return null;
+	}
+	String[] labels = buildChannelLabels(getGrpcServiceIdentifier().getGrpcServiceName());
+	return new CircuitBreakerClientInterceptor(config, String.format("%s:%d", getHostname(), getPort()),
+		CIRCUIT_BREAKER_STATE.labels(labels), CIRCUIT_BREAKER_REJECTED.labels(labels));
+    }
+
+    /**
+     * Add circuit breaker as outermost interceptor so that rejected calls do not
+     * reach other interceptors.
+     * 
+     * @param builder
+     */
+    protected void configureCircuitBreaker(ManagedChannelBuilder<?> builder) {
+	if (getCircuitBreaker() != null) {
+	    builder.intercept(getCircuitBreaker());
+	}
+    }
+
+    /**
+     * Build metric label values for the channel. Channels not bound to a tenant
+     * engine report an empty tenant.
+     * 
+     * @param labels
+     * @return
+     */
+    protected String[] buildChannelLabels(String... labels) {
+	if (getTenantEngine() != null) {
+	    return buildLabels(labels);
+	}
+	List<String> all = new ArrayList<>(Arrays.asList(labels));
+	all.add(0, "");
+	all.add(0, getMicroservice().getInstanceSettings().getKubernetesPodAddress());
+	all.add(0, getMicroservice().getIdentifier().getPath());
+	return all.toArray(new String[all.size()]);
+    }
+
+    /**
+     * Get target used when client load balancing is enabled. If endpoint
+     * discovery is enabled, addresses are taken from the Kubernetes endpoints of
+     * the service. Otherwise the hostname is resolved via DNS.
+     * 
+     * @return
+     */
+    protected String getLoadBalancedTarget() {
+	if (getGrpcConfiguration().isEndpointDiscovery() && KubernetesNameResolverProvider.isRegistered()) {
+	    return KubernetesNameResolverProvider.getTarget(getHostname(), getPort());
+	}
+	return String.format("dns:///%s:%d", getHostname(), getPort());
+    }
+
+    /**
+     * Get gRPC settings from instance configuration.
+     * 
+     * @return
+     */
+    protected GrpcConfiguration getGrpcConfiguration() {
+	return getMicroservice().getInstanceConfiguration().getInfrastructure().getGrpc();
+    }
+
+    /**
+     * Build service configuration that enables retry support and applies any
+     * per-method deadlines, retry and hedging policies.
      * 
      * @return
      */
     protected Map<String, Object> buildServiceConfiguration() {
+	String serviceName = getGrpcServiceIdentifier().getGrpcServiceName();
+	GrpcMethodConfiguration serviceOverride = null;
+	List<Object> methodConfigs = new ArrayList<>();
+	for (GrpcMethodConfiguration override : getMethodOverrides()) {
+	    if (!serviceName.equals(override.getService())) {
+		continue;
+	    }
+	    if (override.getMethod() == null) {
+		serviceOverride = override;
+	    } else {
+		methodConfigs.add(buildMethodConfiguration(override.getMethod(), override));
+	    }
+	}
+	methodConfigs.add(0, buildMethodConfiguration(null, serviceOverride));
+
 	Map<String, Object> serviceConfig = new HashMap<>();
-	serviceConfig.put("methodConfig", Collections.<Object>singletonList(buildMethodConfiguration()));
+	serviceConfig.put("methodConfig", methodConfigs);
 	getLogger().info(
 		"Channel using service configuration:\n\n" + MarshalUtils.marshalJsonAsPrettyString(serviceConfig));
 	return serviceConfig;
     }
 
     /**
-     * Build service configuration that enables retry support.
+     * Get configured method overrides.
+     * 
+     * @return
+     */
+    protected List<GrpcMethodConfiguration> getMethodOverrides() {
+	List<GrpcMethodConfiguration> methods = getGrpcConfiguration().getMethods();
+	return methods != null ? methods : Collections.emptyList();
+    }
+
+    /**
+     * Build method configuration for the service or for a single method. The
+     * override may be null, in which case defaults are used.
      * 
+     * @param method
+     * @param override
      * @return
      */
-    protected Map<String, Object> buildMethodConfiguration() {
+    protected Map<String, Object> buildMethodConfiguration(String method, GrpcMethodConfiguration override) {
 	Map<String, Object> methodConfig = new HashMap<>();
 	Map<String, Object> name = new HashMap<>();
 	name.put("service", getGrpcServiceIdentifier().getGrpcServiceName());
+	if (method != null) {
+	    name.put("method", method);
+	}
 	methodConfig.put("name", Collections.<Object>singletonList(name));
-	methodConfig.put("retryPolicy", buildRetryPolicy());
+
+	long timeoutMillis = (override != null && override.getTimeoutMillis() > 0) ? override.getTimeoutMillis()
+		: getGrpcConfiguration().getDefaultTimeoutMillis();
+	if (timeoutMillis > 0) {
+	    methodConfig.put("timeout", formatDuration(timeoutMillis));
+	}
+	if (override != null && override.isHedging()) {
+	    methodConfig.put("hedgingPolicy", buildHedgingPolicy(override));
+	} else {
+	    methodConfig.put("retryPolicy", buildRetryPolicy(override));
+	}
 	return methodConfig;
     }
 
     /**
      * Configure retry policy.
      * 
+     * @param override
      * @return
      */
-    protected Map<String, Object> buildRetryPolicy() {
-	GrpcConfiguration grpc = getMicroservice().getInstanceConfiguration().getInfrastructure().getGrpc();
+    protected Map<String, Object> buildRetryPolicy(GrpcMethodConfiguration override) {
+	GrpcConfiguration grpc = getGrpcConfiguration();
 	Map<String, Object> retryPolicy = new HashMap<>();
-	retryPolicy.put("maxAttempts", grpc.getMaxRetryCount());
+	retryPolicy.put("maxAttempts", (override != null && override.getMaxRetryCount() != null)
+		? override.getMaxRetryCount()
+		: grpc.getMaxRetryCount());
 	retryPolicy.put("initialBackoff", String.format("%ds", grpc.getInitialBackoffSeconds()));
 	retryPolicy.put("maxBackoff", String.format("%ds", grpc.getMaxBackoffSeconds()));
 	retryPolicy.put("backoffMultiplier", grpc.getBackoffMultiplier());
@@ -175,6 +441,31 @@ public abstract class GrpcChannel<B, A> extends TenantEngineLifecycleComponent i
 	return retryPolicy;
     }
 
+    /**
+     * Configure hedging policy. Hedged attempts are sent after the configured
+     * delay if no response has arrived, and the first response wins.
+     * 
+     * @param override
+     * @return
+     */
+    protected Map<String, Object> buildHedgingPolicy(GrpcMethodConfiguration override) {
+	Map<String, Object> hedgingPolicy = new HashMap<>();
+	hedgingPolicy.put("maxAttempts", (double) override.getMaxHedgedAttempts());
+	hedgingPolicy.put("hedgingDelay", formatDuration(override.getHedgingDelayMillis()));
+	hedgingPolicy.put("nonFatalStatusCodes", Arrays.<Object>asList("UNAVAILABLE"));
+	return hedgingPolicy;
+    }
+
+    /**
+     * Format milliseconds as a service configuration duration.
+     * 
+     * @param millis
+     * @return
+     */
+    protected static String formatDuration(long millis) {
+	return BigDecimal.valueOf(millis).movePointLeft(3).toPlainString() + "s";
+    }
+
     /*
      * @see
      * com.sitewhere.server.lifecycle.LifecycleComponent#stop(com.sitewhere.spi.
@@ -184,6 +475,33 @@ public abstract class GrpcChannel<B, A> extends TenantEngineLifecycleComponent i
     public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
 	if (getChannel() != null) {
 	    getChannel().shutdown();
+	    awaitTermination(getChannel());
+	}
+	if (eventLoopsAcquired) {
+	    GrpcEventLoops.release();
+	    this.eventLoopsAcquired = false;
+	}
+    }
+
+    /**
+     * Wait for a channel to terminate so that no transports are using the shared
+     * event loops when they are released. Calls still in progress after the
+     * timeout are cancelled.
+     * 
+     * @param channel
+     */
+    protected void awaitTermination(ManagedChannel channel) {
+	try {
+	    if (!channel.awaitTermination(SHUTDOWN_TIMEOUT_SECS, TimeUnit.SECONDS)) {
+		getLogger().warn(String.format("gRPC channel to %s:%d did not terminate in %d seconds.", getHostname(),
+			getPort(), SHUTDOWN_TIMEOUT_SECS));
+		channel.shutdownNow();
+		channel.awaitTermination(SHUTDOWN_TIMEOUT_SECS, TimeUnit.SECONDS);
+	    }
+	} catch (InterruptedException e) {
+	    getLogger().warn("Interrupted while waiting for gRPC channel to terminate.", e);
+	    channel.shutdownNow();
+	    Thread.currentThread().interrupt();
 	}
     }
 
@@ -204,11 +522,7 @@ public abstract class GrpcChannel<B, A> extends TenantEngineLifecycleComponent i
      */
     @Override
     public B getBlockingStub() {
-	if (isDnsValid()) {
-	    return blockingStub;
-	} else {
-	    throw new RuntimeException("Unable to invoke gRPC operation. DNS check failed.");
-	}
+	return blockingStub;
     }
 
     public void setBlockingStub(B blockingStub) {
@@ -220,11 +534,7 @@ public abstract class GrpcChannel<B, A> extends TenantEngineLifecycleComponent i
      */
     @Override
     public A getAsyncStub() {
-	if (isDnsValid()) {
-	    return asyncStub;
-	} else {
-	    throw new RuntimeException("Unable to invoke gRPC operation. DNS check failed.");
-	}
+	return asyncStub;
     }
 
     public void setAsyncStub(A asyncStub) {
@@ -244,75 +554,104 @@ public abstract class GrpcChannel<B, A> extends TenantEngineLifecycleComponent i
     public abstract A createAsyncStub();
 
     /**
-     * Check whether DNS is valid.
+     * Track connectivity state changes for the channel. Calls are never blocked
+     * waiting for the channel. They fail fast with UNAVAILABLE while the channel
+     * is in transient failure and are covered by the retry policy, while callers
+     * that need to wait can use the readiness future.
      * 
-     * @return
+     * @param channel
      */
-    protected boolean isDnsValid() {
-	if (getDnsVerified().get()) {
-	    return true;
+    protected void watchConnectivity(ManagedChannel channel) {
+	ConnectivityState state = channel.getState(false);
+	onConnectivityStateChanged(state);
+	if (state != ConnectivityState.SHUTDOWN) {
+	    channel.notifyWhenStateChanged(state, () -> watchConnectivity(channel));
 	}
-	if (getDnsVerifying().getCount() == 2) {
-	    getDnsExecutor().execute(new DnsVerifier());
-	}
-	try {
-	    getDnsVerifying().await();
-	} catch (InterruptedException e) {
-	    return false;
-	}
-	return getDnsVerified().get();
     }
 
     /**
-     * Attempts to check DNS with a given number of retries.
-     */
-    private class DnsVerifier implements Runnable {
-
-	@Override
-	public void run() {
-	    getDnsVerifying().countDown();
-	    try {
-		int retries = DNS_CHECK_RETRIES;
-		while (retries > 0) {
-		    try {
-			InetAddress.getByName(getHostname());
-			getLogger().info(String.format("Resolved DNS for '%s'", getHostname()));
-			getDnsVerified().set(true);
-			return;
-		    } catch (Throwable e) {
-			getLogger().debug(String.format("Unable to resolve DNS for '%s'", getHostname()), e);
-		    }
-		    getLogger().info(String.format("Waiting for DNS to resolve '%s'", getHostname()));
-		    try {
-			Thread.sleep(5000);
-		    } catch (InterruptedException e) {
-			getDnsVerified().set(false);
-			return;
-		    }
-
-		    retries--;
-		}
-		getDnsVerified().set(false);
-	    } finally {
-		getDnsVerifying().countDown();
+     * Update readiness based on a new connectivity state.
+     * 
+     * @param state
+     */
+    protected void onConnectivityStateChanged(ConnectivityState state) {
+	switch (state) {
+	case READY: {
+	    if (getReadiness().complete(null)) {
+		getLogger().info(String.format("gRPC channel to '%s:%d' is ready.", getHostname(), getPort()));
+	    }
+	    break;
+	}
+	case TRANSIENT_FAILURE: {
+	    if (getReadiness().isDone()) {
+		this.readiness = new CompletableFuture<>();
+		getLogger().warn(String.format("gRPC channel to '%s:%d' lost connection.", getHostname(), getPort()));
 	    }
+	    break;
+	}
+	case SHUTDOWN: {
+	    getReadiness().completeExceptionally(new ApiChannelNotAvailableException(
+		    String.format("gRPC channel to '%s:%d' was shut down.", getHostname(), getPort())));
+	    break;
+	}
+	default:
 	}
     }
 
-    public ExecutorService getDnsExecutor() {
-	return dnsExecutor;
+    /*
+     * @see com.sitewhere.grpc.client.spi.IGrpcChannel#isReady()
+     */
+    @Override
+    public boolean isReady() {
+	return getChannel() != null && getChannel().getState(false) == ConnectivityState.READY;
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.IGrpcChannel#getReadiness()
+     */
+    @Override
+    public CompletableFuture<Void> getReadiness() {
+	return readiness;
+    }
+
+    public AuthenticationClientInterceptor getAuthenticationInterceptor() {
+	return authenticationInterceptor;
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.IGrpcChannel#getCallMonitor()
+     */
+    @Override
+    public CallMonitorClientInterceptor getCallMonitor() {
+	return callMonitor;
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.IGrpcChannel#getCircuitBreaker()
+     */
+    @Override
+    public CircuitBreakerClientInterceptor getCircuitBreaker() {
+	return circuitBreaker;
+    }
+
+    public MetricsClientInterceptor getMetricsInterceptor() {
+	return metricsInterceptor;
+    }
+
+    public CallLoggingClientInterceptor getCallLogger() {
+	return callLogger;
     }
 
-    public CountDownLatch getDnsVerifying() {
-	return dnsVerifying;
+    public MessageOptionsClientInterceptor getMessageOptionsInterceptor() {
+	return messageOptionsInterceptor;
     }
 
-    public AtomicBoolean getDnsVerified() {
-	return dnsVerified;
+    public String getCompression() {
+	return compression;
     }
 
-    public JwtClientInterceptor getJwtInterceptor() {
-	return jwtInterceptor;
+    public void setCompression(String compression) {
+	this.compression = compression;
     }
 
     public IInstanceSettings getInstanceSettings() {
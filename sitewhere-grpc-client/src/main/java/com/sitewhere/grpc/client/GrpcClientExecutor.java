@@ -0,0 +1,184 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.Counter;
+import io.prometheus.client.GaugeMetricFamily;
+
+/**
+ * Executor shared by all multitenant gRPC client channels in a microservice.
+ * The pool is created when the first channel starts and shut down when the
+ * last channel stops. The queue is bounded; when it is full, or after the
+ * executor has been shut down, callbacks are run on the submitting thread.
+ * Callbacks must never be dropped since gRPC discards rejected listener tasks,
+ * which would leave calls waiting forever. Queue depth, thread counts and the
+ * number of callbacks run on the submitting thread are exported as Prometheus
+ * metrics so that overload is visible.
+ */
+public class GrpcClientExecutor {
+
+    /** Static logger instance */
+    private static Logger LOGGER = LoggerFactory.getLogger(GrpcClientExecutor.class);
+
+    /** Number of seconds idle threads are kept alive */
+    private static final long KEEP_ALIVE_SECS = 60;
+
+    /** Counts callbacks run on the submitting thread */
+    private static final Counter CALLER_RUNS = Counter.build()
+	    .name("sitewhere_grpc_client_executor_caller_runs_total")
+	    .help("Number of gRPC client callbacks run on the submitting thread due to overload").register();
+
+    /** Shared executor */
+    private static ThreadPoolExecutor shared;
+
+    /** Number of channels using the shared executor */
+    private static int references;
+
+    /** Indicates whether metrics have been registered */
+    private static boolean metricsRegistered;
+
+    private GrpcClientExecutor() {
+    }
+
+    /**
+     * Get the shared executor, creating it if necessary. Each call must be
+     * matched by a call to {@link #release()}. The thread count and queue size
+     * are fixed by the call that creates the executor, so later calls must pass
+     * the same values while the executor is in use.
+     * 
+     * @param threads
+     * @param queueSize
+     * @return
+     * @throws IllegalArgumentException if values conflict with the existing
+     *                                  executor
+     */
+    public static synchronized ExecutorService acquire(int threads, int queueSize) {
+	if (shared == null) {
+	    shared = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECS, TimeUnit.SECONDS,
+		    new LinkedBlockingQueue<>(queueSize), new ClientThreadFactory(), new CountingCallerRunsPolicy());
+	    shared.allowCoreThreadTimeOut(true);
+	} else {
+	    int existingQueueSize = shared.getQueue().size() + shared.getQueue().remainingCapacity();
+	    if (shared.getCorePoolSize() != threads || existingQueueSize != queueSize) {
+		throw new IllegalArgumentException(String.format(
+			"Shared gRPC client executor already created with %d threads and queue size %d.",
+			shared.getCorePoolSize(), existingQueueSize));
+	    }
+	}
+	if (!metricsRegistered) {
+	    new ExecutorMetrics().register();
+	    metricsRegistered = true;
+	}
+	references++;
+	return shared;
+    }
+
+    /**
+     * Release a reference to the shared executor. The executor is shut down once
+     * no channels are using it.
+     */
+    public static synchronized void release() {
+	if (references > 0 && --references == 0 && shared != null) {
+	    shared.shutdown();
+	    shared = null;
+	}
+    }
+
+    /**
+     * Get the shared executor if one exists.
+     * 
+     * @return
+     */
+    protected static synchronized ThreadPoolExecutor getShared() {
+	return shared;
+    }
+
+    /**
+     * Exports gauges for the shared executor.
+     */
+    private static class ExecutorMetrics extends Collector {
+
+	/*
+	 * @see io.prometheus.client.Collector#collect()
+	 */
+	@Override
+	public List<MetricFamilySamples> collect() {
+	    ThreadPoolExecutor executor = getShared();
+	    if (executor == null) {
+		return Collections.emptyList();
+	    }
+	    return Arrays.asList(
+		    new GaugeMetricFamily("sitewhere_grpc_client_executor_queue_depth",
+			    "Number of gRPC client callbacks waiting for a thread", executor.getQueue().size()),
+		    new GaugeMetricFamily("sitewhere_grpc_client_executor_active_threads",
+			    "Number of threads executing gRPC client callbacks", executor.getActiveCount()),
+		    new GaugeMetricFamily("sitewhere_grpc_client_executor_pool_size",
+			    "Number of threads in the gRPC client executor", executor.getPoolSize()));
+	}
+    }
+
+    /**
+     * Counts callbacks that can not be queued and runs them on the submitting
+     * thread. Unlike {@link ThreadPoolExecutor.CallerRunsPolicy}, callbacks are
+     * also run after the executor has been shut down so that pending calls are
+     * still completed.
+     */
+    private static class CountingCallerRunsPolicy implements RejectedExecutionHandler {
+
+	/*
+	 * @see
+	 * java.util.concurrent.RejectedExecutionHandler#rejectedExecution(java.lang.
+	 * Runnable, java.util.concurrent.ThreadPoolExecutor)
+	 */
+	@Override
+	public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+	    CALLER_RUNS.inc();
+	    if (LOGGER.isDebugEnabled()) {
+		LOGGER.debug(String.format("gRPC client callback run on submitting thread (%d queued, shutdown=%s).",
+			executor.getQueue().size(), executor.isShutdown()));
+	    }
+	    r.run();
+	}
+    }
+
+    /** Used for naming gRPC client threads */
+    private static class ClientThreadFactory implements ThreadFactory {
+
+	/** Counts threads */
+	private AtomicInteger counter = new AtomicInteger();
+
+	public Thread newThread(Runnable r) {
+	    Thread thread = new Thread(r, "gRPC Client " + counter.incrementAndGet());
+	    thread.setDaemon(true);
+	    return thread;
+	}
+    }
+}
@@ -49,22 +49,84 @@ public class GrpcUtils {
     /** Static logger instance */
     private static Logger LOGGER = LoggerFactory.getLogger(GrpcUtils.class);
 
+    /**
+     * Handle entry logic for a gRPC client method. Logging of the outgoing call
+     * is handled by {@link CallLoggingClientInterceptor}, so nothing is done
+     * unless trace logging is enabled.
+     * 
+     * @param channel
+     * @param method
+     */
+    public static void handleClientMethodEntry(IApiChannel<?> channel, MethodDescriptor<?, ?> method) {
+    }
+
+    /**
+     * Handle entry logic for a gRPC client method with a single parameter that
+     * is logged at trace level.
+     * 
+     * @param channel
+     * @param method
+     * @param name
+     * @param content
+     */
+    public static void handleClientMethodEntry(IApiChannel<?> channel, MethodDescriptor<?, ?> method, String name,
+	    Object content) {
+	if (LOGGER.isTraceEnabled()) {
+	    logClientMethodParameter(name, content);
+	}
+    }
+
+    /**
+     * Handle entry logic for a gRPC client method with two parameters that are
+     * logged at trace level.
+     * 
+     * @param channel
+     * @param method
+     * @param name1
+     * @param content1
+     * @param name2
+     * @param content2
+     */
+    public static void handleClientMethodEntry(IApiChannel<?> channel, MethodDescriptor<?, ?> method, String name1,
+	    Object content1, String name2, Object content2) {
+	if (LOGGER.isTraceEnabled()) {
+	    logClientMethodParameter(name1, content1);
+	    logClientMethodParameter(name2, content2);
+	}
+    }
+
+    /**
+     * Handle entry logic for a gRPC client method with parameters that are logged
+     * at trace level. Prefer the fixed-arity variants, which avoid allocating
+     * parameters when trace logging is disabled.
+     * 
+     * @param channel
+     * @param method
+     * @param parameters
+     */
     public static void handleClientMethodEntry(IApiChannel<?> channel, MethodDescriptor<?, ?> method,
 	    DebugParameter... parameters) {
-	LOGGER.debug(channel.getClass().getSimpleName() + " connected to '" + channel.getFunctionIdentifier().getPath()
-		+ "' sending call to  " + method.getFullMethodName() + ".");
 	if (LOGGER.isTraceEnabled()) {
 	    for (DebugParameter parameter : parameters) {
-		if (parameter.getContent() instanceof String) {
-		    LOGGER.trace(parameter.getName() + ":" + parameter.getContent());
-		} else {
-		    LOGGER.trace(parameter.getName() + ":\n\n"
-			    + MarshalUtils.marshalJsonAsPrettyString(parameter.getContent()));
-		}
+		logClientMethodParameter(parameter.getName(), parameter.getContent());
 	    }
 	}
     }
 
+    /**
+     * Log a client method parameter.
+     * 
+     * @param name
+     * @param content
+     */
+    protected static void logClientMethodParameter(String name, Object content) {
+	if (content instanceof String) {
+	    LOGGER.trace(name + ":" + content);
+	} else {
+	    LOGGER.trace(name + ":\n\n" + MarshalUtils.marshalJsonAsPrettyString(content));
+	}
+    }
+
     /**
      * Log the encoded GRPC request sent from client.
      * 
@@ -86,7 +148,9 @@ public class GrpcUtils {
      * @param method
      */
     public static void handleServerMethodEntry(IGrpcApiImplementation api, MethodDescriptor<?, ?> method) {
-	LOGGER.debug("Server received call to  " + method.getFullMethodName() + ".");
+	if (LOGGER.isDebugEnabled()) {
+	    LOGGER.debug("Server received call to  " + method.getFullMethodName() + ".");
+	}
     }
 
     public static void logServerApiResult(MethodDescriptor<?, ?> method, Object result) throws SiteWhereException {
@@ -95,13 +159,15 @@ public class GrpcUtils {
 		LOGGER.trace("API result for " + method.getFullMethodName() + ":\n\n"
 			+ MarshalUtils.marshalJsonAsPrettyString(result));
 	    }
-	} else {
+	} else if (LOGGER.isTraceEnabled()) {
 	    LOGGER.trace("Response to " + method.getFullMethodName() + " was NULL");
 	}
     }
 
     public static void handleServerMethodExit(MethodDescriptor<?, ?> method) {
-	LOGGER.debug("Server finished call to  " + method.getFullMethodName() + ".");
+	if (LOGGER.isDebugEnabled()) {
+	    LOGGER.debug("Server finished call to  " + method.getFullMethodName() + ".");
+	}
 	UserContext.clearContext();
     }
 
@@ -118,7 +184,7 @@ public class GrpcUtils {
 		LOGGER.trace("Response to " + method.getFullMethodName() + ":\n\n"
 			+ MarshalUtils.marshalJsonAsPrettyString(o));
 	    }
-	} else {
+	} else if (LOGGER.isTraceEnabled()) {
 	    LOGGER.trace("Response to " + method.getFullMethodName() + " was NULL");
 	}
     }
@@ -0,0 +1,221 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.MethodDescriptor;
+
+/**
+ * {@link ManagedChannel} backed by a fixed set of channels to the same target.
+ * Each call is assigned to the next channel in round-robin order so traffic is
+ * spread across several HTTP/2 connections rather than being limited by the
+ * concurrent stream cap of a single connection. Lifecycle operations apply to
+ * every channel in the pool.
+ */
+public class ManagedChannelPool extends ManagedChannel {
+
+    /** Channels in the pool */
+    private ManagedChannel[] channels;
+
+    /** Index of next channel to use */
+    private AtomicInteger next = new AtomicInteger();
+
+    public ManagedChannelPool(List<ManagedChannel> channels) {
+	if (channels.isEmpty()) {
+	    throw new IllegalArgumentException("Channel pool requires at least one channel.");
+	}
+	this.channels = channels.toArray(new ManagedChannel[0]);
+    }
+
+    /**
+     * Get next channel in round-robin order.
+     * 
+     * @return
+     */
+    protected ManagedChannel nextChannel() {
+	return channels[Math.floorMod(next.getAndIncrement(), channels.length)];
+    }
+
+    /*
+     * @see io.grpc.Channel#newCall(io.grpc.MethodDescriptor, io.grpc.CallOptions)
+     */
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> method,
+	    CallOptions callOptions) {
+	return nextChannel().newCall(method, callOptions);
+    }
+
+    /*
+     * @see io.grpc.Channel#authority()
+     */
+    @Override
+    public String authority() {
+	return channels[0].authority();
+    }
+
+    /*
+     * @see io.grpc.ManagedChannel#getState(boolean)
+     */
+    @Override
+    public ConnectivityState getState(boolean requestConnection) {
+	List<ConnectivityState> states = new ArrayList<>();
+	for (ManagedChannel channel : channels) {
+	    states.add(channel.getState(requestConnection));
+	}
+	return aggregate(states);
+    }
+
+    /**
+     * Combine member states. The pool is ready if any member is ready, then
+     * connecting, idle and transient failure in that order.
+     * 
+     * @param states
+     * @return
+     */
+    protected static ConnectivityState aggregate(List<ConnectivityState> states) {
+	ConnectivityState[] precedence = { ConnectivityState.READY, ConnectivityState.CONNECTING,
+		ConnectivityState.IDLE, ConnectivityState.TRANSIENT_FAILURE };
+	for (ConnectivityState state : precedence) {
+	    if (states.contains(state)) {
+		return state;
+	    }
+	}
+	return ConnectivityState.SHUTDOWN;
+    }
+
+    /*
+     * @see io.grpc.ManagedChannel#notifyWhenStateChanged(io.grpc.
+     * ConnectivityState, java.lang.Runnable)
+     */
+    @Override
+    public void notifyWhenStateChanged(ConnectivityState source, Runnable callback) {
+	if (getState(false) != source) {
+	    callback.run();
+	    return;
+	}
+	AtomicBoolean notified = new AtomicBoolean();
+	Runnable once = () -> {
+	    if (notified.compareAndSet(false, true)) {
+		callback.run();
+	    }
+	};
+	for (ManagedChannel channel : channels) {
+	    channel.notifyWhenStateChanged(channel.getState(false), once);
+	}
+    }
+
+    /*
+     * @see io.grpc.ManagedChannel#resetConnectBackoff()
+     */
+    @Override
+    public void resetConnectBackoff() {
+	for (ManagedChannel channel : channels) {
+	    channel.resetConnectBackoff();
+	}
+    }
+
+    /*
+     * @see io.grpc.ManagedChannel#enterIdle()
+     */
+    @Override
+    public void enterIdle() {
+	for (ManagedChannel channel : channels) {
+	    channel.enterIdle();
+	}
+    }
+
+    /*
+     * @see io.grpc.ManagedChannel#shutdown()
+     */
+    @Override
+    public ManagedChannel shutdown() {
+	for (ManagedChannel channel : channels) {
+	    channel.shutdown();
+	}
+	return this;
+    }
+
+    /*
+     * @see io.grpc.ManagedChannel#shutdownNow()
+     */
+    @Override
+    public ManagedChannel shutdownNow() {
+	for (ManagedChannel channel : channels) {
+	    channel.shutdownNow();
+	}
+	return this;
+    }
+
+    /*
+     * @see io.grpc.ManagedChannel#isShutdown()
+     */
+    @Override
+    public boolean isShutdown() {
+	for (ManagedChannel channel : channels) {
+	    if (!channel.isShutdown()) {
+		return false;
+	    }
+	}
+	return true;
+    }
+
+    /*
+     * @see io.grpc.ManagedChannel#isTerminated()
+     */
+    @Override
+    public boolean isTerminated() {
+	for (ManagedChannel channel : channels) {
+	    if (!channel.isTerminated()) {
+		return false;
+	    }
+	}
+	return true;
+    }
+
+    /*
+     * @see io.grpc.ManagedChannel#awaitTermination(long,
+     * java.util.concurrent.TimeUnit)
+     */
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+	long deadline = System.nanoTime() + unit.toNanos(timeout);
+	for (ManagedChannel channel : channels) {
+	    long remaining = deadline - System.nanoTime();
+	    if (!channel.awaitTermination(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+		return false;
+	    }
+	}
+	return true;
+    }
+
+    /**
+     * Get number of channels in the pool.
+     * 
+     * @return
+     */
+    public int getSize() {
+	return channels.length;
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.MethodDescriptor;
+
+/**
+ * GRPC interceptor that applies request compression and message size limits
+ * to the options of each call.
+ */
+public class MessageOptionsClientInterceptor implements ClientInterceptor {
+
+    /** Name of codec used for requests (null for none) */
+    private String compression;
+
+    /** Maximum size in bytes of received messages (0 for channel default) */
+    private int maxInboundMessageSize;
+
+    /** Maximum size in bytes of sent messages (0 for unlimited) */
+    private int maxOutboundMessageSize;
+
+    public MessageOptionsClientInterceptor(String compression, int maxInboundMessageSize,
+	    int maxOutboundMessageSize) {
+	this.compression = compression;
+	this.maxInboundMessageSize = maxInboundMessageSize;
+	this.maxOutboundMessageSize = maxOutboundMessageSize;
+    }
+
+    /*
+     * @see io.grpc.ClientInterceptor#interceptCall(io.grpc.MethodDescriptor,
+     * io.grpc.CallOptions, io.grpc.Channel)
+     */
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+	    CallOptions callOptions, Channel next) {
+	CallOptions options = callOptions;
+	if (getCompression() != null && options.getCompressor() == null) {
+	    options = options.withCompression(getCompression());
+	}
+	if (getMaxInboundMessageSize() > 0 && options.getMaxInboundMessageSize() == null) {
+	    options = options.withMaxInboundMessageSize(getMaxInboundMessageSize());
+	}
+	if (getMaxOutboundMessageSize() > 0 && options.getMaxOutboundMessageSize() == null) {
+	    options = options.withMaxOutboundMessageSize(getMaxOutboundMessageSize());
+	}
+	return next.newCall(method, options);
+    }
+
+    public String getCompression() {
+	return compression;
+    }
+
+    public int getMaxInboundMessageSize() {
+	return maxInboundMessageSize;
+    }
+
+    public int getMaxOutboundMessageSize() {
+	return maxOutboundMessageSize;
+    }
+}
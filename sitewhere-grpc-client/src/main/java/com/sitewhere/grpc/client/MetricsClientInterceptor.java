@@ -0,0 +1,187 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client;
+
+import com.google.protobuf.MessageLite;
+import com.sitewhere.microservice.lifecycle.TenantEngineLifecycleComponent;
+import com.sitewhere.microservice.security.SiteWhereAuthentication;
+import com.sitewhere.microservice.security.UserContext;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ClientInterceptor;
+import io.grpc.ForwardingClientCall.SimpleForwardingClientCall;
+import io.grpc.ForwardingClientCallListener.SimpleForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+
+/**
+ * GRPC interceptor that records Prometheus metrics for client calls. Calls
+ * are labelled by target service, method and tenant so that a slow or failing
+ * downstream RPC can be identified. Latency and in-flight metrics are only
+ * recorded for unary calls, since streaming calls stay open for their whole
+ * lifetime.
+ */
+public class MetricsClientInterceptor implements ClientInterceptor {
+
+    /** Direction label for sent messages */
+    private static final String SENT = "sent";
+
+    /** Direction label for received messages */
+    private static final String RECEIVED = "received";
+
+    /** Metric for completed calls by status code */
+    private static final Counter CALLS = TenantEngineLifecycleComponent.createCounterMetric("grpc_client_calls",
+	    "Count of completed gRPC client calls", "service", "method", "code");
+
+    /** Metric for call latency */
+    private static final Histogram LATENCY = TenantEngineLifecycleComponent.createHistogramMetric(
+	    "grpc_client_call_latency_seconds", "Latency of gRPC client calls in seconds", "service", "method");
+
+    /** Metric for calls in flight */
+    private static final Gauge IN_FLIGHT = TenantEngineLifecycleComponent.createGaugeMetric(
+	    "grpc_client_calls_in_flight", "Count of gRPC client calls in flight", "service", "method");
+
+    /** Metric for messages sent and received */
+    private static final Counter MESSAGES = TenantEngineLifecycleComponent.createCounterMetric(
+	    "grpc_client_messages", "Count of gRPC client messages", "service", "method", "direction");
+
+    /** Metric for serialized size of messages sent and received */
+    private static final Counter MESSAGE_BYTES = TenantEngineLifecycleComponent.createCounterMetric(
+	    "grpc_client_message_bytes", "Serialized size in bytes of gRPC client messages", "service", "method",
+	    "direction");
+
+    /** Microservice label value */
+    private String microservice;
+
+    /** Pod label value */
+    private String pod;
+
+    /** Tenant label value (null to use tenant of calling user) */
+    private String tenant;
+
+    public MetricsClientInterceptor(String microservice, String pod, String tenant) {
+	this.microservice = microservice;
+	this.pod = pod;
+	this.tenant = tenant;
+    }
+
+    /*
+     * @see io.grpc.ClientInterceptor#interceptCall(io.grpc.MethodDescriptor,
+     * io.grpc.CallOptions, io.grpc.Channel)
+     */
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+	    CallOptions callOptions, Channel next) {
+	String fullName = method.getFullMethodName();
+	final String service = MethodDescriptor.extractFullServiceName(fullName);
+	final String bareName = fullName.substring(fullName.lastIndexOf('/') + 1);
+	final String tenantId = getTenantLabel();
+	final boolean unary = method.getType() == MethodDescriptor.MethodType.UNARY;
+	return new SimpleForwardingClientCall<ReqT, RespT>(next.newCall(method, callOptions)) {
+
+	    /*
+	     * @see io.grpc.ForwardingClientCall#start(io.grpc.ClientCall.Listener,
+	     * io.grpc.Metadata)
+	     */
+	    @Override
+	    public void start(Listener<RespT> responseListener, Metadata headers) {
+		final Gauge.Child inFlight = unary ? IN_FLIGHT.labels(microservice, pod, tenantId, service, bareName)
+			: null;
+		final Histogram.Timer timer = unary
+			? LATENCY.labels(microservice, pod, tenantId, service, bareName).startTimer()
+			: null;
+		if (inFlight != null) {
+		    inFlight.inc();
+		}
+		super.start(new SimpleForwardingClientCallListener<RespT>(responseListener) {
+
+		    /*
+		     * @see io.grpc.ForwardingClientCallListener#onMessage(java.lang.Object)
+		     */
+		    @Override
+		    public void onMessage(RespT message) {
+			recordMessage(service, bareName, tenantId, RECEIVED, message);
+			super.onMessage(message);
+		    }
+
+		    /*
+		     * @see io.grpc.ForwardingClientCallListener#onClose(io.grpc.Status,
+		     * io.grpc.Metadata)
+		     */
+		    @Override
+		    public void onClose(Status status, Metadata trailers) {
+			if (inFlight != null) {
+			    inFlight.dec();
+			    timer.observeDuration();
+			}
+			CALLS.labels(microservice, pod, tenantId, service, bareName, status.getCode().name()).inc();
+			super.onClose(status, trailers);
+		    }
+		}, headers);
+	    }
+
+	    /*
+	     * @see io.grpc.ForwardingClientCall#sendMessage(java.lang.Object)
+	     */
+	    @Override
+	    public void sendMessage(ReqT message) {
+		recordMessage(service, bareName, tenantId, SENT, message);
+		super.sendMessage(message);
+	    }
+	};
+    }
+
+    /**
+     * Record count and serialized size of a message.
+     * 
+     * @param service
+     * @param method
+     * @param tenantId
+     * @param direction
+     * @param message
+     */
+    protected void recordMessage(String service, String method, String tenantId, String direction,
+	    Object message) {
+	MESSAGES.labels(microservice, pod, tenantId, service, method, direction).inc();
+	if (message instanceof MessageLite) {
+	    MESSAGE_BYTES.labels(microservice, pod, tenantId, service, method, direction)
+		    .inc(((MessageLite) message).getSerializedSize());
+	}
+    }
+
+    /**
+     * Get tenant label for a call. Channels shared across tenants use the tenant
+     * of the calling user.
+     * 
+     * @return
+     */
+    protected String getTenantLabel() {
+	if (tenant != null) {
+	    return tenant;
+	}
+	SiteWhereAuthentication authentication = UserContext.getCurrentUser();
+	if (authentication != null && authentication.getTenantToken() != null) {
+	    return authentication.getTenantToken();
+	}
+	return "";
+    }
+}
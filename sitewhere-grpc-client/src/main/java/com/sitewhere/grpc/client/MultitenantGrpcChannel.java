@@ -15,10 +15,11 @@
  */
 package com.sitewhere.grpc.client;
 
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import com.sitewhere.grpc.client.spi.multitenant.IMultitenantGrpcChannel;
+import com.sitewhere.microservice.configuration.model.instance.infrastructure.GrpcConfiguration;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.microservice.IFunctionIdentifier;
 import com.sitewhere.spi.microservice.grpc.IGrpcServiceIdentifier;
@@ -36,53 +37,60 @@ import io.grpc.ManagedChannelBuilder;
  */
 public abstract class MultitenantGrpcChannel<B, A> extends GrpcChannel<B, A> implements IMultitenantGrpcChannel<B, A> {
 
-    /** Max threads used for executing GPRC requests */
-    private static final int THREAD_POOL_SIZE = 25;
-
-    /** Client interceptor for adding tenant token */
-    private TenantTokenClientInterceptor tenantTokenInterceptor = new TenantTokenClientInterceptor();
-
-    /** Executor service used to handle GRPC requests */
-    private ExecutorService serverExecutor = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+    /** Shared executor used to handle gRPC callbacks (null for direct execution) */
+    private ExecutorService clientExecutor;
 
     public MultitenantGrpcChannel(IInstanceSettings settings, IFunctionIdentifier identifier,
 	    IGrpcServiceIdentifier grpcServiceIdentifier, int port) {
 	super(settings, identifier, grpcServiceIdentifier, port);
+	this.authenticationInterceptor = new AuthenticationClientInterceptor(true);
     }
 
     /*
-     * (non-Javadoc)
-     * 
      * @see
-     * com.sitewhere.server.lifecycle.LifecycleComponent#start(com.sitewhere.spi
-     * .server.lifecycle.ILifecycleProgressMonitor)
+     * com.sitewhere.grpc.client.GrpcChannel#start(com.sitewhere.spi.microservice.
+     * lifecycle.ILifecycleProgressMonitor)
      */
     @Override
     public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
-	ManagedChannelBuilder<?> builder = ManagedChannelBuilder.forAddress(getHostname(), getPort());
-	builder.defaultServiceConfig(buildServiceConfiguration()).enableRetry();
-	builder.executor(getServerExecutor());
-	builder.usePlaintext().intercept(getTenantTokenInterceptor()).intercept(getJwtInterceptor());
-	this.channel = builder.build();
-	this.blockingStub = createBlockingStub();
-	this.asyncStub = createAsyncStub();
-	getLogger()
-		.info(String.format("Creating gRPC client channel connected to %s:%d ...", getHostname(), getPort()));
-    }
-
-    protected TenantTokenClientInterceptor getTenantTokenInterceptor() {
-	return tenantTokenInterceptor;
+	GrpcConfiguration grpc = getGrpcConfiguration();
+	if (getClientExecutor() == null && grpc.getClientExecutorThreads() > 0) {
+	    this.clientExecutor = GrpcClientExecutor.acquire(grpc.getClientExecutorThreads(),
+		    grpc.getClientExecutorQueueSize());
+	}
+	super.start(monitor);
     }
 
-    protected void setTenantTokenInterceptor(TenantTokenClientInterceptor tenantTokenInterceptor) {
-	this.tenantTokenInterceptor = tenantTokenInterceptor;
+    /*
+     * @see
+     * com.sitewhere.grpc.client.GrpcChannel#stop(com.sitewhere.spi.microservice.
+     * lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	super.stop(monitor);
+	if (getClientExecutor() != null) {
+	    GrpcClientExecutor.release();
+	    this.clientExecutor = null;
+	}
     }
 
-    public ExecutorService getServerExecutor() {
-	return serverExecutor;
+    /*
+     * @see
+     * com.sitewhere.grpc.client.GrpcChannel#createChannelBuilder(java.util.Map)
+     */
+    @Override
+    protected ManagedChannelBuilder<?> createChannelBuilder(Map<String, Object> serviceConfig) {
+	ManagedChannelBuilder<?> builder = super.createChannelBuilder(serviceConfig);
+	if (getClientExecutor() != null) {
+	    builder.executor(getClientExecutor());
+	} else {
+	    builder.directExecutor();
+	}
+	return builder;
     }
 
-    public void setServerExecutor(ExecutorService serverExecutor) {
-	this.serverExecutor = serverExecutor;
+    public ExecutorService getClientExecutor() {
+	return clientExecutor;
     }
 }
\ No newline at end of file
@@ -0,0 +1,195 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sitewhere.microservice.security.SiteWhereAuthentication;
+import com.sitewhere.microservice.security.UserContext;
+
+/**
+ * Holds requests that are collected on the client side before being sent as a
+ * single call. Each pending request is stored by key and sent either when the
+ * owner flushes it or when its wait time expires. Requests are sent with the
+ * credentials of the caller that created them rather than those of the thread
+ * doing the flush. Pending requests are sent when the flusher is stopped.
+ *
+ * @param <K>
+ * @param <P>
+ */
+public class PendingRequestFlusher<K, P extends PendingRequestFlusher.IPendingRequest> {
+
+    /** Prefix for flusher thread name */
+    private String threadName;
+
+    /** Sends requests to the wrapped channel */
+    private IRequestSender<P> sender;
+
+    /** Requests waiting to be sent */
+    private Map<K, P> pending = new ConcurrentHashMap<>();
+
+    /** Flushes requests when wait time expires */
+    private ScheduledExecutorService executor;
+
+    public PendingRequestFlusher(String threadName, IRequestSender<P> sender) {
+	this.threadName = threadName;
+	this.sender = sender;
+    }
+
+    /**
+     * Start thread that flushes requests when their wait time expires.
+     */
+    public void start() {
+	this.executor = Executors.newSingleThreadScheduledExecutor(new FlusherThreadFactory());
+    }
+
+    /**
+     * Stop flusher thread and send all pending requests.
+     */
+    public void stop() {
+	if (getExecutor() != null) {
+	    getExecutor().shutdownNow();
+	}
+	for (K key : new ArrayList<>(getPending().keySet())) {
+	    P request = getPending().remove(key);
+	    if (request != null) {
+		send(request);
+	    }
+	}
+    }
+
+    /**
+     * Schedule a pending request to be flushed once the wait time expires. If
+     * the flusher is not running, the request is flushed immediately.
+     * 
+     * @param key
+     * @param request
+     * @param waitMs
+     */
+    public void schedule(K key, P request, long waitMs) {
+	if (getExecutor() == null || getExecutor().isShutdown()) {
+	    flush(key, request);
+	    return;
+	}
+	getExecutor().schedule(() -> flush(key, request), waitMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Send request if it is still pending for the given key.
+     * 
+     * @param key
+     * @param request
+     */
+    public void flush(K key, P request) {
+	if (getPending().remove(key, request)) {
+	    send(request);
+	}
+    }
+
+    /**
+     * Send request using the credentials captured when it was created. Failures
+     * raised while issuing the call are passed to the request.
+     * 
+     * @param request
+     */
+    public void send(P request) {
+	SiteWhereAuthentication previous = UserContext.getCurrentUser();
+	UserContext.setContext(request.getAuthentication());
+	try {
+	    getSender().send(request);
+	} catch (Throwable t) {
+	    request.fail(t);
+	} finally {
+	    UserContext.setContext(previous);
+	}
+    }
+
+    /**
+     * Get the underlying cause of a failure reported by a completion stage.
+     * 
+     * @param t
+     * @return
+     */
+    public static Throwable unwrap(Throwable t) {
+	return (t instanceof CompletionException && t.getCause() != null) ? t.getCause() : t;
+    }
+
+    /**
+     * Request collected on the client side before being sent.
+     */
+    public static interface IPendingRequest {
+
+	/**
+	 * Get credentials of caller that created the request.
+	 * 
+	 * @return
+	 */
+	public SiteWhereAuthentication getAuthentication();
+
+	/**
+	 * Fail all callers waiting on the request.
+	 * 
+	 * @param t
+	 */
+	public void fail(Throwable t);
+    }
+
+    /**
+     * Sends a pending request to the wrapped channel.
+     *
+     * @param <P>
+     */
+    @FunctionalInterface
+    public static interface IRequestSender<P> {
+
+	public void send(P request) throws Exception;
+    }
+
+    /** Used for naming flusher thread */
+    private class FlusherThreadFactory implements ThreadFactory {
+
+	/** Counts threads */
+	private AtomicInteger counter = new AtomicInteger();
+
+	public Thread newThread(Runnable r) {
+	    return new Thread(r, getThreadName() + " " + counter.incrementAndGet());
+	}
+    }
+
+    public Map<K, P> getPending() {
+	return pending;
+    }
+
+    protected ScheduledExecutorService getExecutor() {
+	return executor;
+    }
+
+    protected IRequestSender<P> getSender() {
+	return sender;
+    }
+
+    protected String getThreadName() {
+	return threadName;
+    }
+}
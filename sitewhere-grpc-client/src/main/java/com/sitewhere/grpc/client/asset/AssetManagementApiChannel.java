@@ -15,9 +15,14 @@
  */
 package com.sitewhere.grpc.client.asset;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import com.sitewhere.grpc.asset.AssetModelConverter;
+import com.sitewhere.grpc.client.BulkLookup;
+import com.sitewhere.grpc.client.FutureResponseObserver;
 import com.sitewhere.grpc.client.GrpcUtils;
 import com.sitewhere.grpc.client.MultitenantApiChannel;
 import com.sitewhere.grpc.client.spi.client.IAssetManagementApiChannel;
@@ -272,6 +277,15 @@ public class AssetManagementApiChannel extends MultitenantApiChannel<AssetManage
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.microservice.api.asset.IAssetManagement#getAssets(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, IAsset> getAssets(Collection<UUID> ids) throws SiteWhereException {
+	return BulkLookup.lookup(ids, this::getAssetAsync);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.asset.IAssetManagement#getAssetByToken(java.lang.String)
@@ -328,4 +342,24 @@ public class AssetManagementApiChannel extends MultitenantApiChannel<AssetManage
 	    throw GrpcUtils.handleClientMethodException(AssetManagementGrpc.getListAssetsMethod(), t);
 	}
     }
-}
\ No newline at end of file
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IAssetManagementApiChannel#
+     * getAssetAsync(java.util.UUID)
+     */
+    @Override
+    public CompletableFuture<IAsset> getAssetAsync(UUID assetId) {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, AssetManagementGrpc.getGetAssetByIdMethod());
+	    GGetAssetByIdRequest.Builder grequest = GGetAssetByIdRequest.newBuilder();
+	    grequest.setAssetId(CommonModelConverter.asGrpcUuid(assetId));
+	    FutureResponseObserver<GGetAssetByIdResponse, IAsset> observer = new FutureResponseObserver<>(
+		    AssetManagementGrpc.getGetAssetByIdMethod(),
+		    gresponse -> (gresponse.hasAsset()) ? AssetModelConverter.asApiAsset(gresponse.getAsset()) : null);
+	    getGrpcChannel().getAsyncStub().getAssetById(grequest.build(), observer);
+	    return observer.getFuture();
+	} catch (Throwable t) {
+	    return FutureResponseObserver.failed(AssetManagementGrpc.getGetAssetByIdMethod(), t);
+	}
+    }
+}
@@ -15,8 +15,11 @@
  */
 package com.sitewhere.grpc.client.asset;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
+import com.sitewhere.grpc.client.BulkLookup;
 import com.sitewhere.grpc.client.spi.client.IAssetManagementApiChannel;
 import com.sitewhere.microservice.api.asset.IAssetManagement;
 import com.sitewhere.microservice.cache.CacheConfiguration;
@@ -155,6 +158,15 @@ public class CachedAssetManagementApiChannel extends TenantEngineLifecycleCompon
 	return asset;
     }
 
+    /*
+     * @see
+     * com.sitewhere.microservice.api.asset.IAssetManagement#getAssets(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, IAsset> getAssets(Collection<UUID> ids) throws SiteWhereException {
+	return BulkLookup.lookupCached(ids, getAssetByIdCache(), getWrapped()::getAssets);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.asset.IAssetManagement#getAssetByToken(java.lang.String)
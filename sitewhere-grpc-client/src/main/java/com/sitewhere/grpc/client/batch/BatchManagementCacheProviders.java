@@ -0,0 +1,121 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client.batch;
+
+import java.util.UUID;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.sitewhere.grpc.batch.BatchModelConverter;
+import com.sitewhere.grpc.client.GrpcUtils;
+import com.sitewhere.grpc.model.BatchModel.GBatchOperation;
+import com.sitewhere.microservice.cache.RedisCacheProvider;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.batch.IBatchOperation;
+import com.sitewhere.spi.microservice.IMicroservice;
+import com.sitewhere.spi.microservice.cache.ICacheConfiguration;
+
+/**
+ * Cache providers for batch management entities.
+ */
+public class BatchManagementCacheProviders {
+
+    public static final String BATCH_OPERATION_BY_TOKEN = "batch_operation_by_token";
+    public static final String BATCH_OPERATION_BY_ID = "batch_operation_by_id";
+
+    /**
+     * Cache for batch operations by token.
+     */
+    public static class BatchOperationByTokenCache extends RedisCacheProvider<String, IBatchOperation> {
+
+	public BatchOperationByTokenCache(IMicroservice<?, ?> microservice, ICacheConfiguration configuration) {
+	    super(microservice, BATCH_OPERATION_BY_TOKEN, configuration);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.microservice.cache.RedisCacheProvider#convertKey(java.lang.
+	 * Object)
+	 */
+	@Override
+	public String convertKey(String key) throws SiteWhereException {
+	    return key;
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#serialize(java.lang.
+	 * Object)
+	 */
+	@Override
+	public byte[] serialize(IBatchOperation value) throws SiteWhereException {
+	    GBatchOperation message = BatchModelConverter.asGrpcBatchOperation(value);
+	    return GrpcUtils.marshal(message);
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#deserialize(byte[])
+	 */
+	@Override
+	public IBatchOperation deserialize(byte[] value) throws SiteWhereException {
+	    try {
+		return BatchModelConverter.asApiBatchOperation(GBatchOperation.parseFrom(value));
+	    } catch (InvalidProtocolBufferException e) {
+		throw new SiteWhereException("Unable to parse gRPC message.", e);
+	    }
+	}
+    }
+
+    /**
+     * Cache for batch operations by id.
+     */
+    public static class BatchOperationByIdCache extends RedisCacheProvider<UUID, IBatchOperation> {
+
+	public BatchOperationByIdCache(IMicroservice<?, ?> microservice, ICacheConfiguration configuration) {
+	    super(microservice, BATCH_OPERATION_BY_ID, configuration);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.microservice.cache.RedisCacheProvider#convertKey(java.lang.
+	 * Object)
+	 */
+	@Override
+	public String convertKey(UUID key) throws SiteWhereException {
+	    return key.toString();
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#serialize(java.lang.
+	 * Object)
+	 */
+	@Override
+	public byte[] serialize(IBatchOperation value) throws SiteWhereException {
+	    GBatchOperation message = BatchModelConverter.asGrpcBatchOperation(value);
+	    return GrpcUtils.marshal(message);
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#deserialize(byte[])
+	 */
+	@Override
+	public IBatchOperation deserialize(byte[] value) throws SiteWhereException {
+	    try {
+		return BatchModelConverter.asApiBatchOperation(GBatchOperation.parseFrom(value));
+	    } catch (InvalidProtocolBufferException e) {
+		throw new SiteWhereException("Unable to parse gRPC message.", e);
+	    }
+	}
+    }
+}
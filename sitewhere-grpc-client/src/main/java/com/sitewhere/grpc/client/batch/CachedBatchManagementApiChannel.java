@@ -0,0 +1,272 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client.batch;
+
+import java.util.UUID;
+
+import com.sitewhere.grpc.client.spi.client.IBatchManagementApiChannel;
+import com.sitewhere.microservice.api.batch.IBatchManagement;
+import com.sitewhere.microservice.cache.CacheConfiguration;
+import com.sitewhere.microservice.lifecycle.TenantEngineLifecycleComponent;
+import com.sitewhere.microservice.security.UserContext;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.batch.IBatchElement;
+import com.sitewhere.spi.batch.IBatchOperation;
+import com.sitewhere.spi.batch.request.IBatchCommandInvocationRequest;
+import com.sitewhere.spi.batch.request.IBatchElementCreateRequest;
+import com.sitewhere.spi.batch.request.IBatchOperationCreateRequest;
+import com.sitewhere.spi.batch.request.IBatchOperationUpdateRequest;
+import com.sitewhere.spi.microservice.cache.ICacheConfiguration;
+import com.sitewhere.spi.microservice.cache.ICacheProvider;
+import com.sitewhere.spi.microservice.lifecycle.ILifecycleProgressMonitor;
+import com.sitewhere.spi.search.ISearchResults;
+import com.sitewhere.spi.search.batch.IBatchOperationSearchCriteria;
+import com.sitewhere.spi.search.device.IBatchElementSearchCriteria;
+
+/**
+ * Adds caching support to batch management API channel. Batch operations are
+ * cached so that processing the elements of a batch does not look up the
+ * operation remotely for every element.
+ */
+public class CachedBatchManagementApiChannel extends TenantEngineLifecycleComponent implements IBatchManagement {
+
+    /** Cache settings */
+    private CacheSettings cacheSettings;
+
+    /** Wrapped API channel */
+    private IBatchManagementApiChannel<?> wrapped;
+
+    /** Batch operation cache */
+    private ICacheProvider<String, IBatchOperation> batchOperationCache;
+
+    /** Batch operation by id cache */
+    private ICacheProvider<UUID, IBatchOperation> batchOperationByIdCache;
+
+    public CachedBatchManagementApiChannel(IBatchManagementApiChannel<?> wrapped, CacheSettings cacheSettings) {
+	this.wrapped = wrapped;
+	this.cacheSettings = cacheSettings;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#initialize(com.sitewhere.
+     * spi.server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void initialize(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	initializeNestedComponent(getWrapped(), monitor, true);
+	this.batchOperationCache = new BatchManagementCacheProviders.BatchOperationByTokenCache(getMicroservice(),
+		getCacheSettings().getBatchOperationConfiguration());
+	this.batchOperationByIdCache = new BatchManagementCacheProviders.BatchOperationByIdCache(getMicroservice(),
+		getCacheSettings().getBatchOperationConfiguration());
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#start(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	startNestedComponent(getWrapped(), monitor, true);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#stop(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	stopNestedComponent(getWrapped(), monitor);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.batch.IBatchManagement#createBatchOperation(
+     * com.sitewhere.spi.batch.request.IBatchOperationCreateRequest)
+     */
+    @Override
+    public IBatchOperation createBatchOperation(IBatchOperationCreateRequest request) throws SiteWhereException {
+	IBatchOperation created = getWrapped().createBatchOperation(request);
+	cacheBatchOperation(UserContext.getCurrentTenantId(), created);
+	return created;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.batch.IBatchManagement#updateBatchOperation(
+     * java.util.UUID, com.sitewhere.spi.batch.request.IBatchOperationUpdateRequest)
+     */
+    @Override
+    public IBatchOperation updateBatchOperation(UUID batchOperationId, IBatchOperationUpdateRequest request)
+	    throws SiteWhereException {
+	String tenantId = UserContext.getCurrentTenantId();
+	IBatchOperation updated = getWrapped().updateBatchOperation(batchOperationId, request);
+	cacheBatchOperation(tenantId, updated);
+	return updated;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.batch.IBatchManagement#getBatchOperation(java.
+     * util.UUID)
+     */
+    @Override
+    public IBatchOperation getBatchOperation(UUID batchOperationId) throws SiteWhereException {
+	String tenantId = UserContext.getCurrentTenantId();
+	IBatchOperation operation = getBatchOperationByIdCache().getCacheEntry(tenantId, batchOperationId);
+	if (operation == null) {
+	    operation = getWrapped().getBatchOperation(batchOperationId);
+	    getBatchOperationByIdCache().setCacheEntry(tenantId, batchOperationId, operation);
+	}
+	return operation;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.batch.IBatchManagement#getBatchOperationByToken
+     * (java.lang.String)
+     */
+    @Override
+    public IBatchOperation getBatchOperationByToken(String token) throws SiteWhereException {
+	String tenantId = UserContext.getCurrentTenantId();
+	IBatchOperation operation = getBatchOperationCache().getCacheEntry(tenantId, token);
+	if (operation == null) {
+	    operation = getWrapped().getBatchOperationByToken(token);
+	    getBatchOperationCache().setCacheEntry(tenantId, token, operation);
+	}
+	return operation;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.batch.IBatchManagement#listBatchOperations(com
+     * .sitewhere.spi.search.batch.IBatchOperationSearchCriteria)
+     */
+    @Override
+    public ISearchResults<? extends IBatchOperation> listBatchOperations(IBatchOperationSearchCriteria criteria)
+	    throws SiteWhereException {
+	return getWrapped().listBatchOperations(criteria);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.batch.IBatchManagement#deleteBatchOperation(
+     * java.util.UUID)
+     */
+    @Override
+    public IBatchOperation deleteBatchOperation(UUID batchOperationId) throws SiteWhereException {
+	String tenantId = UserContext.getCurrentTenantId();
+	IBatchOperation deleted = getWrapped().deleteBatchOperation(batchOperationId);
+	getBatchOperationCache().removeCacheEntry(tenantId, deleted.getToken());
+	getBatchOperationByIdCache().removeCacheEntry(tenantId, deleted.getId());
+	return deleted;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.batch.IBatchManagement#createBatchElement(java
+     * .util.UUID, com.sitewhere.spi.batch.request.IBatchElementCreateRequest)
+     */
+    @Override
+    public IBatchElement createBatchElement(UUID batchOperationId, IBatchElementCreateRequest request)
+	    throws SiteWhereException {
+	return getWrapped().createBatchElement(batchOperationId, request);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.batch.IBatchManagement#listBatchElements(java.
+     * util.UUID, com.sitewhere.spi.search.device.IBatchElementSearchCriteria)
+     */
+    @Override
+    public ISearchResults<? extends IBatchElement> listBatchElements(UUID batchOperationId,
+	    IBatchElementSearchCriteria criteria) throws SiteWhereException {
+	return getWrapped().listBatchElements(batchOperationId, criteria);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.batch.IBatchManagement#updateBatchElement(java
+     * .util.UUID, com.sitewhere.spi.batch.request.IBatchElementCreateRequest)
+     */
+    @Override
+    public IBatchElement updateBatchElement(UUID elementId, IBatchElementCreateRequest request)
+	    throws SiteWhereException {
+	return getWrapped().updateBatchElement(elementId, request);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.batch.IBatchManagement#
+     * createBatchCommandInvocation(com.sitewhere.spi.batch.request.
+     * IBatchCommandInvocationRequest)
+     */
+    @Override
+    public IBatchOperation createBatchCommandInvocation(IBatchCommandInvocationRequest request)
+	    throws SiteWhereException {
+	IBatchOperation created = getWrapped().createBatchCommandInvocation(request);
+	cacheBatchOperation(UserContext.getCurrentTenantId(), created);
+	return created;
+    }
+
+    /**
+     * Store batch operation in token and id caches.
+     * 
+     * @param tenantId
+     * @param operation
+     * @throws SiteWhereException
+     */
+    protected void cacheBatchOperation(String tenantId, IBatchOperation operation) throws SiteWhereException {
+	if (operation != null) {
+	    getBatchOperationCache().setCacheEntry(tenantId, operation.getToken(), operation);
+	    getBatchOperationByIdCache().setCacheEntry(tenantId, operation.getId(), operation);
+	}
+    }
+
+    /**
+     * Contains default cache settings for batch management entities.
+     */
+    public static class CacheSettings {
+
+	/** Cache configuraton for batch operations */
+	private ICacheConfiguration batchOperationConfiguration = new CacheConfiguration(30);
+
+	public ICacheConfiguration getBatchOperationConfiguration() {
+	    return batchOperationConfiguration;
+	}
+
+	public void setBatchOperationConfiguration(ICacheConfiguration batchOperationConfiguration) {
+	    this.batchOperationConfiguration = batchOperationConfiguration;
+	}
+    }
+
+    protected ICacheProvider<String, IBatchOperation> getBatchOperationCache() {
+	return batchOperationCache;
+    }
+
+    protected ICacheProvider<UUID, IBatchOperation> getBatchOperationByIdCache() {
+	return batchOperationByIdCache;
+    }
+
+    protected IBatchManagementApiChannel<?> getWrapped() {
+	return wrapped;
+    }
+
+    protected CacheSettings getCacheSettings() {
+	return cacheSettings;
+    }
+}
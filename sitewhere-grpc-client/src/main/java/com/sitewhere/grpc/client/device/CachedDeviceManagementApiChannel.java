@@ -15,12 +15,15 @@
  */
 package com.sitewhere.grpc.client.device;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.sitewhere.grpc.client.BulkLookup;
 import com.sitewhere.grpc.client.spi.client.IDeviceManagementApiChannel;
 import com.sitewhere.microservice.api.device.IDeviceManagement;
 import com.sitewhere.microservice.cache.CacheConfiguration;
@@ -110,6 +113,18 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
     /** Device assignment by id cache */
     private ICacheProvider<UUID, IDeviceAssignment> deviceAssignmentByIdCache;
 
+    /** Customer type by id cache */
+    private ICacheProvider<UUID, ICustomerType> customerTypeByIdCache;
+
+    /** Customer by id cache */
+    private ICacheProvider<UUID, ICustomer> customerByIdCache;
+
+    /** Area type by id cache */
+    private ICacheProvider<UUID, IAreaType> areaTypeByIdCache;
+
+    /** Device group by id cache */
+    private ICacheProvider<UUID, IDeviceGroup> deviceGroupByIdCache;
+
     public CachedDeviceManagementApiChannel(IDeviceManagementApiChannel<?> wrapped, CacheSettings cacheSettings) {
 	this.wrapped = wrapped;
 	this.cacheSettings = cacheSettings;
@@ -139,6 +154,14 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
 		getCacheSettings().getDeviceAssignmentConfiguration());
 	this.deviceAssignmentByIdCache = new DeviceManagementCacheProviders.DeviceAssignmentByIdCache(getMicroservice(),
 		getCacheSettings().getDeviceAssignmentConfiguration());
+	this.customerTypeByIdCache = new DeviceManagementCacheProviders.CustomerTypeByIdCache(getMicroservice(),
+		getCacheSettings().getCustomerTypeConfiguration());
+	this.customerByIdCache = new DeviceManagementCacheProviders.CustomerByIdCache(getMicroservice(),
+		getCacheSettings().getCustomerConfiguration());
+	this.areaTypeByIdCache = new DeviceManagementCacheProviders.AreaTypeByIdCache(getMicroservice(),
+		getCacheSettings().getAreaTypeConfiguration());
+	this.deviceGroupByIdCache = new DeviceManagementCacheProviders.DeviceGroupByIdCache(getMicroservice(),
+		getCacheSettings().getDeviceGroupConfiguration());
     }
 
     /*
@@ -207,6 +230,15 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
 	return area;
     }
 
+    /*
+     * @see
+     * com.sitewhere.microservice.api.device.IDeviceManagement#getAreas(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, IArea> getAreas(Collection<UUID> ids) throws SiteWhereException {
+	return BulkLookup.lookupCached(ids, getAreaByIdCache(), getWrapped()::getAreas);
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#updateArea(java.util.UUID,
      * com.sitewhere.spi.area.request.IAreaCreateRequest)
@@ -350,6 +382,15 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
 	return device;
     }
 
+    /*
+     * @see
+     * com.sitewhere.microservice.api.device.IDeviceManagement#getDevices(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, IDevice> getDevices(Collection<UUID> ids) throws SiteWhereException {
+	return BulkLookup.lookupCached(ids, getDeviceByIdCache(), getWrapped()::getDevices);
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#updateDevice(java.util.UUID,
      * com.sitewhere.spi.device.request.IDeviceCreateRequest)
@@ -405,6 +446,15 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
 	return assignment;
     }
 
+    /*
+     * @see
+     * com.sitewhere.microservice.api.device.IDeviceManagement#getDeviceAssignments(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, IDeviceAssignment> getDeviceAssignments(Collection<UUID> ids) throws SiteWhereException {
+	return BulkLookup.lookupCached(ids, getDeviceAssignmentByIdCache(), getWrapped()::getDeviceAssignments);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#updateDeviceAssignment(java.util.
@@ -724,7 +774,13 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
      */
     @Override
     public ICustomerType getCustomerType(UUID id) throws SiteWhereException {
-	return getWrapped().getCustomerType(id);
+	String tenantId = UserContext.getCurrentTenantId();
+	ICustomerType customerType = getCustomerTypeByIdCache().getCacheEntry(tenantId, id);
+	if (customerType == null) {
+	    customerType = getWrapped().getCustomerType(id);
+	    getCustomerTypeByIdCache().setCacheEntry(tenantId, id, customerType);
+	}
+	return customerType;
     }
 
     /*
@@ -744,7 +800,10 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
      */
     @Override
     public ICustomerType updateCustomerType(UUID id, ICustomerTypeCreateRequest request) throws SiteWhereException {
-	return getWrapped().updateCustomerType(id, request);
+	String tenantId = UserContext.getCurrentTenantId();
+	ICustomerType updated = getWrapped().updateCustomerType(id, request);
+	getCustomerTypeByIdCache().setCacheEntry(tenantId, updated.getId(), updated);
+	return updated;
     }
 
     /*
@@ -773,7 +832,10 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
      */
     @Override
     public ICustomerType deleteCustomerType(UUID id) throws SiteWhereException {
-	return getWrapped().deleteCustomerType(id);
+	String tenantId = UserContext.getCurrentTenantId();
+	ICustomerType deleted = getWrapped().deleteCustomerType(id);
+	getCustomerTypeByIdCache().removeCacheEntry(tenantId, deleted.getId());
+	return deleted;
     }
 
     /*
@@ -791,7 +853,22 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
      */
     @Override
     public ICustomer getCustomer(UUID id) throws SiteWhereException {
-	return getWrapped().getCustomer(id);
+	String tenantId = UserContext.getCurrentTenantId();
+	ICustomer customer = getCustomerByIdCache().getCacheEntry(tenantId, id);
+	if (customer == null) {
+	    customer = getWrapped().getCustomer(id);
+	    getCustomerByIdCache().setCacheEntry(tenantId, id, customer);
+	}
+	return customer;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.device.IDeviceManagement#getCustomers(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, ICustomer> getCustomers(Collection<UUID> ids) throws SiteWhereException {
+	return BulkLookup.lookupCached(ids, getCustomerByIdCache(), getWrapped()::getCustomers);
     }
 
     /*
@@ -820,7 +897,10 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
      */
     @Override
     public ICustomer updateCustomer(UUID id, ICustomerCreateRequest request) throws SiteWhereException {
-	return getWrapped().updateCustomer(id, request);
+	String tenantId = UserContext.getCurrentTenantId();
+	ICustomer updated = getWrapped().updateCustomer(id, request);
+	getCustomerByIdCache().setCacheEntry(tenantId, updated.getId(), updated);
+	return updated;
     }
 
     /*
@@ -848,7 +928,10 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
      */
     @Override
     public ICustomer deleteCustomer(UUID id) throws SiteWhereException {
-	return getWrapped().deleteCustomer(id);
+	String tenantId = UserContext.getCurrentTenantId();
+	ICustomer deleted = getWrapped().deleteCustomer(id);
+	getCustomerByIdCache().removeCacheEntry(tenantId, deleted.getId());
+	return deleted;
     }
 
     /*
@@ -866,7 +949,13 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
      */
     @Override
     public IAreaType getAreaType(UUID id) throws SiteWhereException {
-	return getWrapped().getAreaType(id);
+	String tenantId = UserContext.getCurrentTenantId();
+	IAreaType areaType = getAreaTypeByIdCache().getCacheEntry(tenantId, id);
+	if (areaType == null) {
+	    areaType = getWrapped().getAreaType(id);
+	    getAreaTypeByIdCache().setCacheEntry(tenantId, id, areaType);
+	}
+	return areaType;
     }
 
     /*
@@ -885,7 +974,10 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
      */
     @Override
     public IAreaType updateAreaType(UUID id, IAreaTypeCreateRequest request) throws SiteWhereException {
-	return getWrapped().updateAreaType(id, request);
+	String tenantId = UserContext.getCurrentTenantId();
+	IAreaType updated = getWrapped().updateAreaType(id, request);
+	getAreaTypeByIdCache().setCacheEntry(tenantId, updated.getId(), updated);
+	return updated;
     }
 
     /*
@@ -914,7 +1006,10 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
      */
     @Override
     public IAreaType deleteAreaType(UUID id) throws SiteWhereException {
-	return getWrapped().deleteAreaType(id);
+	String tenantId = UserContext.getCurrentTenantId();
+	IAreaType deleted = getWrapped().deleteAreaType(id);
+	getAreaTypeByIdCache().removeCacheEntry(tenantId, deleted.getId());
+	return deleted;
     }
 
     /*
@@ -1014,7 +1109,13 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
      */
     @Override
     public IDeviceGroup getDeviceGroup(UUID id) throws SiteWhereException {
-	return getWrapped().getDeviceGroup(id);
+	String tenantId = UserContext.getCurrentTenantId();
+	IDeviceGroup group = getDeviceGroupByIdCache().getCacheEntry(tenantId, id);
+	if (group == null) {
+	    group = getWrapped().getDeviceGroup(id);
+	    getDeviceGroupByIdCache().setCacheEntry(tenantId, id, group);
+	}
+	return group;
     }
 
     /*
@@ -1034,7 +1135,10 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
      */
     @Override
     public IDeviceGroup updateDeviceGroup(UUID id, IDeviceGroupCreateRequest request) throws SiteWhereException {
-	return getWrapped().updateDeviceGroup(id, request);
+	String tenantId = UserContext.getCurrentTenantId();
+	IDeviceGroup updated = getWrapped().updateDeviceGroup(id, request);
+	getDeviceGroupByIdCache().setCacheEntry(tenantId, updated.getId(), updated);
+	return updated;
     }
 
     /*
@@ -1064,7 +1168,10 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
      */
     @Override
     public IDeviceGroup deleteDeviceGroup(UUID id) throws SiteWhereException {
-	return getWrapped().deleteDeviceGroup(id);
+	String tenantId = UserContext.getCurrentTenantId();
+	IDeviceGroup deleted = getWrapped().deleteDeviceGroup(id);
+	getDeviceGroupByIdCache().removeCacheEntry(tenantId, deleted.getId());
+	return deleted;
     }
 
     /*
@@ -1117,6 +1224,18 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
 	/** Cache configuration for device assignments */
 	private ICacheConfiguration deviceAssignmentConfiguration = new CacheConfiguration(60);
 
+	/** Cache configuration for customer types */
+	private ICacheConfiguration customerTypeConfiguration = new CacheConfiguration(60);
+
+	/** Cache configuration for customers */
+	private ICacheConfiguration customerConfiguration = new CacheConfiguration(60);
+
+	/** Cache configuration for area types */
+	private ICacheConfiguration areaTypeConfiguration = new CacheConfiguration(60);
+
+	/** Cache configuration for device groups */
+	private ICacheConfiguration deviceGroupConfiguration = new CacheConfiguration(60);
+
 	public ICacheConfiguration getAreaConfiguration() {
 	    return areaConfiguration;
 	}
@@ -1148,6 +1267,38 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
 	public void setDeviceAssignmentConfiguration(ICacheConfiguration deviceAssignmentConfiguration) {
 	    this.deviceAssignmentConfiguration = deviceAssignmentConfiguration;
 	}
+
+	public ICacheConfiguration getCustomerTypeConfiguration() {
+	    return customerTypeConfiguration;
+	}
+
+	public void setCustomerTypeConfiguration(ICacheConfiguration customerTypeConfiguration) {
+	    this.customerTypeConfiguration = customerTypeConfiguration;
+	}
+
+	public ICacheConfiguration getCustomerConfiguration() {
+	    return customerConfiguration;
+	}
+
+	public void setCustomerConfiguration(ICacheConfiguration customerConfiguration) {
+	    this.customerConfiguration = customerConfiguration;
+	}
+
+	public ICacheConfiguration getAreaTypeConfiguration() {
+	    return areaTypeConfiguration;
+	}
+
+	public void setAreaTypeConfiguration(ICacheConfiguration areaTypeConfiguration) {
+	    this.areaTypeConfiguration = areaTypeConfiguration;
+	}
+
+	public ICacheConfiguration getDeviceGroupConfiguration() {
+	    return deviceGroupConfiguration;
+	}
+
+	public void setDeviceGroupConfiguration(ICacheConfiguration deviceGroupConfiguration) {
+	    this.deviceGroupConfiguration = deviceGroupConfiguration;
+	}
     }
 
     public ICacheProvider<String, IArea> getAreaCache() {
@@ -1182,6 +1333,22 @@ public class CachedDeviceManagementApiChannel extends TenantEngineLifecycleCompo
 	return deviceAssignmentByIdCache;
     }
 
+    protected ICacheProvider<UUID, ICustomerType> getCustomerTypeByIdCache() {
+	return customerTypeByIdCache;
+    }
+
+    protected ICacheProvider<UUID, ICustomer> getCustomerByIdCache() {
+	return customerByIdCache;
+    }
+
+    protected ICacheProvider<UUID, IAreaType> getAreaTypeByIdCache() {
+	return areaTypeByIdCache;
+    }
+
+    protected ICacheProvider<UUID, IDeviceGroup> getDeviceGroupByIdCache() {
+	return deviceGroupByIdCache;
+    }
+
     protected IDeviceManagementApiChannel<?> getWrapped() {
 	return wrapped;
     }
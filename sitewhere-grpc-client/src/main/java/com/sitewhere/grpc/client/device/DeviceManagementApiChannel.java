@@ -15,15 +15,24 @@
  */
 package com.sitewhere.grpc.client.device;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
+import com.sitewhere.grpc.client.BulkLookup;
+import com.sitewhere.grpc.client.FutureResponseObserver;
 import com.sitewhere.grpc.client.GrpcUtils;
 import com.sitewhere.grpc.client.MultitenantApiChannel;
 import com.sitewhere.grpc.client.spi.client.IDeviceManagementApiChannel;
 import com.sitewhere.grpc.common.CommonModelConverter;
 import com.sitewhere.grpc.device.DeviceModelConverter;
 import com.sitewhere.grpc.service.*;
+import com.sitewhere.microservice.api.search.PagedCriteria;
+import com.sitewhere.microservice.api.search.PagedSearchIterator;
+import com.sitewhere.rest.model.search.SearchCriteria;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.area.IArea;
 import com.sitewhere.spi.area.IAreaType;
@@ -281,9 +290,7 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
     public ICustomer getCustomer(UUID id) throws SiteWhereException {
 	try {
 	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetCustomerMethod());
-	    GGetCustomerRequest.Builder grequest = GGetCustomerRequest.newBuilder();
-	    grequest.setId(CommonModelConverter.asGrpcUuid(id));
-	    GGetCustomerResponse gresponse = getGrpcChannel().getBlockingStub().getCustomer(grequest.build());
+	    GGetCustomerResponse gresponse = getGrpcChannel().getBlockingStub().getCustomer(buildGetCustomerRequest(id));
 	    ICustomer response = (gresponse.hasCustomer()) ? DeviceModelConverter.asApiCustomer(gresponse.getCustomer())
 		    : null;
 	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getGetCustomerMethod(), response);
@@ -293,6 +300,15 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.microservice.api.device.IDeviceManagement#getCustomers(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, ICustomer> getCustomers(Collection<UUID> ids) throws SiteWhereException {
+	return BulkLookup.lookup(ids, this::getCustomerAsync);
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#getCustomerByToken(java.lang.
      * String)
@@ -585,9 +601,7 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
     public IArea getArea(UUID id) throws SiteWhereException {
 	try {
 	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetAreaMethod());
-	    GGetAreaRequest.Builder grequest = GGetAreaRequest.newBuilder();
-	    grequest.setId(CommonModelConverter.asGrpcUuid(id));
-	    GGetAreaResponse gresponse = getGrpcChannel().getBlockingStub().getArea(grequest.build());
+	    GGetAreaResponse gresponse = getGrpcChannel().getBlockingStub().getArea(buildGetAreaRequest(id));
 	    IArea response = (gresponse.hasArea()) ? DeviceModelConverter.asApiArea(gresponse.getArea()) : null;
 	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getGetAreaMethod(), response);
 	    return response;
@@ -596,6 +610,15 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.microservice.api.device.IDeviceManagement#getAreas(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, IArea> getAreas(Collection<UUID> ids) throws SiteWhereException {
+	return BulkLookup.lookup(ids, this::getAreaAsync);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getAreaByToken(java.lang.String)
@@ -1258,9 +1281,7 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
     public IDevice getDevice(UUID deviceId) throws SiteWhereException {
 	try {
 	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetDeviceMethod());
-	    GGetDeviceRequest.Builder grequest = GGetDeviceRequest.newBuilder();
-	    grequest.setId(CommonModelConverter.asGrpcUuid(deviceId));
-	    GGetDeviceResponse gresponse = getGrpcChannel().getBlockingStub().getDevice(grequest.build());
+	    GGetDeviceResponse gresponse = getGrpcChannel().getBlockingStub().getDevice(buildGetDeviceRequest(deviceId));
 	    IDevice response = (gresponse.hasDevice()) ? DeviceModelConverter.asApiDevice(gresponse.getDevice()) : null;
 	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getGetDeviceMethod(), response);
 	    return response;
@@ -1269,6 +1290,15 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.microservice.api.device.IDeviceManagement#getDevices(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, IDevice> getDevices(Collection<UUID> ids) throws SiteWhereException {
+	return BulkLookup.lookup(ids, this::getDeviceAsync);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceByToken(java.lang.String)
@@ -1277,9 +1307,8 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
     public IDevice getDeviceByToken(String token) throws SiteWhereException {
 	try {
 	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetDeviceByTokenMethod());
-	    GGetDeviceByTokenRequest.Builder grequest = GGetDeviceByTokenRequest.newBuilder();
-	    grequest.setToken(token);
-	    GGetDeviceByTokenResponse gresponse = getGrpcChannel().getBlockingStub().getDeviceByToken(grequest.build());
+	    GGetDeviceByTokenResponse gresponse = getGrpcChannel().getBlockingStub()
+		    .getDeviceByToken(buildGetDeviceByTokenRequest(token));
 	    IDevice response = (gresponse.hasDevice()) ? DeviceModelConverter.asApiDevice(gresponse.getDevice()) : null;
 	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getGetDeviceByTokenMethod(), response);
 	    return response;
@@ -1446,10 +1475,8 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
     public IDeviceAssignment getDeviceAssignment(UUID id) throws SiteWhereException {
 	try {
 	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetDeviceAssignmentMethod());
-	    GGetDeviceAssignmentRequest.Builder grequest = GGetDeviceAssignmentRequest.newBuilder();
-	    grequest.setId(CommonModelConverter.asGrpcUuid(id));
 	    GGetDeviceAssignmentResponse gresponse = getGrpcChannel().getBlockingStub()
-		    .getDeviceAssignment(grequest.build());
+		    .getDeviceAssignment(buildGetDeviceAssignmentRequest(id));
 	    IDeviceAssignment response = (gresponse.hasAssignment())
 		    ? DeviceModelConverter.asApiDeviceAssignment(gresponse.getAssignment())
 		    : null;
@@ -1460,6 +1487,15 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
 	}
     }
 
+    /*
+     * @see
+     * com.sitewhere.microservice.api.device.IDeviceManagement#getDeviceAssignments(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, IDeviceAssignment> getDeviceAssignments(Collection<UUID> ids) throws SiteWhereException {
+	return BulkLookup.lookup(ids, this::getDeviceAssignmentAsync);
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -1470,10 +1506,8 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
     public IDeviceAssignment getDeviceAssignmentByToken(String token) throws SiteWhereException {
 	try {
 	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetDeviceAssignmentByTokenMethod());
-	    GGetDeviceAssignmentByTokenRequest.Builder grequest = GGetDeviceAssignmentByTokenRequest.newBuilder();
-	    grequest.setToken(token);
 	    GGetDeviceAssignmentByTokenResponse gresponse = getGrpcChannel().getBlockingStub()
-		    .getDeviceAssignmentByToken(grequest.build());
+		    .getDeviceAssignmentByToken(buildGetDeviceAssignmentByTokenRequest(token));
 	    IDeviceAssignment response = (gresponse.hasAssignment())
 		    ? DeviceModelConverter.asApiDeviceAssignment(gresponse.getAssignment())
 		    : null;
@@ -1493,10 +1527,8 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
     public List<IDeviceAssignment> getActiveDeviceAssignments(UUID deviceId) throws SiteWhereException {
 	try {
 	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetActiveAssignmentsForDeviceMethod());
-	    GGetActiveAssignmentsForDeviceRequest.Builder grequest = GGetActiveAssignmentsForDeviceRequest.newBuilder();
-	    grequest.setId(CommonModelConverter.asGrpcUuid(deviceId));
 	    GGetActiveAssignmentsForDeviceResponse gresponse = getGrpcChannel().getBlockingStub()
-		    .getActiveAssignmentsForDevice(grequest.build());
+		    .getActiveAssignmentsForDevice(buildGetActiveAssignmentsForDeviceRequest(deviceId));
 	    List<IDeviceAssignment> response = DeviceModelConverter
 		    .asApiDeviceAssignments(gresponse.getAssignmentList());
 	    GrpcUtils.logClientMethodResponse(DeviceManagementGrpc.getGetActiveAssignmentsForDeviceMethod(), response);
@@ -1956,4 +1988,263 @@ public class DeviceManagementApiChannel extends MultitenantApiChannel<DeviceMana
 	    throw GrpcUtils.handleClientMethodException(DeviceManagementGrpc.getListDeviceGroupElementsMethod(), t);
 	}
     }
-}
\ No newline at end of file
+
+    /*
+     * @see
+     * com.sitewhere.grpc.client.spi.client.IDeviceManagementApiChannel#getDeviceAsync
+     * (java.util.UUID)
+     */
+    @Override
+    public CompletableFuture<IDevice> getDeviceAsync(UUID deviceId) {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetDeviceMethod());
+	    FutureResponseObserver<GGetDeviceResponse, IDevice> observer = new FutureResponseObserver<>(
+		    DeviceManagementGrpc.getGetDeviceMethod(),
+		    gresponse -> (gresponse.hasDevice()) ? DeviceModelConverter.asApiDevice(gresponse.getDevice())
+			    : null);
+	    getGrpcChannel().getAsyncStub().getDevice(buildGetDeviceRequest(deviceId), observer);
+	    return observer.getFuture();
+	} catch (Throwable t) {
+	    return FutureResponseObserver.failed(DeviceManagementGrpc.getGetDeviceMethod(), t);
+	}
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceManagementApiChannel#
+     * getDeviceByTokenAsync(java.lang.String)
+     */
+    @Override
+    public CompletableFuture<IDevice> getDeviceByTokenAsync(String token) {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetDeviceByTokenMethod());
+	    FutureResponseObserver<GGetDeviceByTokenResponse, IDevice> observer = new FutureResponseObserver<>(
+		    DeviceManagementGrpc.getGetDeviceByTokenMethod(),
+		    gresponse -> (gresponse.hasDevice()) ? DeviceModelConverter.asApiDevice(gresponse.getDevice())
+			    : null);
+	    getGrpcChannel().getAsyncStub().getDeviceByToken(buildGetDeviceByTokenRequest(token), observer);
+	    return observer.getFuture();
+	} catch (Throwable t) {
+	    return FutureResponseObserver.failed(DeviceManagementGrpc.getGetDeviceByTokenMethod(), t);
+	}
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceManagementApiChannel#
+     * getDeviceAssignmentAsync(java.util.UUID)
+     */
+    @Override
+    public CompletableFuture<IDeviceAssignment> getDeviceAssignmentAsync(UUID id) {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetDeviceAssignmentMethod());
+	    FutureResponseObserver<GGetDeviceAssignmentResponse, IDeviceAssignment> observer = new FutureResponseObserver<>(
+		    DeviceManagementGrpc.getGetDeviceAssignmentMethod(),
+		    gresponse -> (gresponse.hasAssignment())
+			    ? DeviceModelConverter.asApiDeviceAssignment(gresponse.getAssignment())
+			    : null);
+	    getGrpcChannel().getAsyncStub().getDeviceAssignment(buildGetDeviceAssignmentRequest(id), observer);
+	    return observer.getFuture();
+	} catch (Throwable t) {
+	    return FutureResponseObserver.failed(DeviceManagementGrpc.getGetDeviceAssignmentMethod(), t);
+	}
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceManagementApiChannel#
+     * getDeviceAssignmentByTokenAsync(java.lang.String)
+     */
+    @Override
+    public CompletableFuture<IDeviceAssignment> getDeviceAssignmentByTokenAsync(String token) {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetDeviceAssignmentByTokenMethod());
+	    FutureResponseObserver<GGetDeviceAssignmentByTokenResponse, IDeviceAssignment> observer = new FutureResponseObserver<>(
+		    DeviceManagementGrpc.getGetDeviceAssignmentByTokenMethod(),
+		    gresponse -> (gresponse.hasAssignment())
+			    ? DeviceModelConverter.asApiDeviceAssignment(gresponse.getAssignment())
+			    : null);
+	    getGrpcChannel().getAsyncStub().getDeviceAssignmentByToken(buildGetDeviceAssignmentByTokenRequest(token),
+		    observer);
+	    return observer.getFuture();
+	} catch (Throwable t) {
+	    return FutureResponseObserver.failed(DeviceManagementGrpc.getGetDeviceAssignmentByTokenMethod(), t);
+	}
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceManagementApiChannel#
+     * getActiveDeviceAssignmentsAsync(java.util.UUID)
+     */
+    @Override
+    public CompletableFuture<List<IDeviceAssignment>> getActiveDeviceAssignmentsAsync(UUID deviceId) {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetActiveAssignmentsForDeviceMethod());
+	    FutureResponseObserver<GGetActiveAssignmentsForDeviceResponse, List<IDeviceAssignment>> observer = new FutureResponseObserver<>(
+		    DeviceManagementGrpc.getGetActiveAssignmentsForDeviceMethod(),
+		    gresponse -> DeviceModelConverter.asApiDeviceAssignments(gresponse.getAssignmentList()));
+	    getGrpcChannel().getAsyncStub()
+		    .getActiveAssignmentsForDevice(buildGetActiveAssignmentsForDeviceRequest(deviceId), observer);
+	    return observer.getFuture();
+	} catch (Throwable t) {
+	    return FutureResponseObserver.failed(DeviceManagementGrpc.getGetActiveAssignmentsForDeviceMethod(), t);
+	}
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceManagementApiChannel#
+     * getCustomerAsync(java.util.UUID)
+     */
+    @Override
+    public CompletableFuture<ICustomer> getCustomerAsync(UUID id) {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetCustomerMethod());
+	    FutureResponseObserver<GGetCustomerResponse, ICustomer> observer = new FutureResponseObserver<>(
+		    DeviceManagementGrpc.getGetCustomerMethod(),
+		    gresponse -> (gresponse.hasCustomer()) ? DeviceModelConverter.asApiCustomer(gresponse.getCustomer())
+			    : null);
+	    getGrpcChannel().getAsyncStub().getCustomer(buildGetCustomerRequest(id), observer);
+	    return observer.getFuture();
+	} catch (Throwable t) {
+	    return FutureResponseObserver.failed(DeviceManagementGrpc.getGetCustomerMethod(), t);
+	}
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceManagementApiChannel#
+     * getAreaAsync(java.util.UUID)
+     */
+    @Override
+    public CompletableFuture<IArea> getAreaAsync(UUID id) {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceManagementGrpc.getGetAreaMethod());
+	    FutureResponseObserver<GGetAreaResponse, IArea> observer = new FutureResponseObserver<>(
+		    DeviceManagementGrpc.getGetAreaMethod(),
+		    gresponse -> (gresponse.hasArea()) ? DeviceModelConverter.asApiArea(gresponse.getArea()) : null);
+	    getGrpcChannel().getAsyncStub().getArea(buildGetAreaRequest(id), observer);
+	    return observer.getFuture();
+	} catch (Throwable t) {
+	    return FutureResponseObserver.failed(DeviceManagementGrpc.getGetAreaMethod(), t);
+	}
+    }
+
+    /**
+     * Build gRPC request for getting a device by id.
+     * 
+     * @param deviceId
+     * @return
+     * @throws SiteWhereException
+     */
+    protected static GGetDeviceRequest buildGetDeviceRequest(UUID deviceId) throws SiteWhereException {
+	GGetDeviceRequest.Builder grequest = GGetDeviceRequest.newBuilder();
+	grequest.setId(CommonModelConverter.asGrpcUuid(deviceId));
+	return grequest.build();
+    }
+
+    /**
+     * Build gRPC request for getting a device by token.
+     * 
+     * @param token
+     * @return
+     */
+    protected static GGetDeviceByTokenRequest buildGetDeviceByTokenRequest(String token) {
+	GGetDeviceByTokenRequest.Builder grequest = GGetDeviceByTokenRequest.newBuilder();
+	grequest.setToken(token);
+	return grequest.build();
+    }
+
+    /**
+     * Build gRPC request for getting a device assignment by id.
+     * 
+     * @param id
+     * @return
+     * @throws SiteWhereException
+     */
+    protected static GGetDeviceAssignmentRequest buildGetDeviceAssignmentRequest(UUID id) throws SiteWhereException {
+	GGetDeviceAssignmentRequest.Builder grequest = GGetDeviceAssignmentRequest.newBuilder();
+	grequest.setId(CommonModelConverter.asGrpcUuid(id));
+	return grequest.build();
+    }
+
+    /**
+     * Build gRPC request for getting a device assignment by token.
+     * 
+     * @param token
+     * @return
+     */
+    protected static GGetDeviceAssignmentByTokenRequest buildGetDeviceAssignmentByTokenRequest(String token) {
+	GGetDeviceAssignmentByTokenRequest.Builder grequest = GGetDeviceAssignmentByTokenRequest.newBuilder();
+	grequest.setToken(token);
+	return grequest.build();
+    }
+
+    /**
+     * Build gRPC request for getting active assignments for a device.
+     * 
+     * @param deviceId
+     * @return
+     * @throws SiteWhereException
+     */
+    protected static GGetActiveAssignmentsForDeviceRequest buildGetActiveAssignmentsForDeviceRequest(UUID deviceId)
+	    throws SiteWhereException {
+	GGetActiveAssignmentsForDeviceRequest.Builder grequest = GGetActiveAssignmentsForDeviceRequest.newBuilder();
+	grequest.setId(CommonModelConverter.asGrpcUuid(deviceId));
+	return grequest.build();
+    }
+
+    /**
+     * Build gRPC request for getting a customer by id.
+     * 
+     * @param id
+     * @return
+     * @throws SiteWhereException
+     */
+    protected static GGetCustomerRequest buildGetCustomerRequest(UUID id) throws SiteWhereException {
+	GGetCustomerRequest.Builder grequest = GGetCustomerRequest.newBuilder();
+	grequest.setId(CommonModelConverter.asGrpcUuid(id));
+	return grequest.build();
+    }
+
+    /**
+     * Build gRPC request for getting an area by id.
+     * 
+     * @param id
+     * @return
+     * @throws SiteWhereException
+     */
+    protected static GGetAreaRequest buildGetAreaRequest(UUID id) throws SiteWhereException {
+	GGetAreaRequest.Builder grequest = GGetAreaRequest.newBuilder();
+	grequest.setId(CommonModelConverter.asGrpcUuid(id));
+	return grequest.build();
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceManagementApiChannel#
+     * streamDevices(com.sitewhere.spi.search.device.IDeviceSearchCriteria, int)
+     */
+    @Override
+    public Stream<IDevice> streamDevices(IDeviceSearchCriteria criteria, int pageSize) {
+	return PagedSearchIterator.stream(
+		(pageNumber, size) -> listDevices(PagedCriteria.forPage(criteria, pageNumber, size)), pageSize);
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceManagementApiChannel#
+     * streamDeviceAssignments(com.sitewhere.spi.search.device.
+     * IDeviceAssignmentSearchCriteria, int)
+     */
+    @Override
+    public Stream<IDeviceAssignment> streamDeviceAssignments(IDeviceAssignmentSearchCriteria criteria,
+	    int pageSize) {
+	return PagedSearchIterator.stream(
+		(pageNumber, size) -> listDeviceAssignments(PagedCriteria.forPage(criteria, pageNumber, size)),
+		pageSize);
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceManagementApiChannel#
+     * streamDeviceGroupElements(java.util.UUID, int)
+     */
+    @Override
+    public Stream<IDeviceGroupElement> streamDeviceGroupElements(UUID groupId, int pageSize) {
+	return PagedSearchIterator.stream(
+		(pageNumber, size) -> listDeviceGroupElements(groupId, new SearchCriteria(pageNumber, size)), pageSize);
+    }
+}
@@ -21,15 +21,23 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import com.sitewhere.grpc.client.GrpcUtils;
 import com.sitewhere.grpc.device.DeviceModelConverter;
 import com.sitewhere.grpc.model.DeviceModel.GArea;
+import com.sitewhere.grpc.model.DeviceModel.GAreaType;
+import com.sitewhere.grpc.model.DeviceModel.GCustomer;
+import com.sitewhere.grpc.model.DeviceModel.GCustomerType;
 import com.sitewhere.grpc.model.DeviceModel.GDevice;
 import com.sitewhere.grpc.model.DeviceModel.GDeviceAssignment;
+import com.sitewhere.grpc.model.DeviceModel.GDeviceGroup;
 import com.sitewhere.grpc.model.DeviceModel.GDeviceType;
 import com.sitewhere.microservice.cache.RedisCacheProvider;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.area.IArea;
+import com.sitewhere.spi.area.IAreaType;
+import com.sitewhere.spi.customer.ICustomer;
+import com.sitewhere.spi.customer.ICustomerType;
 import com.sitewhere.spi.device.IDevice;
 import com.sitewhere.spi.device.IDeviceAssignment;
 import com.sitewhere.spi.device.IDeviceType;
+import com.sitewhere.spi.device.group.IDeviceGroup;
 import com.sitewhere.spi.microservice.IMicroservice;
 import com.sitewhere.spi.microservice.cache.ICacheConfiguration;
 
@@ -46,6 +54,10 @@ public class DeviceManagementCacheProviders {
     public static final String DEVICE_ASSIGNMENT_BY_ID = "device_assignment_by_id";
     public static final String DEVICE_TYPE_BY_TOKEN = "device_type_by_token";
     public static final String DEVICE_TYPE_BY_ID = "device_type_by_id";
+    public static final String CUSTOMER_TYPE_BY_ID = "customer_type_by_id";
+    public static final String CUSTOMER_BY_ID = "customer_by_id";
+    public static final String AREA_TYPE_BY_ID = "area_type_by_id";
+    public static final String DEVICE_GROUP_BY_ID = "device_group_by_id";
 
     /**
      * Cache for areas.
@@ -382,4 +394,172 @@ public class DeviceManagementCacheProviders {
 	    }
 	}
     }
-}
\ No newline at end of file
+
+    /**
+     * Cache for customer types by id.
+     */
+    public static class CustomerTypeByIdCache extends RedisCacheProvider<UUID, ICustomerType> {
+
+	public CustomerTypeByIdCache(IMicroservice<?, ?> microservice, ICacheConfiguration configuration) {
+	    super(microservice, CUSTOMER_TYPE_BY_ID, configuration);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.microservice.cache.RedisCacheProvider#convertKey(java.lang.
+	 * Object)
+	 */
+	@Override
+	public String convertKey(UUID key) throws SiteWhereException {
+	    return key.toString();
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#serialize(java.lang.
+	 * Object)
+	 */
+	@Override
+	public byte[] serialize(ICustomerType value) throws SiteWhereException {
+	    GCustomerType message = DeviceModelConverter.asGrpcCustomerType(value);
+	    return GrpcUtils.marshal(message);
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#deserialize(byte[])
+	 */
+	@Override
+	public ICustomerType deserialize(byte[] value) throws SiteWhereException {
+	    try {
+		return DeviceModelConverter.asApiCustomerType(GCustomerType.parseFrom(value));
+	    } catch (InvalidProtocolBufferException e) {
+		throw new SiteWhereException("Unable to parse gRPC message.", e);
+	    }
+	}
+    }
+
+    /**
+     * Cache for customers by id.
+     */
+    public static class CustomerByIdCache extends RedisCacheProvider<UUID, ICustomer> {
+
+	public CustomerByIdCache(IMicroservice<?, ?> microservice, ICacheConfiguration configuration) {
+	    super(microservice, CUSTOMER_BY_ID, configuration);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.microservice.cache.RedisCacheProvider#convertKey(java.lang.
+	 * Object)
+	 */
+	@Override
+	public String convertKey(UUID key) throws SiteWhereException {
+	    return key.toString();
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#serialize(java.lang.
+	 * Object)
+	 */
+	@Override
+	public byte[] serialize(ICustomer value) throws SiteWhereException {
+	    GCustomer message = DeviceModelConverter.asGrpcCustomer(value);
+	    return GrpcUtils.marshal(message);
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#deserialize(byte[])
+	 */
+	@Override
+	public ICustomer deserialize(byte[] value) throws SiteWhereException {
+	    try {
+		return DeviceModelConverter.asApiCustomer(GCustomer.parseFrom(value));
+	    } catch (InvalidProtocolBufferException e) {
+		throw new SiteWhereException("Unable to parse gRPC message.", e);
+	    }
+	}
+    }
+
+    /**
+     * Cache for area types by id.
+     */
+    public static class AreaTypeByIdCache extends RedisCacheProvider<UUID, IAreaType> {
+
+	public AreaTypeByIdCache(IMicroservice<?, ?> microservice, ICacheConfiguration configuration) {
+	    super(microservice, AREA_TYPE_BY_ID, configuration);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.microservice.cache.RedisCacheProvider#convertKey(java.lang.
+	 * Object)
+	 */
+	@Override
+	public String convertKey(UUID key) throws SiteWhereException {
+	    return key.toString();
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#serialize(java.lang.
+	 * Object)
+	 */
+	@Override
+	public byte[] serialize(IAreaType value) throws SiteWhereException {
+	    GAreaType message = DeviceModelConverter.asGrpcAreaType(value);
+	    return GrpcUtils.marshal(message);
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#deserialize(byte[])
+	 */
+	@Override
+	public IAreaType deserialize(byte[] value) throws SiteWhereException {
+	    try {
+		return DeviceModelConverter.asApiAreaType(GAreaType.parseFrom(value));
+	    } catch (InvalidProtocolBufferException e) {
+		throw new SiteWhereException("Unable to parse gRPC message.", e);
+	    }
+	}
+    }
+
+    /**
+     * Cache for device groups by id.
+     */
+    public static class DeviceGroupByIdCache extends RedisCacheProvider<UUID, IDeviceGroup> {
+
+	public DeviceGroupByIdCache(IMicroservice<?, ?> microservice, ICacheConfiguration configuration) {
+	    super(microservice, DEVICE_GROUP_BY_ID, configuration);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.microservice.cache.RedisCacheProvider#convertKey(java.lang.
+	 * Object)
+	 */
+	@Override
+	public String convertKey(UUID key) throws SiteWhereException {
+	    return key.toString();
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#serialize(java.lang.
+	 * Object)
+	 */
+	@Override
+	public byte[] serialize(IDeviceGroup value) throws SiteWhereException {
+	    GDeviceGroup message = DeviceModelConverter.asGrpcDeviceGroup(value);
+	    return GrpcUtils.marshal(message);
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#deserialize(byte[])
+	 */
+	@Override
+	public IDeviceGroup deserialize(byte[] value) throws SiteWhereException {
+	    try {
+		return DeviceModelConverter.asApiDeviceGroup(GDeviceGroup.parseFrom(value));
+	    } catch (InvalidProtocolBufferException e) {
+		throw new SiteWhereException("Unable to parse gRPC message.", e);
+	    }
+	}
+    }
+}
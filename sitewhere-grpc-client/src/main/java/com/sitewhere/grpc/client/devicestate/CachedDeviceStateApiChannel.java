@@ -0,0 +1,545 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client.devicestate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.sitewhere.grpc.client.PendingRequestFlusher;
+import com.sitewhere.grpc.client.PendingRequestFlusher.IPendingRequest;
+import com.sitewhere.grpc.client.spi.client.IDeviceStateApiChannel;
+import com.sitewhere.microservice.api.state.IDeviceStateManagement;
+import com.sitewhere.microservice.cache.CacheConfiguration;
+import com.sitewhere.microservice.lifecycle.TenantEngineLifecycleComponent;
+import com.sitewhere.microservice.security.SiteWhereAuthentication;
+import com.sitewhere.microservice.security.UserContext;
+import com.sitewhere.rest.model.device.state.request.DeviceStateEventMergeRequest;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.device.event.IDeviceEvent;
+import com.sitewhere.spi.device.state.IDeviceState;
+import com.sitewhere.spi.device.state.request.IDeviceStateCreateRequest;
+import com.sitewhere.spi.device.state.request.IDeviceStateEventMergeRequest;
+import com.sitewhere.spi.microservice.cache.ICacheConfiguration;
+import com.sitewhere.spi.microservice.lifecycle.ILifecycleProgressMonitor;
+import com.sitewhere.spi.search.ISearchResults;
+import com.sitewhere.spi.search.device.IDeviceStateSearchCriteria;
+
+/**
+ * Adds caching and merge coalescing to the device state API channel. Device
+ * state is cached locally by device assignment id and refreshed whenever a
+ * create, update or merge made through this channel returns a new state.
+ * 
+ * If the merge window is greater than zero, async merges for the same tenant
+ * and device state that arrive within the window are combined into a single
+ * request by the {@link IMergeRequestCombiner} and sent in one call. All
+ * callers that contributed to the combined request receive the resulting
+ * state. By default, combined requests contain the events of each request in
+ * the order they arrived. Blocking merges are sent immediately along with any
+ * merge pending for the same device state. All other calls are passed through
+ * to the wrapped channel.
+ */
+public class CachedDeviceStateApiChannel extends TenantEngineLifecycleComponent implements IDeviceStateManagement {
+
+    /** Cache settings */
+    private CacheSettings cacheSettings;
+
+    /** Wrapped API channel */
+    private IDeviceStateApiChannel<?> wrapped;
+
+    /** Combines merge requests for the same device state */
+    private IMergeRequestCombiner mergeRequestCombiner = new EventListMergeRequestCombiner();
+
+    /** Device state by assignment id cache */
+    private Cache<StateKey, IDeviceState> stateByAssignmentCache;
+
+    /** Holds merges waiting to be sent */
+    private PendingRequestFlusher<StateKey, PendingMerge> flusher = new PendingRequestFlusher<>(
+	    "Device State Merge Flusher", this::send);
+
+    public CachedDeviceStateApiChannel(IDeviceStateApiChannel<?> wrapped, CacheSettings cacheSettings) {
+	this.wrapped = wrapped;
+	this.cacheSettings = cacheSettings;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#initialize(com.sitewhere.
+     * spi.server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void initialize(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	initializeNestedComponent(getWrapped(), monitor, true);
+	this.stateByAssignmentCache = CacheBuilder.newBuilder().maximumSize(getCacheSettings().getMaximumEntries())
+		.expireAfterWrite(getCacheSettings().getDeviceStateConfiguration().getTtlInSeconds(), TimeUnit.SECONDS)
+		.build();
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#start(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	startNestedComponent(getWrapped(), monitor, true);
+	getFlusher().start();
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#stop(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	getFlusher().stop();
+	stopNestedComponent(getWrapped(), monitor);
+	if (getStateByAssignmentCache() != null) {
+	    getStateByAssignmentCache().invalidateAll();
+	}
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.state.IDeviceStateManagement#
+     * createDeviceState(com.sitewhere.spi.device.state.request.
+     * IDeviceStateCreateRequest)
+     */
+    @Override
+    public IDeviceState createDeviceState(IDeviceStateCreateRequest request) throws SiteWhereException {
+	IDeviceState created = getWrapped().createDeviceState(request);
+	cacheDeviceState(UserContext.getCurrentTenantId(), created);
+	return created;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.state.IDeviceStateManagement#getDeviceState(
+     * java.util.UUID)
+     */
+    @Override
+    public IDeviceState getDeviceState(UUID id) throws SiteWhereException {
+	return getWrapped().getDeviceState(id);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.state.IDeviceStateManagement#
+     * getDeviceStateByDeviceAssignment(java.util.UUID)
+     */
+    @Override
+    public IDeviceState getDeviceStateByDeviceAssignment(UUID assignmentId) throws SiteWhereException {
+	if (!getCacheSettings().getDeviceStateConfiguration().isEnabled()) {
+	    return getWrapped().getDeviceStateByDeviceAssignment(assignmentId);
+	}
+	String tenantId = UserContext.getCurrentTenantId();
+	IDeviceState state = getStateByAssignmentCache().getIfPresent(new StateKey(tenantId, assignmentId));
+	if (state == null) {
+	    state = getWrapped().getDeviceStateByDeviceAssignment(assignmentId);
+	    cacheDeviceState(tenantId, state);
+	}
+	return state;
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.state.IDeviceStateManagement#
+     * getDeviceStatesForDevice(java.util.UUID)
+     */
+    @Override
+    public List<? extends IDeviceState> getDeviceStatesForDevice(UUID deviceId) throws SiteWhereException {
+	return getWrapped().getDeviceStatesForDevice(deviceId);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.state.IDeviceStateManagement#
+     * searchDeviceStates(com.sitewhere.spi.search.device.
+     * IDeviceStateSearchCriteria)
+     */
+    @Override
+    public ISearchResults<? extends IDeviceState> searchDeviceStates(IDeviceStateSearchCriteria criteria)
+	    throws SiteWhereException {
+	return getWrapped().searchDeviceStates(criteria);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.state.IDeviceStateManagement#
+     * updateDeviceState(java.util.UUID,
+     * com.sitewhere.spi.device.state.request.IDeviceStateCreateRequest)
+     */
+    @Override
+    public IDeviceState updateDeviceState(UUID id, IDeviceStateCreateRequest request) throws SiteWhereException {
+	IDeviceState updated = getWrapped().updateDeviceState(id, request);
+	cacheDeviceState(UserContext.getCurrentTenantId(), updated);
+	return updated;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.state.IDeviceStateManagement#merge(java.util.
+     * UUID, com.sitewhere.spi.device.state.request.IDeviceStateEventMergeRequest)
+     */
+    @Override
+    public IDeviceState merge(UUID id, IDeviceStateEventMergeRequest events) throws SiteWhereException {
+	if (!isCoalescing()) {
+	    IDeviceState state = getWrapped().merge(id, events);
+	    cacheDeviceState(UserContext.getCurrentTenantId(), state);
+	    return state;
+	}
+	return await(mergeNow(id, events));
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.state.IDeviceStateManagement#
+     * deleteDeviceState(java.util.UUID)
+     */
+    @Override
+    public IDeviceState deleteDeviceState(UUID id) throws SiteWhereException {
+	IDeviceState deleted = getWrapped().deleteDeviceState(id);
+	if (deleted != null && deleted.getDeviceAssignmentId() != null && getStateByAssignmentCache() != null) {
+	    getStateByAssignmentCache()
+		    .invalidate(new StateKey(UserContext.getCurrentTenantId(), deleted.getDeviceAssignmentId()));
+	}
+	return deleted;
+    }
+
+    /**
+     * Merge events into device state without blocking the calling thread. If
+     * merge coalescing is enabled, the request is combined with other requests
+     * for the same device state that arrive within the merge window.
+     * 
+     * @param id
+     * @param events
+     * @return
+     */
+    public CompletableFuture<IDeviceState> mergeAsync(UUID id, IDeviceStateEventMergeRequest events) {
+	String tenantId = UserContext.getCurrentTenantId();
+	if (!isCoalescing()) {
+	    return getWrapped().mergeAsync(id, events).thenApply(state -> {
+		cacheDeviceState(tenantId, state);
+		return state;
+	    });
+	}
+	SiteWhereAuthentication authentication = UserContext.getCurrentUser();
+	StateKey key = new StateKey(tenantId, id);
+	PendingMerge[] created = new PendingMerge[1];
+	PendingMerge merge = getFlusher().getPending().compute(key, (k, existing) -> {
+	    if (existing == null) {
+		created[0] = new PendingMerge(id, authentication, events);
+		return created[0];
+	    }
+	    existing.setRequest(getMergeRequestCombiner().combine(existing.getRequest(), events));
+	    return existing;
+	});
+	if (created[0] != null) {
+	    getFlusher().schedule(key, merge, getCacheSettings().getMergeWindowMs());
+	}
+	return merge.getFuture();
+    }
+
+    /**
+     * Send merge without waiting for the merge window. A merge pending for the
+     * same device state is combined with the request and sent along with it so
+     * that events are merged in the order they arrived.
+     * 
+     * @param id
+     * @param events
+     * @return
+     */
+    protected CompletableFuture<IDeviceState> mergeNow(UUID id, IDeviceStateEventMergeRequest events) {
+	PendingMerge merge = getFlusher().getPending().remove(new StateKey(UserContext.getCurrentTenantId(), id));
+	if (merge == null) {
+	    merge = new PendingMerge(id, UserContext.getCurrentUser(), events);
+	} else {
+	    merge.setRequest(getMergeRequestCombiner().combine(merge.getRequest(), events));
+	}
+	getFlusher().send(merge);
+	return merge.getFuture();
+    }
+
+    /**
+     * Send combined merge request to the wrapped channel. Called by the flusher
+     * with the credentials captured when the merge was created.
+     * 
+     * @param merge
+     */
+    private void send(PendingMerge merge) {
+	getWrapped().mergeAsync(merge.getId(), merge.getRequest()).whenComplete((state, t) -> {
+	    if (t != null) {
+		merge.fail(t);
+	    } else {
+		cacheDeviceState(merge.getTenantId(), state);
+		merge.getFuture().complete(state);
+	    }
+	});
+    }
+
+    /**
+     * Indicates whether merges are combined within the merge window.
+     * 
+     * @return
+     */
+    protected boolean isCoalescing() {
+	return getMergeRequestCombiner() != null && getCacheSettings().getMergeWindowMs() > 0;
+    }
+
+    /**
+     * Store device state in the cache based on its assignment id.
+     * 
+     * @param tenantId
+     * @param state
+     */
+    protected void cacheDeviceState(String tenantId, IDeviceState state) {
+	if (state != null && state.getDeviceAssignmentId() != null && getStateByAssignmentCache() != null
+		&& getCacheSettings().getDeviceStateConfiguration().isEnabled()) {
+	    getStateByAssignmentCache().put(new StateKey(tenantId, state.getDeviceAssignmentId()), state);
+	}
+    }
+
+    /**
+     * Wait for an async result and unwrap failures.
+     * 
+     * @param future
+     * @return
+     * @throws SiteWhereException
+     */
+    protected static <T> T await(CompletableFuture<T> future) throws SiteWhereException {
+	try {
+	    return future.get();
+	} catch (ExecutionException e) {
+	    if (e.getCause() instanceof SiteWhereException) {
+		throw (SiteWhereException) e.getCause();
+	    }
+	    throw new SiteWhereException("Device state merge failed.", e.getCause());
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new SiteWhereException("Interrupted while waiting for device state merge.", e);
+	}
+    }
+
+    /**
+     * Combines two merge requests for the same device state into a single
+     * request that has the same effect as merging them in order.
+     */
+    @FunctionalInterface
+    public static interface IMergeRequestCombiner {
+
+	/**
+	 * Combine a pending merge request with a later one.
+	 * 
+	 * @param pending
+	 * @param next
+	 * @return
+	 */
+	IDeviceStateEventMergeRequest combine(IDeviceStateEventMergeRequest pending,
+		IDeviceStateEventMergeRequest next);
+    }
+
+    /**
+     * Combines merge requests by appending the events of the later request to
+     * those of the pending request.
+     */
+    public static class EventListMergeRequestCombiner implements IMergeRequestCombiner {
+
+	/*
+	 * @see com.sitewhere.grpc.client.devicestate.CachedDeviceStateApiChannel.
+	 * IMergeRequestCombiner#combine(com.sitewhere.spi.device.state.request.
+	 * IDeviceStateEventMergeRequest,
+	 * com.sitewhere.spi.device.state.request.IDeviceStateEventMergeRequest)
+	 */
+	@Override
+	public IDeviceStateEventMergeRequest combine(IDeviceStateEventMergeRequest pending,
+		IDeviceStateEventMergeRequest next) {
+	    List<IDeviceEvent> events = new ArrayList<>();
+	    if (pending.getEvents() != null) {
+		events.addAll(pending.getEvents());
+	    }
+	    if (next.getEvents() != null) {
+		events.addAll(next.getEvents());
+	    }
+	    DeviceStateEventMergeRequest combined = new DeviceStateEventMergeRequest();
+	    combined.setEvents(events);
+	    return combined;
+	}
+    }
+
+    /**
+     * Contains default cache settings for device state.
+     */
+    public static class CacheSettings {
+
+	/** Cache configuration for device state */
+	private ICacheConfiguration deviceStateConfiguration = new CacheConfiguration(10);
+
+	/** Maximum number of device states cached */
+	private long maximumEntries = 100000;
+
+	/** Time in milliseconds merges are collected before being sent (0 to disable) */
+	private long mergeWindowMs = 100;
+
+	public ICacheConfiguration getDeviceStateConfiguration() {
+	    return deviceStateConfiguration;
+	}
+
+	public void setDeviceStateConfiguration(ICacheConfiguration deviceStateConfiguration) {
+	    this.deviceStateConfiguration = deviceStateConfiguration;
+	}
+
+	public long getMaximumEntries() {
+	    return maximumEntries;
+	}
+
+	public void setMaximumEntries(long maximumEntries) {
+	    this.maximumEntries = maximumEntries;
+	}
+
+	public long getMergeWindowMs() {
+	    return mergeWindowMs;
+	}
+
+	public void setMergeWindowMs(long mergeWindowMs) {
+	    this.mergeWindowMs = mergeWindowMs;
+	}
+    }
+
+    /**
+     * Key for device state within a tenant.
+     */
+    protected static class StateKey {
+
+	/** Tenant id */
+	private String tenantId;
+
+	/** Device state or assignment id */
+	private UUID id;
+
+	public StateKey(String tenantId, UUID id) {
+	    this.tenantId = tenantId;
+	    this.id = id;
+	}
+
+	/*
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+	    if (!(obj instanceof StateKey)) {
+		return false;
+	    }
+	    StateKey other = (StateKey) obj;
+	    return Objects.equals(tenantId, other.tenantId) && Objects.equals(id, other.id);
+	}
+
+	/*
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+	    return Objects.hash(tenantId, id);
+	}
+    }
+
+    /**
+     * Combined merge request for a single device state along with the future
+     * completed for all callers.
+     */
+    private static class PendingMerge implements IPendingRequest {
+
+	/** Device state id */
+	private UUID id;
+
+	/** Credentials of caller that created the merge */
+	private SiteWhereAuthentication authentication;
+
+	/** Combined request */
+	private IDeviceStateEventMergeRequest request;
+
+	/** Completed with merged state */
+	private CompletableFuture<IDeviceState> future = new CompletableFuture<>();
+
+	public PendingMerge(UUID id, SiteWhereAuthentication authentication, IDeviceStateEventMergeRequest request) {
+	    this.id = id;
+	    this.authentication = authentication;
+	    this.request = request;
+	}
+
+	public String getTenantId() {
+	    return authentication != null ? authentication.getTenantToken() : null;
+	}
+
+	public UUID getId() {
+	    return id;
+	}
+
+	/*
+	 * @see com.sitewhere.grpc.client.PendingRequestFlusher.IPendingRequest#
+	 * getAuthentication()
+	 */
+	@Override
+	public SiteWhereAuthentication getAuthentication() {
+	    return authentication;
+	}
+
+	/*
+	 * @see com.sitewhere.grpc.client.PendingRequestFlusher.IPendingRequest#fail(
+	 * java.lang.Throwable)
+	 */
+	@Override
+	public void fail(Throwable t) {
+	    future.completeExceptionally(PendingRequestFlusher.unwrap(t));
+	}
+
+	public IDeviceStateEventMergeRequest getRequest() {
+	    return request;
+	}
+
+	public void setRequest(IDeviceStateEventMergeRequest request) {
+	    this.request = request;
+	}
+
+	public CompletableFuture<IDeviceState> getFuture() {
+	    return future;
+	}
+    }
+
+    public IMergeRequestCombiner getMergeRequestCombiner() {
+	return mergeRequestCombiner;
+    }
+
+    public void setMergeRequestCombiner(IMergeRequestCombiner mergeRequestCombiner) {
+	this.mergeRequestCombiner = mergeRequestCombiner;
+    }
+
+    protected Cache<StateKey, IDeviceState> getStateByAssignmentCache() {
+	return stateByAssignmentCache;
+    }
+
+    private PendingRequestFlusher<StateKey, PendingMerge> getFlusher() {
+	return flusher;
+    }
+
+    protected IDeviceStateApiChannel<?> getWrapped() {
+	return wrapped;
+    }
+
+    protected CacheSettings getCacheSettings() {
+	return cacheSettings;
+    }
+}
@@ -17,7 +17,9 @@ package com.sitewhere.grpc.client.devicestate;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
+import com.sitewhere.grpc.client.FutureResponseObserver;
 import com.sitewhere.grpc.client.GrpcUtils;
 import com.sitewhere.grpc.client.MultitenantApiChannel;
 import com.sitewhere.grpc.client.spi.client.IDeviceStateApiChannel;
@@ -131,10 +133,8 @@ public class DeviceStateApiChannel extends MultitenantApiChannel<DeviceStateGrpc
     public IDeviceState getDeviceStateByDeviceAssignment(UUID assignmentId) throws SiteWhereException {
 	try {
 	    GrpcUtils.handleClientMethodEntry(this, DeviceStateGrpc.getGetDeviceStateByAssignmentMethod());
-	    GGetDeviceStateByAssignmentRequest.Builder grequest = GGetDeviceStateByAssignmentRequest.newBuilder();
-	    grequest.setDeviceAssignmentId(CommonModelConverter.asGrpcUuid(assignmentId));
 	    GGetDeviceStateByAssignmentResponse gresponse = getGrpcChannel().getBlockingStub()
-		    .getDeviceStateByAssignment(grequest.build());
+		    .getDeviceStateByAssignment(buildGetDeviceStateByAssignmentRequest(assignmentId));
 	    IDeviceState response = (gresponse.hasDeviceState())
 		    ? DeviceStateModelConverter.asApiDeviceState(gresponse.getDeviceState())
 		    : null;
@@ -222,10 +222,8 @@ public class DeviceStateApiChannel extends MultitenantApiChannel<DeviceStateGrpc
     public IDeviceState merge(UUID id, IDeviceStateEventMergeRequest events) throws SiteWhereException {
 	try {
 	    GrpcUtils.handleClientMethodEntry(this, DeviceStateGrpc.getMergeDeviceStateMethod());
-	    GMergeDeviceStateRequest.Builder grequest = GMergeDeviceStateRequest.newBuilder();
-	    grequest.setId(CommonModelConverter.asGrpcUuid(id));
-	    grequest.setRequest(DeviceStateModelConverter.asGrpcDeviceStateEventMergeRequest(events));
-	    GMergeDeviceStateResponse gresponse = getGrpcChannel().getBlockingStub().mergeDeviceState(grequest.build());
+	    GMergeDeviceStateResponse gresponse = getGrpcChannel().getBlockingStub()
+		    .mergeDeviceState(buildMergeDeviceStateRequest(id, events));
 	    IDeviceState response = (gresponse.hasDeviceState())
 		    ? DeviceStateModelConverter.asApiDeviceState(gresponse.getDeviceState())
 		    : null;
@@ -258,4 +256,76 @@ public class DeviceStateApiChannel extends MultitenantApiChannel<DeviceStateGrpc
 	    throw GrpcUtils.handleClientMethodException(DeviceStateGrpc.getDeleteDeviceStateMethod(), t);
 	}
     }
-}
\ No newline at end of file
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceStateApiChannel#
+     * getDeviceStateByDeviceAssignmentAsync(java.util.UUID)
+     */
+    @Override
+    public CompletableFuture<IDeviceState> getDeviceStateByDeviceAssignmentAsync(UUID assignmentId) {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceStateGrpc.getGetDeviceStateByAssignmentMethod());
+	    FutureResponseObserver<GGetDeviceStateByAssignmentResponse, IDeviceState> observer = new FutureResponseObserver<>(
+		    DeviceStateGrpc.getGetDeviceStateByAssignmentMethod(),
+		    gresponse -> (gresponse.hasDeviceState())
+			    ? DeviceStateModelConverter.asApiDeviceState(gresponse.getDeviceState())
+			    : null);
+	    getGrpcChannel().getAsyncStub()
+		    .getDeviceStateByAssignment(buildGetDeviceStateByAssignmentRequest(assignmentId), observer);
+	    return observer.getFuture();
+	} catch (Throwable t) {
+	    return FutureResponseObserver.failed(DeviceStateGrpc.getGetDeviceStateByAssignmentMethod(), t);
+	}
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceStateApiChannel#mergeAsync(
+     * java.util.UUID,
+     * com.sitewhere.spi.device.state.request.IDeviceStateEventMergeRequest)
+     */
+    @Override
+    public CompletableFuture<IDeviceState> mergeAsync(UUID id, IDeviceStateEventMergeRequest events) {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceStateGrpc.getMergeDeviceStateMethod());
+	    FutureResponseObserver<GMergeDeviceStateResponse, IDeviceState> observer = new FutureResponseObserver<>(
+		    DeviceStateGrpc.getMergeDeviceStateMethod(),
+		    gresponse -> (gresponse.hasDeviceState())
+			    ? DeviceStateModelConverter.asApiDeviceState(gresponse.getDeviceState())
+			    : null);
+	    getGrpcChannel().getAsyncStub().mergeDeviceState(buildMergeDeviceStateRequest(id, events), observer);
+	    return observer.getFuture();
+	} catch (Throwable t) {
+	    return FutureResponseObserver.failed(DeviceStateGrpc.getMergeDeviceStateMethod(), t);
+	}
+    }
+
+    /**
+     * Build gRPC request for getting device state by assignment.
+     * 
+     * @param assignmentId
+     * @return
+     * @throws SiteWhereException
+     */
+    protected static GGetDeviceStateByAssignmentRequest buildGetDeviceStateByAssignmentRequest(UUID assignmentId)
+	    throws SiteWhereException {
+	GGetDeviceStateByAssignmentRequest.Builder grequest = GGetDeviceStateByAssignmentRequest.newBuilder();
+	grequest.setDeviceAssignmentId(CommonModelConverter.asGrpcUuid(assignmentId));
+	return grequest.build();
+    }
+
+    /**
+     * Build gRPC request for merging events into device state.
+     * 
+     * @param id
+     * @param events
+     * @return
+     * @throws SiteWhereException
+     */
+    protected static GMergeDeviceStateRequest buildMergeDeviceStateRequest(UUID id,
+	    IDeviceStateEventMergeRequest events) throws SiteWhereException {
+	GMergeDeviceStateRequest.Builder grequest = GMergeDeviceStateRequest.newBuilder();
+	grequest.setId(CommonModelConverter.asGrpcUuid(id));
+	grequest.setRequest(DeviceStateModelConverter.asGrpcDeviceStateEventMergeRequest(events));
+	return grequest.build();
+    }
+}
@@ -0,0 +1,682 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import com.sitewhere.grpc.client.PendingRequestFlusher;
+import com.sitewhere.grpc.client.PendingRequestFlusher.IPendingRequest;
+import com.sitewhere.grpc.client.spi.client.IDeviceEventManagementApiChannel;
+import com.sitewhere.microservice.api.event.IDeviceEventManagement;
+import com.sitewhere.microservice.lifecycle.TenantEngineLifecycleComponent;
+import com.sitewhere.microservice.security.SiteWhereAuthentication;
+import com.sitewhere.microservice.security.UserContext;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.device.event.DeviceEventIndex;
+import com.sitewhere.spi.device.event.IDeviceAlert;
+import com.sitewhere.spi.device.event.IDeviceCommandInvocation;
+import com.sitewhere.spi.device.event.IDeviceCommandResponse;
+import com.sitewhere.spi.device.event.IDeviceEvent;
+import com.sitewhere.spi.device.event.IDeviceEventBatch;
+import com.sitewhere.spi.device.event.IDeviceEventBatchResponse;
+import com.sitewhere.spi.device.event.IDeviceEventContext;
+import com.sitewhere.spi.device.event.IDeviceLocation;
+import com.sitewhere.spi.device.event.IDeviceMeasurement;
+import com.sitewhere.spi.device.event.IDeviceStateChange;
+import com.sitewhere.spi.device.event.request.IDeviceAlertCreateRequest;
+import com.sitewhere.spi.device.event.request.IDeviceCommandInvocationCreateRequest;
+import com.sitewhere.spi.device.event.request.IDeviceCommandResponseCreateRequest;
+import com.sitewhere.spi.device.event.request.IDeviceLocationCreateRequest;
+import com.sitewhere.spi.device.event.request.IDeviceMeasurementCreateRequest;
+import com.sitewhere.spi.device.event.request.IDeviceStateChangeCreateRequest;
+import com.sitewhere.spi.microservice.lifecycle.ILifecycleProgressMonitor;
+import com.sitewhere.spi.search.IDateRangeSearchCriteria;
+import com.sitewhere.spi.search.ISearchResults;
+
+/**
+ * Adds client-side batching to the device event management API channel.
+ * Measurements, locations and alerts added through the async methods for the
+ * same tenant are collected across device assignments until either the batch
+ * size limit is reached or the batch wait time expires. The tenant batch is
+ * then flushed as one call to
+ * {@link IDeviceEventManagement#addDeviceEventBatch(IDeviceEventContext, IDeviceEventBatch)}
+ * per assignment, since an event batch carries a single device context. Each
+ * caller receives the slice of the batch response that corresponds to the
+ * requests it added. Blocking calls, including the blocking add methods, are
+ * passed through to the wrapped channel so that sequential callers are not
+ * delayed by the batch wait time.
+ */
+public class BatchingDeviceEventManagementApiChannel extends TenantEngineLifecycleComponent
+	implements IDeviceEventManagement {
+
+    /** Batch settings */
+    private BatchSettings batchSettings;
+
+    /** Wrapped API channel */
+    private IDeviceEventManagementApiChannel<?> wrapped;
+
+    /** Holds tenant batches waiting to be sent */
+    private PendingRequestFlusher<String, TenantBatch> flusher = new PendingRequestFlusher<>(
+	    "Event Batch Flusher", this::send);
+
+    public BatchingDeviceEventManagementApiChannel(IDeviceEventManagementApiChannel<?> wrapped,
+	    BatchSettings batchSettings) {
+	this.wrapped = wrapped;
+	this.batchSettings = batchSettings;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#initialize(com.sitewhere.
+     * spi.server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void initialize(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	initializeNestedComponent(getWrapped(), monitor, true);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#start(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	startNestedComponent(getWrapped(), monitor, true);
+	getFlusher().start();
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#stop(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	getFlusher().stop();
+	stopNestedComponent(getWrapped(), monitor);
+    }
+
+    /**
+     * Add measurements to the pending batch for the context.
+     * 
+     * @param context
+     * @param measurement
+     * @return
+     */
+    public CompletableFuture<List<? extends IDeviceMeasurement>> addDeviceMeasurementsAsync(
+	    IDeviceEventContext context, IDeviceMeasurementCreateRequest... measurement) {
+	CompletableFuture<List<? extends IDeviceMeasurement>> future = new CompletableFuture<>();
+	if (measurement.length == 0) {
+	    future.complete(Collections.emptyList());
+	    return future;
+	}
+	enqueue(context, batch -> {
+	    batch.getMeasurements().addAll(Arrays.asList(measurement));
+	    batch.getMeasurementSlices().add(new Slice<>(measurement.length, future));
+	});
+	return future;
+    }
+
+    /**
+     * Add locations to the pending batch for the context.
+     * 
+     * @param context
+     * @param location
+     * @return
+     */
+    public CompletableFuture<List<? extends IDeviceLocation>> addDeviceLocationsAsync(IDeviceEventContext context,
+	    IDeviceLocationCreateRequest... location) {
+	CompletableFuture<List<? extends IDeviceLocation>> future = new CompletableFuture<>();
+	if (location.length == 0) {
+	    future.complete(Collections.emptyList());
+	    return future;
+	}
+	enqueue(context, batch -> {
+	    batch.getLocations().addAll(Arrays.asList(location));
+	    batch.getLocationSlices().add(new Slice<>(location.length, future));
+	});
+	return future;
+    }
+
+    /**
+     * Add alerts to the pending batch for the context.
+     * 
+     * @param context
+     * @param alert
+     * @return
+     */
+    public CompletableFuture<List<? extends IDeviceAlert>> addDeviceAlertsAsync(IDeviceEventContext context,
+	    IDeviceAlertCreateRequest... alert) {
+	CompletableFuture<List<? extends IDeviceAlert>> future = new CompletableFuture<>();
+	if (alert.length == 0) {
+	    future.complete(Collections.emptyList());
+	    return future;
+	}
+	enqueue(context, batch -> {
+	    batch.getAlerts().addAll(Arrays.asList(alert));
+	    batch.getAlertSlices().add(new Slice<>(alert.length, future));
+	});
+	return future;
+    }
+
+    /**
+     * Append requests to the pending batch for the current tenant, grouped by
+     * the assignment in the context. The tenant batch is sent immediately once
+     * full, otherwise a flush is scheduled when the batch is first created.
+     * 
+     * @param context
+     * @param appender
+     */
+    private void enqueue(IDeviceEventContext context, IBatchAppender appender) {
+	SiteWhereAuthentication authentication = UserContext.getCurrentUser();
+	String key = (authentication != null && authentication.getTenantToken() != null)
+		? authentication.getTenantToken()
+		: "";
+	TenantBatch[] full = new TenantBatch[1];
+	TenantBatch[] created = new TenantBatch[1];
+	getFlusher().getPending().compute(key, (k, batch) -> {
+	    if (batch == null) {
+		batch = new TenantBatch(authentication);
+		created[0] = batch;
+	    }
+	    batch.append(context, appender);
+	    if (batch.size() >= getBatchSettings().getMaxBatchSize()) {
+		full[0] = batch;
+		return null;
+	    }
+	    return batch;
+	});
+	if (full[0] != null) {
+	    getFlusher().send(full[0]);
+	} else if (created[0] != null) {
+	    getFlusher().schedule(key, created[0], getBatchSettings().getMaxWaitMs());
+	}
+    }
+
+    /**
+     * Send the batch for each assignment in a tenant batch to the wrapped channel
+     * and complete caller futures with their part of the response. Called by the
+     * flusher with the credentials captured when the tenant batch was created.
+     * 
+     * @param tenantBatch
+     */
+    private void send(TenantBatch tenantBatch) {
+	for (PendingBatch batch : tenantBatch.getBatches().values()) {
+	    try {
+		getWrapped().addDeviceEventBatchAsync(batch.getContext(), batch).whenComplete((response, t) -> {
+		    if (t != null) {
+			batch.fail(t);
+		    } else {
+			batch.complete(response);
+		    }
+		});
+	    } catch (Throwable t) {
+		batch.fail(t);
+	    }
+	}
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * addDeviceEventBatch(com.sitewhere.spi.device.event.IDeviceEventContext,
+     * com.sitewhere.spi.device.event.IDeviceEventBatch)
+     */
+    @Override
+    public IDeviceEventBatchResponse addDeviceEventBatch(IDeviceEventContext context, IDeviceEventBatch batch)
+	    throws SiteWhereException {
+	return getWrapped().addDeviceEventBatch(context, batch);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * getDeviceEventById(java.util.UUID)
+     */
+    @Override
+    public IDeviceEvent getDeviceEventById(UUID eventId) throws SiteWhereException {
+	return getWrapped().getDeviceEventById(eventId);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * getDeviceEventByAlternateId(java.lang.String)
+     */
+    @Override
+    public IDeviceEvent getDeviceEventByAlternateId(String alternateId) throws SiteWhereException {
+	return getWrapped().getDeviceEventByAlternateId(alternateId);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * addDeviceMeasurements(com.sitewhere.spi.device.event.IDeviceEventContext,
+     * com.sitewhere.spi.device.event.request.IDeviceMeasurementCreateRequest[])
+     */
+    @Override
+    public List<? extends IDeviceMeasurement> addDeviceMeasurements(IDeviceEventContext context,
+	    IDeviceMeasurementCreateRequest... measurement) throws SiteWhereException {
+	return getWrapped().addDeviceMeasurements(context, measurement);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * listDeviceMeasurementsForIndex(com.sitewhere.spi.device.event.
+     * DeviceEventIndex, java.util.List,
+     * com.sitewhere.spi.search.IDateRangeSearchCriteria)
+     */
+    @Override
+    public ISearchResults<IDeviceMeasurement> listDeviceMeasurementsForIndex(DeviceEventIndex index,
+	    List<UUID> entityIds, IDateRangeSearchCriteria criteria) throws SiteWhereException {
+	return getWrapped().listDeviceMeasurementsForIndex(index, entityIds, criteria);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * addDeviceLocations(com.sitewhere.spi.device.event.IDeviceEventContext,
+     * com.sitewhere.spi.device.event.request.IDeviceLocationCreateRequest[])
+     */
+    @Override
+    public List<? extends IDeviceLocation> addDeviceLocations(IDeviceEventContext context,
+	    IDeviceLocationCreateRequest... location) throws SiteWhereException {
+	return getWrapped().addDeviceLocations(context, location);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * listDeviceLocationsForIndex(com.sitewhere.spi.device.event.DeviceEventIndex,
+     * java.util.List, com.sitewhere.spi.search.IDateRangeSearchCriteria)
+     */
+    @Override
+    public ISearchResults<IDeviceLocation> listDeviceLocationsForIndex(DeviceEventIndex index, List<UUID> entityIds,
+	    IDateRangeSearchCriteria criteria) throws SiteWhereException {
+	return getWrapped().listDeviceLocationsForIndex(index, entityIds, criteria);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.event.IDeviceEventManagement#addDeviceAlerts(
+     * com.sitewhere.spi.device.event.IDeviceEventContext,
+     * com.sitewhere.spi.device.event.request.IDeviceAlertCreateRequest[])
+     */
+    @Override
+    public List<? extends IDeviceAlert> addDeviceAlerts(IDeviceEventContext context, IDeviceAlertCreateRequest... alert)
+	    throws SiteWhereException {
+	return getWrapped().addDeviceAlerts(context, alert);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * listDeviceAlertsForIndex(com.sitewhere.spi.device.event.DeviceEventIndex,
+     * java.util.List, com.sitewhere.spi.search.IDateRangeSearchCriteria)
+     */
+    @Override
+    public ISearchResults<IDeviceAlert> listDeviceAlertsForIndex(DeviceEventIndex index, List<UUID> entityIds,
+	    IDateRangeSearchCriteria criteria) throws SiteWhereException {
+	return getWrapped().listDeviceAlertsForIndex(index, entityIds, criteria);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * addDeviceCommandInvocations(com.sitewhere.spi.device.event.
+     * IDeviceEventContext,
+     * com.sitewhere.spi.device.event.request.IDeviceCommandInvocationCreateRequest[])
+     */
+    @Override
+    public List<? extends IDeviceCommandInvocation> addDeviceCommandInvocations(IDeviceEventContext context,
+	    IDeviceCommandInvocationCreateRequest... invocation) throws SiteWhereException {
+	return getWrapped().addDeviceCommandInvocations(context, invocation);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * listDeviceCommandInvocationsForIndex(com.sitewhere.spi.device.event.
+     * DeviceEventIndex, java.util.List,
+     * com.sitewhere.spi.search.IDateRangeSearchCriteria)
+     */
+    @Override
+    public ISearchResults<IDeviceCommandInvocation> listDeviceCommandInvocationsForIndex(DeviceEventIndex index,
+	    List<UUID> entityIds, IDateRangeSearchCriteria criteria) throws SiteWhereException {
+	return getWrapped().listDeviceCommandInvocationsForIndex(index, entityIds, criteria);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * listDeviceCommandInvocationResponses(java.util.UUID)
+     */
+    @Override
+    public ISearchResults<IDeviceCommandResponse> listDeviceCommandInvocationResponses(UUID invocationId)
+	    throws SiteWhereException {
+	return getWrapped().listDeviceCommandInvocationResponses(invocationId);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * addDeviceCommandResponses(com.sitewhere.spi.device.event.IDeviceEventContext,
+     * com.sitewhere.spi.device.event.request.IDeviceCommandResponseCreateRequest[])
+     */
+    @Override
+    public List<? extends IDeviceCommandResponse> addDeviceCommandResponses(IDeviceEventContext context,
+	    IDeviceCommandResponseCreateRequest... cresponse) throws SiteWhereException {
+	return getWrapped().addDeviceCommandResponses(context, cresponse);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * listDeviceCommandResponsesForIndex(com.sitewhere.spi.device.event.
+     * DeviceEventIndex, java.util.List,
+     * com.sitewhere.spi.search.IDateRangeSearchCriteria)
+     */
+    @Override
+    public ISearchResults<IDeviceCommandResponse> listDeviceCommandResponsesForIndex(DeviceEventIndex index,
+	    List<UUID> entityIds, IDateRangeSearchCriteria criteria) throws SiteWhereException {
+	return getWrapped().listDeviceCommandResponsesForIndex(index, entityIds, criteria);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * addDeviceStateChanges(com.sitewhere.spi.device.event.IDeviceEventContext,
+     * com.sitewhere.spi.device.event.request.IDeviceStateChangeCreateRequest[])
+     */
+    @Override
+    public List<? extends IDeviceStateChange> addDeviceStateChanges(IDeviceEventContext context,
+	    IDeviceStateChangeCreateRequest... state) throws SiteWhereException {
+	return getWrapped().addDeviceStateChanges(context, state);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
+     * listDeviceStateChangesForIndex(com.sitewhere.spi.device.event.
+     * DeviceEventIndex, java.util.List,
+     * com.sitewhere.spi.search.IDateRangeSearchCriteria)
+     */
+    @Override
+    public ISearchResults<IDeviceStateChange> listDeviceStateChangesForIndex(DeviceEventIndex index,
+	    List<UUID> entityIds, IDateRangeSearchCriteria criteria) throws SiteWhereException {
+	return getWrapped().listDeviceStateChangesForIndex(index, entityIds, criteria);
+    }
+
+    /**
+     * Contains default batch settings.
+     */
+    public static class BatchSettings {
+
+	/** Maximum number of requests sent in a single batch */
+	private int maxBatchSize = 500;
+
+	/** Maximum time in milliseconds a request waits for a batch to fill */
+	private long maxWaitMs = 10;
+
+	public int getMaxBatchSize() {
+	    return maxBatchSize;
+	}
+
+	public void setMaxBatchSize(int maxBatchSize) {
+	    this.maxBatchSize = maxBatchSize;
+	}
+
+	public long getMaxWaitMs() {
+	    return maxWaitMs;
+	}
+
+	public void setMaxWaitMs(long maxWaitMs) {
+	    this.maxWaitMs = maxWaitMs;
+	}
+    }
+
+    /**
+     * Appends requests to a pending batch.
+     */
+    @FunctionalInterface
+    private static interface IBatchAppender {
+
+	public void append(PendingBatch batch);
+    }
+
+    /**
+     * Requests collected for a tenant, grouped by device assignment.
+     */
+    private static class TenantBatch implements IPendingRequest {
+
+	/** Credentials of caller that created the batch */
+	private SiteWhereAuthentication authentication;
+
+	/** Batches indexed by device assignment id */
+	private Map<UUID, PendingBatch> batches = new LinkedHashMap<>();
+
+	/** Total number of requests across batches */
+	private int size;
+
+	public TenantBatch(SiteWhereAuthentication authentication) {
+	    this.authentication = authentication;
+	}
+
+	/**
+	 * Append requests to the batch for the assignment in the context.
+	 * 
+	 * @param context
+	 * @param appender
+	 */
+	public void append(IDeviceEventContext context, IBatchAppender appender) {
+	    PendingBatch batch = batches.computeIfAbsent(context.getDeviceAssignmentId(),
+		    id -> new PendingBatch(context));
+	    int before = batch.size();
+	    appender.append(batch);
+	    size += batch.size() - before;
+	}
+
+	/**
+	 * Get total number of requests across batches.
+	 * 
+	 * @return
+	 */
+	public int size() {
+	    return size;
+	}
+
+	/*
+	 * @see com.sitewhere.grpc.client.PendingRequestFlusher.IPendingRequest#fail(
+	 * java.lang.Throwable)
+	 */
+	@Override
+	public void fail(Throwable t) {
+	    batches.values().forEach(batch -> batch.fail(t));
+	}
+
+	/*
+	 * @see com.sitewhere.grpc.client.PendingRequestFlusher.IPendingRequest#
+	 * getAuthentication()
+	 */
+	@Override
+	public SiteWhereAuthentication getAuthentication() {
+	    return authentication;
+	}
+
+	public Map<UUID, PendingBatch> getBatches() {
+	    return batches;
+	}
+    }
+
+    /**
+     * Number of requests added by a single caller and the future completed with
+     * the corresponding results.
+     *
+     * @param <T>
+     */
+    private static class Slice<T> {
+
+	/** Number of requests */
+	private int count;
+
+	/** Completed with results */
+	private CompletableFuture<List<? extends T>> future;
+
+	public Slice(int count, CompletableFuture<List<? extends T>> future) {
+	    this.count = count;
+	    this.future = future;
+	}
+    }
+
+    /**
+     * Requests collected for a single context along with the callers waiting on
+     * them.
+     */
+    private static class PendingBatch implements IDeviceEventBatch {
+
+	/** Event context */
+	private IDeviceEventContext context;
+
+	/** Measurement requests */
+	private List<IDeviceMeasurementCreateRequest> measurements = new ArrayList<>();
+
+	/** Location requests */
+	private List<IDeviceLocationCreateRequest> locations = new ArrayList<>();
+
+	/** Alert requests */
+	private List<IDeviceAlertCreateRequest> alerts = new ArrayList<>();
+
+	/** Measurement callers */
+	private List<Slice<IDeviceMeasurement>> measurementSlices = new ArrayList<>();
+
+	/** Location callers */
+	private List<Slice<IDeviceLocation>> locationSlices = new ArrayList<>();
+
+	/** Alert callers */
+	private List<Slice<IDeviceAlert>> alertSlices = new ArrayList<>();
+
+	public PendingBatch(IDeviceEventContext context) {
+	    this.context = context;
+	}
+
+	/**
+	 * Get total number of requests in batch.
+	 * 
+	 * @return
+	 */
+	public int size() {
+	    return measurements.size() + locations.size() + alerts.size();
+	}
+
+	/**
+	 * Complete caller futures with their part of the response.
+	 * 
+	 * @param response
+	 */
+	public void complete(IDeviceEventBatchResponse response) {
+	    completeSlices(measurementSlices, response.getCreatedMeasurements());
+	    completeSlices(locationSlices, response.getCreatedLocations());
+	    completeSlices(alertSlices, response.getCreatedAlerts());
+	}
+
+	/**
+	 * Fail all callers waiting on the batch.
+	 * 
+	 * @param t
+	 */
+	public void fail(Throwable t) {
+	    Throwable cause = PendingRequestFlusher.unwrap(t);
+	    measurementSlices.forEach(slice -> slice.future.completeExceptionally(cause));
+	    locationSlices.forEach(slice -> slice.future.completeExceptionally(cause));
+	    alertSlices.forEach(slice -> slice.future.completeExceptionally(cause));
+	}
+
+	/**
+	 * Split results across the callers in the order requests were added.
+	 * 
+	 * @param slices
+	 * @param created
+	 */
+	protected static <T> void completeSlices(List<Slice<T>> slices, List<? extends T> created) {
+	    int expected = slices.stream().mapToInt(slice -> slice.count).sum();
+	    if (created == null || created.size() != expected) {
+		SiteWhereException e = new SiteWhereException("Batch response contained "
+			+ (created != null ? created.size() : 0) + " events but " + expected + " were requested.");
+		slices.forEach(slice -> slice.future.completeExceptionally(e));
+		return;
+	    }
+	    int offset = 0;
+	    for (Slice<T> slice : slices) {
+		slice.future.complete(new ArrayList<>(created.subList(offset, offset + slice.count)));
+		offset += slice.count;
+	    }
+	}
+
+	/*
+	 * @see com.sitewhere.spi.device.event.IDeviceEventBatch#getDeviceToken()
+	 */
+	@Override
+	public String getDeviceToken() {
+	    return context.getDeviceToken();
+	}
+
+	/*
+	 * @see com.sitewhere.spi.device.event.IDeviceEventBatch#getMeasurements()
+	 */
+	@Override
+	public List<IDeviceMeasurementCreateRequest> getMeasurements() {
+	    return measurements;
+	}
+
+	/*
+	 * @see com.sitewhere.spi.device.event.IDeviceEventBatch#getLocations()
+	 */
+	@Override
+	public List<IDeviceLocationCreateRequest> getLocations() {
+	    return locations;
+	}
+
+	/*
+	 * @see com.sitewhere.spi.device.event.IDeviceEventBatch#getAlerts()
+	 */
+	@Override
+	public List<IDeviceAlertCreateRequest> getAlerts() {
+	    return alerts;
+	}
+
+	public IDeviceEventContext getContext() {
+	    return context;
+	}
+
+	public List<Slice<IDeviceMeasurement>> getMeasurementSlices() {
+	    return measurementSlices;
+	}
+
+	public List<Slice<IDeviceLocation>> getLocationSlices() {
+	    return locationSlices;
+	}
+
+	public List<Slice<IDeviceAlert>> getAlertSlices() {
+	    return alertSlices;
+	}
+    }
+
+    private PendingRequestFlusher<String, TenantBatch> getFlusher() {
+	return flusher;
+    }
+
+    protected IDeviceEventManagementApiChannel<?> getWrapped() {
+	return wrapped;
+    }
+
+    protected BatchSettings getBatchSettings() {
+	return batchSettings;
+    }
+}
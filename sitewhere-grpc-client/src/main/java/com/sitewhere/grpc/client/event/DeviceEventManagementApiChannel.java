@@ -15,13 +15,19 @@
  */
 package com.sitewhere.grpc.client.event;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.sitewhere.grpc.client.FutureResponseObserver;
 import com.sitewhere.grpc.client.GrpcUtils;
 import com.sitewhere.grpc.client.MultitenantApiChannel;
-import com.sitewhere.grpc.client.common.tracing.DebugParameter;
 import com.sitewhere.grpc.client.spi.client.IDeviceEventManagementApiChannel;
+import com.sitewhere.grpc.client.spi.client.IDeviceEventStream;
 import com.sitewhere.grpc.common.CommonModelConverter;
 import com.sitewhere.grpc.event.EventModelConverter;
 import com.sitewhere.grpc.service.DeviceEventManagementGrpc;
@@ -57,6 +63,8 @@ import com.sitewhere.grpc.service.GListMeasurementsForIndexRequest;
 import com.sitewhere.grpc.service.GListMeasurementsForIndexResponse;
 import com.sitewhere.grpc.service.GListStateChangesForIndexRequest;
 import com.sitewhere.grpc.service.GListStateChangesForIndexResponse;
+import com.sitewhere.microservice.security.SiteWhereAuthentication;
+import com.sitewhere.microservice.security.UserContext;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.device.event.DeviceEventIndex;
 import com.sitewhere.spi.device.event.IDeviceAlert;
@@ -81,9 +89,13 @@ import com.sitewhere.spi.microservice.grpc.GrpcServiceIdentifier;
 import com.sitewhere.spi.microservice.grpc.IGrpcServiceIdentifier;
 import com.sitewhere.spi.microservice.grpc.IGrpcSettings;
 import com.sitewhere.spi.microservice.instance.IInstanceSettings;
+import com.sitewhere.spi.microservice.lifecycle.ILifecycleProgressMonitor;
 import com.sitewhere.spi.search.IDateRangeSearchCriteria;
 import com.sitewhere.spi.search.ISearchResults;
 
+import io.grpc.CallOptions;
+import io.grpc.stub.ClientCalls;
+
 /**
  * Supports SiteWhere device event management APIs on top of a
  * {@link DeviceEventManagementGrpcChannel}.
@@ -91,6 +103,15 @@ import com.sitewhere.spi.search.ISearchResults;
 public class DeviceEventManagementApiChannel extends MultitenantApiChannel<DeviceEventManagementGrpcChannel>
 	implements IDeviceEventManagementApiChannel<DeviceEventManagementGrpcChannel> {
 
+    /** Maximum number of batches buffered on a stream before senders block */
+    private static final int MAX_UNSENT_STREAM_BATCHES = 64;
+
+    /** Time before JWT expiration at which a stream is reopened */
+    private static final long STREAM_JWT_REFRESH_MS = 60 * 1000;
+
+    /** Event streams indexed by tenant token and principal */
+    private Map<String, TenantEventStream> deviceEventStreams = new ConcurrentHashMap<>();
+
     public DeviceEventManagementApiChannel(IInstanceSettings settings) {
 	super(settings, MicroserviceIdentifier.EventManagement, GrpcServiceIdentifier.EventManagement,
 		IGrpcSettings.DEFAULT_API_PORT);
@@ -109,6 +130,21 @@ public class DeviceEventManagementApiChannel extends MultitenantApiChannel<Devic
 	return new DeviceEventManagementGrpcChannel(settings, identifier, grpcServiceIdentifier, port);
     }
 
+    /*
+     * @see com.sitewhere.grpc.client.ApiChannel#stop(com.sitewhere.spi.microservice.
+     * lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	synchronized (getDeviceEventStreams()) {
+	    for (TenantEventStream tenantStream : getDeviceEventStreams().values()) {
+		tenantStream.getStream().close();
+	    }
+	    getDeviceEventStreams().clear();
+	}
+	super.stop(monitor);
+    }
+
     /*
      * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
      * addDeviceEventBatch(com.sitewhere.spi.device.event.IDeviceEventContext,
@@ -119,12 +155,9 @@ public class DeviceEventManagementApiChannel extends MultitenantApiChannel<Devic
 	    throws SiteWhereException {
 	try {
 	    GrpcUtils.handleClientMethodEntry(this, DeviceEventManagementGrpc.getAddDeviceEventBatchMethod(),
-		    DebugParameter.create("Context", context), DebugParameter.create("Batch", batch));
-	    GAddDeviceEventBatchRequest.Builder grequest = GAddDeviceEventBatchRequest.newBuilder();
-	    grequest.setContext(EventModelConverter.asGrpcDeviceEventContext(context));
-	    grequest.setRequest(EventModelConverter.asGrpcDeviceEventBatch(batch));
+		    "Context", context, "Batch", batch);
 	    GAddDeviceEventBatchResponse gresponse = getGrpcChannel().getBlockingStub()
-		    .addDeviceEventBatch(grequest.build());
+		    .addDeviceEventBatch(buildAddDeviceEventBatchRequest(context, batch));
 	    IDeviceEventBatchResponse response = EventModelConverter
 		    .asApiDeviceEventBatchResponse(gresponse.getResponse());
 	    GrpcUtils.logClientMethodResponse(DeviceEventManagementGrpc.getAddDeviceEventBatchMethod(), response);
@@ -134,6 +167,71 @@ public class DeviceEventManagementApiChannel extends MultitenantApiChannel<Devic
 	}
     }
 
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceEventManagementApiChannel#
+     * openDeviceEventStream()
+     */
+    @Override
+    public IDeviceEventStream openDeviceEventStream() throws SiteWhereException {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceEventStreamGrpc.getStreamDeviceEventBatchesMethod());
+	    DeviceEventStream stream = new DeviceEventStream(MAX_UNSENT_STREAM_BATCHES);
+	    ClientCalls.asyncBidiStreamingCall(getGrpcChannel().getChannel()
+		    .newCall(DeviceEventStreamGrpc.getStreamDeviceEventBatchesMethod(), CallOptions.DEFAULT), stream);
+	    return stream;
+	} catch (Throwable t) {
+	    throw GrpcUtils.handleClientMethodException(DeviceEventStreamGrpc.getStreamDeviceEventBatchesMethod(), t);
+	}
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceEventManagementApiChannel#
+     * getDeviceEventStream()
+     */
+    @Override
+    public IDeviceEventStream getDeviceEventStream() throws SiteWhereException {
+	SiteWhereAuthentication authentication = UserContext.getCurrentUser();
+	String tenantId = UserContext.getCurrentTenantId();
+	if (authentication == null || tenantId == null) {
+	    throw new SiteWhereException("Unable to open device event stream without a tenant context.");
+	}
+	String key = tenantId + ":" + authentication.getUsername();
+	TenantEventStream tenantStream = getDeviceEventStreams().get(key);
+	if (tenantStream != null && tenantStream.isUsableFor(authentication)) {
+	    return tenantStream.getStream();
+	}
+	synchronized (getDeviceEventStreams()) {
+	    tenantStream = getDeviceEventStreams().get(key);
+	    if (tenantStream == null || !tenantStream.isUsableFor(authentication)) {
+		if (tenantStream != null) {
+		    // Credentials are bound when the call starts, so replace streams opened
+		    // with credentials that are stale or about to expire. The old stream is
+		    // half-closed once batches already sent on it are acknowledged.
+		    tenantStream.getStream().close();
+		}
+		tenantStream = new TenantEventStream(openDeviceEventStream(), authentication.getJwt(),
+			getJwtExpiration(authentication.getJwt()));
+		getDeviceEventStreams().put(key, tenantStream);
+	    }
+	    return tenantStream.getStream();
+	}
+    }
+
+    /**
+     * Get time at which a JWT expires or null if it can not be determined.
+     * 
+     * @param jwt
+     * @return
+     */
+    protected Date getJwtExpiration(String jwt) {
+	try {
+	    return getMicroservice().getTokenManagement().getClaimsForToken(jwt).getExpiration();
+	} catch (SiteWhereException e) {
+	    getLogger().warn("Unable to determine JWT expiration for device event stream.", e);
+	    return null;
+	}
+    }
+
     /*
      * @see com.sitewhere.microservice.api.event.IDeviceEventManagement#
      * getDeviceEventById(java.util.UUID)
@@ -190,12 +288,8 @@ public class DeviceEventManagementApiChannel extends MultitenantApiChannel<Devic
 	    IDeviceMeasurementCreateRequest... measurement) throws SiteWhereException {
 	try {
 	    GrpcUtils.handleClientMethodEntry(this, DeviceEventManagementGrpc.getAddMeasurementsMethod());
-	    GAddMeasurementsRequest.Builder grequest = GAddMeasurementsRequest.newBuilder();
-	    grequest.setContext(EventModelConverter.asGrpcDeviceEventContext(context));
-	    for (IDeviceMeasurementCreateRequest request : measurement) {
-		grequest.addRequests(EventModelConverter.asGrpcDeviceMeasurementCreateRequest(request));
-	    }
-	    GAddMeasurementsResponse gresponse = getGrpcChannel().getBlockingStub().addMeasurements(grequest.build());
+	    GAddMeasurementsResponse gresponse = getGrpcChannel().getBlockingStub()
+		    .addMeasurements(buildAddMeasurementsRequest(context, measurement));
 	    List<? extends IDeviceMeasurement> response = EventModelConverter
 		    .asApiDeviceMeasurements(gresponse.getMeasurementsList());
 	    GrpcUtils.logClientMethodResponse(DeviceEventManagementGrpc.getAddMeasurementsMethod(), response);
@@ -242,12 +336,8 @@ public class DeviceEventManagementApiChannel extends MultitenantApiChannel<Devic
 	    IDeviceLocationCreateRequest... location) throws SiteWhereException {
 	try {
 	    GrpcUtils.handleClientMethodEntry(this, DeviceEventManagementGrpc.getAddLocationsMethod());
-	    GAddLocationsRequest.Builder grequest = GAddLocationsRequest.newBuilder();
-	    grequest.setContext(EventModelConverter.asGrpcDeviceEventContext(context));
-	    for (IDeviceLocationCreateRequest request : location) {
-		grequest.addRequests(EventModelConverter.asGrpcDeviceLocationCreateRequest(request));
-	    }
-	    GAddLocationsResponse gresponse = getGrpcChannel().getBlockingStub().addLocations(grequest.build());
+	    GAddLocationsResponse gresponse = getGrpcChannel().getBlockingStub()
+		    .addLocations(buildAddLocationsRequest(context, location));
 	    List<? extends IDeviceLocation> response = EventModelConverter
 		    .asApiDeviceLocations(gresponse.getLocationsList());
 	    GrpcUtils.logClientMethodResponse(DeviceEventManagementGrpc.getAddLocationsMethod(), response);
@@ -293,12 +383,8 @@ public class DeviceEventManagementApiChannel extends MultitenantApiChannel<Devic
 	    throws SiteWhereException {
 	try {
 	    GrpcUtils.handleClientMethodEntry(this, DeviceEventManagementGrpc.getAddAlertsMethod());
-	    GAddAlertsRequest.Builder grequest = GAddAlertsRequest.newBuilder();
-	    grequest.setContext(EventModelConverter.asGrpcDeviceEventContext(context));
-	    for (IDeviceAlertCreateRequest request : alert) {
-		grequest.addRequests(EventModelConverter.asGrpcDeviceAlertCreateRequest(request));
-	    }
-	    GAddAlertsResponse gresponse = getGrpcChannel().getBlockingStub().addAlerts(grequest.build());
+	    GAddAlertsResponse gresponse = getGrpcChannel().getBlockingStub()
+		    .addAlerts(buildAddAlertsRequest(context, alert));
 	    List<? extends IDeviceAlert> response = EventModelConverter.asApiDeviceAlerts(gresponse.getAlertsList());
 	    GrpcUtils.logClientMethodResponse(DeviceEventManagementGrpc.getAddAlertsMethod(), response);
 	    return response;
@@ -521,4 +607,203 @@ public class DeviceEventManagementApiChannel extends MultitenantApiChannel<Devic
 		    t);
 	}
     }
-}
\ No newline at end of file
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceEventManagementApiChannel#
+     * addDeviceEventBatchAsync(com.sitewhere.spi.device.event.IDeviceEventContext,
+     * com.sitewhere.spi.device.event.IDeviceEventBatch)
+     */
+    @Override
+    public CompletableFuture<IDeviceEventBatchResponse> addDeviceEventBatchAsync(IDeviceEventContext context,
+	    IDeviceEventBatch batch) {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceEventManagementGrpc.getAddDeviceEventBatchMethod(),
+		    "Context", context, "Batch", batch);
+	    FutureResponseObserver<GAddDeviceEventBatchResponse, IDeviceEventBatchResponse> observer = new FutureResponseObserver<>(
+		    DeviceEventManagementGrpc.getAddDeviceEventBatchMethod(),
+		    gresponse -> EventModelConverter.asApiDeviceEventBatchResponse(gresponse.getResponse()));
+	    getGrpcChannel().getAsyncStub().addDeviceEventBatch(buildAddDeviceEventBatchRequest(context, batch),
+		    observer);
+	    return observer.getFuture();
+	} catch (Throwable t) {
+	    return FutureResponseObserver.failed(DeviceEventManagementGrpc.getAddDeviceEventBatchMethod(), t);
+	}
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceEventManagementApiChannel#
+     * addDeviceMeasurementsAsync(com.sitewhere.spi.device.event.
+     * IDeviceEventContext,
+     * com.sitewhere.spi.device.event.request.IDeviceMeasurementCreateRequest[])
+     */
+    @Override
+    public CompletableFuture<List<? extends IDeviceMeasurement>> addDeviceMeasurementsAsync(
+	    IDeviceEventContext context, IDeviceMeasurementCreateRequest... measurement) {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceEventManagementGrpc.getAddMeasurementsMethod());
+	    FutureResponseObserver<GAddMeasurementsResponse, List<? extends IDeviceMeasurement>> observer = new FutureResponseObserver<>(
+		    DeviceEventManagementGrpc.getAddMeasurementsMethod(),
+		    gresponse -> EventModelConverter.asApiDeviceMeasurements(gresponse.getMeasurementsList()));
+	    getGrpcChannel().getAsyncStub().addMeasurements(buildAddMeasurementsRequest(context, measurement),
+		    observer);
+	    return observer.getFuture();
+	} catch (Throwable t) {
+	    return FutureResponseObserver.failed(DeviceEventManagementGrpc.getAddMeasurementsMethod(), t);
+	}
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceEventManagementApiChannel#
+     * addDeviceLocationsAsync(com.sitewhere.spi.device.event.IDeviceEventContext,
+     * com.sitewhere.spi.device.event.request.IDeviceLocationCreateRequest[])
+     */
+    @Override
+    public CompletableFuture<List<? extends IDeviceLocation>> addDeviceLocationsAsync(IDeviceEventContext context,
+	    IDeviceLocationCreateRequest... location) {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceEventManagementGrpc.getAddLocationsMethod());
+	    FutureResponseObserver<GAddLocationsResponse, List<? extends IDeviceLocation>> observer = new FutureResponseObserver<>(
+		    DeviceEventManagementGrpc.getAddLocationsMethod(),
+		    gresponse -> EventModelConverter.asApiDeviceLocations(gresponse.getLocationsList()));
+	    getGrpcChannel().getAsyncStub().addLocations(buildAddLocationsRequest(context, location), observer);
+	    return observer.getFuture();
+	} catch (Throwable t) {
+	    return FutureResponseObserver.failed(DeviceEventManagementGrpc.getAddLocationsMethod(), t);
+	}
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceEventManagementApiChannel#
+     * addDeviceAlertsAsync(com.sitewhere.spi.device.event.IDeviceEventContext,
+     * com.sitewhere.spi.device.event.request.IDeviceAlertCreateRequest[])
+     */
+    @Override
+    public CompletableFuture<List<? extends IDeviceAlert>> addDeviceAlertsAsync(IDeviceEventContext context,
+	    IDeviceAlertCreateRequest... alert) {
+	try {
+	    GrpcUtils.handleClientMethodEntry(this, DeviceEventManagementGrpc.getAddAlertsMethod());
+	    FutureResponseObserver<GAddAlertsResponse, List<? extends IDeviceAlert>> observer = new FutureResponseObserver<>(
+		    DeviceEventManagementGrpc.getAddAlertsMethod(),
+		    gresponse -> EventModelConverter.asApiDeviceAlerts(gresponse.getAlertsList()));
+	    getGrpcChannel().getAsyncStub().addAlerts(buildAddAlertsRequest(context, alert), observer);
+	    return observer.getFuture();
+	} catch (Throwable t) {
+	    return FutureResponseObserver.failed(DeviceEventManagementGrpc.getAddAlertsMethod(), t);
+	}
+    }
+
+    /**
+     * Build gRPC request for adding a batch of events.
+     * 
+     * @param context
+     * @param batch
+     * @return
+     * @throws SiteWhereException
+     */
+    protected static GAddDeviceEventBatchRequest buildAddDeviceEventBatchRequest(IDeviceEventContext context,
+	    IDeviceEventBatch batch) throws SiteWhereException {
+	GAddDeviceEventBatchRequest.Builder grequest = GAddDeviceEventBatchRequest.newBuilder();
+	grequest.setContext(EventModelConverter.asGrpcDeviceEventContext(context));
+	grequest.setRequest(EventModelConverter.asGrpcDeviceEventBatch(batch));
+	return grequest.build();
+    }
+
+    /**
+     * Build gRPC request for adding measurements.
+     * 
+     * @param context
+     * @param measurement
+     * @return
+     * @throws SiteWhereException
+     */
+    protected static GAddMeasurementsRequest buildAddMeasurementsRequest(IDeviceEventContext context,
+	    IDeviceMeasurementCreateRequest... measurement) throws SiteWhereException {
+	GAddMeasurementsRequest.Builder grequest = GAddMeasurementsRequest.newBuilder();
+	grequest.setContext(EventModelConverter.asGrpcDeviceEventContext(context));
+	for (IDeviceMeasurementCreateRequest request : measurement) {
+	    grequest.addRequests(EventModelConverter.asGrpcDeviceMeasurementCreateRequest(request));
+	}
+	return grequest.build();
+    }
+
+    /**
+     * Build gRPC request for adding locations.
+     * 
+     * @param context
+     * @param location
+     * @return
+     * @throws SiteWhereException
+     */
+    protected static GAddLocationsRequest buildAddLocationsRequest(IDeviceEventContext context,
+	    IDeviceLocationCreateRequest... location) throws SiteWhereException {
+	GAddLocationsRequest.Builder grequest = GAddLocationsRequest.newBuilder();
+	grequest.setContext(EventModelConverter.asGrpcDeviceEventContext(context));
+	for (IDeviceLocationCreateRequest request : location) {
+	    grequest.addRequests(EventModelConverter.asGrpcDeviceLocationCreateRequest(request));
+	}
+	return grequest.build();
+    }
+
+    /**
+     * Build gRPC request for adding alerts.
+     * 
+     * @param context
+     * @param alert
+     * @return
+     * @throws SiteWhereException
+     */
+    protected static GAddAlertsRequest buildAddAlertsRequest(IDeviceEventContext context,
+	    IDeviceAlertCreateRequest... alert) throws SiteWhereException {
+	GAddAlertsRequest.Builder grequest = GAddAlertsRequest.newBuilder();
+	grequest.setContext(EventModelConverter.asGrpcDeviceEventContext(context));
+	for (IDeviceAlertCreateRequest request : alert) {
+	    grequest.addRequests(EventModelConverter.asGrpcDeviceAlertCreateRequest(request));
+	}
+	return grequest.build();
+    }
+
+    /**
+     * Event stream for a tenant and principal along with the credentials it was
+     * opened with.
+     */
+    protected static class TenantEventStream {
+
+	/** Event stream */
+	private IDeviceEventStream stream;
+
+	/** JWT used when stream was opened */
+	private String jwt;
+
+	/** JWT expiration (null if unknown) */
+	private Date expiration;
+
+	public TenantEventStream(IDeviceEventStream stream, String jwt, Date expiration) {
+	    this.stream = stream;
+	    this.jwt = jwt;
+	    this.expiration = expiration;
+	}
+
+	/**
+	 * Indicates whether the stream is open and was opened with the same
+	 * credentials, which are not about to expire.
+	 * 
+	 * @param authentication
+	 * @return
+	 */
+	public boolean isUsableFor(SiteWhereAuthentication authentication) {
+	    if (stream.isClosed() || !Objects.equals(jwt, authentication.getJwt())) {
+		return false;
+	    }
+	    return (expiration == null)
+		    || (System.currentTimeMillis() < expiration.getTime() - STREAM_JWT_REFRESH_MS);
+	}
+
+	public IDeviceEventStream getStream() {
+	    return stream;
+	}
+    }
+
+    protected Map<String, TenantEventStream> getDeviceEventStreams() {
+	return deviceEventStreams;
+    }
+}
@@ -0,0 +1,219 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client.event;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+import com.sitewhere.grpc.client.GrpcUtils;
+import com.sitewhere.grpc.client.spi.client.IDeviceEventStream;
+import com.sitewhere.grpc.event.EventModelConverter;
+import com.sitewhere.grpc.service.GAddDeviceEventBatchRequest;
+import com.sitewhere.grpc.service.GAddDeviceEventBatchResponse;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.device.event.IDeviceEventBatch;
+import com.sitewhere.spi.device.event.IDeviceEventBatchResponse;
+import com.sitewhere.spi.device.event.IDeviceEventContext;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+
+/**
+ * Client side of the device event stream. Batches are written to the
+ * underlying call only when gRPC flow control reports the transport as ready.
+ * Batches that can not be written are buffered up to a fixed limit, after
+ * which senders block until buffered batches have been written.
+ * Acknowledgements are matched to senders in request order.
+ */
+public class DeviceEventStream
+	implements IDeviceEventStream, ClientResponseObserver<GAddDeviceEventBatchRequest, GAddDeviceEventBatchResponse> {
+
+    /** Request side of the call */
+    private ClientCallStreamObserver<GAddDeviceEventBatchRequest> requestStream;
+
+    /** Limits number of batches buffered but not yet written */
+    private Semaphore unsentPermits;
+
+    /** Batches waiting for transport to become ready */
+    private Queue<GAddDeviceEventBatchRequest> unsent = new ArrayDeque<>();
+
+    /** Senders waiting for acknowledgement in request order */
+    private Queue<CompletableFuture<IDeviceEventBatchResponse>> awaitingAck = new ArrayDeque<>();
+
+    /** Indicates close was requested */
+    private volatile boolean closing;
+
+    /** Indicates request side has been half-closed */
+    private boolean halfClosed;
+
+    /** Indicates stream has terminated */
+    private volatile boolean closed;
+
+    public DeviceEventStream(int maxUnsentBatches) {
+	this.unsentPermits = new Semaphore(maxUnsentBatches);
+    }
+
+    /*
+     * @see
+     * io.grpc.stub.ClientResponseObserver#beforeStart(io.grpc.stub.
+     * ClientCallStreamObserver)
+     */
+    @Override
+    public void beforeStart(ClientCallStreamObserver<GAddDeviceEventBatchRequest> requestStream) {
+	this.requestStream = requestStream;
+	requestStream.setOnReadyHandler(this::drain);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.grpc.client.spi.client.IDeviceEventStream#send(com.sitewhere.
+     * spi.device.event.IDeviceEventContext,
+     * com.sitewhere.spi.device.event.IDeviceEventBatch)
+     */
+    @Override
+    public CompletableFuture<IDeviceEventBatchResponse> send(IDeviceEventContext context, IDeviceEventBatch batch)
+	    throws SiteWhereException {
+	GAddDeviceEventBatchRequest request = DeviceEventManagementApiChannel.buildAddDeviceEventBatchRequest(context,
+		batch);
+	try {
+	    getUnsentPermits().acquire();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new SiteWhereException("Interrupted while waiting to send on device event stream.", e);
+	}
+	CompletableFuture<IDeviceEventBatchResponse> future = new CompletableFuture<>();
+	synchronized (this) {
+	    if (closed || closing) {
+		getUnsentPermits().release();
+		throw new SiteWhereException("Device event stream is closed.");
+	    }
+	    awaitingAck.add(future);
+	    unsent.add(request);
+	}
+	drain();
+	return future;
+    }
+
+    /**
+     * Write buffered batches while the transport is ready. Half-closes the call
+     * once close has been requested and all batches are written and acknowledged.
+     */
+    protected synchronized void drain() {
+	if (closed || requestStream == null) {
+	    return;
+	}
+	while (requestStream.isReady() && !unsent.isEmpty()) {
+	    requestStream.onNext(unsent.poll());
+	    getUnsentPermits().release();
+	}
+	if (closing && !halfClosed && unsent.isEmpty() && awaitingAck.isEmpty()) {
+	    halfClosed = true;
+	    requestStream.onCompleted();
+	}
+    }
+
+    /*
+     * @see io.grpc.stub.StreamObserver#onNext(java.lang.Object)
+     */
+    @Override
+    public void onNext(GAddDeviceEventBatchResponse value) {
+	CompletableFuture<IDeviceEventBatchResponse> future;
+	synchronized (this) {
+	    future = awaitingAck.poll();
+	}
+	if (closing) {
+	    drain();
+	}
+	if (future == null) {
+	    return;
+	}
+	try {
+	    IDeviceEventBatchResponse response = EventModelConverter.asApiDeviceEventBatchResponse(value.getResponse());
+	    GrpcUtils.logClientMethodResponse(DeviceEventStreamGrpc.getStreamDeviceEventBatchesMethod(), response);
+	    future.complete(response);
+	} catch (Throwable t) {
+	    future.completeExceptionally(t);
+	}
+    }
+
+    /*
+     * @see io.grpc.stub.StreamObserver#onError(java.lang.Throwable)
+     */
+    @Override
+    public void onError(Throwable t) {
+	terminate(GrpcUtils.handleClientMethodException(DeviceEventStreamGrpc.getStreamDeviceEventBatchesMethod(), t));
+    }
+
+    /*
+     * @see io.grpc.stub.StreamObserver#onCompleted()
+     */
+    @Override
+    public void onCompleted() {
+	terminate(new SiteWhereException("Device event stream completed before batch was acknowledged."));
+    }
+
+    /**
+     * Mark stream closed and fail any senders still waiting for acknowledgement.
+     * 
+     * @param cause
+     */
+    protected void terminate(Throwable cause) {
+	List<CompletableFuture<IDeviceEventBatchResponse>> failed;
+	synchronized (this) {
+	    closed = true;
+	    failed = new ArrayList<>(awaitingAck);
+	    awaitingAck.clear();
+	    getUnsentPermits().release(unsent.size());
+	    unsent.clear();
+	}
+	failed.forEach(future -> future.completeExceptionally(cause));
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceEventStream#isReady()
+     */
+    @Override
+    public boolean isReady() {
+	return !closed && requestStream != null && requestStream.isReady();
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceEventStream#isClosed()
+     */
+    @Override
+    public boolean isClosed() {
+	return closed || closing;
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.spi.client.IDeviceEventStream#close()
+     */
+    @Override
+    public void close() {
+	synchronized (this) {
+	    closing = true;
+	}
+	drain();
+    }
+
+    protected Semaphore getUnsentPermits() {
+	return unsentPermits;
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client.event;
+
+import com.sitewhere.grpc.service.GAddDeviceEventBatchRequest;
+import com.sitewhere.grpc.service.GAddDeviceEventBatchResponse;
+
+import io.grpc.MethodDescriptor;
+import io.grpc.MethodDescriptor.MethodType;
+import io.grpc.protobuf.ProtoUtils;
+
+/**
+ * Describes the bidirectional streaming service used for continuous device
+ * event ingestion. The service reuses the device event batch messages so that
+ * each streamed request is handled exactly like a call to
+ * <code>addDeviceEventBatch</code>, with acknowledgements returned on the
+ * response stream in request order.
+ */
+public final class DeviceEventStreamGrpc {
+
+    /** Service name */
+    public static final String SERVICE_NAME = "com.sitewhere.grpc.service.DeviceEventStream";
+
+    /** Method for streaming device event batches */
+    private static final MethodDescriptor<GAddDeviceEventBatchRequest, GAddDeviceEventBatchResponse> STREAM_DEVICE_EVENT_BATCHES_METHOD = MethodDescriptor
+	    .<GAddDeviceEventBatchRequest, GAddDeviceEventBatchResponse>newBuilder()
+	    .setType(MethodType.BIDI_STREAMING)
+	    .setFullMethodName(MethodDescriptor.generateFullMethodName(SERVICE_NAME, "StreamDeviceEventBatches"))
+	    .setRequestMarshaller(ProtoUtils.marshaller(GAddDeviceEventBatchRequest.getDefaultInstance()))
+	    .setResponseMarshaller(ProtoUtils.marshaller(GAddDeviceEventBatchResponse.getDefaultInstance())).build();
+
+    private DeviceEventStreamGrpc() {
+    }
+
+    public static MethodDescriptor<GAddDeviceEventBatchRequest, GAddDeviceEventBatchResponse> getStreamDeviceEventBatchesMethod() {
+	return STREAM_DEVICE_EVENT_BATCHES_METHOD;
+    }
+}
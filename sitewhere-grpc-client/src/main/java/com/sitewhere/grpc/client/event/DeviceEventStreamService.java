@@ -0,0 +1,205 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client.event;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sitewhere.grpc.service.DeviceEventManagementGrpc.DeviceEventManagementImplBase;
+import com.sitewhere.grpc.service.GAddDeviceEventBatchRequest;
+import com.sitewhere.grpc.service.GAddDeviceEventBatchResponse;
+
+import io.grpc.BindableService;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Server-side helper that exposes the device event stream on top of an
+ * existing device event management service implementation. Each streamed
+ * batch is passed to the unary <code>addDeviceEventBatch</code> handler so
+ * tenant resolution, conversion and persistence are shared with the unary
+ * path. Acknowledgements are written in request order. Inbound flow control
+ * is left to gRPC, so a slow handler holds back the client.
+ */
+public class DeviceEventStreamService implements BindableService {
+
+    /** Static logger instance */
+    private static Logger LOGGER = LoggerFactory.getLogger(DeviceEventStreamService.class);
+
+    /** Unary implementation that handles each batch */
+    private DeviceEventManagementImplBase implementation;
+
+    public DeviceEventStreamService(DeviceEventManagementImplBase implementation) {
+	this.implementation = implementation;
+    }
+
+    /*
+     * @see io.grpc.BindableService#bindService()
+     */
+    @Override
+    public ServerServiceDefinition bindService() {
+	return ServerServiceDefinition.builder(DeviceEventStreamGrpc.SERVICE_NAME)
+		.addMethod(DeviceEventStreamGrpc.getStreamDeviceEventBatchesMethod(),
+			ServerCalls.asyncBidiStreamingCall(this::streamDeviceEventBatches))
+		.build();
+    }
+
+    /**
+     * Handle a device event stream.
+     * 
+     * @param responseObserver
+     * @return
+     */
+    public StreamObserver<GAddDeviceEventBatchRequest> streamDeviceEventBatches(
+	    StreamObserver<GAddDeviceEventBatchResponse> responseObserver) {
+	return new BatchRequestObserver(responseObserver);
+    }
+
+    /**
+     * Passes each request to the unary implementation and writes
+     * acknowledgements in request order.
+     */
+    private class BatchRequestObserver implements StreamObserver<GAddDeviceEventBatchRequest> {
+
+	/** Response side of the call */
+	private StreamObserver<GAddDeviceEventBatchResponse> responseObserver;
+
+	/** Acknowledgements in request order */
+	private Queue<Acknowledgement> pending = new ArrayDeque<>();
+
+	/** Indicates client has finished sending */
+	private boolean halfClosed;
+
+	/** Indicates stream has terminated */
+	private boolean terminated;
+
+	public BatchRequestObserver(StreamObserver<GAddDeviceEventBatchResponse> responseObserver) {
+	    this.responseObserver = responseObserver;
+	}
+
+	/*
+	 * @see io.grpc.stub.StreamObserver#onNext(java.lang.Object)
+	 */
+	@Override
+	public void onNext(GAddDeviceEventBatchRequest request) {
+	    Acknowledgement ack = new Acknowledgement();
+	    synchronized (this) {
+		if (terminated) {
+		    return;
+		}
+		pending.add(ack);
+	    }
+	    getImplementation().addDeviceEventBatch(request, new StreamObserver<GAddDeviceEventBatchResponse>() {
+
+		@Override
+		public void onNext(GAddDeviceEventBatchResponse value) {
+		    ack.response = value;
+		}
+
+		@Override
+		public void onError(Throwable t) {
+		    fail(t);
+		}
+
+		@Override
+		public void onCompleted() {
+		    complete(ack);
+		}
+	    });
+	}
+
+	/*
+	 * @see io.grpc.stub.StreamObserver#onError(java.lang.Throwable)
+	 */
+	@Override
+	public synchronized void onError(Throwable t) {
+	    LOGGER.debug("Device event stream cancelled by client.", t);
+	    terminated = true;
+	    pending.clear();
+	}
+
+	/*
+	 * @see io.grpc.stub.StreamObserver#onCompleted()
+	 */
+	@Override
+	public synchronized void onCompleted() {
+	    halfClosed = true;
+	    flush();
+	}
+
+	/**
+	 * Mark acknowledgement as complete and write any that are ready.
+	 * 
+	 * @param ack
+	 */
+	protected synchronized void complete(Acknowledgement ack) {
+	    ack.done = true;
+	    flush();
+	}
+
+	/**
+	 * Terminate the stream with the error from a failed batch. The error has
+	 * already been converted by the unary implementation.
+	 * 
+	 * @param t
+	 */
+	protected synchronized void fail(Throwable t) {
+	    if (!terminated) {
+		terminated = true;
+		pending.clear();
+		responseObserver.onError(t);
+	    }
+	}
+
+	/**
+	 * Write completed acknowledgements from the head of the queue.
+	 */
+	protected void flush() {
+	    if (terminated) {
+		return;
+	    }
+	    while (!pending.isEmpty() && pending.peek().done) {
+		GAddDeviceEventBatchResponse response = pending.poll().response;
+		responseObserver.onNext(
+			response != null ? response : GAddDeviceEventBatchResponse.getDefaultInstance());
+	    }
+	    if (halfClosed && pending.isEmpty()) {
+		terminated = true;
+		responseObserver.onCompleted();
+	    }
+	}
+    }
+
+    /**
+     * Response for a single streamed batch.
+     */
+    private static class Acknowledgement {
+
+	/** Response from unary implementation */
+	private GAddDeviceEventBatchResponse response;
+
+	/** Indicates unary call completed */
+	private boolean done;
+    }
+
+    protected DeviceEventManagementImplBase getImplementation() {
+	return implementation;
+    }
+}
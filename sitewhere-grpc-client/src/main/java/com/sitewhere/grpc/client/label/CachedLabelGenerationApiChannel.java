@@ -0,0 +1,481 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client.label;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.sitewhere.grpc.client.spi.client.ILabelGenerationApiChannel;
+import com.sitewhere.microservice.api.asset.IAssetManagement;
+import com.sitewhere.microservice.api.device.IDeviceManagement;
+import com.sitewhere.microservice.api.label.ILabelGeneration;
+import com.sitewhere.microservice.cache.CacheConfiguration;
+import com.sitewhere.microservice.lifecycle.TenantEngineLifecycleComponent;
+import com.sitewhere.microservice.security.UserContext;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.label.ILabel;
+import com.sitewhere.spi.microservice.cache.ICacheConfiguration;
+import com.sitewhere.spi.microservice.lifecycle.ILifecycleProgressMonitor;
+
+/**
+ * Adds caching support to label generation API channel. Rendered labels are
+ * kept in a local cache bounded by total image size. If an
+ * {@link IEntityVersionProvider} is set, the entity version is part of the
+ * cache key so that labels are rendered again after the entity changes.
+ * Otherwise entries are refreshed once the configured TTL expires. When device
+ * and asset management are supplied, an {@link UpdatedDateVersionProvider} is
+ * used by default. Cached label content can be streamed to callers in chunks
+ * with {@link #writeLabel(EntityType, String, UUID, long, long, OutputStream)}.
+ */
+public class CachedLabelGenerationApiChannel extends TenantEngineLifecycleComponent implements ILabelGeneration {
+
+    /** Size of chunks written when streaming label content */
+    public static final int CHUNK_SIZE = 64 * 1024;
+
+    /** Cache settings */
+    private CacheSettings cacheSettings;
+
+    /** Wrapped API channel */
+    private ILabelGenerationApiChannel<?> wrapped;
+
+    /** Provides entity versions used in cache keys (optional) */
+    private IEntityVersionProvider versionProvider;
+
+    /** Label cache */
+    private Cache<LabelKey, ILabel> labelCache;
+
+    public CachedLabelGenerationApiChannel(ILabelGenerationApiChannel<?> wrapped, CacheSettings cacheSettings) {
+	this.wrapped = wrapped;
+	this.cacheSettings = cacheSettings;
+    }
+
+    public CachedLabelGenerationApiChannel(ILabelGenerationApiChannel<?> wrapped, CacheSettings cacheSettings,
+	    IDeviceManagement deviceManagement, IAssetManagement assetManagement) {
+	this(wrapped, cacheSettings);
+	this.versionProvider = new UpdatedDateVersionProvider(deviceManagement, assetManagement);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#initialize(com.sitewhere.
+     * spi.server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void initialize(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	initializeNestedComponent(getWrapped(), monitor, true);
+	this.labelCache = CacheBuilder.newBuilder().maximumWeight(getCacheSettings().getMaximumSizeInBytes())
+		.weigher((LabelKey key, ILabel label) -> getContentLength(label))
+		.expireAfterWrite(getCacheSettings().getLabelConfiguration().getTtlInSeconds(), TimeUnit.SECONDS)
+		.build();
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#start(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	startNestedComponent(getWrapped(), monitor, true);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#stop(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	stopNestedComponent(getWrapped(), monitor);
+	if (getLabelCache() != null) {
+	    getLabelCache().invalidateAll();
+	}
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.label.ILabelGeneration#getCustomerTypeLabel(
+     * java.lang.String, java.util.UUID)
+     */
+    @Override
+    public ILabel getCustomerTypeLabel(String labelGeneratorId, UUID customerTypeId) throws SiteWhereException {
+	return getLabel(EntityType.CustomerType, labelGeneratorId, customerTypeId,
+		() -> getWrapped().getCustomerTypeLabel(labelGeneratorId, customerTypeId));
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.label.ILabelGeneration#getCustomerLabel(java.
+     * lang.String, java.util.UUID)
+     */
+    @Override
+    public ILabel getCustomerLabel(String labelGeneratorId, UUID customerId) throws SiteWhereException {
+	return getLabel(EntityType.Customer, labelGeneratorId, customerId,
+		() -> getWrapped().getCustomerLabel(labelGeneratorId, customerId));
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.label.ILabelGeneration#getAreaTypeLabel(java.
+     * lang.String, java.util.UUID)
+     */
+    @Override
+    public ILabel getAreaTypeLabel(String labelGeneratorId, UUID areaTypeId) throws SiteWhereException {
+	return getLabel(EntityType.AreaType, labelGeneratorId, areaTypeId,
+		() -> getWrapped().getAreaTypeLabel(labelGeneratorId, areaTypeId));
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.label.ILabelGeneration#getAreaLabel(java.lang.
+     * String, java.util.UUID)
+     */
+    @Override
+    public ILabel getAreaLabel(String labelGeneratorId, UUID areaId) throws SiteWhereException {
+	return getLabel(EntityType.Area, labelGeneratorId, areaId,
+		() -> getWrapped().getAreaLabel(labelGeneratorId, areaId));
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.label.ILabelGeneration#getDeviceTypeLabel(java
+     * .lang.String, java.util.UUID)
+     */
+    @Override
+    public ILabel getDeviceTypeLabel(String labelGeneratorId, UUID deviceTypeId) throws SiteWhereException {
+	return getLabel(EntityType.DeviceType, labelGeneratorId, deviceTypeId,
+		() -> getWrapped().getDeviceTypeLabel(labelGeneratorId, deviceTypeId));
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.label.ILabelGeneration#getDeviceLabel(java.
+     * lang.String, java.util.UUID)
+     */
+    @Override
+    public ILabel getDeviceLabel(String labelGeneratorId, UUID deviceId) throws SiteWhereException {
+	return getLabel(EntityType.Device, labelGeneratorId, deviceId,
+		() -> getWrapped().getDeviceLabel(labelGeneratorId, deviceId));
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.label.ILabelGeneration#getDeviceGroupLabel(
+     * java.lang.String, java.util.UUID)
+     */
+    @Override
+    public ILabel getDeviceGroupLabel(String labelGeneratorId, UUID deviceGroupId) throws SiteWhereException {
+	return getLabel(EntityType.DeviceGroup, labelGeneratorId, deviceGroupId,
+		() -> getWrapped().getDeviceGroupLabel(labelGeneratorId, deviceGroupId));
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.label.ILabelGeneration#getDeviceAssignmentLabel
+     * (java.lang.String, java.util.UUID)
+     */
+    @Override
+    public ILabel getDeviceAssignmentLabel(String labelGeneratorId, UUID deviceAssignmentId)
+	    throws SiteWhereException {
+	return getLabel(EntityType.DeviceAssignment, labelGeneratorId, deviceAssignmentId,
+		() -> getWrapped().getDeviceAssignmentLabel(labelGeneratorId, deviceAssignmentId));
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.label.ILabelGeneration#getAssetTypeLabel(java.
+     * lang.String, java.util.UUID)
+     */
+    @Override
+    public ILabel getAssetTypeLabel(String labelGeneratorId, UUID assetTypeId) throws SiteWhereException {
+	return getLabel(EntityType.AssetType, labelGeneratorId, assetTypeId,
+		() -> getWrapped().getAssetTypeLabel(labelGeneratorId, assetTypeId));
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.label.ILabelGeneration#getAssetLabel(java.lang
+     * .String, java.util.UUID)
+     */
+    @Override
+    public ILabel getAssetLabel(String labelGeneratorId, UUID assetId) throws SiteWhereException {
+	return getLabel(EntityType.Asset, labelGeneratorId, assetId,
+		() -> getWrapped().getAssetLabel(labelGeneratorId, assetId));
+    }
+
+    /**
+     * Get the label for an entity and write a byte range of its content to an
+     * output stream in chunks. The label is served from the cache when present,
+     * so large images can be returned in parts without being rendered again.
+     * 
+     * @param type
+     * @param labelGeneratorId
+     * @param entityId
+     * @param offset
+     * @param length
+     * @param output
+     * @return number of bytes written
+     * @throws SiteWhereException
+     */
+    public long writeLabel(EntityType type, String labelGeneratorId, UUID entityId, long offset, long length,
+	    OutputStream output) throws SiteWhereException {
+	return writeContent(getLabel(type, labelGeneratorId, entityId), offset, length, output);
+    }
+
+    /**
+     * Get the label for an entity of the given type.
+     * 
+     * @param type
+     * @param labelGeneratorId
+     * @param entityId
+     * @return
+     * @throws SiteWhereException
+     */
+    public ILabel getLabel(EntityType type, String labelGeneratorId, UUID entityId) throws SiteWhereException {
+	switch (type) {
+	case CustomerType:
+	    return getCustomerTypeLabel(labelGeneratorId, entityId);
+	case Customer:
+	    return getCustomerLabel(labelGeneratorId, entityId);
+	case AreaType:
+	    return getAreaTypeLabel(labelGeneratorId, entityId);
+	case Area:
+	    return getAreaLabel(labelGeneratorId, entityId);
+	case DeviceType:
+	    return getDeviceTypeLabel(labelGeneratorId, entityId);
+	case Device:
+	    return getDeviceLabel(labelGeneratorId, entityId);
+	case DeviceGroup:
+	    return getDeviceGroupLabel(labelGeneratorId, entityId);
+	case DeviceAssignment:
+	    return getDeviceAssignmentLabel(labelGeneratorId, entityId);
+	case AssetType:
+	    return getAssetTypeLabel(labelGeneratorId, entityId);
+	case Asset:
+	    return getAssetLabel(labelGeneratorId, entityId);
+	default:
+	    throw new SiteWhereException("Unknown label entity type: " + type);
+	}
+    }
+
+    /**
+     * Write label content to an output stream in chunks. Only the byte range
+     * starting at <code>offset</code> and containing at most <code>length</code>
+     * bytes is written, which allows large images to be returned in parts.
+     * 
+     * @param label
+     * @param offset
+     * @param length
+     * @param output
+     * @return number of bytes written
+     * @throws SiteWhereException
+     */
+    public static long writeContent(ILabel label, long offset, long length, OutputStream output)
+	    throws SiteWhereException {
+	byte[] content = (label != null) ? label.getContent() : null;
+	if (content == null || offset >= content.length || length <= 0) {
+	    return 0;
+	}
+	int start = (int) Math.max(0, offset);
+	int end = (int) Math.min(content.length, start + length);
+	try {
+	    for (int position = start; position < end; position += CHUNK_SIZE) {
+		output.write(content, position, Math.min(CHUNK_SIZE, end - position));
+	    }
+	    output.flush();
+	} catch (IOException e) {
+	    throw new SiteWhereException("Unable to write label content.", e);
+	}
+	return end - start;
+    }
+
+    /**
+     * Get a label from the cache or load it from the wrapped channel.
+     * 
+     * @param type
+     * @param labelGeneratorId
+     * @param entityId
+     * @param loader
+     * @return
+     * @throws SiteWhereException
+     */
+    protected ILabel getLabel(EntityType type, String labelGeneratorId, UUID entityId, ILabelLoader loader)
+	    throws SiteWhereException {
+	if (!getCacheSettings().getLabelConfiguration().isEnabled()) {
+	    return loader.load();
+	}
+	Object version = (getVersionProvider() != null) ? getVersionProvider().getVersion(type, entityId) : null;
+	LabelKey key = new LabelKey(UserContext.getCurrentTenantId(), type, labelGeneratorId, entityId, version);
+	ILabel label = getLabelCache().getIfPresent(key);
+	if (label == null) {
+	    label = loader.load();
+	    if (label != null) {
+		getLabelCache().put(key, label);
+	    }
+	}
+	return label;
+    }
+
+    /**
+     * Get length of label content used to weigh cache entries.
+     * 
+     * @param label
+     * @return
+     */
+    protected static int getContentLength(ILabel label) {
+	return (label.getContent() != null) ? label.getContent().length : 0;
+    }
+
+    /**
+     * Types of entity for which labels are generated.
+     */
+    public static enum EntityType {
+	CustomerType, Customer, AreaType, Area, DeviceType, Device, DeviceGroup, DeviceAssignment, AssetType, Asset;
+    }
+
+    /**
+     * Supplies the current version of an entity (for instance its last update
+     * date) so that cached labels are not used after the entity changes.
+     */
+    @FunctionalInterface
+    public static interface IEntityVersionProvider {
+
+	/**
+	 * Get current version of an entity.
+	 * 
+	 * @param type
+	 * @param entityId
+	 * @return
+	 * @throws SiteWhereException
+	 */
+	Object getVersion(EntityType type, UUID entityId) throws SiteWhereException;
+    }
+
+    /**
+     * Loads a label from the wrapped channel.
+     */
+    @FunctionalInterface
+    protected static interface ILabelLoader {
+	ILabel load() throws SiteWhereException;
+    }
+
+    /**
+     * Key for cached labels.
+     */
+    protected static class LabelKey {
+
+	/** Tenant id */
+	private final String tenantId;
+
+	/** Entity type */
+	private final EntityType type;
+
+	/** Label generator id */
+	private final String labelGeneratorId;
+
+	/** Entity id */
+	private final UUID entityId;
+
+	/** Entity version */
+	private final Object version;
+
+	public LabelKey(String tenantId, EntityType type, String labelGeneratorId, UUID entityId, Object version) {
+	    this.tenantId = tenantId;
+	    this.type = type;
+	    this.labelGeneratorId = labelGeneratorId;
+	    this.entityId = entityId;
+	    this.version = version;
+	}
+
+	/*
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+	    if (this == obj) {
+		return true;
+	    }
+	    if (!(obj instanceof LabelKey)) {
+		return false;
+	    }
+	    LabelKey other = (LabelKey) obj;
+	    return type == other.type && Objects.equals(entityId, other.entityId)
+		    && Objects.equals(labelGeneratorId, other.labelGeneratorId)
+		    && Objects.equals(tenantId, other.tenantId) && Objects.equals(version, other.version);
+	}
+
+	/*
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+	    return Objects.hash(tenantId, type, labelGeneratorId, entityId, version);
+	}
+    }
+
+    /**
+     * Contains default cache settings for labels.
+     */
+    public static class CacheSettings {
+
+	/** Cache configuration for labels */
+	private ICacheConfiguration labelConfiguration = new CacheConfiguration(300);
+
+	/** Maximum total size in bytes of cached label content */
+	private long maximumSizeInBytes = 64 * 1024 * 1024;
+
+	public ICacheConfiguration getLabelConfiguration() {
+	    return labelConfiguration;
+	}
+
+	public void setLabelConfiguration(ICacheConfiguration labelConfiguration) {
+	    this.labelConfiguration = labelConfiguration;
+	}
+
+	public long getMaximumSizeInBytes() {
+	    return maximumSizeInBytes;
+	}
+
+	public void setMaximumSizeInBytes(long maximumSizeInBytes) {
+	    this.maximumSizeInBytes = maximumSizeInBytes;
+	}
+    }
+
+    public IEntityVersionProvider getVersionProvider() {
+	return versionProvider;
+    }
+
+    public void setVersionProvider(IEntityVersionProvider versionProvider) {
+	this.versionProvider = versionProvider;
+    }
+
+    protected Cache<LabelKey, ILabel> getLabelCache() {
+	return labelCache;
+    }
+
+    protected ILabelGenerationApiChannel<?> getWrapped() {
+	return wrapped;
+    }
+
+    protected CacheSettings getCacheSettings() {
+	return cacheSettings;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client.label;
+
+import java.util.UUID;
+
+import com.sitewhere.grpc.client.label.CachedLabelGenerationApiChannel.EntityType;
+import com.sitewhere.grpc.client.label.CachedLabelGenerationApiChannel.IEntityVersionProvider;
+import com.sitewhere.microservice.api.asset.IAssetManagement;
+import com.sitewhere.microservice.api.device.IDeviceManagement;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.common.IPersistentEntity;
+
+/**
+ * Uses the last update date of an entity as its version, falling back to the
+ * creation date for entities that have never been updated. Entities are
+ * resolved through the device and asset management APIs, which are expected to
+ * be the cached API channels so that version checks do not require a remote
+ * call for each label.
+ */
+public class UpdatedDateVersionProvider implements IEntityVersionProvider {
+
+    /** Device management */
+    private IDeviceManagement deviceManagement;
+
+    /** Asset management */
+    private IAssetManagement assetManagement;
+
+    public UpdatedDateVersionProvider(IDeviceManagement deviceManagement, IAssetManagement assetManagement) {
+	this.deviceManagement = deviceManagement;
+	this.assetManagement = assetManagement;
+    }
+
+    /*
+     * @see com.sitewhere.grpc.client.label.CachedLabelGenerationApiChannel.
+     * IEntityVersionProvider#getVersion(com.sitewhere.grpc.client.label.
+     * CachedLabelGenerationApiChannel.EntityType, java.util.UUID)
+     */
+    @Override
+    public Object getVersion(EntityType type, UUID entityId) throws SiteWhereException {
+	IPersistentEntity entity = getEntity(type, entityId);
+	if (entity == null) {
+	    return null;
+	}
+	return (entity.getUpdatedDate() != null) ? entity.getUpdatedDate() : entity.getCreatedDate();
+    }
+
+    /**
+     * Look up the entity a label is generated for.
+     * 
+     * @param type
+     * @param entityId
+     * @return
+     * @throws SiteWhereException
+     */
+    protected IPersistentEntity getEntity(EntityType type, UUID entityId) throws SiteWhereException {
+	switch (type) {
+	case CustomerType:
+	    return getDeviceManagement().getCustomerType(entityId);
+	case Customer:
+	    return getDeviceManagement().getCustomer(entityId);
+	case AreaType:
+	    return getDeviceManagement().getAreaType(entityId);
+	case Area:
+	    return getDeviceManagement().getArea(entityId);
+	case DeviceType:
+	    return getDeviceManagement().getDeviceType(entityId);
+	case Device:
+	    return getDeviceManagement().getDevice(entityId);
+	case DeviceGroup:
+	    return getDeviceManagement().getDeviceGroup(entityId);
+	case DeviceAssignment:
+	    return getDeviceManagement().getDeviceAssignment(entityId);
+	case AssetType:
+	    return getAssetManagement().getAssetType(entityId);
+	case Asset:
+	    return getAssetManagement().getAsset(entityId);
+	default:
+	    return null;
+	}
+    }
+
+    protected IDeviceManagement getDeviceManagement() {
+	return deviceManagement;
+    }
+
+    protected IAssetManagement getAssetManagement() {
+	return assetManagement;
+    }
+}
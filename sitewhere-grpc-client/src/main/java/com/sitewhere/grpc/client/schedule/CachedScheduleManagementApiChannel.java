@@ -0,0 +1,324 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client.schedule;
+
+import java.util.UUID;
+
+import com.sitewhere.grpc.client.spi.client.IScheduleManagementApiChannel;
+import com.sitewhere.microservice.api.schedule.IScheduleManagement;
+import com.sitewhere.microservice.cache.CacheConfiguration;
+import com.sitewhere.microservice.lifecycle.TenantEngineLifecycleComponent;
+import com.sitewhere.microservice.security.UserContext;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.microservice.cache.ICacheConfiguration;
+import com.sitewhere.spi.microservice.cache.ICacheProvider;
+import com.sitewhere.spi.microservice.lifecycle.ILifecycleProgressMonitor;
+import com.sitewhere.spi.scheduling.ISchedule;
+import com.sitewhere.spi.scheduling.IScheduledJob;
+import com.sitewhere.spi.scheduling.request.IScheduleCreateRequest;
+import com.sitewhere.spi.scheduling.request.IScheduledJobCreateRequest;
+import com.sitewhere.spi.search.ISearchCriteria;
+import com.sitewhere.spi.search.ISearchResults;
+
+/**
+ * Adds caching support to schedule management API channel.
+ */
+public class CachedScheduleManagementApiChannel extends TenantEngineLifecycleComponent
+	implements IScheduleManagement {
+
+    /** Cache settings */
+    private CacheSettings cacheSettings;
+
+    /** Wrapped API channel */
+    private IScheduleManagementApiChannel<?> wrapped;
+
+    /** Schedule cache */
+    private ICacheProvider<String, ISchedule> scheduleCache;
+
+    /** Schedule by id cache */
+    private ICacheProvider<UUID, ISchedule> scheduleByIdCache;
+
+    /** Scheduled job cache */
+    private ICacheProvider<String, IScheduledJob> scheduledJobCache;
+
+    /** Scheduled job by id cache */
+    private ICacheProvider<UUID, IScheduledJob> scheduledJobByIdCache;
+
+    public CachedScheduleManagementApiChannel(IScheduleManagementApiChannel<?> wrapped, CacheSettings cacheSettings) {
+	this.wrapped = wrapped;
+	this.cacheSettings = cacheSettings;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#initialize(com.sitewhere.
+     * spi.server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void initialize(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	initializeNestedComponent(getWrapped(), monitor, true);
+	this.scheduleCache = new ScheduleManagementCacheProviders.ScheduleByTokenCache(getMicroservice(),
+		getCacheSettings().getScheduleConfiguration());
+	this.scheduleByIdCache = new ScheduleManagementCacheProviders.ScheduleByIdCache(getMicroservice(),
+		getCacheSettings().getScheduleConfiguration());
+	this.scheduledJobCache = new ScheduleManagementCacheProviders.ScheduledJobByTokenCache(getMicroservice(),
+		getCacheSettings().getScheduledJobConfiguration());
+	this.scheduledJobByIdCache = new ScheduleManagementCacheProviders.ScheduledJobByIdCache(getMicroservice(),
+		getCacheSettings().getScheduledJobConfiguration());
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#start(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	startNestedComponent(getWrapped(), monitor, true);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.server.lifecycle.LifecycleComponent#stop(com.sitewhere.spi.
+     * server.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	stopNestedComponent(getWrapped(), monitor);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.schedule.IScheduleManagement#createSchedule(
+     * com.sitewhere.spi.scheduling.request.IScheduleCreateRequest)
+     */
+    @Override
+    public ISchedule createSchedule(IScheduleCreateRequest request) throws SiteWhereException {
+	ISchedule created = getWrapped().createSchedule(request);
+	String tenantId = UserContext.getCurrentTenantId();
+	getScheduleCache().setCacheEntry(tenantId, created.getToken(), created);
+	getScheduleByIdCache().setCacheEntry(tenantId, created.getId(), created);
+	return created;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.schedule.IScheduleManagement#updateSchedule(
+     * java.util.UUID, com.sitewhere.spi.scheduling.request.IScheduleCreateRequest)
+     */
+    @Override
+    public ISchedule updateSchedule(UUID scheduleId, IScheduleCreateRequest request) throws SiteWhereException {
+	String tenantId = UserContext.getCurrentTenantId();
+	ISchedule updated = getWrapped().updateSchedule(scheduleId, request);
+	getScheduleCache().setCacheEntry(tenantId, updated.getToken(), updated);
+	getScheduleByIdCache().setCacheEntry(tenantId, updated.getId(), updated);
+	return updated;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.schedule.IScheduleManagement#getSchedule(java.
+     * util.UUID)
+     */
+    @Override
+    public ISchedule getSchedule(UUID scheduleId) throws SiteWhereException {
+	String tenantId = UserContext.getCurrentTenantId();
+	ISchedule schedule = getScheduleByIdCache().getCacheEntry(tenantId, scheduleId);
+	if (schedule == null) {
+	    schedule = getWrapped().getSchedule(scheduleId);
+	    getScheduleByIdCache().setCacheEntry(tenantId, scheduleId, schedule);
+	}
+	return schedule;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.schedule.IScheduleManagement#getScheduleByToken
+     * (java.lang.String)
+     */
+    @Override
+    public ISchedule getScheduleByToken(String token) throws SiteWhereException {
+	String tenantId = UserContext.getCurrentTenantId();
+	ISchedule schedule = getScheduleCache().getCacheEntry(tenantId, token);
+	if (schedule == null) {
+	    schedule = getWrapped().getScheduleByToken(token);
+	    getScheduleCache().setCacheEntry(tenantId, token, schedule);
+	}
+	return schedule;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.schedule.IScheduleManagement#listSchedules(com
+     * .sitewhere.spi.search.ISearchCriteria)
+     */
+    @Override
+    public ISearchResults<? extends ISchedule> listSchedules(ISearchCriteria criteria) throws SiteWhereException {
+	return getWrapped().listSchedules(criteria);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.schedule.IScheduleManagement#deleteSchedule(
+     * java.util.UUID)
+     */
+    @Override
+    public ISchedule deleteSchedule(UUID scheduleId) throws SiteWhereException {
+	String tenantId = UserContext.getCurrentTenantId();
+	ISchedule deleted = getWrapped().deleteSchedule(scheduleId);
+	getScheduleCache().removeCacheEntry(tenantId, deleted.getToken());
+	getScheduleByIdCache().removeCacheEntry(tenantId, deleted.getId());
+	return deleted;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.schedule.IScheduleManagement#createScheduledJob
+     * (com.sitewhere.spi.scheduling.request.IScheduledJobCreateRequest)
+     */
+    @Override
+    public IScheduledJob createScheduledJob(IScheduledJobCreateRequest request) throws SiteWhereException {
+	IScheduledJob created = getWrapped().createScheduledJob(request);
+	String tenantId = UserContext.getCurrentTenantId();
+	getScheduledJobCache().setCacheEntry(tenantId, created.getToken(), created);
+	getScheduledJobByIdCache().setCacheEntry(tenantId, created.getId(), created);
+	return created;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.schedule.IScheduleManagement#updateScheduledJob
+     * (java.util.UUID,
+     * com.sitewhere.spi.scheduling.request.IScheduledJobCreateRequest)
+     */
+    @Override
+    public IScheduledJob updateScheduledJob(UUID scheduledJobId, IScheduledJobCreateRequest request)
+	    throws SiteWhereException {
+	String tenantId = UserContext.getCurrentTenantId();
+	IScheduledJob updated = getWrapped().updateScheduledJob(scheduledJobId, request);
+	getScheduledJobCache().setCacheEntry(tenantId, updated.getToken(), updated);
+	getScheduledJobByIdCache().setCacheEntry(tenantId, updated.getId(), updated);
+	return updated;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.schedule.IScheduleManagement#getScheduledJob(
+     * java.util.UUID)
+     */
+    @Override
+    public IScheduledJob getScheduledJob(UUID scheduledJobId) throws SiteWhereException {
+	String tenantId = UserContext.getCurrentTenantId();
+	IScheduledJob job = getScheduledJobByIdCache().getCacheEntry(tenantId, scheduledJobId);
+	if (job == null) {
+	    job = getWrapped().getScheduledJob(scheduledJobId);
+	    getScheduledJobByIdCache().setCacheEntry(tenantId, scheduledJobId, job);
+	}
+	return job;
+    }
+
+    /*
+     * @see com.sitewhere.microservice.api.schedule.IScheduleManagement#
+     * getScheduledJobByToken(java.lang.String)
+     */
+    @Override
+    public IScheduledJob getScheduledJobByToken(String token) throws SiteWhereException {
+	String tenantId = UserContext.getCurrentTenantId();
+	IScheduledJob job = getScheduledJobCache().getCacheEntry(tenantId, token);
+	if (job == null) {
+	    job = getWrapped().getScheduledJobByToken(token);
+	    getScheduledJobCache().setCacheEntry(tenantId, token, job);
+	}
+	return job;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.schedule.IScheduleManagement#listScheduledJobs
+     * (com.sitewhere.spi.search.ISearchCriteria)
+     */
+    @Override
+    public ISearchResults<? extends IScheduledJob> listScheduledJobs(ISearchCriteria criteria)
+	    throws SiteWhereException {
+	return getWrapped().listScheduledJobs(criteria);
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.api.schedule.IScheduleManagement#deleteScheduledJob
+     * (java.util.UUID)
+     */
+    @Override
+    public IScheduledJob deleteScheduledJob(UUID scheduledJobId) throws SiteWhereException {
+	String tenantId = UserContext.getCurrentTenantId();
+	IScheduledJob deleted = getWrapped().deleteScheduledJob(scheduledJobId);
+	getScheduledJobCache().removeCacheEntry(tenantId, deleted.getToken());
+	getScheduledJobByIdCache().removeCacheEntry(tenantId, deleted.getId());
+	return deleted;
+    }
+
+    /**
+     * Contains default cache settings for schedule management entities.
+     */
+    public static class CacheSettings {
+
+	/** Cache configuraton for schedules */
+	private ICacheConfiguration scheduleConfiguration = new CacheConfiguration(60);
+
+	/** Cache configuraton for scheduled jobs */
+	private ICacheConfiguration scheduledJobConfiguration = new CacheConfiguration(60);
+
+	public ICacheConfiguration getScheduleConfiguration() {
+	    return scheduleConfiguration;
+	}
+
+	public void setScheduleConfiguration(ICacheConfiguration scheduleConfiguration) {
+	    this.scheduleConfiguration = scheduleConfiguration;
+	}
+
+	public ICacheConfiguration getScheduledJobConfiguration() {
+	    return scheduledJobConfiguration;
+	}
+
+	public void setScheduledJobConfiguration(ICacheConfiguration scheduledJobConfiguration) {
+	    this.scheduledJobConfiguration = scheduledJobConfiguration;
+	}
+    }
+
+    protected ICacheProvider<String, ISchedule> getScheduleCache() {
+	return scheduleCache;
+    }
+
+    protected ICacheProvider<UUID, ISchedule> getScheduleByIdCache() {
+	return scheduleByIdCache;
+    }
+
+    protected ICacheProvider<String, IScheduledJob> getScheduledJobCache() {
+	return scheduledJobCache;
+    }
+
+    protected ICacheProvider<UUID, IScheduledJob> getScheduledJobByIdCache() {
+	return scheduledJobByIdCache;
+    }
+
+    protected IScheduleManagementApiChannel<?> getWrapped() {
+	return wrapped;
+    }
+
+    protected CacheSettings getCacheSettings() {
+	return cacheSettings;
+    }
+}
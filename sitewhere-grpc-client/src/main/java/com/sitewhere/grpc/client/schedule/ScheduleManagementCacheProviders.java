@@ -0,0 +1,209 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client.schedule;
+
+import java.util.UUID;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.sitewhere.grpc.client.GrpcUtils;
+import com.sitewhere.grpc.model.ScheduleModel.GSchedule;
+import com.sitewhere.grpc.model.ScheduleModel.GScheduledJob;
+import com.sitewhere.grpc.schedule.ScheduleModelConverter;
+import com.sitewhere.microservice.cache.RedisCacheProvider;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.microservice.IMicroservice;
+import com.sitewhere.spi.microservice.cache.ICacheConfiguration;
+import com.sitewhere.spi.scheduling.ISchedule;
+import com.sitewhere.spi.scheduling.IScheduledJob;
+
+/**
+ * Cache providers for schedule management entities.
+ */
+public class ScheduleManagementCacheProviders {
+
+    public static final String SCHEDULE_BY_TOKEN = "schedule_by_token";
+    public static final String SCHEDULE_BY_ID = "schedule_by_id";
+    public static final String SCHEDULED_JOB_BY_TOKEN = "scheduled_job_by_token";
+    public static final String SCHEDULED_JOB_BY_ID = "scheduled_job_by_id";
+
+    /**
+     * Cache for schedules by token.
+     */
+    public static class ScheduleByTokenCache extends RedisCacheProvider<String, ISchedule> {
+
+	public ScheduleByTokenCache(IMicroservice<?, ?> microservice, ICacheConfiguration configuration) {
+	    super(microservice, SCHEDULE_BY_TOKEN, configuration);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.microservice.cache.RedisCacheProvider#convertKey(java.lang.
+	 * Object)
+	 */
+	@Override
+	public String convertKey(String key) throws SiteWhereException {
+	    return key;
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#serialize(java.lang.
+	 * Object)
+	 */
+	@Override
+	public byte[] serialize(ISchedule value) throws SiteWhereException {
+	    GSchedule message = ScheduleModelConverter.asGrpcSchedule(value);
+	    return GrpcUtils.marshal(message);
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#deserialize(byte[])
+	 */
+	@Override
+	public ISchedule deserialize(byte[] value) throws SiteWhereException {
+	    try {
+		return ScheduleModelConverter.asApiSchedule(GSchedule.parseFrom(value));
+	    } catch (InvalidProtocolBufferException e) {
+		throw new SiteWhereException("Unable to parse gRPC message.", e);
+	    }
+	}
+    }
+
+    /**
+     * Cache for schedules by id.
+     */
+    public static class ScheduleByIdCache extends RedisCacheProvider<UUID, ISchedule> {
+
+	public ScheduleByIdCache(IMicroservice<?, ?> microservice, ICacheConfiguration configuration) {
+	    super(microservice, SCHEDULE_BY_ID, configuration);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.microservice.cache.RedisCacheProvider#convertKey(java.lang.
+	 * Object)
+	 */
+	@Override
+	public String convertKey(UUID key) throws SiteWhereException {
+	    return key.toString();
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#serialize(java.lang.
+	 * Object)
+	 */
+	@Override
+	public byte[] serialize(ISchedule value) throws SiteWhereException {
+	    GSchedule message = ScheduleModelConverter.asGrpcSchedule(value);
+	    return GrpcUtils.marshal(message);
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#deserialize(byte[])
+	 */
+	@Override
+	public ISchedule deserialize(byte[] value) throws SiteWhereException {
+	    try {
+		return ScheduleModelConverter.asApiSchedule(GSchedule.parseFrom(value));
+	    } catch (InvalidProtocolBufferException e) {
+		throw new SiteWhereException("Unable to parse gRPC message.", e);
+	    }
+	}
+    }
+
+    /**
+     * Cache for scheduled jobs by token.
+     */
+    public static class ScheduledJobByTokenCache extends RedisCacheProvider<String, IScheduledJob> {
+
+	public ScheduledJobByTokenCache(IMicroservice<?, ?> microservice, ICacheConfiguration configuration) {
+	    super(microservice, SCHEDULED_JOB_BY_TOKEN, configuration);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.microservice.cache.RedisCacheProvider#convertKey(java.lang.
+	 * Object)
+	 */
+	@Override
+	public String convertKey(String key) throws SiteWhereException {
+	    return key;
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#serialize(java.lang.
+	 * Object)
+	 */
+	@Override
+	public byte[] serialize(IScheduledJob value) throws SiteWhereException {
+	    GScheduledJob message = ScheduleModelConverter.asGrpcScheduledJob(value);
+	    return GrpcUtils.marshal(message);
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#deserialize(byte[])
+	 */
+	@Override
+	public IScheduledJob deserialize(byte[] value) throws SiteWhereException {
+	    try {
+		return ScheduleModelConverter.asApiScheduledJob(GScheduledJob.parseFrom(value));
+	    } catch (InvalidProtocolBufferException e) {
+		throw new SiteWhereException("Unable to parse gRPC message.", e);
+	    }
+	}
+    }
+
+    /**
+     * Cache for scheduled jobs by id.
+     */
+    public static class ScheduledJobByIdCache extends RedisCacheProvider<UUID, IScheduledJob> {
+
+	public ScheduledJobByIdCache(IMicroservice<?, ?> microservice, ICacheConfiguration configuration) {
+	    super(microservice, SCHEDULED_JOB_BY_ID, configuration);
+	}
+
+	/*
+	 * @see
+	 * com.sitewhere.microservice.cache.RedisCacheProvider#convertKey(java.lang.
+	 * Object)
+	 */
+	@Override
+	public String convertKey(UUID key) throws SiteWhereException {
+	    return key.toString();
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#serialize(java.lang.
+	 * Object)
+	 */
+	@Override
+	public byte[] serialize(IScheduledJob value) throws SiteWhereException {
+	    GScheduledJob message = ScheduleModelConverter.asGrpcScheduledJob(value);
+	    return GrpcUtils.marshal(message);
+	}
+
+	/*
+	 * @see com.sitewhere.microservice.cache.RedisCacheProvider#deserialize(byte[])
+	 */
+	@Override
+	public IScheduledJob deserialize(byte[] value) throws SiteWhereException {
+	    try {
+		return ScheduleModelConverter.asApiScheduledJob(GScheduledJob.parseFrom(value));
+	    } catch (InvalidProtocolBufferException e) {
+		throw new SiteWhereException("Unable to parse gRPC message.", e);
+	    }
+	}
+    }
+}
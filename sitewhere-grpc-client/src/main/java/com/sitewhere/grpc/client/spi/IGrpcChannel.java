@@ -15,6 +15,10 @@
  */
 package com.sitewhere.grpc.client.spi;
 
+import java.util.concurrent.CompletableFuture;
+
+import com.sitewhere.spi.microservice.grpc.IGrpcCallMonitor;
+import com.sitewhere.spi.microservice.grpc.IGrpcCircuitBreaker;
 import com.sitewhere.spi.microservice.lifecycle.ITenantEngineLifecycleComponent;
 
 import io.grpc.ManagedChannel;
@@ -61,4 +65,35 @@ public interface IGrpcChannel<B, A> extends ITenantEngineLifecycleComponent {
      * @return
      */
     public A getAsyncStub();
+
+    /**
+     * Get monitor that tracks in-flight calls and latency for the channel.
+     * 
+     * @return
+     */
+    public IGrpcCallMonitor getCallMonitor();
+
+    /**
+     * Get circuit breaker that fails calls fast while the remote service is
+     * unhealthy. Returns null if circuit breaking is disabled.
+     * 
+     * @return
+     */
+    public IGrpcCircuitBreaker getCircuitBreaker();
+
+    /**
+     * Indicates whether the channel currently has a ready connection.
+     * 
+     * @return
+     */
+    public boolean isReady();
+
+    /**
+     * Get future that completes when the channel becomes ready. If the connection
+     * is lost after becoming ready, a new future is returned for the next
+     * connection. Completes exceptionally if the channel is shut down.
+     * 
+     * @return
+     */
+    public CompletableFuture<Void> getReadiness();
 }
\ No newline at end of file
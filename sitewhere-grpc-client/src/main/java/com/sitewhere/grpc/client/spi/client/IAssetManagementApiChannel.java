@@ -15,9 +15,13 @@
  */
 package com.sitewhere.grpc.client.spi.client;
 
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 import com.sitewhere.grpc.client.MultitenantGrpcChannel;
 import com.sitewhere.grpc.client.spi.multitenant.IMultitenantApiChannel;
 import com.sitewhere.microservice.api.asset.IAssetManagement;
+import com.sitewhere.spi.asset.IAsset;
 
 /**
  * Provides an {@link IMultitenantApiChannel} that supplies the
@@ -25,4 +29,12 @@ import com.sitewhere.microservice.api.asset.IAssetManagement;
  */
 public interface IAssetManagementApiChannel<T extends MultitenantGrpcChannel<?, ?>>
 	extends IAssetManagement, IMultitenantApiChannel<T> {
-}
\ No newline at end of file
+
+    /**
+     * Get asset by unique id without blocking the calling thread.
+     * 
+     * @param assetId
+     * @return
+     */
+    public CompletableFuture<IAsset> getAssetAsync(UUID assetId);
+}
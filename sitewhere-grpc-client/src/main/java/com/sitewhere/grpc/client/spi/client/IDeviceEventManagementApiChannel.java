@@ -15,9 +15,22 @@
  */
 package com.sitewhere.grpc.client.spi.client;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import com.sitewhere.grpc.client.MultitenantGrpcChannel;
 import com.sitewhere.grpc.client.spi.multitenant.IMultitenantApiChannel;
 import com.sitewhere.microservice.api.event.IDeviceEventManagement;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.device.event.IDeviceAlert;
+import com.sitewhere.spi.device.event.IDeviceEventBatch;
+import com.sitewhere.spi.device.event.IDeviceEventBatchResponse;
+import com.sitewhere.spi.device.event.IDeviceEventContext;
+import com.sitewhere.spi.device.event.IDeviceLocation;
+import com.sitewhere.spi.device.event.IDeviceMeasurement;
+import com.sitewhere.spi.device.event.request.IDeviceAlertCreateRequest;
+import com.sitewhere.spi.device.event.request.IDeviceLocationCreateRequest;
+import com.sitewhere.spi.device.event.request.IDeviceMeasurementCreateRequest;
 
 /**
  * Provides an {@link IMultitenantApiChannel} that supplies the
@@ -25,4 +38,64 @@ import com.sitewhere.microservice.api.event.IDeviceEventManagement;
  */
 public interface IDeviceEventManagementApiChannel<T extends MultitenantGrpcChannel<?, ?>>
 	extends IDeviceEventManagement, IMultitenantApiChannel<T> {
+
+    /**
+     * Open a new long-lived stream for pushing device event batches. The stream
+     * is bound to the tenant and credentials of the current user context.
+     * 
+     * @return
+     * @throws SiteWhereException
+     */
+    public IDeviceEventStream openDeviceEventStream() throws SiteWhereException;
+
+    /**
+     * Get the shared device event stream for the current tenant, opening a new
+     * one if none exists, the previous stream has closed or the previous stream
+     * was opened with credentials that differ from the caller's or are near
+     * expiration.
+     * 
+     * @return
+     * @throws SiteWhereException
+     */
+    public IDeviceEventStream getDeviceEventStream() throws SiteWhereException;
+
+    /**
+     * Add a batch of events without blocking the calling thread.
+     * 
+     * @param context
+     * @param batch
+     * @return
+     */
+    public CompletableFuture<IDeviceEventBatchResponse> addDeviceEventBatchAsync(IDeviceEventContext context,
+	    IDeviceEventBatch batch);
+
+    /**
+     * Add measurements without blocking the calling thread.
+     * 
+     * @param context
+     * @param measurement
+     * @return
+     */
+    public CompletableFuture<List<? extends IDeviceMeasurement>> addDeviceMeasurementsAsync(
+	    IDeviceEventContext context, IDeviceMeasurementCreateRequest... measurement);
+
+    /**
+     * Add locations without blocking the calling thread.
+     * 
+     * @param context
+     * @param location
+     * @return
+     */
+    public CompletableFuture<List<? extends IDeviceLocation>> addDeviceLocationsAsync(IDeviceEventContext context,
+	    IDeviceLocationCreateRequest... location);
+
+    /**
+     * Add alerts without blocking the calling thread.
+     * 
+     * @param context
+     * @param alert
+     * @return
+     */
+    public CompletableFuture<List<? extends IDeviceAlert>> addDeviceAlertsAsync(IDeviceEventContext context,
+	    IDeviceAlertCreateRequest... alert);
 }
\ No newline at end of file
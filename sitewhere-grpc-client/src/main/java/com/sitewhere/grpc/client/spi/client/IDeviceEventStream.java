@@ -0,0 +1,66 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.grpc.client.spi.client;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.device.event.IDeviceEventBatch;
+import com.sitewhere.spi.device.event.IDeviceEventBatchResponse;
+import com.sitewhere.spi.device.event.IDeviceEventContext;
+
+/**
+ * Long-lived stream used to push device event batches to event management.
+ * Each batch is acknowledged asynchronously with the response that would have
+ * been returned by a unary <code>addDeviceEventBatch</code> call. Senders are
+ * held back when the transport is not able to accept more data.
+ */
+public interface IDeviceEventStream {
+
+    /**
+     * Send a batch of events on the stream. Blocks if the maximum number of
+     * unsent batches has been reached until flow control allows more data to be
+     * written.
+     * 
+     * @param context
+     * @param batch
+     * @return
+     * @throws SiteWhereException
+     */
+    public CompletableFuture<IDeviceEventBatchResponse> send(IDeviceEventContext context, IDeviceEventBatch batch)
+	    throws SiteWhereException;
+
+    /**
+     * Indicates whether the transport can accept more data without buffering.
+     * 
+     * @return
+     */
+    public boolean isReady();
+
+    /**
+     * Indicates whether the stream has been closed, is closing or has failed. A
+     * closed stream does not accept new batches.
+     * 
+     * @return
+     */
+    public boolean isClosed();
+
+    /**
+     * Close the stream once all batches already accepted have been sent and
+     * acknowledged.
+     */
+    public void close();
+}
@@ -15,9 +15,21 @@
  */
 package com.sitewhere.grpc.client.spi.client;
 
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
 import com.sitewhere.grpc.client.MultitenantGrpcChannel;
 import com.sitewhere.grpc.client.spi.multitenant.IMultitenantApiChannel;
 import com.sitewhere.microservice.api.device.IDeviceManagement;
+import com.sitewhere.spi.area.IArea;
+import com.sitewhere.spi.customer.ICustomer;
+import com.sitewhere.spi.device.IDevice;
+import com.sitewhere.spi.device.IDeviceAssignment;
+import com.sitewhere.spi.device.group.IDeviceGroupElement;
+import com.sitewhere.spi.search.device.IDeviceAssignmentSearchCriteria;
+import com.sitewhere.spi.search.device.IDeviceSearchCriteria;
 
 /**
  * Provides an {@link IMultitenantApiChannel} that supplies the
@@ -25,4 +37,93 @@ import com.sitewhere.microservice.api.device.IDeviceManagement;
  */
 public interface IDeviceManagementApiChannel<T extends MultitenantGrpcChannel<?, ?>>
 	extends IDeviceManagement, IMultitenantApiChannel<T> {
-}
\ No newline at end of file
+
+    /**
+     * Get device by unique id without blocking the calling thread.
+     * 
+     * @param deviceId
+     * @return
+     */
+    public CompletableFuture<IDevice> getDeviceAsync(UUID deviceId);
+
+    /**
+     * Get device by token without blocking the calling thread.
+     * 
+     * @param token
+     * @return
+     */
+    public CompletableFuture<IDevice> getDeviceByTokenAsync(String token);
+
+    /**
+     * Get device assignment by unique id without blocking the calling thread.
+     * 
+     * @param id
+     * @return
+     */
+    public CompletableFuture<IDeviceAssignment> getDeviceAssignmentAsync(UUID id);
+
+    /**
+     * Get device assignment by token without blocking the calling thread.
+     * 
+     * @param token
+     * @return
+     */
+    public CompletableFuture<IDeviceAssignment> getDeviceAssignmentByTokenAsync(String token);
+
+    /**
+     * Get active assignments for a device without blocking the calling thread.
+     * 
+     * @param deviceId
+     * @return
+     */
+    public CompletableFuture<List<IDeviceAssignment>> getActiveDeviceAssignmentsAsync(UUID deviceId);
+
+    /**
+     * Get customer by unique id without blocking the calling thread.
+     * 
+     * @param id
+     * @return
+     */
+    public CompletableFuture<ICustomer> getCustomerAsync(UUID id);
+
+    /**
+     * Get area by unique id without blocking the calling thread.
+     * 
+     * @param id
+     * @return
+     */
+    public CompletableFuture<IArea> getAreaAsync(UUID id);
+
+    /**
+     * Stream devices matching the criteria. Results are fetched lazily one page
+     * at a time with the next page prefetched. Paging in the criteria is ignored.
+     * The stream should be closed if not fully consumed.
+     * 
+     * @param criteria
+     * @param pageSize
+     * @return
+     */
+    public Stream<IDevice> streamDevices(IDeviceSearchCriteria criteria, int pageSize);
+
+    /**
+     * Stream device assignments matching the criteria. Results are fetched lazily
+     * one page at a time with the next page prefetched. Paging in the criteria is
+     * ignored. The stream should be closed if not fully consumed.
+     * 
+     * @param criteria
+     * @param pageSize
+     * @return
+     */
+    public Stream<IDeviceAssignment> streamDeviceAssignments(IDeviceAssignmentSearchCriteria criteria, int pageSize);
+
+    /**
+     * Stream elements of a device group. Results are fetched lazily one page at a
+     * time with the next page prefetched. The stream should be closed if not fully
+     * consumed.
+     * 
+     * @param groupId
+     * @param pageSize
+     * @return
+     */
+    public Stream<IDeviceGroupElement> streamDeviceGroupElements(UUID groupId, int pageSize);
+}
@@ -15,9 +15,14 @@
  */
 package com.sitewhere.grpc.client.spi.client;
 
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 import com.sitewhere.grpc.client.MultitenantGrpcChannel;
 import com.sitewhere.grpc.client.spi.multitenant.IMultitenantApiChannel;
 import com.sitewhere.microservice.api.state.IDeviceStateManagement;
+import com.sitewhere.spi.device.state.IDeviceState;
+import com.sitewhere.spi.device.state.request.IDeviceStateEventMergeRequest;
 
 /**
  * Provides an {@link IMultitenantApiChannel} that supplies the
@@ -25,4 +30,21 @@ import com.sitewhere.microservice.api.state.IDeviceStateManagement;
  */
 public interface IDeviceStateApiChannel<T extends MultitenantGrpcChannel<?, ?>>
 	extends IDeviceStateManagement, IMultitenantApiChannel<T> {
+
+    /**
+     * Get device state for an assignment without blocking the calling thread.
+     * 
+     * @param assignmentId
+     * @return
+     */
+    public CompletableFuture<IDeviceState> getDeviceStateByDeviceAssignmentAsync(UUID assignmentId);
+
+    /**
+     * Merge events into device state without blocking the calling thread.
+     * 
+     * @param id
+     * @param events
+     * @return
+     */
+    public CompletableFuture<IDeviceState> mergeAsync(UUID id, IDeviceStateEventMergeRequest events);
 }
\ No newline at end of file
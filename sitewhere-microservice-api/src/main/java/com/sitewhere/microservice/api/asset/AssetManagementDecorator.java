@@ -15,6 +15,8 @@
  */
 package com.sitewhere.microservice.api.asset;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
 
 import com.sitewhere.microservice.lifecycle.TenantEngineLifecycleComponentDecorator;
@@ -67,6 +69,15 @@ public class AssetManagementDecorator extends TenantEngineLifecycleComponentDeco
 	return getDelegate().getAsset(assetId);
     }
 
+    /*
+     * @see
+     * com.sitewhere.microservice.api.asset.IAssetManagement#getAssets(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, IAsset> getAssets(Collection<UUID> ids) throws SiteWhereException {
+	return getDelegate().getAssets(ids);
+    }
+
     /*
      * @see
      * com.sitewhere.microservice.api.asset.IAssetManagement#getAssetByToken(java.
@@ -15,6 +15,9 @@
  */
 package com.sitewhere.microservice.api.asset;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import com.sitewhere.spi.SiteWhereException;
@@ -60,6 +63,26 @@ public interface IAssetManagement extends ITenantEngineLifecycleComponent {
      */
     IAsset getAsset(UUID assetId) throws SiteWhereException;
 
+    /**
+     * Get assets by unique id. Ids that do not match an asset are not included
+     * in the result. The default implementation looks up each id individually,
+     * so implementations backed by a remote service should override it.
+     * 
+     * @param ids
+     * @return
+     * @throws SiteWhereException
+     */
+    default Map<UUID, IAsset> getAssets(Collection<UUID> ids) throws SiteWhereException {
+	Map<UUID, IAsset> results = new HashMap<>();
+	for (UUID id : ids) {
+	    IAsset asset = getAsset(id);
+	    if (asset != null) {
+		results.put(id, asset);
+	    }
+	}
+	return results;
+    }
+
     /**
      * Get asset by unique token.
      * 
@@ -17,10 +17,18 @@ package com.sitewhere.microservice.api.batch;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 import com.sitewhere.microservice.api.asset.IAssetManagement;
 import com.sitewhere.microservice.api.device.IDeviceManagement;
+import com.sitewhere.microservice.api.search.PagedSearchIterator;
+import com.sitewhere.microservice.api.search.SearchIterationException;
 import com.sitewhere.rest.model.search.device.DeviceAssignmentSearchCriteria;
 import com.sitewhere.rest.model.search.device.DeviceSearchCriteria;
 import com.sitewhere.spi.SiteWhereException;
@@ -52,13 +60,15 @@ public class BatchUtils {
 	    throw new SiteWhereSystemException(ErrorCode.InvalidDeviceTypeToken, ErrorLevel.ERROR);
 	}
 
-	DeviceSearchCriteria search = new DeviceSearchCriteria(1, 0, null, null);
-	search.setDeviceTypeToken(criteria.getDeviceTypeToken());
-	List<? extends IDevice> matches = deviceManagement.listDevices(search).getResults();
-
 	List<String> deviceTokens = new ArrayList<String>();
-	for (IDevice match : matches) {
-	    deviceTokens.add(match.getToken());
+	try (Stream<IDevice> devices = PagedSearchIterator.stream((pageNumber, pageSize) -> {
+	    DeviceSearchCriteria search = new DeviceSearchCriteria(pageNumber, pageSize, null, null);
+	    search.setDeviceTypeToken(criteria.getDeviceTypeToken());
+	    return deviceManagement.listDevices(search);
+	}, PagedSearchIterator.DEFAULT_PAGE_SIZE)) {
+	    devices.forEach(device -> deviceTokens.add(device.getToken()));
+	} catch (SearchIterationException e) {
+	    throw e.getCause();
 	}
 	return deviceTokens;
     }
@@ -78,20 +88,35 @@ public class BatchUtils {
 	    throw new SiteWhereSystemException(ErrorCode.InvalidDeviceTypeToken, ErrorLevel.ERROR);
 	}
 
-	DeviceAssignmentSearchCriteria search = new DeviceAssignmentSearchCriteria(1, 0);
-	search.setDeviceTypeTokens(Collections.singletonList(criteria.getDeviceTypeToken()));
-	search.setCustomerTokens(criteria.getCustomerTokens());
-	search.setAreaTokens(criteria.getAreaTokens());
-	search.setAssetTokens(criteria.getAssetTokens());
-	List<? extends IDeviceAssignment> matches = deviceManagement.listDeviceAssignments(search).getResults();
+	Set<String> deviceTokens = new LinkedHashSet<>();
+	try {
+	    Iterator<IDeviceAssignment> matches = new PagedSearchIterator<IDeviceAssignment>((pageNumber, pageSize) -> {
+		DeviceAssignmentSearchCriteria search = new DeviceAssignmentSearchCriteria(pageNumber, pageSize);
+		search.setDeviceTypeTokens(Collections.singletonList(criteria.getDeviceTypeToken()));
+		search.setCustomerTokens(criteria.getCustomerTokens());
+		search.setAreaTokens(criteria.getAreaTokens());
+		search.setAssetTokens(criteria.getAssetTokens());
+		return deviceManagement.listDeviceAssignments(search);
+	    }, PagedSearchIterator.DEFAULT_PAGE_SIZE);
 
-	List<String> deviceTokens = new ArrayList<String>();
-	for (IDeviceAssignment match : matches) {
-	    IDevice device = deviceManagement.getDevice(match.getDeviceId());
-	    if (!deviceTokens.contains(device.getToken())) {
-		deviceTokens.add(device.getToken());
+	    // Resolve devices for each page of assignments in bulk.
+	    List<UUID> deviceIds = new ArrayList<>();
+	    while (matches.hasNext()) {
+		deviceIds.add(matches.next().getDeviceId());
+		if (deviceIds.size() == PagedSearchIterator.DEFAULT_PAGE_SIZE || !matches.hasNext()) {
+		    Map<UUID, IDevice> devices = deviceManagement.getDevices(deviceIds);
+		    for (UUID deviceId : deviceIds) {
+			IDevice device = devices.get(deviceId);
+			if (device != null) {
+			    deviceTokens.add(device.getToken());
+			}
+		    }
+		    deviceIds.clear();
+		}
 	    }
+	} catch (SearchIterationException e) {
+	    throw e.getCause();
 	}
-	return deviceTokens;
+	return new ArrayList<>(deviceTokens);
     }
 }
\ No newline at end of file
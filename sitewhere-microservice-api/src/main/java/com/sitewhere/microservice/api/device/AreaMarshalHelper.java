@@ -115,9 +115,7 @@ public class AreaMarshalHelper {
 	    criteria.setAreaTokens(Collections.singletonList(area.getToken()));
 	    ISearchResults<? extends IDeviceAssignment> matches = getDeviceManagement().listDeviceAssignments(criteria);
 	    List<DeviceAssignment> assignments = new ArrayList<DeviceAssignment>();
-	    for (IDeviceAssignment match : matches.getResults()) {
-		assignments.add(assignmentHelper.convert(match, getAssetManagement()));
-	    }
+	    assignments.addAll(assignmentHelper.convert(matches.getResults(), getAssetManagement()));
 	    area.setDeviceAssignments(assignments);
 	}
 	if (isIncludeZones()) {
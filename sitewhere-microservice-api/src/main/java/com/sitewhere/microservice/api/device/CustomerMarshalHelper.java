@@ -100,9 +100,7 @@ public class CustomerMarshalHelper {
 	    criteria.setCustomerTokens(Collections.singletonList(customer.getToken()));
 	    ISearchResults<? extends IDeviceAssignment> matches = getDeviceManagement().listDeviceAssignments(criteria);
 	    List<DeviceAssignment> assignments = new ArrayList<DeviceAssignment>();
-	    for (IDeviceAssignment match : matches.getResults()) {
-		assignments.add(assignmentHelper.convert(match, getAssetManagement()));
-	    }
+	    assignments.addAll(assignmentHelper.convert(matches.getResults(), getAssetManagement()));
 	    customer.setDeviceAssignments(assignments);
 	}
 	return customer;
@@ -15,6 +15,13 @@
  */
 package com.sitewhere.microservice.api.device;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -59,6 +66,18 @@ public class DeviceAssignmentMarshalHelper {
     /** Used to control marshaling of devices */
     private DeviceMarshalHelper deviceHelper;
 
+    /** Customers resolved in bulk for list conversion */
+    private Map<UUID, ICustomer> prefetchedCustomers;
+
+    /** Areas resolved in bulk for list conversion */
+    private Map<UUID, IArea> prefetchedAreas;
+
+    /** Assets resolved in bulk for list conversion */
+    private Map<UUID, IAsset> prefetchedAssets;
+
+    /** Devices resolved in bulk for list conversion */
+    private Map<UUID, IDevice> prefetchedDevices;
+
     public DeviceAssignmentMarshalHelper(IDeviceManagement deviceManagement) {
 	this.deviceManagement = deviceManagement;
     }
@@ -89,7 +108,7 @@ public class DeviceAssignmentMarshalHelper {
 	// Add device information.
 	result.setDeviceId(source.getDeviceId());
 	if (isIncludeDevice()) {
-	    IDevice device = getDeviceManagement().getDevice(source.getDeviceId());
+	    IDevice device = lookupDevice(source.getDeviceId());
 	    if (device != null) {
 		result.setDevice(getDeviceHelper().convert(device, assetManagement));
 	    } else {
@@ -99,6 +118,119 @@ public class DeviceAssignmentMarshalHelper {
 	return result;
     }
 
+    /**
+     * Convert a list of SPI objects into model objects for marshaling. Linked
+     * entities are resolved with bulk lookups rather than one call per
+     * assignment.
+     * 
+     * @param sources
+     * @param assetManagement
+     * @return
+     * @throws SiteWhereException
+     */
+    public List<MarshaledDeviceAssignment> convert(List<? extends IDeviceAssignment> sources,
+	    IAssetManagement assetManagement) throws SiteWhereException {
+	prefetch(sources, assetManagement);
+	try {
+	    List<MarshaledDeviceAssignment> results = new ArrayList<>();
+	    for (IDeviceAssignment source : sources) {
+		results.add(convert(source, assetManagement));
+	    }
+	    return results;
+	} finally {
+	    this.prefetchedCustomers = null;
+	    this.prefetchedAreas = null;
+	    this.prefetchedAssets = null;
+	    this.prefetchedDevices = null;
+	}
+    }
+
+    /**
+     * Resolve entities referenced by a list of assignments in bulk.
+     * 
+     * @param sources
+     * @param assetManagement
+     * @throws SiteWhereException
+     */
+    protected void prefetch(List<? extends IDeviceAssignment> sources, IAssetManagement assetManagement)
+	    throws SiteWhereException {
+	Set<UUID> customerIds = new HashSet<>();
+	Set<UUID> areaIds = new HashSet<>();
+	Set<UUID> assetIds = new HashSet<>();
+	Set<UUID> deviceIds = new HashSet<>();
+	for (IDeviceAssignment source : sources) {
+	    if (source.getCustomerId() != null) {
+		customerIds.add(source.getCustomerId());
+	    }
+	    if (source.getAreaId() != null) {
+		areaIds.add(source.getAreaId());
+	    }
+	    if (source.getAssetId() != null) {
+		assetIds.add(source.getAssetId());
+	    }
+	    if (source.getDeviceId() != null) {
+		deviceIds.add(source.getDeviceId());
+	    }
+	}
+	if (isIncludeCustomer()) {
+	    this.prefetchedCustomers = getDeviceManagement().getCustomers(customerIds);
+	}
+	if (isIncludeArea()) {
+	    this.prefetchedAreas = getDeviceManagement().getAreas(areaIds);
+	}
+	if (isIncludeAsset()) {
+	    this.prefetchedAssets = assetManagement.getAssets(assetIds);
+	}
+	if (isIncludeDevice()) {
+	    this.prefetchedDevices = getDeviceManagement().getDevices(deviceIds);
+	}
+    }
+
+    /**
+     * Look up a customer, using bulk results if available.
+     * 
+     * @param id
+     * @return
+     * @throws SiteWhereException
+     */
+    protected ICustomer lookupCustomer(UUID id) throws SiteWhereException {
+	return (prefetchedCustomers != null) ? prefetchedCustomers.get(id) : getDeviceManagement().getCustomer(id);
+    }
+
+    /**
+     * Look up an area, using bulk results if available.
+     * 
+     * @param id
+     * @return
+     * @throws SiteWhereException
+     */
+    protected IArea lookupArea(UUID id) throws SiteWhereException {
+	return (prefetchedAreas != null) ? prefetchedAreas.get(id) : getDeviceManagement().getArea(id);
+    }
+
+    /**
+     * Look up an asset, using bulk results if available.
+     * 
+     * @param id
+     * @param assetManagement
+     * @return
+     * @throws SiteWhereException
+     */
+    protected IAsset lookupAsset(UUID id, IAssetManagement assetManagement) throws SiteWhereException {
+	return (prefetchedAssets != null) ? prefetchedAssets.get(id) : assetManagement.getAsset(id);
+    }
+
+    /**
+     * Look up a device, using bulk results if available.
+     * 
+     * @param id
+     * @return
+     * @throws SiteWhereException
+     */
+    protected IDevice lookupDevice(UUID id) throws SiteWhereException {
+	return (prefetchedDevices != null) ? prefetchedDevices.get(id) : getDeviceManagement().getDevice(id);
+    }
+
     /**
      * Add customer information.
      * 
@@ -111,7 +243,7 @@ public class DeviceAssignmentMarshalHelper {
 	    MarshaledDeviceAssignment result) throws SiteWhereException {
 	result.setCustomerId(source.getCustomerId());
 	if ((source.getCustomerId() != null) && (isIncludeCustomer())) {
-	    ICustomer customer = getDeviceManagement().getCustomer(source.getCustomerId());
+	    ICustomer customer = lookupCustomer(source.getCustomerId());
 	    if (customer == null) {
 		LOGGER.warn("Device assignment has reference to non-existent customer.");
 		customer = new InvalidCustomer();
@@ -132,7 +264,7 @@ public class DeviceAssignmentMarshalHelper {
 	    MarshaledDeviceAssignment result) throws SiteWhereException {
 	result.setAreaId(source.getAreaId());
 	if ((source.getAreaId() != null) && (isIncludeArea())) {
-	    IArea area = getDeviceManagement().getArea(source.getAreaId());
+	    IArea area = lookupArea(source.getAreaId());
 	    if (area == null) {
 		LOGGER.warn("Device assignment has reference to non-existent area.");
 		area = new InvalidArea();
@@ -153,7 +285,7 @@ public class DeviceAssignmentMarshalHelper {
 	    MarshaledDeviceAssignment result) throws SiteWhereException {
 	result.setAssetId(source.getAssetId());
 	if ((source.getAssetId() != null) && (isIncludeAsset())) {
-	    IAsset asset = assetManagement.getAsset(source.getAssetId());
+	    IAsset asset = lookupAsset(source.getAssetId(), assetManagement);
 	    if (asset == null) {
 		LOGGER.warn("Device assignment has reference to non-existent asset.");
 		asset = new InvalidAsset();
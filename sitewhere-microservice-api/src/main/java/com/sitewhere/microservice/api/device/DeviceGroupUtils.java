@@ -24,7 +24,6 @@ import java.util.Map;
 import java.util.UUID;
 
 import com.sitewhere.microservice.api.asset.IAssetManagement;
-import com.sitewhere.rest.model.device.marshaling.MarshaledDeviceGroupElement;
 import com.sitewhere.rest.model.search.SearchCriteria;
 import com.sitewhere.spi.SiteWhereException;
 import com.sitewhere.spi.device.IDevice;
@@ -47,13 +46,12 @@ public class DeviceGroupUtils {
      * @param group
      * @param criteria
      * @param deviceManagement
-     * @param assetManagement
      * @return
      * @throws SiteWhereException
      */
     public static List<IDevice> getDevicesInGroup(IDeviceGroup group, IDeviceSearchCriteria criteria,
-	    IDeviceManagement deviceManagement, IAssetManagement assetManagement) throws SiteWhereException {
-	Collection<IDevice> devices = getDevicesInGroup(group.getId(), deviceManagement, assetManagement);
+	    IDeviceManagement deviceManagement) throws SiteWhereException {
+	Collection<IDevice> devices = getDevicesInGroup(group.getId(), deviceManagement);
 	List<IDevice> matches = new ArrayList<IDevice>();
 	for (IDevice device : devices) {
 
@@ -82,20 +80,36 @@ public class DeviceGroupUtils {
     }
 
     /**
-     * Get list of all devices in a group. Recurse into nested groups and prevent
-     * duplicates or loops in the group hierarchy.
+     * Get devices in a group that match the given criteria.
      * 
-     * @param groupId
+     * @param group
+     * @param criteria
      * @param deviceManagement
      * @param assetManagement
      * @return
      * @throws SiteWhereException
+     * @deprecated Asset management is no longer used. Use
+     *             {@link #getDevicesInGroup(IDeviceGroup, IDeviceSearchCriteria, IDeviceManagement)}.
      */
-    public static List<IDevice> getDevicesInGroup(UUID groupId, IDeviceManagement deviceManagement,
-	    IAssetManagement assetManagement) throws SiteWhereException {
+    @Deprecated
+    public static List<IDevice> getDevicesInGroup(IDeviceGroup group, IDeviceSearchCriteria criteria,
+	    IDeviceManagement deviceManagement, IAssetManagement assetManagement) throws SiteWhereException {
+	return getDevicesInGroup(group, criteria, deviceManagement);
+    }
+
+    /**
+     * Get list of unique devices referenced directly by elements of a group,
+     * sorted by creation date. Nested groups are not expanded.
+     * 
+     * @param groupId
+     * @param deviceManagement
+     * @return
+     * @throws SiteWhereException
+     */
+    public static List<IDevice> getDevicesInGroup(UUID groupId, IDeviceManagement deviceManagement)
+	    throws SiteWhereException {
 	Map<String, IDevice> devices = new HashMap<>();
-	Map<String, IDeviceGroup> groups = new HashMap<>();
-	getDevicesInGroup(groupId, deviceManagement, assetManagement, devices, groups);
+	getDevicesInGroup(groupId, deviceManagement, devices);
 	List<IDevice> sorted = new ArrayList<>();
 	sorted.addAll(devices.values());
 	sorted.sort(new Comparator<IDevice>() {
@@ -109,35 +123,47 @@ public class DeviceGroupUtils {
     }
 
     /**
-     * Get the list of unique devices in a group. (Recurses into subgroups and
-     * removes duplicates). Also prevents loops in group references.
+     * Get list of unique devices referenced directly by elements of a group.
      * 
      * @param groupId
      * @param deviceManagement
      * @param assetManagement
+     * @return
+     * @throws SiteWhereException
+     * @deprecated Asset management is no longer used. Use
+     *             {@link #getDevicesInGroup(UUID, IDeviceManagement)}.
+     */
+    @Deprecated
+    public static List<IDevice> getDevicesInGroup(UUID groupId, IDeviceManagement deviceManagement,
+	    IAssetManagement assetManagement) throws SiteWhereException {
+	return getDevicesInGroup(groupId, deviceManagement);
+    }
+
+    /**
+     * Add devices referenced directly by elements of a group to a map indexed by
+     * device token, which removes duplicates. Referenced devices are resolved
+     * with a single bulk lookup.
+     * 
+     * @param groupId
+     * @param deviceManagement
      * @param devices
-     * @param groups
      * @throws SiteWhereException
      */
     protected static void getDevicesInGroup(UUID groupId, IDeviceManagement deviceManagement,
-	    IAssetManagement assetManagement, Map<String, IDevice> devices, Map<String, IDeviceGroup> groups)
-	    throws SiteWhereException {
+	    Map<String, IDevice> devices) throws SiteWhereException {
 	ISearchResults<? extends IDeviceGroupElement> elements = deviceManagement.listDeviceGroupElements(groupId,
 		SearchCriteria.ALL);
-	DeviceGroupElementMarshalHelper helper = new DeviceGroupElementMarshalHelper(deviceManagement);
+	List<UUID> deviceIds = new ArrayList<>();
 	for (IDeviceGroupElement element : elements.getResults()) {
-	    MarshaledDeviceGroupElement inflated = helper.convert(element, assetManagement);
-	    if (inflated.getDevice() != null) {
-		IDevice device = inflated.getDevice();
-		devices.put(device.getToken(), device);
-	    } else if (inflated.getDeviceGroup() != null) {
-		IDeviceGroup nested = inflated.getDeviceGroup();
-
-		// Prevent loops.
-		if (groups.get(nested.getToken()) != null) {
-		}
+	    if (element.getDeviceId() != null) {
+		deviceIds.add(element.getDeviceId());
 	    }
 	}
+
+	// Resolve all referenced devices in a single bulk lookup.
+	for (IDevice device : deviceManagement.getDevices(deviceIds).values()) {
+	    devices.put(device.getToken(), device);
+	}
     }
 
     /**
@@ -146,22 +172,39 @@ public class DeviceGroupUtils {
      * @param groupRole
      * @param criteria
      * @param deviceManagement
-     * @param assetManagement
      * @return
      * @throws SiteWhereException
      */
     public static Collection<IDevice> getDevicesInGroupsWithRole(String groupRole, IDeviceSearchCriteria criteria,
-	    IDeviceManagement deviceManagement, IAssetManagement assetManagement) throws SiteWhereException {
+	    IDeviceManagement deviceManagement) throws SiteWhereException {
 	Map<String, IDevice> devices = new HashMap<String, IDevice>();
 	ISearchCriteria groupCriteria = new SearchCriteria(1, 0);
 	ISearchResults<? extends IDeviceGroup> groups = deviceManagement.listDeviceGroupsWithRole(groupRole,
 		groupCriteria);
 	for (IDeviceGroup group : groups.getResults()) {
-	    List<IDevice> groupDevices = getDevicesInGroup(group, criteria, deviceManagement, assetManagement);
+	    List<IDevice> groupDevices = getDevicesInGroup(group, criteria, deviceManagement);
 	    for (IDevice groupDevice : groupDevices) {
 		devices.put(groupDevice.getToken(), groupDevice);
 	    }
 	}
 	return devices.values();
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets devices in all groups that have the given role. Duplicates are removed.
+     * 
+     * @param groupRole
+     * @param criteria
+     * @param deviceManagement
+     * @param assetManagement
+     * @return
+     * @throws SiteWhereException
+     * @deprecated Asset management is no longer used. Use
+     *             {@link #getDevicesInGroupsWithRole(String, IDeviceSearchCriteria, IDeviceManagement)}.
+     */
+    @Deprecated
+    public static Collection<IDevice> getDevicesInGroupsWithRole(String groupRole, IDeviceSearchCriteria criteria,
+	    IDeviceManagement deviceManagement, IAssetManagement assetManagement) throws SiteWhereException {
+	return getDevicesInGroupsWithRole(groupRole, criteria, deviceManagement);
+    }
+}
@@ -15,7 +15,9 @@
  */
 package com.sitewhere.microservice.api.device;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import com.sitewhere.microservice.lifecycle.TenantEngineLifecycleComponentDecorator;
@@ -267,6 +269,15 @@ public class DeviceManagementDecorator extends TenantEngineLifecycleComponentDec
 	return getDelegate().getDevice(deviceId);
     }
 
+    /*
+     * @see
+     * com.sitewhere.microservice.api.device.IDeviceManagement#getDevices(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, IDevice> getDevices(Collection<UUID> ids) throws SiteWhereException {
+	return getDelegate().getDevices(ids);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceByToken(java.lang.String)
@@ -363,6 +374,15 @@ public class DeviceManagementDecorator extends TenantEngineLifecycleComponentDec
 	return getDelegate().getDeviceAssignment(id);
     }
 
+    /*
+     * @see
+     * com.sitewhere.microservice.api.device.IDeviceManagement#getDeviceAssignments(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, IDeviceAssignment> getDeviceAssignments(Collection<UUID> ids) throws SiteWhereException {
+	return getDelegate().getDeviceAssignments(ids);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getDeviceAssignmentByToken(java.
@@ -560,6 +580,15 @@ public class DeviceManagementDecorator extends TenantEngineLifecycleComponentDec
 	return getDelegate().getCustomer(id);
     }
 
+    /*
+     * @see
+     * com.sitewhere.microservice.api.device.IDeviceManagement#getCustomers(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, ICustomer> getCustomers(Collection<UUID> ids) throws SiteWhereException {
+	return getDelegate().getCustomers(ids);
+    }
+
     /*
      * @see com.sitewhere.spi.device.IDeviceManagement#getCustomerByToken(java.lang.
      * String)
@@ -701,6 +730,15 @@ public class DeviceManagementDecorator extends TenantEngineLifecycleComponentDec
 	return getDelegate().getArea(id);
     }
 
+    /*
+     * @see
+     * com.sitewhere.microservice.api.device.IDeviceManagement#getAreas(java.util.Collection)
+     */
+    @Override
+    public Map<UUID, IArea> getAreas(Collection<UUID> ids) throws SiteWhereException {
+	return getDelegate().getAreas(ids);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.device.IDeviceManagement#getAreaByToken(java.lang.String)
@@ -15,7 +15,6 @@
  */
 package com.sitewhere.microservice.api.device;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -109,10 +108,8 @@ public class DeviceMarshalHelper {
 	    try {
 		List<? extends IDeviceAssignment> assignments = getDeviceManagement()
 			.getActiveDeviceAssignments(source.getId());
-		List<MarshaledDeviceAssignment> converted = new ArrayList<>();
-		for (IDeviceAssignment assignment : assignments) {
-		    converted.add(getAssignmentHelper().convert(assignment, assetManagement));
-		}
+		List<MarshaledDeviceAssignment> converted = getAssignmentHelper().convert(assignments,
+			assetManagement);
 		result.setActiveDeviceAssignments(converted);
 	    } catch (SiteWhereException e) {
 		LOGGER.warn("Device has token for non-existent assignment.");
@@ -15,7 +15,10 @@
  */
 package com.sitewhere.microservice.api.device;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import com.sitewhere.spi.SiteWhereException;
@@ -256,6 +259,26 @@ public interface IDeviceManagement extends ITenantEngineLifecycleComponent {
      */
     IDevice getDevice(UUID deviceId) throws SiteWhereException;
 
+    /**
+     * Get devices by unique id. Ids that do not match a device are not included
+     * in the result. The default implementation looks up each id individually,
+     * so implementations backed by a remote service should override it.
+     * 
+     * @param ids
+     * @return
+     * @throws SiteWhereException
+     */
+    default Map<UUID, IDevice> getDevices(Collection<UUID> ids) throws SiteWhereException {
+	Map<UUID, IDevice> results = new HashMap<>();
+	for (UUID id : ids) {
+	    IDevice device = getDevice(id);
+	    if (device != null) {
+		results.put(id, device);
+	    }
+	}
+	return results;
+    }
+
     /**
      * Gets a device by reference token.
      * 
@@ -341,6 +364,27 @@ public interface IDeviceManagement extends ITenantEngineLifecycleComponent {
      */
     IDeviceAssignment getDeviceAssignment(UUID id) throws SiteWhereException;
 
+    /**
+     * Get device assignments by unique id. Ids that do not match an assignment
+     * are not included in the result. The default implementation looks up each
+     * id individually, so implementations backed by a remote service should
+     * override it.
+     * 
+     * @param ids
+     * @return
+     * @throws SiteWhereException
+     */
+    default Map<UUID, IDeviceAssignment> getDeviceAssignments(Collection<UUID> ids) throws SiteWhereException {
+	Map<UUID, IDeviceAssignment> results = new HashMap<>();
+	for (UUID id : ids) {
+	    IDeviceAssignment assignment = getDeviceAssignment(id);
+	    if (assignment != null) {
+		results.put(id, assignment);
+	    }
+	}
+	return results;
+    }
+
     /**
      * Get a device assignment by unique token.
      * 
@@ -536,6 +580,27 @@ public interface IDeviceManagement extends ITenantEngineLifecycleComponent {
      */
     ICustomer getCustomer(UUID id) throws SiteWhereException;
 
+    /**
+     * Get customers by unique id. Ids that do not match a customer are not
+     * included in the result. The default implementation looks up each id
+     * individually, so implementations backed by a remote service should
+     * override it.
+     * 
+     * @param ids
+     * @return
+     * @throws SiteWhereException
+     */
+    default Map<UUID, ICustomer> getCustomers(Collection<UUID> ids) throws SiteWhereException {
+	Map<UUID, ICustomer> results = new HashMap<>();
+	for (UUID id : ids) {
+	    ICustomer customer = getCustomer(id);
+	    if (customer != null) {
+		results.put(id, customer);
+	    }
+	}
+	return results;
+    }
+
     /**
      * Get a customer by alias token.
      * 
@@ -672,6 +737,26 @@ public interface IDeviceManagement extends ITenantEngineLifecycleComponent {
      */
     IArea getArea(UUID id) throws SiteWhereException;
 
+    /**
+     * Get areas by unique id. Ids that do not match an area are not included in
+     * the result. The default implementation looks up each id individually, so
+     * implementations backed by a remote service should override it.
+     * 
+     * @param ids
+     * @return
+     * @throws SiteWhereException
+     */
+    default Map<UUID, IArea> getAreas(Collection<UUID> ids) throws SiteWhereException {
+	Map<UUID, IArea> results = new HashMap<>();
+	for (UUID id : ids) {
+	    IArea area = getArea(id);
+	    if (area != null) {
+		results.put(id, area);
+	    }
+	}
+	return results;
+    }
+
     /**
      * Get a area by alias token.
      * 
@@ -0,0 +1,65 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.microservice.api.search;
+
+import com.sitewhere.rest.model.search.device.DeviceAssignmentSearchCriteria;
+import com.sitewhere.rest.model.search.device.DeviceSearchCriteria;
+import com.sitewhere.spi.search.device.IDeviceAssignmentSearchCriteria;
+import com.sitewhere.spi.search.device.IDeviceSearchCriteria;
+
+/**
+ * Creates copies of search criteria for a single page of results without
+ * modifying the original criteria.
+ */
+public class PagedCriteria {
+
+    /**
+     * Copy device search criteria using the given page number and page size.
+     * 
+     * @param criteria
+     * @param pageNumber
+     * @param pageSize
+     * @return
+     */
+    public static DeviceSearchCriteria forPage(IDeviceSearchCriteria criteria, int pageNumber, int pageSize) {
+	DeviceSearchCriteria page = new DeviceSearchCriteria(pageNumber, pageSize, criteria.getStartDate(),
+		criteria.getEndDate());
+	page.setDeviceTypeToken(criteria.getDeviceTypeToken());
+	page.setExcludeAssigned(criteria.isExcludeAssigned());
+	return page;
+    }
+
+    /**
+     * Copy device assignment search criteria using the given page number and
+     * page size.
+     * 
+     * @param criteria
+     * @param pageNumber
+     * @param pageSize
+     * @return
+     */
+    public static DeviceAssignmentSearchCriteria forPage(IDeviceAssignmentSearchCriteria criteria, int pageNumber,
+	    int pageSize) {
+	DeviceAssignmentSearchCriteria page = new DeviceAssignmentSearchCriteria(pageNumber, pageSize);
+	page.setAssignmentStatuses(criteria.getAssignmentStatuses());
+	page.setDeviceTokens(criteria.getDeviceTokens());
+	page.setDeviceTypeTokens(criteria.getDeviceTypeTokens());
+	page.setCustomerTokens(criteria.getCustomerTokens());
+	page.setAreaTokens(criteria.getAreaTokens());
+	page.setAssetTokens(criteria.getAssetTokens());
+	return page;
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.microservice.api.search;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.sitewhere.microservice.security.SiteWhereAuthentication;
+import com.sitewhere.microservice.security.UserContext;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.search.ISearchResults;
+
+/**
+ * Iterates over the results of a list operation one page at a time so that
+ * large result sets are never held in memory at once. While a page is being
+ * consumed, the next page is fetched in the background using the credentials
+ * of the thread that created the iterator.
+ *
+ * @param <T>
+ */
+public class PagedSearchIterator<T> implements Iterator<T> {
+
+    /** Default number of results per page */
+    public static final int DEFAULT_PAGE_SIZE = 500;
+
+    /** Executor used to prefetch pages */
+    private static final ExecutorService PREFETCH = Executors.newCachedThreadPool(new PrefetchThreadFactory());
+
+    /** Fetches a single page of results */
+    private IPageFetcher<T> fetcher;
+
+    /** Number of results per page */
+    private int pageSize;
+
+    /** Credentials used when fetching pages */
+    private SiteWhereAuthentication authentication;
+
+    /** Results for page being consumed */
+    private Iterator<? extends T> current = Collections.emptyIterator();
+
+    /** Next page being fetched (null if no more pages) */
+    private CompletableFuture<List<? extends T>> next;
+
+    /** Number of last page requested */
+    private int pageNumber;
+
+    /** Total number of results reported by first page (-1 if unknown) */
+    private long total = -1;
+
+    /** Number of results fetched so far */
+    private long fetched;
+
+    public PagedSearchIterator(IPageFetcher<T> fetcher, int pageSize) {
+	this.fetcher = fetcher;
+	this.pageSize = pageSize > 0 ? pageSize : DEFAULT_PAGE_SIZE;
+	this.authentication = UserContext.getCurrentUser();
+	this.next = CompletableFuture.completedFuture(fetchPage(1));
+    }
+
+    /**
+     * Create a stream over all results. Closing the stream stops prefetching.
+     * 
+     * @param fetcher
+     * @param pageSize
+     * @return
+     */
+    public static <T> Stream<T> stream(IPageFetcher<T> fetcher, int pageSize) {
+	PagedSearchIterator<T> iterator = new PagedSearchIterator<>(fetcher, pageSize);
+	return StreamSupport
+		.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+		.onClose(iterator::close);
+    }
+
+    /*
+     * @see java.util.Iterator#hasNext()
+     */
+    @Override
+    public boolean hasNext() {
+	while (!current.hasNext()) {
+	    if (next == null) {
+		return false;
+	    }
+	    List<? extends T> page = awaitNextPage();
+	    this.current = page.iterator();
+	    if (hasMorePages(page)) {
+		this.next = prefetch(pageNumber + 1);
+	    } else {
+		this.next = null;
+	    }
+	}
+	return true;
+    }
+
+    /*
+     * @see java.util.Iterator#next()
+     */
+    @Override
+    public T next() {
+	if (!hasNext()) {
+	    throw new NoSuchElementException();
+	}
+	return current.next();
+    }
+
+    /**
+     * Stop iterating and cancel any page being prefetched.
+     */
+    public void close() {
+	if (next != null) {
+	    next.cancel(false);
+	    this.next = null;
+	}
+	this.current = Collections.emptyIterator();
+    }
+
+    /**
+     * Indicates whether pages remain after the given page.
+     * 
+     * @param page
+     * @return
+     */
+    protected boolean hasMorePages(List<? extends T> page) {
+	if (page.size() < pageSize) {
+	    return false;
+	}
+	return (total < 0) || (fetched < total);
+    }
+
+    /**
+     * Wait for the next page to be fetched.
+     * 
+     * @return
+     */
+    protected List<? extends T> awaitNextPage() {
+	try {
+	    return next.join();
+	} catch (CompletionException e) {
+	    this.next = null;
+	    if (e.getCause() instanceof SearchIterationException) {
+		throw (SearchIterationException) e.getCause();
+	    }
+	    throw e;
+	}
+    }
+
+    /**
+     * Fetch a page in the background with the credentials of the creating
+     * thread.
+     * 
+     * @param number
+     * @return
+     */
+    protected CompletableFuture<List<? extends T>> prefetch(int number) {
+	return CompletableFuture.supplyAsync(() -> {
+	    SiteWhereAuthentication previous = UserContext.getCurrentUser();
+	    UserContext.setContext(authentication);
+	    try {
+		return fetchPage(number);
+	    } finally {
+		if (previous != null) {
+		    UserContext.setContext(previous);
+		} else {
+		    UserContext.clearContext();
+		}
+	    }
+	}, PREFETCH);
+    }
+
+    /**
+     * Fetch a single page of results.
+     * 
+     * @param number
+     * @return
+     */
+    protected List<? extends T> fetchPage(int number) {
+	try {
+	    ISearchResults<? extends T> results = fetcher.fetch(number, pageSize);
+	    List<? extends T> page = results.getResults();
+	    this.pageNumber = number;
+	    if (total < 0) {
+		this.total = results.getNumResults();
+	    }
+	    this.fetched += page.size();
+	    return page;
+	} catch (SiteWhereException e) {
+	    throw new SearchIterationException("Unable to fetch page " + number + " of results.", e);
+	}
+    }
+
+    /**
+     * Fetches a single page of results for a list operation.
+     *
+     * @param <T>
+     */
+    @FunctionalInterface
+    public static interface IPageFetcher<T> {
+
+	/**
+	 * Fetch a page of results. Page numbers start at one.
+	 * 
+	 * @param pageNumber
+	 * @param pageSize
+	 * @return
+	 * @throws SiteWhereException
+	 */
+	ISearchResults<? extends T> fetch(int pageNumber, int pageSize) throws SiteWhereException;
+    }
+
+    /** Used for naming prefetch threads */
+    private static class PrefetchThreadFactory implements ThreadFactory {
+
+	/** Counts threads */
+	private AtomicInteger counter = new AtomicInteger();
+
+	public Thread newThread(Runnable r) {
+	    Thread thread = new Thread(r, "Paged Search Prefetch " + counter.incrementAndGet());
+	    thread.setDaemon(true);
+	    return thread;
+	}
+    }
+}
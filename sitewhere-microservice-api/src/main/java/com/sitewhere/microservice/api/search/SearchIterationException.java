@@ -0,0 +1,40 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.microservice.api.search;
+
+import com.sitewhere.spi.SiteWhereException;
+
+/**
+ * Unchecked wrapper for a {@link SiteWhereException} thrown while fetching a
+ * page of results during iteration.
+ */
+public class SearchIterationException extends RuntimeException {
+
+    /** Serial version UID */
+    private static final long serialVersionUID = 4790142563418804913L;
+
+    public SearchIterationException(String message, SiteWhereException cause) {
+	super(message, cause);
+    }
+
+    /*
+     * @see java.lang.Throwable#getCause()
+     */
+    @Override
+    public synchronized SiteWhereException getCause() {
+	return (SiteWhereException) super.getCause();
+    }
+}
@@ -24,6 +24,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Inject;
 
 import com.sitewhere.microservice.cache.StringByteArrayCodec;
+import com.sitewhere.microservice.configuration.model.instance.infrastructure.GrpcConfiguration;
+import com.sitewhere.microservice.grpc.KubernetesNameResolverProvider;
+import com.sitewhere.microservice.kubernetes.KubernetesEndpointsMonitor;
 import com.sitewhere.microservice.lifecycle.CompositeLifecycleStep;
 import com.sitewhere.microservice.lifecycle.LifecycleComponent;
 import com.sitewhere.microservice.metrics.MetricsServer;
@@ -104,6 +107,9 @@ public abstract class Microservice<F extends IFunctionIdentifier, C extends IMic
     /** Shared informer factory for k8s resources */
     private SharedInformerFactory sharedInformerFactory;
 
+    /** Watches endpoints used for gRPC client load balancing */
+    private KubernetesEndpointsMonitor endpointsMonitor;
+
     /** Metrics server */
     private IMetricsServer metricsServer = new MetricsServer();
 
@@ -172,6 +178,9 @@ public abstract class Microservice<F extends IFunctionIdentifier, C extends IMic
 	// Initialize Redis connectivity.
 	initializeRedisConnectivity();
 
+	// Watch endpoints if used for gRPC client load balancing.
+	initializeEndpointDiscovery();
+
 	// Initialize management APIs.
 	initializeManagementApis();
 
@@ -231,6 +240,30 @@ public abstract class Microservice<F extends IFunctionIdentifier, C extends IMic
 	getLogger().info("Kubernetes connectivity initialized.");
     }
 
+    /**
+     * Watch service endpoints so gRPC clients can balance across pods. Endpoints
+     * are only watched if client load balancing is enabled with endpoint
+     * discovery in the instance configuration.
+     */
+    protected void initializeEndpointDiscovery() {
+	GrpcConfiguration grpc = getInstanceConfiguration() != null
+		? getInstanceConfiguration().getInfrastructure().getGrpc()
+		: null;
+	boolean enabled = grpc != null && grpc.isClientLoadBalancing() && grpc.isEndpointDiscovery();
+	if (enabled && getEndpointsMonitor() == null) {
+	    getLogger().info("Enabling Kubernetes endpoint discovery for gRPC clients.");
+	    this.endpointsMonitor = new KubernetesEndpointsMonitor(getSharedInformerFactory(),
+		    getInstanceSettings().getKubernetesNamespace());
+	    getEndpointsMonitor().start();
+	    KubernetesNameResolverProvider.register(getEndpointsMonitor());
+	} else if (!enabled && getEndpointsMonitor() != null) {
+	    getLogger().info("Disabling Kubernetes endpoint discovery for gRPC clients.");
+	    KubernetesNameResolverProvider.deregister();
+	    getEndpointsMonitor().stop();
+	    this.endpointsMonitor = null;
+	}
+    }
+
     /**
      * Initialize connectivity to Redis.
      * 
@@ -327,6 +360,10 @@ public abstract class Microservice<F extends IFunctionIdentifier, C extends IMic
      */
     @Override
     public void uninstall() throws SiteWhereException {
+	if (getEndpointsMonitor() != null) {
+	    KubernetesNameResolverProvider.deregister();
+	    getEndpointsMonitor().stop();
+	}
 	getKubernetesClient().informers().stopAllRegisteredInformers();
 	getKubernetesClient().close();
     }
@@ -573,6 +610,10 @@ public abstract class Microservice<F extends IFunctionIdentifier, C extends IMic
 	return sharedInformerFactory;
     }
 
+    public KubernetesEndpointsMonitor getEndpointsMonitor() {
+	return endpointsMonitor;
+    }
+
     /** Used for naming microservice operation threads */
     private class MicroserviceOperationsThreadFactory implements ThreadFactory {
 
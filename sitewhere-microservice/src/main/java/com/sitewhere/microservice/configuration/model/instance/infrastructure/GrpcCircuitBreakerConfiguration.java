@@ -0,0 +1,113 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.microservice.configuration.model.instance.infrastructure;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Configures the circuit breaker applied to calls on each gRPC client channel.
+ */
+@RegisterForReflection
+public class GrpcCircuitBreakerConfiguration {
+
+    /** Indicates if circuit breaker is enabled */
+    private boolean enabled = true;
+
+    /** Number of most recent calls used to compute failure and slow-call rates */
+    private int slidingWindowSize = 50;
+
+    /** Minimum number of calls in window before rates are evaluated */
+    private int minimumNumberOfCalls = 20;
+
+    /** Percentage of failed calls at which circuit opens */
+    private double failureRateThreshold = 50;
+
+    /** Percentage of slow calls at which circuit opens */
+    private double slowCallRateThreshold = 100;
+
+    /** Duration in milliseconds above which a call is considered slow */
+    private long slowCallDurationMillis = 5000;
+
+    /** Time in milliseconds circuit stays open before probing */
+    private long waitDurationInOpenStateMillis = 30000;
+
+    /** Number of probe calls allowed while half-open */
+    private int permittedCallsInHalfOpenState = 3;
+
+    public boolean isEnabled() {
+	return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+	this.enabled = enabled;
+    }
+
+    public int getSlidingWindowSize() {
+	return slidingWindowSize;
+    }
+
+    public void setSlidingWindowSize(int slidingWindowSize) {
+	this.slidingWindowSize = slidingWindowSize;
+    }
+
+    public int getMinimumNumberOfCalls() {
+	return minimumNumberOfCalls;
+    }
+
+    public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+	this.minimumNumberOfCalls = minimumNumberOfCalls;
+    }
+
+    public double getFailureRateThreshold() {
+	return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(double failureRateThreshold) {
+	this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public double getSlowCallRateThreshold() {
+	return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+	this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public long getSlowCallDurationMillis() {
+	return slowCallDurationMillis;
+    }
+
+    public void setSlowCallDurationMillis(long slowCallDurationMillis) {
+	this.slowCallDurationMillis = slowCallDurationMillis;
+    }
+
+    public long getWaitDurationInOpenStateMillis() {
+	return waitDurationInOpenStateMillis;
+    }
+
+    public void setWaitDurationInOpenStateMillis(long waitDurationInOpenStateMillis) {
+	this.waitDurationInOpenStateMillis = waitDurationInOpenStateMillis;
+    }
+
+    public int getPermittedCallsInHalfOpenState() {
+	return permittedCallsInHalfOpenState;
+    }
+
+    public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+	this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+    }
+}
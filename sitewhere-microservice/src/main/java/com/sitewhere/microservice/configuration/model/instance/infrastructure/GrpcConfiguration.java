@@ -15,6 +15,9 @@
  */
 package com.sitewhere.microservice.configuration.model.instance.infrastructure;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import io.quarkus.runtime.annotations.RegisterForReflection;
 
 /**
@@ -38,6 +41,60 @@ public class GrpcConfiguration {
     /** Resolve FQDN */
     private boolean resolveFQDN;
 
+    /** Default deadline in milliseconds for calls (0 for none) */
+    private long defaultTimeoutMillis;
+
+    /** Per-service and per-method overrides */
+    private List<GrpcMethodConfiguration> methods = new ArrayList<>();
+
+    /** Number of connections opened to each remote service */
+    private int channelPoolSize = 1;
+
+    /** Resolve all service addresses via DNS and balance calls round-robin */
+    private boolean clientLoadBalancing;
+
+    /** Resolve pod addresses from Kubernetes endpoints when load balancing */
+    private boolean endpointDiscovery = true;
+
+    /** Threads in shared client executor (0 runs callbacks on transport threads) */
+    private int clientExecutorThreads = 16;
+
+    /** Maximum number of callbacks queued for the shared client executor */
+    private int clientExecutorQueueSize = 10000;
+
+    /** Threads in shared Netty event loop (0 for twice the number of cores) */
+    private int eventLoopThreads;
+
+    /** Interval in seconds between keep-alive pings (0 to disable) */
+    private int keepAliveTimeSeconds = 30;
+
+    /** Time in seconds to wait for a keep-alive acknowledgement */
+    private int keepAliveTimeoutSeconds = 10;
+
+    /** Send keep-alive pings when there are no outstanding calls */
+    private boolean keepAliveWithoutCalls = true;
+
+    /** Time in seconds without calls before a client channel goes idle (0 for gRPC default) */
+    private int idleTimeoutSeconds;
+
+    /** Maximum age in seconds of server connections before clients reconnect (0 for unlimited) */
+    private int maxConnectionAgeSeconds = 600;
+
+    /** Time in seconds calls may continue on a connection after max age is reached */
+    private int maxConnectionAgeGraceSeconds = 30;
+
+    /** Codec used to compress messages ("gzip" or a registered codec name) */
+    private String compression;
+
+    /** Maximum size in bytes of received messages (0 for gRPC default) */
+    private int maxInboundMessageSize;
+
+    /** Maximum size in bytes of sent messages (0 for unlimited) */
+    private int maxOutboundMessageSize;
+
+    /** Circuit breaker settings for client channels */
+    private GrpcCircuitBreakerConfiguration circuitBreaker = new GrpcCircuitBreakerConfiguration();
+
     public double getMaxRetryCount() {
 	return maxRetryCount;
     }
@@ -77,4 +134,148 @@ public class GrpcConfiguration {
     public void setResolveFQDN(boolean resolveFQDN) {
 	this.resolveFQDN = resolveFQDN;
     }
+
+    public long getDefaultTimeoutMillis() {
+	return defaultTimeoutMillis;
+    }
+
+    public void setDefaultTimeoutMillis(long defaultTimeoutMillis) {
+	this.defaultTimeoutMillis = defaultTimeoutMillis;
+    }
+
+    public List<GrpcMethodConfiguration> getMethods() {
+	return methods;
+    }
+
+    public void setMethods(List<GrpcMethodConfiguration> methods) {
+	this.methods = methods;
+    }
+
+    public int getChannelPoolSize() {
+	return channelPoolSize;
+    }
+
+    public void setChannelPoolSize(int channelPoolSize) {
+	this.channelPoolSize = channelPoolSize;
+    }
+
+    public boolean isClientLoadBalancing() {
+	return clientLoadBalancing;
+    }
+
+    public void setClientLoadBalancing(boolean clientLoadBalancing) {
+	this.clientLoadBalancing = clientLoadBalancing;
+    }
+
+    public boolean isEndpointDiscovery() {
+	return endpointDiscovery;
+    }
+
+    public void setEndpointDiscovery(boolean endpointDiscovery) {
+	this.endpointDiscovery = endpointDiscovery;
+    }
+
+    public int getClientExecutorThreads() {
+	return clientExecutorThreads;
+    }
+
+    public void setClientExecutorThreads(int clientExecutorThreads) {
+	this.clientExecutorThreads = clientExecutorThreads;
+    }
+
+    public int getClientExecutorQueueSize() {
+	return clientExecutorQueueSize;
+    }
+
+    public void setClientExecutorQueueSize(int clientExecutorQueueSize) {
+	this.clientExecutorQueueSize = clientExecutorQueueSize;
+    }
+
+    public int getEventLoopThreads() {
+	return eventLoopThreads;
+    }
+
+    public void setEventLoopThreads(int eventLoopThreads) {
+	this.eventLoopThreads = eventLoopThreads;
+    }
+
+    public int getKeepAliveTimeSeconds() {
+	return keepAliveTimeSeconds;
+    }
+
+    public void setKeepAliveTimeSeconds(int keepAliveTimeSeconds) {
+	this.keepAliveTimeSeconds = keepAliveTimeSeconds;
+    }
+
+    public int getKeepAliveTimeoutSeconds() {
+	return keepAliveTimeoutSeconds;
+    }
+
+    public void setKeepAliveTimeoutSeconds(int keepAliveTimeoutSeconds) {
+	this.keepAliveTimeoutSeconds = keepAliveTimeoutSeconds;
+    }
+
+    public boolean isKeepAliveWithoutCalls() {
+	return keepAliveWithoutCalls;
+    }
+
+    public void setKeepAliveWithoutCalls(boolean keepAliveWithoutCalls) {
+	this.keepAliveWithoutCalls = keepAliveWithoutCalls;
+    }
+
+    public int getIdleTimeoutSeconds() {
+	return idleTimeoutSeconds;
+    }
+
+    public void setIdleTimeoutSeconds(int idleTimeoutSeconds) {
+	this.idleTimeoutSeconds = idleTimeoutSeconds;
+    }
+
+    public int getMaxConnectionAgeSeconds() {
+	return maxConnectionAgeSeconds;
+    }
+
+    public void setMaxConnectionAgeSeconds(int maxConnectionAgeSeconds) {
+	this.maxConnectionAgeSeconds = maxConnectionAgeSeconds;
+    }
+
+    public int getMaxConnectionAgeGraceSeconds() {
+	return maxConnectionAgeGraceSeconds;
+    }
+
+    public void setMaxConnectionAgeGraceSeconds(int maxConnectionAgeGraceSeconds) {
+	this.maxConnectionAgeGraceSeconds = maxConnectionAgeGraceSeconds;
+    }
+
+    public String getCompression() {
+	return compression;
+    }
+
+    public void setCompression(String compression) {
+	this.compression = compression;
+    }
+
+    public int getMaxInboundMessageSize() {
+	return maxInboundMessageSize;
+    }
+
+    public void setMaxInboundMessageSize(int maxInboundMessageSize) {
+	this.maxInboundMessageSize = maxInboundMessageSize;
+    }
+
+    public int getMaxOutboundMessageSize() {
+	return maxOutboundMessageSize;
+    }
+
+    public void setMaxOutboundMessageSize(int maxOutboundMessageSize) {
+	this.maxOutboundMessageSize = maxOutboundMessageSize;
+    }
+
+    public GrpcCircuitBreakerConfiguration getCircuitBreaker() {
+	return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(GrpcCircuitBreakerConfiguration circuitBreaker) {
+	this.circuitBreaker = circuitBreaker;
+    }
 }
@@ -0,0 +1,103 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.microservice.configuration.model.instance.infrastructure;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Overrides gRPC call settings for a single method or for all methods of a
+ * service.
+ */
+@RegisterForReflection
+public class GrpcMethodConfiguration {
+
+    /** Fully-qualified gRPC service name */
+    private String service;
+
+    /** Method name as declared in proto, e.g. GetDeviceByToken (all if not set) */
+    private String method;
+
+    /** Deadline in milliseconds (0 uses default) */
+    private long timeoutMillis;
+
+    /** Max retry count (uses default if not set) */
+    private Double maxRetryCount;
+
+    /** Send hedged requests instead of retrying. Only for idempotent calls */
+    private boolean hedging;
+
+    /** Max number of hedged attempts including the original */
+    private int maxHedgedAttempts = 2;
+
+    /** Delay in milliseconds before each hedged attempt */
+    private long hedgingDelayMillis = 50;
+
+    public String getService() {
+	return service;
+    }
+
+    public void setService(String service) {
+	this.service = service;
+    }
+
+    public String getMethod() {
+	return method;
+    }
+
+    public void setMethod(String method) {
+	this.method = method;
+    }
+
+    public long getTimeoutMillis() {
+	return timeoutMillis;
+    }
+
+    public void setTimeoutMillis(long timeoutMillis) {
+	this.timeoutMillis = timeoutMillis;
+    }
+
+    public Double getMaxRetryCount() {
+	return maxRetryCount;
+    }
+
+    public void setMaxRetryCount(Double maxRetryCount) {
+	this.maxRetryCount = maxRetryCount;
+    }
+
+    public boolean isHedging() {
+	return hedging;
+    }
+
+    public void setHedging(boolean hedging) {
+	this.hedging = hedging;
+    }
+
+    public int getMaxHedgedAttempts() {
+	return maxHedgedAttempts;
+    }
+
+    public void setMaxHedgedAttempts(int maxHedgedAttempts) {
+	this.maxHedgedAttempts = maxHedgedAttempts;
+    }
+
+    public long getHedgingDelayMillis() {
+	return hedgingDelayMillis;
+    }
+
+    public void setHedgingDelayMillis(long hedgingDelayMillis) {
+	this.hedgingDelayMillis = hedgingDelayMillis;
+    }
+}
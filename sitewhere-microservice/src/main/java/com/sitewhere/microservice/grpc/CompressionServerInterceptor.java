@@ -0,0 +1,51 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.microservice.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCall.Listener;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+/**
+ * Compresses responses with the configured codec. Responses are sent
+ * uncompressed to clients that do not advertise support for the codec.
+ */
+public class CompressionServerInterceptor implements ServerInterceptor {
+
+    /** Name of codec used for responses */
+    private String compression;
+
+    public CompressionServerInterceptor(String compression) {
+	this.compression = compression;
+    }
+
+    /*
+     * @see io.grpc.ServerInterceptor#interceptCall(io.grpc.ServerCall,
+     * io.grpc.Metadata, io.grpc.ServerCallHandler)
+     */
+    @Override
+    public <ReqT, RespT> Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+	    ServerCallHandler<ReqT, RespT> next) {
+	call.setCompression(getCompression());
+	return next.startCall(call, headers);
+    }
+
+    public String getCompression() {
+	return compression;
+    }
+}
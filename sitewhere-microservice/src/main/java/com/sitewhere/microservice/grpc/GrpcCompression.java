@@ -0,0 +1,90 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.microservice.grpc;
+
+import com.sitewhere.microservice.configuration.model.instance.infrastructure.GrpcConfiguration;
+
+import io.grpc.Codec;
+import io.grpc.CompressorRegistry;
+import io.grpc.DecompressorRegistry;
+
+/**
+ * Registry of message codecs shared by gRPC clients and servers. Gzip is
+ * always available. Faster codecs may be plugged in by registering them before
+ * channels and servers are started, after which they may be selected by name
+ * in the gRPC configuration.
+ */
+public class GrpcCompression {
+
+    /** Compression name indicating messages are not compressed */
+    public static final String IDENTITY = Codec.Identity.NONE.getMessageEncoding();
+
+    /** Compression name for gzip */
+    public static final String GZIP = new Codec.Gzip().getMessageEncoding();
+
+    /** Registry of available compressors */
+    private static final CompressorRegistry COMPRESSORS = CompressorRegistry.getDefaultInstance();
+
+    /** Registry of available decompressors */
+    private static volatile DecompressorRegistry decompressors = DecompressorRegistry.getDefaultInstance();
+
+    /**
+     * Register a codec so that it may be used for compression and advertised to
+     * peers as supported for decompression.
+     * 
+     * @param codec
+     */
+    public static synchronized void register(Codec codec) {
+	COMPRESSORS.register(codec);
+	decompressors = decompressors.with(codec, true);
+    }
+
+    /**
+     * Get compression configured for gRPC calls. Returns null if messages should
+     * not be compressed.
+     * 
+     * @param grpc
+     * @return
+     */
+    public static String getCompression(GrpcConfiguration grpc) {
+	return getCompression(grpc.getCompression());
+    }
+
+    /**
+     * Validate a compression name. Returns null if messages should not be
+     * compressed.
+     * 
+     * @param compression
+     * @return
+     */
+    public static String getCompression(String compression) {
+	if (compression == null || compression.isEmpty() || IDENTITY.equals(compression)) {
+	    return null;
+	}
+	if (COMPRESSORS.lookupCompressor(compression) == null) {
+	    throw new IllegalArgumentException(String.format("No gRPC codec registered for '%s'.", compression));
+	}
+	return compression;
+    }
+
+    public static CompressorRegistry getCompressorRegistry() {
+	return COMPRESSORS;
+    }
+
+    public static DecompressorRegistry getDecompressorRegistry() {
+	return decompressors;
+    }
+}
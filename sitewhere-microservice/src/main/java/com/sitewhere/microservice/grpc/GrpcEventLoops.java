@@ -0,0 +1,186 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.microservice.grpc;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.NettyServerBuilder;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.FastThreadLocalThread;
+
+/**
+ * Netty event loops shared by all gRPC client channels and servers in a
+ * microservice. Native epoll transport is used when available on Linux, with
+ * NIO as a fallback, and all connections use the pooled buffer allocator. The
+ * event loops are created when the first channel or server is built and shut
+ * down when the last one is released.
+ */
+public class GrpcEventLoops {
+
+    /** Indicates whether native epoll transport can be used */
+    private static final boolean EPOLL = isEpollSupported();
+
+    /** Shared worker event loop group */
+    private static EventLoopGroup worker;
+
+    /** Shared boss event loop group used to accept server connections */
+    private static EventLoopGroup boss;
+
+    /** Number of channels and servers using the event loops */
+    private static int references;
+
+    private GrpcEventLoops() {
+    }
+
+    /**
+     * Acquire a reference to the shared event loops, creating them if necessary.
+     * Each call must be matched by a call to {@link #release()}.
+     * 
+     * @param threads
+     *            number of worker threads (0 for Netty default)
+     */
+    public static synchronized void acquire(int threads) {
+	if (worker == null) {
+	    worker = createEventLoopGroup(threads, "gRPC Event Loop");
+	    boss = createEventLoopGroup(1, "gRPC Boss");
+	}
+	references++;
+    }
+
+    /**
+     * Release a reference to the shared event loops. The event loops are shut
+     * down once no channels or servers are using them.
+     */
+    public static synchronized void release() {
+	if (references > 0 && --references == 0 && worker != null) {
+	    worker.shutdownGracefully();
+	    boss.shutdownGracefully();
+	    worker = null;
+	    boss = null;
+	}
+    }
+
+    /**
+     * Configure a client channel builder to use the shared event loop, native
+     * transport and pooled allocator.
+     * 
+     * @param builder
+     */
+    public static synchronized void configure(NettyChannelBuilder builder) {
+	builder.eventLoopGroup(getWorker()).channelType(getChannelType());
+	builder.withOption(ChannelOption.ALLOCATOR, getAllocator());
+    }
+
+    /**
+     * Configure a server builder to use the shared event loops, native transport
+     * and pooled allocator.
+     * 
+     * @param builder
+     */
+    public static synchronized void configure(NettyServerBuilder builder) {
+	builder.bossEventLoopGroup(getBoss()).workerEventLoopGroup(getWorker()).channelType(getServerChannelType());
+	builder.withChildOption(ChannelOption.ALLOCATOR, getAllocator());
+    }
+
+    /**
+     * Create an event loop group using native transport if available.
+     * 
+     * @param threads
+     * @param name
+     * @return
+     */
+    protected static EventLoopGroup createEventLoopGroup(int threads, String name) {
+	ThreadFactory factory = new EventLoopThreadFactory(name);
+	return EPOLL ? new EpollEventLoopGroup(threads, factory) : new NioEventLoopGroup(threads, factory);
+    }
+
+    /**
+     * Determine whether native epoll transport is available on this platform.
+     * 
+     * @return
+     */
+    private static boolean isEpollSupported() {
+	try {
+	    return Epoll.isAvailable();
+	} catch (Throwable t) {
+	    return false;
+	}
+    }
+
+    public static boolean isEpollAvailable() {
+	return EPOLL;
+    }
+
+    public static Class<? extends Channel> getChannelType() {
+	return EPOLL ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    public static Class<? extends ServerChannel> getServerChannelType() {
+	return EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    public static ByteBufAllocator getAllocator() {
+	return PooledByteBufAllocator.DEFAULT;
+    }
+
+    protected static EventLoopGroup getWorker() {
+	if (worker == null) {
+	    throw new IllegalStateException("Shared gRPC event loop has not been acquired.");
+	}
+	return worker;
+    }
+
+    protected static EventLoopGroup getBoss() {
+	if (boss == null) {
+	    throw new IllegalStateException("Shared gRPC event loop has not been acquired.");
+	}
+	return boss;
+    }
+
+    /** Used for naming event loop threads */
+    private static class EventLoopThreadFactory implements ThreadFactory {
+
+	/** Thread name prefix */
+	private String name;
+
+	/** Counts threads */
+	private AtomicInteger counter = new AtomicInteger();
+
+	public EventLoopThreadFactory(String name) {
+	    this.name = name;
+	}
+
+	public Thread newThread(Runnable r) {
+	    Thread thread = new FastThreadLocalThread(r, name + " " + counter.incrementAndGet());
+	    thread.setDaemon(true);
+	    return thread;
+	}
+    }
+}
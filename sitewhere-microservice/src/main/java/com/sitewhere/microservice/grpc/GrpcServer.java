@@ -16,7 +16,11 @@
 package com.sitewhere.microservice.grpc;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import com.sitewhere.microservice.configuration.model.instance.infrastructure.GrpcConfiguration;
 import com.sitewhere.microservice.health.HealthServiceImpl;
 import com.sitewhere.microservice.lifecycle.TenantEngineLifecycleComponent;
 import com.sitewhere.spi.SiteWhereException;
@@ -35,6 +39,9 @@ public class GrpcServer extends TenantEngineLifecycleComponent implements IGrpcS
     /** Port for gRPC server */
     private int apiPort;
 
+    /** Time to wait for server to terminate before cancelling calls */
+    private static final long SHUTDOWN_TIMEOUT_SECS = 10;
+
     /** Port for gRPC Health Protocol. */
     private int healthPort;
 
@@ -47,12 +54,18 @@ public class GrpcServer extends TenantEngineLifecycleComponent implements IGrpcS
     /** Service implementation */
     private BindableService serviceImplementation;
 
+    /** Additional services hosted on the API port */
+    private List<BindableService> additionalServices = new ArrayList<>();
+
     /** Interceptor for JWT authentication */
     private JwtServerInterceptor jwtInterceptor;
 
     /** Health Service Implementation */
     private HealthServiceImpl healthService = new HealthServiceImpl();
 
+    /** Indicates whether shared event loops have been acquired */
+    private boolean eventLoopsAcquired;
+
     public GrpcServer(BindableService serviceImplementation, int apiPort, int healthPort) {
 	this.serviceImplementation = serviceImplementation;
 	this.apiPort = apiPort;
@@ -66,10 +79,59 @@ public class GrpcServer extends TenantEngineLifecycleComponent implements IGrpcS
      */
     protected Server buildServer() {
 	NettyServerBuilder builder = NettyServerBuilder.forPort(getApiPort());
-	builder.addService(getServiceImplementation()).intercept(getJwtInterceptor());
+	GrpcEventLoops.configure(builder);
+	builder.addService(getServiceImplementation());
+	getAdditionalServices().forEach(builder::addService);
+	configureMessageHandling(builder);
+	configureConnectionManagement(builder);
+	builder.intercept(getJwtInterceptor());
 	return builder.build();
     }
 
+    /**
+     * Configure codecs, response compression and inbound message size limit
+     * based on gRPC settings.
+     * 
+     * @param builder
+     */
+    protected void configureMessageHandling(NettyServerBuilder builder) {
+	GrpcConfiguration grpc = getMicroservice().getInstanceConfiguration().getInfrastructure().getGrpc();
+	builder.compressorRegistry(GrpcCompression.getCompressorRegistry());
+	builder.decompressorRegistry(GrpcCompression.getDecompressorRegistry());
+	if (grpc.getMaxInboundMessageSize() > 0) {
+	    builder.maxInboundMessageSize(grpc.getMaxInboundMessageSize());
+	}
+	String compression = GrpcCompression.getCompression(grpc);
+	if (compression != null) {
+	    builder.intercept(new CompressionServerInterceptor(compression));
+	}
+    }
+
+    /**
+     * Configure keep-alive handling and maximum connection age. Clients are
+     * permitted to ping at up to twice their configured rate so that pings
+     * arriving slightly early due to timer jitter are not treated as abuse,
+     * which would cause the server to close the connection. Connections are
+     * closed gracefully once they reach the maximum age so that long-lived
+     * clients reconnect and spread across replicas.
+     * 
+     * @param builder
+     */
+    protected void configureConnectionManagement(NettyServerBuilder builder) {
+	GrpcConfiguration grpc = getMicroservice().getInstanceConfiguration().getInfrastructure().getGrpc();
+	if (grpc.getKeepAliveTimeSeconds() > 0) {
+	    builder.keepAliveTime(grpc.getKeepAliveTimeSeconds(), TimeUnit.SECONDS);
+	    builder.keepAliveTimeout(grpc.getKeepAliveTimeoutSeconds(), TimeUnit.SECONDS);
+	    builder.permitKeepAliveTime(TimeUnit.SECONDS.toMillis(grpc.getKeepAliveTimeSeconds()) / 2,
+		    TimeUnit.MILLISECONDS);
+	    builder.permitKeepAliveWithoutCalls(grpc.isKeepAliveWithoutCalls());
+	}
+	if (grpc.getMaxConnectionAgeSeconds() > 0) {
+	    builder.maxConnectionAge(grpc.getMaxConnectionAgeSeconds(), TimeUnit.SECONDS);
+	    builder.maxConnectionAgeGrace(grpc.getMaxConnectionAgeGraceSeconds(), TimeUnit.SECONDS);
+	}
+    }
+
     /**
      * Build gRPC Health Server.
      * 
@@ -77,6 +139,7 @@ public class GrpcServer extends TenantEngineLifecycleComponent implements IGrpcS
      */
     protected Server buildHealthServer() {
 	NettyServerBuilder builder = NettyServerBuilder.forPort(getHealthPort());
+	GrpcEventLoops.configure(builder);
 	builder.addService(getHealthService());
 	return builder.build();
     }
@@ -91,10 +154,7 @@ public class GrpcServer extends TenantEngineLifecycleComponent implements IGrpcS
     public void initialize(ILifecycleProgressMonitor monitor) throws SiteWhereException {
 	try {
 	    this.jwtInterceptor = new JwtServerInterceptor(getMicroservice(), getServiceImplementation().getClass());
-	    this.server = buildServer();
-	    getLogger().info("Initialized gRPC API server on port " + getApiPort() + ".");
-	    this.healthServer = buildHealthServer();
-	    getLogger().info("Initialized gRPC Health Probe server on port " + getHealthPort() + ".");
+	    getLogger().debug("Initialized gRPC API server authentication. Server is built when started.");
 	} catch (Throwable t) {
 	    getLogger().error("Unhandled exception initializing gRPC server.", t);
 	}
@@ -110,6 +170,15 @@ public class GrpcServer extends TenantEngineLifecycleComponent implements IGrpcS
     @Override
     public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
 	try {
+	    // Servers use the shared event loops, which are held until stop().
+	    if (!eventLoopsAcquired) {
+		GrpcEventLoops.acquire(
+			getMicroservice().getInstanceConfiguration().getInfrastructure().getGrpc().getEventLoopThreads());
+		this.eventLoopsAcquired = true;
+	    }
+	    this.server = buildServer();
+	    this.healthServer = buildHealthServer();
+
 	    getLogger().debug("Starting gRPC API server on port " + getApiPort() + "...");
 	    getServer().start();
 	    getLogger().info("Started gRPC API server on port " + getApiPort() + ".");
@@ -136,18 +205,41 @@ public class GrpcServer extends TenantEngineLifecycleComponent implements IGrpcS
 	if (getServer() != null) {
 	    try {
 		getServer().shutdown();
-		getServer().awaitTermination();
-		getLogger().info("gRPC server terminated successfully.");
+		awaitTermination(getServer(), "gRPC server");
 
 		getHealthServer().shutdown();
-		getHealthServer().awaitTermination();
-		getLogger().info("gRPC Health server terminated successfully.");
+		awaitTermination(getHealthServer(), "gRPC Health server");
 	    } catch (InterruptedException e) {
 		getLogger().error("Interrupted while waiting for gRPC server to terminate.", e);
+		getServer().shutdownNow();
+		getHealthServer().shutdownNow();
+		Thread.currentThread().interrupt();
 	    } catch (Throwable t) {
 		getLogger().error("Unhandled exception stopping gRPC server.", t);
 	    }
 	}
+	if (eventLoopsAcquired) {
+	    GrpcEventLoops.release();
+	    this.eventLoopsAcquired = false;
+	}
+    }
+
+    /**
+     * Wait for a server that has been shut down to terminate. Calls still in
+     * progress after the timeout are cancelled.
+     * 
+     * @param server
+     * @param name
+     * @throws InterruptedException
+     */
+    protected void awaitTermination(Server server, String name) throws InterruptedException {
+	if (server.awaitTermination(SHUTDOWN_TIMEOUT_SECS, TimeUnit.SECONDS)) {
+	    getLogger().info(name + " terminated successfully.");
+	    return;
+	}
+	getLogger().warn(String.format("%s did not terminate in %d seconds.", name, SHUTDOWN_TIMEOUT_SECS));
+	server.shutdownNow();
+	server.awaitTermination(SHUTDOWN_TIMEOUT_SECS, TimeUnit.SECONDS);
     }
 
     /*
@@ -163,6 +255,24 @@ public class GrpcServer extends TenantEngineLifecycleComponent implements IGrpcS
 	this.serviceImplementation = serviceImplementation;
     }
 
+    /*
+     * @see
+     * com.sitewhere.spi.microservice.grpc.IGrpcServer#addService(io.grpc.
+     * BindableService)
+     */
+    @Override
+    public void addService(BindableService service) {
+	getAdditionalServices().add(service);
+    }
+
+    public List<BindableService> getAdditionalServices() {
+	return additionalServices;
+    }
+
+    public void setAdditionalServices(List<BindableService> additionalServices) {
+	this.additionalServices = additionalServices;
+    }
+
     public Server getServer() {
 	return server;
     }
@@ -0,0 +1,137 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.microservice.grpc;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sitewhere.microservice.kubernetes.KubernetesEndpointsMonitor;
+import com.sitewhere.microservice.kubernetes.KubernetesEndpointsMonitor.IEndpointsListener;
+
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.Status;
+import io.grpc.SynchronizationContext;
+
+/**
+ * Name resolver that publishes the ready addresses of a Kubernetes service and
+ * updates them whenever its endpoints change.
+ */
+public class KubernetesNameResolver extends NameResolver implements IEndpointsListener {
+
+    /** Monitor supplying endpoints */
+    private KubernetesEndpointsMonitor monitor;
+
+    /** Service name */
+    private String serviceName;
+
+    /** Service port */
+    private int port;
+
+    /** Context used to serialize calls to listener */
+    private SynchronizationContext syncContext;
+
+    /** Listener receiving resolved addresses */
+    private Listener2 listener;
+
+    public KubernetesNameResolver(KubernetesEndpointsMonitor monitor, String serviceName, int port,
+	    SynchronizationContext syncContext) {
+	this.monitor = monitor;
+	this.serviceName = serviceName;
+	this.port = port;
+	this.syncContext = syncContext;
+    }
+
+    /*
+     * @see io.grpc.NameResolver#getServiceAuthority()
+     */
+    @Override
+    public String getServiceAuthority() {
+	return serviceName + ":" + port;
+    }
+
+    /*
+     * @see io.grpc.NameResolver#start(io.grpc.NameResolver.Listener2)
+     */
+    @Override
+    public void start(Listener2 listener) {
+	this.listener = listener;
+	monitor.addListener(serviceName, this);
+	resolve(monitor.getAddresses(serviceName, port), true);
+    }
+
+    /*
+     * @see io.grpc.NameResolver#refresh()
+     */
+    @Override
+    public void refresh() {
+	resolve(monitor.getAddresses(serviceName, port), true);
+    }
+
+    /*
+     * @see io.grpc.NameResolver#shutdown()
+     */
+    @Override
+    public void shutdown() {
+	monitor.removeListener(serviceName, this);
+    }
+
+    /*
+     * @see com.sitewhere.microservice.kubernetes.KubernetesEndpointsMonitor.
+     * IEndpointsListener#onEndpointsUpdated(io.fabric8.kubernetes.api.model.
+     * Endpoints)
+     */
+    @Override
+    public void onEndpointsUpdated(Endpoints endpoints) {
+	resolve(KubernetesEndpointsMonitor.getAddresses(endpoints, monitor.getServicePort(serviceName, port), port),
+		false);
+    }
+
+    /**
+     * Publish addresses to the listener. An empty list is reported as an error
+     * so that the channel backs off and refreshes. Updates from the informer
+     * that arrive before it has synced are skipped while empty, but resolution
+     * requested by the channel always reports a result or an error so that the
+     * channel never waits without retrying.
+     * 
+     * @param addresses
+     * @param requested
+     */
+    protected void resolve(List<InetSocketAddress> addresses, boolean requested) {
+	syncContext.execute(() -> {
+	    if (listener == null) {
+		return;
+	    }
+	    if (addresses.isEmpty()) {
+		boolean synced = monitor.hasSynced();
+		if (!synced && !requested) {
+		    return;
+		}
+		listener.onError(Status.UNAVAILABLE.withDescription(synced
+			? String.format("No ready endpoints for service '%s' on port %d.", serviceName, port)
+			: String.format("Endpoints for service '%s' have not been synchronized.", serviceName)));
+		return;
+	    }
+	    List<EquivalentAddressGroup> groups = new ArrayList<>(addresses.size());
+	    for (InetSocketAddress address : addresses) {
+		groups.add(new EquivalentAddressGroup(address));
+	    }
+	    listener.onResult(ResolutionResult.newBuilder().setAddresses(groups).build());
+	});
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.microservice.grpc;
+
+import java.net.URI;
+
+import com.sitewhere.microservice.kubernetes.KubernetesEndpointsMonitor;
+
+import io.grpc.NameResolver;
+import io.grpc.NameResolverProvider;
+import io.grpc.NameResolverRegistry;
+
+/**
+ * Resolves targets of the form <code>kubernetes:///service:port</code> to the
+ * ready pod addresses behind a service in the instance namespace. Addresses
+ * are taken from a {@link KubernetesEndpointsMonitor} so that client-side load
+ * balancing sees replicas as soon as they become ready rather than routing all
+ * calls through the service virtual IP.
+ */
+public class KubernetesNameResolverProvider extends NameResolverProvider {
+
+    /** Target scheme handled by the provider */
+    public static final String SCHEME = "kubernetes";
+
+    /** Provider registered for the microservice (null if not registered) */
+    private static volatile KubernetesNameResolverProvider registered;
+
+    /** Monitor supplying endpoints */
+    private KubernetesEndpointsMonitor monitor;
+
+    public KubernetesNameResolverProvider(KubernetesEndpointsMonitor monitor) {
+	this.monitor = monitor;
+    }
+
+    /**
+     * Register provider with the default gRPC name resolver registry.
+     * 
+     * @param monitor
+     */
+    public static synchronized void register(KubernetesEndpointsMonitor monitor) {
+	if (registered != null) {
+	    NameResolverRegistry.getDefaultRegistry().deregister(registered);
+	}
+	registered = new KubernetesNameResolverProvider(monitor);
+	NameResolverRegistry.getDefaultRegistry().register(registered);
+    }
+
+    /**
+     * Remove registered provider from the default gRPC name resolver registry.
+     */
+    public static synchronized void deregister() {
+	if (registered != null) {
+	    NameResolverRegistry.getDefaultRegistry().deregister(registered);
+	    registered = null;
+	}
+    }
+
+    /**
+     * Indicates whether a provider has been registered.
+     * 
+     * @return
+     */
+    public static boolean isRegistered() {
+	return registered != null;
+    }
+
+    /**
+     * Build target for a service and port.
+     * 
+     * @param serviceName
+     * @param port
+     * @return
+     */
+    public static String getTarget(String serviceName, int port) {
+	return String.format("%s:///%s:%d", SCHEME, serviceName, port);
+    }
+
+    /*
+     * @see io.grpc.NameResolver.Factory#newNameResolver(java.net.URI,
+     * io.grpc.NameResolver.Args)
+     */
+    @Override
+    public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
+	if (!SCHEME.equals(targetUri.getScheme()) || targetUri.getPath() == null) {
+	    return null;
+	}
+	String path = targetUri.getPath().startsWith("/") ? targetUri.getPath().substring(1) : targetUri.getPath();
+	int colon = path.lastIndexOf(':');
+	if (colon <= 0) {
+	    throw new IllegalArgumentException("Kubernetes target must include service port: " + targetUri);
+	}
+	String serviceName = path.substring(0, colon);
+	int port = Integer.parseInt(path.substring(colon + 1));
+	return new KubernetesNameResolver(getMonitor(), serviceName, port, args.getSynchronizationContext());
+    }
+
+    /*
+     * @see io.grpc.NameResolver.Factory#getDefaultScheme()
+     */
+    @Override
+    public String getDefaultScheme() {
+	return SCHEME;
+    }
+
+    /*
+     * @see io.grpc.NameResolverProvider#isAvailable()
+     */
+    @Override
+    protected boolean isAvailable() {
+	return true;
+    }
+
+    /*
+     * @see io.grpc.NameResolverProvider#priority()
+     */
+    @Override
+    protected int priority() {
+	return 5;
+    }
+
+    protected KubernetesEndpointsMonitor getMonitor() {
+	return monitor;
+    }
+}
@@ -39,8 +39,12 @@ public class MultitenantGrpcServer extends GrpcServer {
     protected Server buildServer() {
 	this.tenantTokenInterceptor = new TenantTokenServerInterceptor(getMicroservice());
 	NettyServerBuilder builder = NettyServerBuilder.forPort(getApiPort());
-	builder.addService(getServiceImplementation()).intercept(getTenantTokenInterceptor())
-		.intercept(getJwtInterceptor());
+	GrpcEventLoops.configure(builder);
+	builder.addService(getServiceImplementation());
+	getAdditionalServices().forEach(builder::addService);
+	configureMessageHandling(builder);
+	configureConnectionManagement(builder);
+	builder.intercept(getTenantTokenInterceptor()).intercept(getJwtInterceptor());
 	return builder.build();
     }
 
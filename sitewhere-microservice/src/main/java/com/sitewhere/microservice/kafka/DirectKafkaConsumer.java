@@ -15,18 +15,83 @@
  */
 package com.sitewhere.microservice.kafka;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.common.KafkaException;
 import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.ProducerFencedException;
 
 import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.microservice.lifecycle.ILifecycleProgressMonitor;
 
 public abstract class DirectKafkaConsumer extends MicroserviceKafkaConsumer {
 
+    /** Upper bound on delay between attempts to process a failed batch */
+    private static final long MAX_RETRY_BACKOFF_MS = 5000;
+
+    /** Processing guarantee */
+    private ProcessingGuarantee processingGuarantee = ProcessingGuarantee.AtLeastOnce;
+
+    /** Producer used for outputs when processing exactly once */
+    private MicroserviceKafkaProducer<?, ?> transactionalProducer;
+
+    /** Max records passed to a single batch (zero disables micro-batching) */
+    private int batchMaxRecords = 0;
+
+    /** Max time records wait in a partial batch */
+    private long batchMaxWaitMs = 50;
+
+    /** Records waiting to be processed indexed by partition (poll thread only) */
+    private Map<TopicPartition, PartitionBatch> pendingBatches = new HashMap<>();
+
+    /** Attempts to process a batch in a transaction before failed records are skipped */
+    private int maxProcessingAttempts = 3;
+
+    /** Delay before retrying a failed batch (doubled for each further attempt) */
+    private long retryBackoffMs = 100;
+
+    /** Batches that failed processing indexed by partition (poll thread only) */
+    private Map<TopicPartition, FailedBatch> failedBatches = new HashMap<>();
+
+    /** Logs failed asynchronous commits */
+    private OffsetCommitCallback commitCallback = new OffsetCommitCallback() {
+	public void onComplete(Map<TopicPartition, OffsetAndMetadata> offsets, Exception e) {
+	    if (e != null) {
+		getLogger().error("Commit failed for offsets " + offsets, e);
+	    }
+	}
+    };
+
+    /*
+     * @see
+     * com.sitewhere.microservice.kafka.MicroserviceKafkaConsumer#start(com.sitewhere
+     * .spi.microservice.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	if (getProcessingGuarantee() == ProcessingGuarantee.ExactlyOnce) {
+	    if (getTransactionalProducer() == null) {
+		throw new SiteWhereException("Exactly-once processing requires a transactional producer.");
+	    }
+	    if (getTransactionalProducer().getTransactionalId() == null) {
+		// Transactional id must be unique per replica or replicas fence each other.
+		getTransactionalProducer()
+			.setTransactionalId(String.format("%s-%s-tx", getConsumerId(), getMicroservice().getHostname()));
+	    }
+	    getLogger().info(String.format("Consumer using transactional producer '%s' for exactly-once processing.",
+		    getTransactionalProducer().getTransactionalId()));
+	}
+	super.start(monitor);
+    }
+
     /*
      * @see
      * com.sitewhere.spi.microservice.kafka.IMicroserviceKafkaConsumer#process(org.
@@ -34,15 +99,17 @@ public abstract class DirectKafkaConsumer extends MicroserviceKafkaConsumer {
      */
     @Override
     public void process(TopicPartition topicPartition, List<ConsumerRecord<String, byte[]>> records) {
+	if (isBatching()) {
+	    addToBatch(topicPartition, records);
+	    return;
+	}
+	if (getProcessingGuarantee() == ProcessingGuarantee.ExactlyOnce) {
+	    processInTransaction(topicPartition, records);
+	    return;
+	}
 	try {
 	    attemptToProcess(topicPartition, records);
-	    getConsumer().commitAsync(new OffsetCommitCallback() {
-		public void onComplete(Map<TopicPartition, OffsetAndMetadata> offsets, Exception e) {
-		    if (e != null) {
-			getLogger().error("Commit failed for offsets " + offsets, e);
-		    }
-		}
-	    });
+	    getConsumer().commitAsync(commitCallback);
 	} catch (SiteWhereException e) {
 	    getLogger().error("Exception in consumer processing.", e);
 	} catch (Throwable e) {
@@ -50,6 +117,280 @@ public abstract class DirectKafkaConsumer extends MicroserviceKafkaConsumer {
 	}
     }
 
+    /**
+     * Add records to the pending batch for a partition, processing full batches
+     * immediately. Records left over after full batches are processed keep the
+     * start time of the pending batch. If a batch is rewound, the remaining
+     * records are discarded since they will be fetched again.
+     * 
+     * @param topicPartition
+     * @param records
+     */
+    protected void addToBatch(TopicPartition topicPartition, List<ConsumerRecord<String, byte[]>> records) {
+	PartitionBatch batch = pendingBatches.computeIfAbsent(topicPartition, tp -> new PartitionBatch());
+	if (batch.records.isEmpty()) {
+	    batch.startedAt = System.currentTimeMillis();
+	}
+	batch.records.addAll(records);
+	while (batch.records.size() >= getBatchMaxRecords()) {
+	    List<ConsumerRecord<String, byte[]>> full = new ArrayList<>(
+		    batch.records.subList(0, getBatchMaxRecords()));
+	    batch.records.subList(0, getBatchMaxRecords()).clear();
+	    if (!processBatch(topicPartition, full, false)) {
+		return;
+	    }
+	}
+    }
+
+    /**
+     * Process a batch assembled from one or more polls, committing offsets for
+     * the records in the batch only.
+     * 
+     * @param topicPartition
+     * @param records
+     * @param sync
+     * @return false if the partition was rewound to reprocess the batch
+     */
+    protected boolean processBatch(TopicPartition topicPartition, List<ConsumerRecord<String, byte[]>> records,
+	    boolean sync) {
+	if (getProcessingGuarantee() == ProcessingGuarantee.ExactlyOnce) {
+	    return processInTransaction(topicPartition, records);
+	}
+	try {
+	    attemptToProcess(topicPartition, records);
+	    Map<TopicPartition, OffsetAndMetadata> offsets = Collections.singletonMap(topicPartition,
+		    new OffsetAndMetadata(records.get(records.size() - 1).offset() + 1));
+	    if (sync) {
+		getConsumer().commitSync(offsets);
+	    } else {
+		getConsumer().commitAsync(offsets, commitCallback);
+	    }
+	} catch (SiteWhereException e) {
+	    getLogger().error("Exception in consumer processing.", e);
+	} catch (Throwable e) {
+	    getLogger().error("Unhandled exception in consumer processing.", e);
+	}
+	return true;
+    }
+
+    /*
+     * @see com.sitewhere.microservice.kafka.MicroserviceKafkaConsumer#afterPoll()
+     */
+    @Override
+    protected void afterPoll() {
+	if (!isBatching()) {
+	    return;
+	}
+	long now = System.currentTimeMillis();
+	// Copy entries since a rewind removes the pending batch for the partition.
+	for (Map.Entry<TopicPartition, PartitionBatch> entry : new ArrayList<>(pendingBatches.entrySet())) {
+	    PartitionBatch batch = entry.getValue();
+	    if (!batch.records.isEmpty() && (now - batch.startedAt >= getBatchMaxWaitMs())) {
+		processBatch(entry.getKey(), batch.drain(), false);
+	    }
+	}
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.kafka.MicroserviceKafkaConsumer#getPollTimeoutMillis
+     * ()
+     */
+    @Override
+    protected long getPollTimeoutMillis() {
+	long timeout = super.getPollTimeoutMillis();
+	if (isBatching()) {
+	    long now = System.currentTimeMillis();
+	    for (PartitionBatch batch : pendingBatches.values()) {
+		if (!batch.records.isEmpty()) {
+		    timeout = Math.min(timeout, Math.max(0, batch.startedAt + getBatchMaxWaitMs() - now));
+		}
+	    }
+	}
+	return timeout;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.kafka.MicroserviceKafkaConsumer#onPartitionsRevoked
+     * (java.util.Collection)
+     */
+    @Override
+    protected void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+	// Process partial batches before another consumer takes over the partitions.
+	for (TopicPartition partition : partitions) {
+	    failedBatches.remove(partition);
+	    PartitionBatch batch = pendingBatches.remove(partition);
+	    if (batch != null && !batch.records.isEmpty()) {
+		processBatch(partition, batch.drain(), true);
+	    }
+	}
+    }
+
+    /**
+     * Process a batch of records inside a Kafka transaction. Records sent by the
+     * transactional producer and the consumed offsets are committed atomically,
+     * so a crash during processing does not result in duplicate outputs. If the
+     * transaction fails due to a Kafka error, the partition is rewound so the
+     * records are processed again rather than skipped by the next commit. If
+     * processing fails, the batch is retried with backoff up to the maximum
+     * number of attempts, after which records are processed individually and
+     * those that still fail are skipped.
+     * 
+     * @param topicPartition
+     * @param records
+     * @return false if the partition was rewound to reprocess records
+     */
+    protected boolean processInTransaction(TopicPartition topicPartition,
+	    List<ConsumerRecord<String, byte[]>> records) {
+	MicroserviceKafkaProducer<?, ?> producer = getTransactionalProducer();
+	long firstOffset = records.get(0).offset();
+	long nextOffset = records.get(records.size() - 1).offset() + 1;
+	try {
+	    producer.beginTransaction();
+	    attemptToProcess(topicPartition, records);
+	    commitTransaction(producer, topicPartition, nextOffset);
+	    failedBatches.remove(topicPartition);
+	    return true;
+	} catch (ProducerFencedException e) {
+	    getLogger().error("Transactional producer was fenced. Partition will be reprocessed.", e);
+	    producer.resetProducer();
+	    rewind(topicPartition, firstOffset);
+	    return false;
+	} catch (KafkaException e) {
+	    getLogger().error("Kafka exception in transaction. Partition will be reprocessed.", e);
+	    abortTransaction(producer);
+	    rewind(topicPartition, firstOffset);
+	    return false;
+	} catch (Throwable e) {
+	    getLogger().error("Exception in consumer processing. Aborting transaction.", e);
+	    abortTransaction(producer);
+	    int attempts = recordFailure(topicPartition, firstOffset);
+	    if (attempts < getMaxProcessingAttempts()) {
+		backOff(attempts);
+		rewind(topicPartition, firstOffset);
+		return false;
+	    }
+	    failedBatches.remove(topicPartition);
+	    return processIndividually(topicPartition, records);
+	}
+    }
+
+    /**
+     * Process records one per transaction after a batch has repeatedly failed
+     * so that only the records that can not be processed are skipped. The
+     * offsets of skipped records are committed so the partition continues to
+     * advance.
+     * 
+     * @param topicPartition
+     * @param records
+     * @return false if the partition was rewound to reprocess records
+     */
+    protected boolean processIndividually(TopicPartition topicPartition,
+	    List<ConsumerRecord<String, byte[]>> records) {
+	MicroserviceKafkaProducer<?, ?> producer = getTransactionalProducer();
+	for (ConsumerRecord<String, byte[]> record : records) {
+	    try {
+		producer.beginTransaction();
+		try {
+		    attemptToProcess(topicPartition, Collections.singletonList(record));
+		} catch (KafkaException e) {
+		    throw e;
+		} catch (Throwable e) {
+		    getLogger().error(String.format("Skipping record at offset %d of %s after %d failed attempts.",
+			    record.offset(), topicPartition, getMaxProcessingAttempts()), e);
+		    abortTransaction(producer);
+		    producer.beginTransaction();
+		}
+		commitTransaction(producer, topicPartition, record.offset() + 1);
+	    } catch (ProducerFencedException e) {
+		getLogger().error("Transactional producer was fenced. Partition will be reprocessed.", e);
+		producer.resetProducer();
+		rewind(topicPartition, record.offset());
+		return false;
+	    } catch (Throwable e) {
+		getLogger().error("Exception in transaction. Partition will be reprocessed.", e);
+		abortTransaction(producer);
+		rewind(topicPartition, record.offset());
+		return false;
+	    }
+	}
+	return true;
+    }
+
+    /**
+     * Add consumed offsets to the current transaction and commit it.
+     * 
+     * @param producer
+     * @param topicPartition
+     * @param nextOffset
+     */
+    protected void commitTransaction(MicroserviceKafkaProducer<?, ?> producer, TopicPartition topicPartition,
+	    long nextOffset) {
+	producer.sendOffsetsToTransaction(Collections.singletonMap(topicPartition, new OffsetAndMetadata(nextOffset)),
+		getConsumer().groupMetadata());
+	producer.commitTransaction();
+    }
+
+    /**
+     * Record a failed attempt to process the batch starting at an offset.
+     * 
+     * @param topicPartition
+     * @param firstOffset
+     * @return number of failed attempts for the batch
+     */
+    protected int recordFailure(TopicPartition topicPartition, long firstOffset) {
+	FailedBatch failed = failedBatches.get(topicPartition);
+	if (failed == null || failed.firstOffset != firstOffset) {
+	    failed = new FailedBatch(firstOffset);
+	    failedBatches.put(topicPartition, failed);
+	}
+	return ++failed.attempts;
+    }
+
+    /**
+     * Wait before retrying a failed batch. The delay doubles with each attempt
+     * up to a fixed maximum.
+     * 
+     * @param attempts
+     */
+    protected void backOff(int attempts) {
+	long delay = Math.min(getRetryBackoffMs() << Math.min(attempts - 1, 16), MAX_RETRY_BACKOFF_MS);
+	try {
+	    Thread.sleep(delay);
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	}
+    }
+
+    /**
+     * Seek a partition back to an offset so records are fetched again. Records
+     * waiting in a partial batch for the partition are discarded since they will
+     * be fetched again.
+     * 
+     * @param topicPartition
+     * @param offset
+     */
+    protected void rewind(TopicPartition topicPartition, long offset) {
+	pendingBatches.remove(topicPartition);
+	getConsumer().seek(topicPartition, offset);
+    }
+
+    /**
+     * Abort the current transaction, discarding the producer if it can not be
+     * aborted cleanly.
+     * 
+     * @param producer
+     */
+    protected void abortTransaction(MicroserviceKafkaProducer<?, ?> producer) {
+	try {
+	    producer.abortTransaction();
+	} catch (Throwable t) {
+	    getLogger().warn("Unable to abort transaction. Producer will be recreated.", t);
+	    producer.resetProducer();
+	}
+    }
+
     /**
      * Attempts to process a batch of records, throwing an exception if processing
      * fails.
@@ -60,4 +401,95 @@ public abstract class DirectKafkaConsumer extends MicroserviceKafkaConsumer {
      */
     public abstract void attemptToProcess(TopicPartition topicPartition, List<ConsumerRecord<String, byte[]>> records)
 	    throws SiteWhereException;
-}
\ No newline at end of file
+
+    /**
+     * Records accumulated for a partition across polls.
+     */
+    private static class PartitionBatch {
+
+	/** Pending records */
+	private List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+
+	/** Time first pending record was added */
+	private long startedAt;
+
+	/**
+	 * Remove and return all pending records.
+	 * 
+	 * @return
+	 */
+	public List<ConsumerRecord<String, byte[]>> drain() {
+	    List<ConsumerRecord<String, byte[]>> drained = records;
+	    this.records = new ArrayList<>();
+	    return drained;
+	}
+    }
+
+    /**
+     * Failed attempts to process the batch starting at an offset.
+     */
+    private static class FailedBatch {
+
+	/** Offset of first record in batch */
+	private long firstOffset;
+
+	/** Number of failed attempts */
+	private int attempts;
+
+	public FailedBatch(long firstOffset) {
+	    this.firstOffset = firstOffset;
+	}
+    }
+
+    public boolean isBatching() {
+	return getBatchMaxRecords() > 0;
+    }
+
+    public int getBatchMaxRecords() {
+	return batchMaxRecords;
+    }
+
+    public void setBatchMaxRecords(int batchMaxRecords) {
+	this.batchMaxRecords = batchMaxRecords;
+    }
+
+    public long getBatchMaxWaitMs() {
+	return batchMaxWaitMs;
+    }
+
+    public void setBatchMaxWaitMs(long batchMaxWaitMs) {
+	this.batchMaxWaitMs = batchMaxWaitMs;
+    }
+
+    public int getMaxProcessingAttempts() {
+	return maxProcessingAttempts;
+    }
+
+    public void setMaxProcessingAttempts(int maxProcessingAttempts) {
+	this.maxProcessingAttempts = maxProcessingAttempts;
+    }
+
+    public long getRetryBackoffMs() {
+	return retryBackoffMs;
+    }
+
+    public void setRetryBackoffMs(long retryBackoffMs) {
+	this.retryBackoffMs = retryBackoffMs;
+    }
+
+    public ProcessingGuarantee getProcessingGuarantee() {
+	return processingGuarantee;
+    }
+
+    public void setProcessingGuarantee(ProcessingGuarantee processingGuarantee) {
+	this.processingGuarantee = processingGuarantee;
+    }
+
+    public MicroserviceKafkaProducer<?, ?> getTransactionalProducer() {
+	return transactionalProducer;
+    }
+
+    public void setTransactionalProducer(MicroserviceKafkaProducer<?, ?> transactionalProducer) {
+	this.transactionalProducer = transactionalProducer;
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.microservice.kafka;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.sitewhere.spi.microservice.grpc.IGrpcCallMonitor;
+import com.sitewhere.spi.microservice.kafka.IBackPressureController;
+
+/**
+ * Back-pressure controller that pauses consumption when any of the monitored
+ * downstream gRPC channels has too many calls in flight or latency above the
+ * configured limit. Consumption resumes once all channels drop below a fraction
+ * of the limits.
+ */
+public class GrpcBackPressureController implements IBackPressureController {
+
+    /** Default max number of in-flight calls per channel */
+    public static final int DEFAULT_MAX_IN_FLIGHT_CALLS = 100;
+
+    /** Default max average latency per channel */
+    public static final long DEFAULT_MAX_LATENCY_MS = 2000;
+
+    /** Default fraction of limits required before resuming */
+    public static final double DEFAULT_RESUME_RATIO = 0.5;
+
+    /** Monitors for downstream channels */
+    private List<IGrpcCallMonitor> monitors = new ArrayList<>();
+
+    /** Max in-flight calls before pausing */
+    private int maxInFlightCalls = DEFAULT_MAX_IN_FLIGHT_CALLS;
+
+    /** Max average latency before pausing */
+    private long maxLatencyMs = DEFAULT_MAX_LATENCY_MS;
+
+    /** Fraction of limits that must be reached before resuming */
+    private double resumeRatio = DEFAULT_RESUME_RATIO;
+
+    /** Indicates whether last evaluation requested a pause */
+    private volatile boolean paused = false;
+
+    public GrpcBackPressureController(IGrpcCallMonitor... monitors) {
+	this.monitors.addAll(Arrays.asList(monitors));
+    }
+
+    /*
+     * @see
+     * com.sitewhere.spi.microservice.kafka.IBackPressureController#shouldPause()
+     */
+    @Override
+    public boolean shouldPause() {
+	double ratio = isPaused() ? getResumeRatio() : 1.0;
+	boolean overloaded = false;
+	for (IGrpcCallMonitor monitor : getMonitors()) {
+	    if ((monitor.getInFlightCallCount() > getMaxInFlightCalls() * ratio)
+		    || (monitor.getAverageLatencyMillis() > getMaxLatencyMs() * ratio)) {
+		overloaded = true;
+		break;
+	    }
+	}
+	this.paused = overloaded;
+	return overloaded;
+    }
+
+    public boolean isPaused() {
+	return paused;
+    }
+
+    public List<IGrpcCallMonitor> getMonitors() {
+	return monitors;
+    }
+
+    public void setMonitors(List<IGrpcCallMonitor> monitors) {
+	this.monitors = monitors;
+    }
+
+    public int getMaxInFlightCalls() {
+	return maxInFlightCalls;
+    }
+
+    public void setMaxInFlightCalls(int maxInFlightCalls) {
+	this.maxInFlightCalls = maxInFlightCalls;
+    }
+
+    public long getMaxLatencyMs() {
+	return maxLatencyMs;
+    }
+
+    public void setMaxLatencyMs(long maxLatencyMs) {
+	this.maxLatencyMs = maxLatencyMs;
+    }
+
+    public double getResumeRatio() {
+	return resumeRatio;
+    }
+
+    public void setResumeRatio(double resumeRatio) {
+	this.resumeRatio = resumeRatio;
+    }
+}
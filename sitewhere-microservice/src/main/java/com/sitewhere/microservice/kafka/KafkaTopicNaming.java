@@ -15,11 +15,17 @@
  */
 package com.sitewhere.microservice.kafka;
 
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 
 import com.sitewhere.spi.microservice.instance.IInstanceSettings;
 import com.sitewhere.spi.microservice.kafka.IKafkaTopicNaming;
+import com.sitewhere.spi.microservice.kafka.ITenantTopics;
 
 import io.sitewhere.k8s.crd.tenant.SiteWhereTenant;
 
@@ -54,40 +60,46 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
     protected static final String INSTANCE_LOGGING_SUFFIX = "instance-logging";
 
     /** Topic suffix for events decoded by event sources for a tenant */
-    protected static final String TENANT_TOPIC_EVENT_SOURCE_DECODED_EVENTS = "event-source-decoded-events";
+    public static final String TENANT_TOPIC_EVENT_SOURCE_DECODED_EVENTS = "event-source-decoded-events";
 
     /** Topic suffix for events that could not be decoded for a tenant */
-    protected static final String TENANT_TOPIC_EVENT_SOURCE_FAILED_DECODE_EVENTS = "event-source-failed-decode-events";
+    public static final String TENANT_TOPIC_EVENT_SOURCE_FAILED_DECODE_EVENTS = "event-source-failed-decode-events";
 
     /** Topic suffix for events that have completed inbound processing */
-    protected static final String TENANT_TOPIC_INBOUND_EVENTS = "inbound-events";
+    public static final String TENANT_TOPIC_INBOUND_EVENTS = "inbound-events";
 
     /** Topic suffix for events that should be reprocessed */
-    protected static final String TENANT_TOPIC_INBOUND_REPROCESS_EVENTS = "inbound-reprocess-events";
+    public static final String TENANT_TOPIC_INBOUND_REPROCESS_EVENTS = "inbound-reprocess-events";
 
     /** Topic suffix for device registration events from inbound event sources */
-    protected static final String TENANT_TOPIC_INBOUND_DEVICE_REGISTRATION_EVENTS = "inbound-device-registration-events";
+    public static final String TENANT_TOPIC_INBOUND_DEVICE_REGISTRATION_EVENTS = "inbound-device-registration-events";
 
     /** Topic suffix for tenant events sent to unregistered devices */
-    protected static final String TENANT_TOPIC_INBOUND_UNREGISTERED_DEVICE_EVENTS = "inbound-unregistered-device-events";
+    public static final String TENANT_TOPIC_INBOUND_UNREGISTERED_DEVICE_EVENTS = "inbound-unregistered-device-events";
 
     /** Topic suffix for events that have been enriched and persisted */
-    protected static final String TENANT_TOPIC_OUTBOUND_EVENTS = "outbound-events";
+    public static final String TENANT_TOPIC_OUTBOUND_EVENTS = "outbound-events";
 
     /** Topic suffix for persisted and enriched command invocations */
-    protected static final String TENANT_TOPIC_OUTBOUND_COMMAND_INVOCATIONS = "outbound-command-invocations";
+    public static final String TENANT_TOPIC_OUTBOUND_COMMAND_INVOCATIONS = "outbound-command-invocations";
 
     /** Topic suffix for undelivered command invocations */
-    protected static final String TENANT_TOPIC_UNDELIVERED_COMMAND_INVOCATIONS = "undelivered-command-invocations";
+    public static final String TENANT_TOPIC_UNDELIVERED_COMMAND_INVOCATIONS = "undelivered-command-invocations";
 
     /** Topic suffix for unprocessed batch operations */
-    protected static final String TENANT_TOPIC_UNPROCESSED_BATCH_OPERATIONS = "unprocessed-batch-operations";
+    public static final String TENANT_TOPIC_UNPROCESSED_BATCH_OPERATIONS = "unprocessed-batch-operations";
 
     /** Topic suffix for unprocessed batch elements */
-    protected static final String TENANT_TOPIC_UNPROCESSED_BATCH_ELEMENTS = "unprocessed-batch-elements";
+    public static final String TENANT_TOPIC_UNPROCESSED_BATCH_ELEMENTS = "unprocessed-batch-elements";
 
     /** Topic suffix for failed batch elements */
-    protected static final String TENANT_TOPIC_FAILED_BATCH_ELEMENTS = "failed-batch-elements";
+    public static final String TENANT_TOPIC_FAILED_BATCH_ELEMENTS = "failed-batch-elements";
+
+    /** Cached instance prefix */
+    private volatile String instancePrefix;
+
+    /** Precomputed tenant topics indexed by tenant name */
+    private ConcurrentMap<String, ITenantTopics> tenantTopics = new ConcurrentHashMap<>();
 
     /*
      * (non-Javadoc)
@@ -97,7 +109,11 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
      */
     @Override
     public String getInstancePrefix() {
-	return getInstanceSettings().getProductId() + SEPARATOR + getInstanceSettings().getKubernetesNamespace();
+	if (instancePrefix == null) {
+	    instancePrefix = getInstanceSettings().getProductId() + SEPARATOR
+		    + getInstanceSettings().getKubernetesNamespace();
+	}
+	return instancePrefix;
     }
 
     /*
@@ -115,8 +131,67 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
      */
     @Override
     public String getTenantPrefix(SiteWhereTenant tenant) {
-	return getInstancePrefix() + SEPARATOR + TENANT_INDICATOR + SEPARATOR + tenant.getMetadata().getName()
-		+ SEPARATOR;
+	return getTenantTopics(tenant).getTenantPrefix();
+    }
+
+    /*
+     * @see
+     * com.sitewhere.spi.microservice.kafka.IKafkaTopicNaming#getTenantTopics(io.
+     * sitewhere.k8s.crd.tenant.SiteWhereTenant)
+     */
+    @Override
+    public ITenantTopics getTenantTopics(SiteWhereTenant tenant) {
+	String tenantName = tenant.getMetadata().getName();
+	ITenantTopics topics = tenantTopics.get(tenantName);
+	if (topics == null) {
+	    topics = tenantTopics.computeIfAbsent(tenantName, name -> new TenantTopics(name,
+		    getInstancePrefix() + SEPARATOR + TENANT_INDICATOR + SEPARATOR + name + SEPARATOR));
+	}
+	return topics;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.IKafkaTopicNaming#
+     * getTenantNameForTopic(java.lang.String)
+     */
+    @Override
+    public String getTenantNameForTopic(String topicName) {
+	String prefix = getInstancePrefix() + SEPARATOR + TENANT_INDICATOR + SEPARATOR;
+	if (!topicName.startsWith(prefix)) {
+	    return null;
+	}
+	int end = topicName.indexOf(SEPARATOR, prefix.length());
+	return (end > prefix.length()) ? topicName.substring(prefix.length(), end) : null;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.spi.microservice.kafka.IKafkaTopicNaming#getTenantTopicPattern(
+     * java.util.List)
+     */
+    @Override
+    public Pattern getTenantTopicPattern(List<String> suffixes) {
+	StringBuilder regex = new StringBuilder();
+	regex.append(Pattern.quote(getInstancePrefix() + SEPARATOR + TENANT_INDICATOR + SEPARATOR));
+	regex.append("[^").append(Pattern.quote(SEPARATOR)).append("]+");
+	regex.append(Pattern.quote(SEPARATOR)).append("(");
+	for (int i = 0; i < suffixes.size(); i++) {
+	    if (i > 0) {
+		regex.append("|");
+	    }
+	    regex.append(Pattern.quote(suffixes.get(i)));
+	}
+	regex.append(")");
+	return Pattern.compile(regex.toString());
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.IKafkaTopicNaming#
+     * invalidateTenantTopics(java.lang.String)
+     */
+    @Override
+    public void invalidateTenantTopics(String tenantName) {
+	tenantTopics.remove(tenantName);
     }
 
     /*
@@ -163,7 +238,7 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
      */
     @Override
     public String getEventSourceDecodedEventsTopic(SiteWhereTenant tenant) {
-	return getTenantPrefix(tenant) + TENANT_TOPIC_EVENT_SOURCE_DECODED_EVENTS;
+	return getTenantTopics(tenant).getEventSourceDecodedEventsTopic();
     }
 
     /*
@@ -172,7 +247,7 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
      */
     @Override
     public String getEventSourceFailedDecodeTopic(SiteWhereTenant tenant) {
-	return getTenantPrefix(tenant) + TENANT_TOPIC_EVENT_SOURCE_FAILED_DECODE_EVENTS;
+	return getTenantTopics(tenant).getEventSourceFailedDecodeTopic();
     }
 
     /*
@@ -182,7 +257,7 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
      */
     @Override
     public String getInboundEventsTopic(SiteWhereTenant tenant) {
-	return getTenantPrefix(tenant) + TENANT_TOPIC_INBOUND_EVENTS;
+	return getTenantTopics(tenant).getInboundEventsTopic();
     }
 
     /*
@@ -191,7 +266,7 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
      */
     @Override
     public String getInboundReprocessEventsTopic(SiteWhereTenant tenant) {
-	return getTenantPrefix(tenant) + TENANT_TOPIC_INBOUND_REPROCESS_EVENTS;
+	return getTenantTopics(tenant).getInboundReprocessEventsTopic();
     }
 
     /*
@@ -200,7 +275,7 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
      */
     @Override
     public String getDeviceRegistrationEventsTopic(SiteWhereTenant tenant) {
-	return getTenantPrefix(tenant) + TENANT_TOPIC_INBOUND_DEVICE_REGISTRATION_EVENTS;
+	return getTenantTopics(tenant).getDeviceRegistrationEventsTopic();
     }
 
     /*
@@ -209,7 +284,7 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
      */
     @Override
     public String getUnregisteredDeviceEventsTopic(SiteWhereTenant tenant) {
-	return getTenantPrefix(tenant) + TENANT_TOPIC_INBOUND_UNREGISTERED_DEVICE_EVENTS;
+	return getTenantTopics(tenant).getUnregisteredDeviceEventsTopic();
     }
 
     /*
@@ -219,7 +294,7 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
      */
     @Override
     public String getOutboundEventsTopic(SiteWhereTenant tenant) {
-	return getTenantPrefix(tenant) + TENANT_TOPIC_OUTBOUND_EVENTS;
+	return getTenantTopics(tenant).getOutboundEventsTopic();
     }
 
     /*
@@ -229,7 +304,7 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
      */
     @Override
     public String getOutboundCommandInvocationsTopic(SiteWhereTenant tenant) {
-	return getTenantPrefix(tenant) + TENANT_TOPIC_OUTBOUND_COMMAND_INVOCATIONS;
+	return getTenantTopics(tenant).getOutboundCommandInvocationsTopic();
     }
 
     /*
@@ -239,7 +314,7 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
      */
     @Override
     public String getUndeliveredCommandInvocationsTopic(SiteWhereTenant tenant) {
-	return getTenantPrefix(tenant) + TENANT_TOPIC_UNDELIVERED_COMMAND_INVOCATIONS;
+	return getTenantTopics(tenant).getUndeliveredCommandInvocationsTopic();
     }
 
     /*
@@ -249,7 +324,7 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
      */
     @Override
     public String getUnprocessedBatchOperationsTopic(SiteWhereTenant tenant) {
-	return getTenantPrefix(tenant) + TENANT_TOPIC_UNPROCESSED_BATCH_OPERATIONS;
+	return getTenantTopics(tenant).getUnprocessedBatchOperationsTopic();
     }
 
     /*
@@ -258,7 +333,7 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
      */
     @Override
     public String getUnprocessedBatchElementsTopic(SiteWhereTenant tenant) {
-	return getTenantPrefix(tenant) + TENANT_TOPIC_UNPROCESSED_BATCH_ELEMENTS;
+	return getTenantTopics(tenant).getUnprocessedBatchElementsTopic();
     }
 
     /*
@@ -267,7 +342,7 @@ public class KafkaTopicNaming implements IKafkaTopicNaming {
      */
     @Override
     public String getFailedBatchElementsTopic(SiteWhereTenant tenant) {
-	return getTenantPrefix(tenant) + TENANT_TOPIC_FAILED_BATCH_ELEMENTS;
+	return getTenantTopics(tenant).getFailedBatchElementsTopic();
     }
 
     protected IInstanceSettings getInstanceSettings() {
@@ -16,14 +16,17 @@
 package com.sitewhere.microservice.kafka;
 
 import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
 import org.apache.kafka.clients.consumer.KafkaConsumer;
@@ -34,6 +37,7 @@ import org.apache.kafka.common.serialization.StringDeserializer;
 
 import com.sitewhere.microservice.lifecycle.TenantEngineLifecycleComponent;
 import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.microservice.kafka.IBackPressureController;
 import com.sitewhere.spi.microservice.kafka.IMicroserviceKafkaConsumer;
 import com.sitewhere.spi.microservice.lifecycle.ILifecycleProgressMonitor;
 
@@ -43,12 +47,24 @@ import com.sitewhere.spi.microservice.lifecycle.ILifecycleProgressMonitor;
 public abstract class MicroserviceKafkaConsumer extends TenantEngineLifecycleComponent
 	implements IMicroserviceKafkaConsumer {
 
+    /** Poll interval used while partitions are paused */
+    private static final long PAUSED_POLL_INTERVAL_MS = 250;
+
     /** Consumer */
     private KafkaConsumer<String, byte[]> consumer;
 
     /** Executor service */
     private ExecutorService executor;
 
+    /** Optional controller for pausing consumption when downstream is slow */
+    private IBackPressureController backPressureController;
+
+    /** Indicates whether assigned partitions are paused */
+    private boolean paused = false;
+
+    /** Indicates whether records from aborted transactions are skipped */
+    private boolean readCommitted = false;
+
     /*
      * (non-Javadoc)
      * 
@@ -98,6 +114,10 @@ public abstract class MicroserviceKafkaConsumer extends TenantEngineLifecycleCom
 	config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
 	config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
 	config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 1000);
+	if (isReadCommitted()) {
+	    // Skip records from aborted transactions of exactly-once producers.
+	    config.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+	}
 	return config;
     }
 
@@ -114,6 +134,87 @@ public abstract class MicroserviceKafkaConsumer extends TenantEngineLifecycleCom
 	this.consumer = consumer;
     }
 
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.IMicroserviceKafkaConsumer#
+     * getBackPressureController()
+     */
+    @Override
+    public IBackPressureController getBackPressureController() {
+	return backPressureController;
+    }
+
+    public void setBackPressureController(IBackPressureController backPressureController) {
+	this.backPressureController = backPressureController;
+    }
+
+    /**
+     * Indicates whether the consumer only reads committed records. Should be
+     * enabled for consumers of topics written by transactional producers.
+     * 
+     * @return
+     */
+    public boolean isReadCommitted() {
+	return readCommitted;
+    }
+
+    public void setReadCommitted(boolean readCommitted) {
+	this.readCommitted = readCommitted;
+    }
+
+    /**
+     * Pause or resume assigned partitions based on back-pressure controller. Must
+     * be called from the polling thread since {@link KafkaConsumer} is not thread
+     * safe.
+     */
+    protected void applyBackPressure() {
+	if (getBackPressureController() == null) {
+	    return;
+	}
+	boolean shouldPause = getBackPressureController().shouldPause();
+	if (shouldPause) {
+	    // Pause every time so partitions assigned by a rebalance are included.
+	    Set<TopicPartition> assigned = getConsumer().assignment();
+	    if (!paused) {
+		getLogger().info(String.format("Downstream services are overloaded. Pausing %d partitions.",
+			assigned.size()));
+	    }
+	    getConsumer().pause(assigned);
+	    paused = true;
+	} else if (paused) {
+	    Set<TopicPartition> pausedPartitions = getConsumer().paused();
+	    getLogger().info(
+		    String.format("Downstream services recovered. Resuming %d partitions.", pausedPartitions.size()));
+	    getConsumer().resume(pausedPartitions);
+	    paused = false;
+	}
+    }
+
+    /**
+     * Get max time to block waiting for records on the next poll. Subclasses that
+     * hold records between polls may return a shorter timeout.
+     * 
+     * @return
+     */
+    protected long getPollTimeoutMillis() {
+	return paused ? PAUSED_POLL_INTERVAL_MS : Long.MAX_VALUE;
+    }
+
+    /**
+     * Called on the polling thread after all records from a poll have been passed
+     * to {@link #process(TopicPartition, List)}.
+     */
+    protected void afterPoll() {
+    }
+
+    /**
+     * Called on the polling thread before partitions are revoked from this
+     * consumer as part of a rebalance.
+     * 
+     * @param partitions
+     */
+    protected void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+    }
+
     /**
      * Thread that polls Kafka for records arriving on the specified topic.
      */
@@ -126,7 +227,17 @@ public abstract class MicroserviceKafkaConsumer extends TenantEngineLifecycleCom
 		try {
 		    getLogger()
 			    .debug(String.format("Kafka consumer subscribing to %s", getSourceTopicNames().toString()));
-		    getConsumer().subscribe(getSourceTopicNames());
+		    getConsumer().subscribe(getSourceTopicNames(), new ConsumerRebalanceListener() {
+
+			@Override
+			public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+			    MicroserviceKafkaConsumer.this.onPartitionsRevoked(partitions);
+			}
+
+			@Override
+			public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+			}
+		    });
 		    break;
 		} catch (SiteWhereException e) {
 		    getLogger().error("Unable to subscribe to topics.", e);
@@ -141,7 +252,9 @@ public abstract class MicroserviceKafkaConsumer extends TenantEngineLifecycleCom
 	    }
 	    try {
 		while (true) {
-		    ConsumerRecords<String, byte[]> records = getConsumer().poll(Duration.ofMillis(Long.MAX_VALUE));
+		    applyBackPressure();
+		    ConsumerRecords<String, byte[]> records = getConsumer()
+			    .poll(Duration.ofMillis(getPollTimeoutMillis()));
 		    getLogger().debug(String.format("Kafka consumer received %d records on poll.", records.count()));
 		    for (TopicPartition topicPartition : records.partitions()) {
 			try {
@@ -153,6 +266,7 @@ public abstract class MicroserviceKafkaConsumer extends TenantEngineLifecycleCom
 			    getLogger().error("Unhandled exception in consumer processing.", e);
 			}
 		    }
+		    afterPoll();
 		}
 	    } catch (WakeupException e) {
 		getLogger().info("Consumer thread received shutdown request.");
@@ -15,16 +15,20 @@
  */
 package com.sitewhere.microservice.kafka;
 
+import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.errors.RetriableException;
 import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
@@ -43,11 +47,14 @@ public abstract class MicroserviceKafkaProducer<K, P> extends TenantEngineLifecy
 	implements IMicroserviceKafkaProducer<K, P> {
 
     /** Producer */
-    private KafkaProducer<K, P> producer;
+    private volatile KafkaProducer<K, P> producer;
 
     /** Kafka acknowledgement policy */
     private AckPolicy ackPolicy = AckPolicy.Leader;
 
+    /** Transactional id (null if producer is not transactional) */
+    private String transactionalId;
+
     /** Indicator for whether Kafka is available */
     private CountDownLatch kafkaAvailable;
 
@@ -116,14 +123,7 @@ public abstract class MicroserviceKafkaProducer<K, P> extends TenantEngineLifecy
 	while (true) {
 	    ProducerRecord<K, P> record = new ProducerRecord<K, P>(getTargetTopicName(), key, message);
 	    try {
-		if (getKafkaAvailable().getCount() != 0) {
-		    getLogger().info("Producer waiting on Kafka to become available...");
-		    getKafkaAvailable().await();
-		}
-		if (getProducer() == null) {
-		    this.producer = new KafkaProducer<K, P>(buildConfiguration());
-		}
-		return getProducer().send(record);
+		return assureProducer().send(record);
 	    } catch (RetriableException e) {
 		// Wait before attempting to send again.
 		try {
@@ -144,6 +144,94 @@ public abstract class MicroserviceKafkaProducer<K, P> extends TenantEngineLifecy
 	}
     }
 
+    /**
+     * Wait for Kafka to become available and create the producer if necessary.
+     * Transactional producers are registered with the coordinator on creation.
+     * 
+     * @return
+     * @throws InterruptedException
+     * @throws SiteWhereException
+     */
+    protected KafkaProducer<K, P> assureProducer() throws InterruptedException, SiteWhereException {
+	KafkaProducer<K, P> current = getProducer();
+	if (current != null) {
+	    return current;
+	}
+	return createProducer();
+    }
+
+    /**
+     * Create producer once Kafka is available.
+     * 
+     * @return
+     * @throws InterruptedException
+     * @throws SiteWhereException
+     */
+    private synchronized KafkaProducer<K, P> createProducer() throws InterruptedException, SiteWhereException {
+	if (getKafkaAvailable().getCount() != 0) {
+	    getLogger().info("Producer waiting on Kafka to become available...");
+	    getKafkaAvailable().await();
+	}
+	if (getProducer() == null) {
+	    KafkaProducer<K, P> created = new KafkaProducer<K, P>(buildConfiguration());
+	    if (isTransactional()) {
+		created.initTransactions();
+	    }
+	    this.producer = created;
+	}
+	return getProducer();
+    }
+
+    /**
+     * Start a transaction. Only valid for transactional producers.
+     * 
+     * @throws SiteWhereException
+     */
+    public void beginTransaction() throws SiteWhereException {
+	try {
+	    assureProducer().beginTransaction();
+	} catch (InterruptedException e) {
+	    throw new SiteWhereException("Producer interrupted while waiting for Kafka.", e);
+	}
+    }
+
+    /**
+     * Add consumer offsets to the current transaction so that they are committed
+     * atomically with records sent by this producer.
+     * 
+     * @param offsets
+     * @param groupMetadata
+     */
+    public void sendOffsetsToTransaction(Map<TopicPartition, OffsetAndMetadata> offsets,
+	    ConsumerGroupMetadata groupMetadata) {
+	getProducer().sendOffsetsToTransaction(offsets, groupMetadata);
+    }
+
+    /**
+     * Commit the current transaction.
+     */
+    public void commitTransaction() {
+	getProducer().commitTransaction();
+    }
+
+    /**
+     * Abort the current transaction.
+     */
+    public void abortTransaction() {
+	getProducer().abortTransaction();
+    }
+
+    /**
+     * Close and discard the underlying producer so that a new one is created on
+     * next use. Required after a transactional producer has been fenced.
+     */
+    public synchronized void resetProducer() {
+	if (getProducer() != null) {
+	    getProducer().close();
+	    this.producer = null;
+	}
+    }
+
     /**
      * Build configuration settings used by producer.
      * 
@@ -156,7 +244,13 @@ public abstract class MicroserviceKafkaProducer<K, P> extends TenantEngineLifecy
 	config.put(ProducerConfig.ACKS_CONFIG, getAckPolicy().getConfig());
 	config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, getKeySerializer().getName());
 	config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, getValueSerializer().getName());
-    config.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+	config.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+	if (isTransactional()) {
+	    // Transactions require idempotence which in turn requires acks from all.
+	    config.put(ProducerConfig.ACKS_CONFIG, AckPolicy.All.getConfig());
+	    config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+	    config.put(ProducerConfig.TRANSACTIONAL_ID_CONFIG, getTransactionalId());
+	}
 	return config;
     }
 
@@ -186,6 +280,18 @@ public abstract class MicroserviceKafkaProducer<K, P> extends TenantEngineLifecy
 	this.ackPolicy = ackPolicy;
     }
 
+    public String getTransactionalId() {
+	return transactionalId;
+    }
+
+    public void setTransactionalId(String transactionalId) {
+	this.transactionalId = transactionalId;
+    }
+
+    public boolean isTransactional() {
+	return getTransactionalId() != null;
+    }
+
     protected KafkaProducer<K, P> getProducer() {
 	return producer;
     }
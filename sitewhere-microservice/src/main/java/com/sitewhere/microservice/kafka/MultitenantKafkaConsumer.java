@@ -0,0 +1,279 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.microservice.kafka;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetCommitCallback;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+
+import com.sitewhere.microservice.lifecycle.LifecycleComponent;
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.microservice.kafka.IMultitenantKafkaConsumer;
+import com.sitewhere.spi.microservice.kafka.ITenantRecordHandler;
+import com.sitewhere.spi.microservice.lifecycle.ILifecycleProgressMonitor;
+
+/**
+ * Consumer shared by all tenant engines in a microservice. Subscribes to tenant
+ * topics by pattern and dispatches records for each partition to the handler
+ * registered for the tenant that owns the topic. Partitions for tenants without
+ * a registered handler are paused until a handler is registered.
+ */
+public abstract class MultitenantKafkaConsumer extends LifecycleComponent implements IMultitenantKafkaConsumer {
+
+    /** Poll interval used while partitions are waiting on a tenant handler */
+    private static final long WAITING_POLL_INTERVAL_MS = 1000;
+
+    /** Consumer */
+    private KafkaConsumer<String, byte[]> consumer;
+
+    /** Executor service */
+    private ExecutorService executor;
+
+    /** Handlers indexed by tenant name */
+    private ConcurrentMap<String, ITenantRecordHandler> tenantHandlers = new ConcurrentHashMap<>();
+
+    /** Tenants registered since last poll */
+    private ConcurrentLinkedQueue<String> registeredTenants = new ConcurrentLinkedQueue<>();
+
+    /** Paused partitions indexed by tenant (poll thread only) */
+    private Map<String, Set<TopicPartition>> waitingPartitions = new HashMap<>();
+
+    /** Logs failed asynchronous commits */
+    private OffsetCommitCallback commitCallback = new OffsetCommitCallback() {
+	public void onComplete(Map<TopicPartition, OffsetAndMetadata> offsets, Exception e) {
+	    if (e != null) {
+		getLogger().error("Commit failed for offsets " + offsets, e);
+	    }
+	}
+    };
+
+    /*
+     * @see
+     * com.sitewhere.microservice.lifecycle.LifecycleComponent#start(com.sitewhere.
+     * spi.microservice.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void start(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	getLogger().info("Shared consumer connecting to Kafka: " + KafkaUtils.getBootstrapServers(getMicroservice()));
+	getLogger().info("Will be consuming messages from: " + getTopicPattern().pattern());
+	this.consumer = new KafkaConsumer<>(buildConfiguration());
+	this.executor = Executors.newSingleThreadExecutor(new MultitenantConsumerThreadFactory());
+	executor.execute(new MessageConsumer());
+    }
+
+    /*
+     * @see
+     * com.sitewhere.microservice.lifecycle.LifecycleComponent#stop(com.sitewhere.
+     * spi.microservice.lifecycle.ILifecycleProgressMonitor)
+     */
+    @Override
+    public void stop(ILifecycleProgressMonitor monitor) throws SiteWhereException {
+	if (getConsumer() != null) {
+	    getConsumer().wakeup();
+	}
+	if (executor != null) {
+	    executor.shutdown();
+	}
+    }
+
+    /**
+     * Build configuration settings used by consumer.
+     * 
+     * @return
+     * @throws SiteWhereException
+     */
+    protected Properties buildConfiguration() throws SiteWhereException {
+	Properties config = new Properties();
+	config.put(ConsumerConfig.CLIENT_ID_CONFIG, getConsumerId());
+	config.put(ConsumerConfig.GROUP_ID_CONFIG, getConsumerGroupId());
+	config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, KafkaUtils.getBootstrapServers(getMicroservice()));
+	config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+	config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+	config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+	config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+	config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 1000);
+	config.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+	return config;
+    }
+
+    /**
+     * Get pattern used to subscribe to tenant topics.
+     * 
+     * @return
+     */
+    protected Pattern getTopicPattern() {
+	return getMicroservice().getKafkaTopicNaming().getTenantTopicPattern(getTenantTopicSuffixes());
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.IMultitenantKafkaConsumer#
+     * registerTenantHandler(java.lang.String,
+     * com.sitewhere.spi.microservice.kafka.ITenantRecordHandler)
+     */
+    @Override
+    public void registerTenantHandler(String tenantName, ITenantRecordHandler handler) {
+	getTenantHandlers().put(tenantName, handler);
+	getRegisteredTenants().offer(tenantName);
+	getLogger().info(String.format("Registered shared consumer handler for tenant '%s'.", tenantName));
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.IMultitenantKafkaConsumer#
+     * unregisterTenantHandler(java.lang.String)
+     */
+    @Override
+    public void unregisterTenantHandler(String tenantName) {
+	getTenantHandlers().remove(tenantName);
+	getLogger().info(String.format("Removed shared consumer handler for tenant '%s'.", tenantName));
+    }
+
+    /**
+     * Dispatch records for a partition to the owning tenant handler. If no handler
+     * is registered, the partition is paused and rewound so that records are
+     * delivered once a handler is available.
+     * 
+     * @param topicPartition
+     * @param records
+     */
+    protected void dispatch(TopicPartition topicPartition, List<ConsumerRecord<String, byte[]>> records) {
+	String tenantName = getMicroservice().getKafkaTopicNaming().getTenantNameForTopic(topicPartition.topic());
+	ITenantRecordHandler handler = (tenantName != null) ? getTenantHandlers().get(tenantName) : null;
+	if (handler == null) {
+	    getLogger().debug(String.format("No handler for tenant '%s'. Pausing %s partition %d.", tenantName,
+		    topicPartition.topic(), topicPartition.partition()));
+	    getConsumer().pause(Collections.singleton(topicPartition));
+	    getConsumer().seek(topicPartition, records.get(0).offset());
+	    waitingPartitions.computeIfAbsent(tenantName, tenant -> new HashSet<>()).add(topicPartition);
+	    return;
+	}
+	try {
+	    handler.process(topicPartition, records);
+	    getConsumer().commitAsync(Collections.singletonMap(topicPartition,
+		    new OffsetAndMetadata(records.get(records.size() - 1).offset() + 1)), commitCallback);
+	} catch (SiteWhereException e) {
+	    getLogger().error(String.format("Exception processing records for tenant '%s'.", tenantName), e);
+	} catch (Throwable e) {
+	    getLogger().error(String.format("Unhandled exception processing records for tenant '%s'.", tenantName),
+		    e);
+	}
+    }
+
+    /**
+     * Resume paused partitions for tenants that registered a handler since the
+     * last poll.
+     */
+    protected void resumeRegisteredTenants() {
+	String tenantName;
+	while ((tenantName = getRegisteredTenants().poll()) != null) {
+	    Set<TopicPartition> waiting = waitingPartitions.remove(tenantName);
+	    if (waiting != null) {
+		getLogger().info(String.format("Resuming %d partitions for tenant '%s'.", waiting.size(), tenantName));
+		getConsumer().resume(waiting);
+	    }
+	}
+    }
+
+    /**
+     * Thread that polls Kafka for records arriving on tenant topics.
+     */
+    private class MessageConsumer implements Runnable {
+
+	@Override
+	public void run() {
+	    getConsumer().subscribe(getTopicPattern(), new ConsumerRebalanceListener() {
+
+		@Override
+		public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+		    for (Set<TopicPartition> waiting : waitingPartitions.values()) {
+			waiting.removeAll(partitions);
+		    }
+		}
+
+		@Override
+		public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+		}
+	    });
+	    try {
+		while (true) {
+		    resumeRegisteredTenants();
+		    long timeout = waitingPartitions.isEmpty() ? Long.MAX_VALUE : WAITING_POLL_INTERVAL_MS;
+		    ConsumerRecords<String, byte[]> records = getConsumer().poll(Duration.ofMillis(timeout));
+		    for (TopicPartition topicPartition : records.partitions()) {
+			try {
+			    dispatch(topicPartition, records.records(topicPartition));
+			} catch (Throwable e) {
+			    getLogger().error("Unhandled exception in shared consumer processing.", e);
+			}
+		    }
+		}
+	    } catch (WakeupException e) {
+		getLogger().info("Shared consumer thread received shutdown request.");
+		getConsumer().unsubscribe();
+	    } finally {
+		getConsumer().close();
+	    }
+	}
+    }
+
+    public KafkaConsumer<String, byte[]> getConsumer() {
+	return consumer;
+    }
+
+    protected ConcurrentMap<String, ITenantRecordHandler> getTenantHandlers() {
+	return tenantHandlers;
+    }
+
+    protected ConcurrentLinkedQueue<String> getRegisteredTenants() {
+	return registeredTenants;
+    }
+
+    /** Used for naming shared consumer thread */
+    private class MultitenantConsumerThreadFactory implements ThreadFactory {
+
+	/** Counts threads */
+	private AtomicInteger counter = new AtomicInteger();
+
+	public Thread newThread(Runnable r) {
+	    return new Thread(r, "Shared Kafka Consumer " + counter.incrementAndGet());
+	}
+    }
+}
@@ -0,0 +1,266 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.microservice.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sitewhere.spi.microservice.kafka.ITenantTopics;
+
+/**
+ * Immutable holder for topic names of a single tenant. Names are computed once
+ * so that hot paths in producers and pipelines do not rebuild them on every
+ * call.
+ */
+public class TenantTopics implements ITenantTopics {
+
+    /** Tenant name */
+    private final String tenantName;
+
+    /** Prefix for tenant topics */
+    private final String tenantPrefix;
+
+    /** Decoded events topic */
+    private final String eventSourceDecodedEventsTopic;
+
+    /** Failed decode topic */
+    private final String eventSourceFailedDecodeTopic;
+
+    /** Inbound events topic */
+    private final String inboundEventsTopic;
+
+    /** Inbound reprocess events topic */
+    private final String inboundReprocessEventsTopic;
+
+    /** Device registration events topic */
+    private final String deviceRegistrationEventsTopic;
+
+    /** Unregistered device events topic */
+    private final String unregisteredDeviceEventsTopic;
+
+    /** Outbound events topic */
+    private final String outboundEventsTopic;
+
+    /** Outbound command invocations topic */
+    private final String outboundCommandInvocationsTopic;
+
+    /** Undelivered command invocations topic */
+    private final String undeliveredCommandInvocationsTopic;
+
+    /** Unprocessed batch operations topic */
+    private final String unprocessedBatchOperationsTopic;
+
+    /** Unprocessed batch elements topic */
+    private final String unprocessedBatchElementsTopic;
+
+    /** Failed batch elements topic */
+    private final String failedBatchElementsTopic;
+
+    /** List of all topic names */
+    private final List<String> allTopicNames;
+
+    /** Encoded topic names indexed by name */
+    private final Map<String, byte[]> topicNameBytes;
+
+    public TenantTopics(String tenantName, String tenantPrefix) {
+	this.tenantName = tenantName;
+	this.tenantPrefix = tenantPrefix;
+	this.eventSourceDecodedEventsTopic = tenantPrefix + KafkaTopicNaming.TENANT_TOPIC_EVENT_SOURCE_DECODED_EVENTS;
+	this.eventSourceFailedDecodeTopic = tenantPrefix
+		+ KafkaTopicNaming.TENANT_TOPIC_EVENT_SOURCE_FAILED_DECODE_EVENTS;
+	this.inboundEventsTopic = tenantPrefix + KafkaTopicNaming.TENANT_TOPIC_INBOUND_EVENTS;
+	this.inboundReprocessEventsTopic = tenantPrefix + KafkaTopicNaming.TENANT_TOPIC_INBOUND_REPROCESS_EVENTS;
+	this.deviceRegistrationEventsTopic = tenantPrefix
+		+ KafkaTopicNaming.TENANT_TOPIC_INBOUND_DEVICE_REGISTRATION_EVENTS;
+	this.unregisteredDeviceEventsTopic = tenantPrefix
+		+ KafkaTopicNaming.TENANT_TOPIC_INBOUND_UNREGISTERED_DEVICE_EVENTS;
+	this.outboundEventsTopic = tenantPrefix + KafkaTopicNaming.TENANT_TOPIC_OUTBOUND_EVENTS;
+	this.outboundCommandInvocationsTopic = tenantPrefix
+		+ KafkaTopicNaming.TENANT_TOPIC_OUTBOUND_COMMAND_INVOCATIONS;
+	this.undeliveredCommandInvocationsTopic = tenantPrefix
+		+ KafkaTopicNaming.TENANT_TOPIC_UNDELIVERED_COMMAND_INVOCATIONS;
+	this.unprocessedBatchOperationsTopic = tenantPrefix
+		+ KafkaTopicNaming.TENANT_TOPIC_UNPROCESSED_BATCH_OPERATIONS;
+	this.unprocessedBatchElementsTopic = tenantPrefix + KafkaTopicNaming.TENANT_TOPIC_UNPROCESSED_BATCH_ELEMENTS;
+	this.failedBatchElementsTopic = tenantPrefix + KafkaTopicNaming.TENANT_TOPIC_FAILED_BATCH_ELEMENTS;
+
+	List<String> all = new ArrayList<>();
+	all.add(eventSourceDecodedEventsTopic);
+	all.add(eventSourceFailedDecodeTopic);
+	all.add(inboundEventsTopic);
+	all.add(inboundReprocessEventsTopic);
+	all.add(deviceRegistrationEventsTopic);
+	all.add(unregisteredDeviceEventsTopic);
+	all.add(outboundEventsTopic);
+	all.add(outboundCommandInvocationsTopic);
+	all.add(undeliveredCommandInvocationsTopic);
+	all.add(unprocessedBatchOperationsTopic);
+	all.add(unprocessedBatchElementsTopic);
+	all.add(failedBatchElementsTopic);
+	this.allTopicNames = Collections.unmodifiableList(all);
+
+	Map<String, byte[]> bytes = new HashMap<>();
+	for (String topic : all) {
+	    bytes.put(topic, topic.getBytes(StandardCharsets.UTF_8));
+	}
+	this.topicNameBytes = Collections.unmodifiableMap(bytes);
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.ITenantTopics#getTenantName()
+     */
+    @Override
+    public String getTenantName() {
+	return tenantName;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.ITenantTopics#getTenantPrefix()
+     */
+    @Override
+    public String getTenantPrefix() {
+	return tenantPrefix;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.ITenantTopics#
+     * getEventSourceDecodedEventsTopic()
+     */
+    @Override
+    public String getEventSourceDecodedEventsTopic() {
+	return eventSourceDecodedEventsTopic;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.ITenantTopics#
+     * getEventSourceFailedDecodeTopic()
+     */
+    @Override
+    public String getEventSourceFailedDecodeTopic() {
+	return eventSourceFailedDecodeTopic;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.ITenantTopics#getInboundEventsTopic()
+     */
+    @Override
+    public String getInboundEventsTopic() {
+	return inboundEventsTopic;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.ITenantTopics#
+     * getInboundReprocessEventsTopic()
+     */
+    @Override
+    public String getInboundReprocessEventsTopic() {
+	return inboundReprocessEventsTopic;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.ITenantTopics#
+     * getDeviceRegistrationEventsTopic()
+     */
+    @Override
+    public String getDeviceRegistrationEventsTopic() {
+	return deviceRegistrationEventsTopic;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.ITenantTopics#
+     * getUnregisteredDeviceEventsTopic()
+     */
+    @Override
+    public String getUnregisteredDeviceEventsTopic() {
+	return unregisteredDeviceEventsTopic;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.spi.microservice.kafka.ITenantTopics#getOutboundEventsTopic()
+     */
+    @Override
+    public String getOutboundEventsTopic() {
+	return outboundEventsTopic;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.ITenantTopics#
+     * getOutboundCommandInvocationsTopic()
+     */
+    @Override
+    public String getOutboundCommandInvocationsTopic() {
+	return outboundCommandInvocationsTopic;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.ITenantTopics#
+     * getUndeliveredCommandInvocationsTopic()
+     */
+    @Override
+    public String getUndeliveredCommandInvocationsTopic() {
+	return undeliveredCommandInvocationsTopic;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.ITenantTopics#
+     * getUnprocessedBatchOperationsTopic()
+     */
+    @Override
+    public String getUnprocessedBatchOperationsTopic() {
+	return unprocessedBatchOperationsTopic;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.ITenantTopics#
+     * getUnprocessedBatchElementsTopic()
+     */
+    @Override
+    public String getUnprocessedBatchElementsTopic() {
+	return unprocessedBatchElementsTopic;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.ITenantTopics#
+     * getFailedBatchElementsTopic()
+     */
+    @Override
+    public String getFailedBatchElementsTopic() {
+	return failedBatchElementsTopic;
+    }
+
+    /*
+     * @see com.sitewhere.spi.microservice.kafka.ITenantTopics#getAllTopicNames()
+     */
+    @Override
+    public List<String> getAllTopicNames() {
+	return allTopicNames;
+    }
+
+    /*
+     * @see
+     * com.sitewhere.spi.microservice.kafka.ITenantTopics#getTopicNameBytes(java.
+     * lang.String)
+     */
+    @Override
+    public byte[] getTopicNameBytes(String topicName) {
+	return topicNameBytes.get(topicName);
+    }
+}
@@ -0,0 +1,361 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.microservice.kubernetes;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.fabric8.kubernetes.api.model.EndpointAddress;
+import io.fabric8.kubernetes.api.model.EndpointPort;
+import io.fabric8.kubernetes.api.model.EndpointSubset;
+import io.fabric8.kubernetes.api.model.Endpoints;
+import io.fabric8.kubernetes.api.model.EndpointsList;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceList;
+import io.fabric8.kubernetes.api.model.ServicePort;
+import io.fabric8.kubernetes.client.dsl.base.OperationContext;
+import io.fabric8.kubernetes.client.informers.ResourceEventHandler;
+import io.fabric8.kubernetes.client.informers.SharedIndexInformer;
+import io.fabric8.kubernetes.client.informers.SharedInformerFactory;
+
+/**
+ * Watches Kubernetes endpoints in the instance namespace using a shared
+ * informer and notifies listeners when the ready addresses behind a service
+ * change. Services are watched as well so that a service port can be mapped
+ * to the port of each endpoint backing it, which may differ from the service
+ * port when the service uses a target port.
+ */
+public class KubernetesEndpointsMonitor implements ResourceEventHandler<Endpoints> {
+
+    /** Static logger instance */
+    private static Logger LOGGER = LoggerFactory.getLogger(KubernetesEndpointsMonitor.class);
+
+    /** Resync period in milliseconds */
+    private static final int RESYNC_PERIOD_MS = 10 * 60 * 1000;
+
+    /** Namespace being watched */
+    private String namespace;
+
+    /** Informer for endpoints */
+    private SharedIndexInformer<Endpoints> informer;
+
+    /** Informer for services */
+    private SharedIndexInformer<Service> serviceInformer;
+
+    /** Listeners by service name */
+    private Map<String, List<IEndpointsListener>> listeners = new ConcurrentHashMap<>();
+
+    public KubernetesEndpointsMonitor(SharedInformerFactory informerFactory, String namespace) {
+	this.namespace = namespace;
+	this.informer = informerFactory.sharedIndexInformerFor(Endpoints.class, EndpointsList.class,
+		new OperationContext().withNamespace(namespace), RESYNC_PERIOD_MS);
+	this.serviceInformer = informerFactory.sharedIndexInformerFor(Service.class, ServiceList.class,
+		new OperationContext().withNamespace(namespace), RESYNC_PERIOD_MS);
+	getInformer().addEventHandler(this);
+	getServiceInformer().addEventHandler(new ServiceEventHandler());
+    }
+
+    /**
+     * Start informers. Required if the informer factory has already been
+     * started when the monitor is created.
+     */
+    public void start() {
+	getServiceInformer().run();
+	getInformer().run();
+    }
+
+    /**
+     * Stop informers.
+     */
+    public void stop() {
+	getInformer().stop();
+	getServiceInformer().stop();
+    }
+
+    /**
+     * Get ready addresses for a service. Only endpoints backing the given
+     * service port are included.
+     * 
+     * @param serviceName
+     * @param port
+     * @return
+     */
+    public List<InetSocketAddress> getAddresses(String serviceName, int port) {
+	Endpoints endpoints = getInformer().getIndexer().getByKey(getNamespace() + "/" + serviceName);
+	return getAddresses(endpoints, getServicePort(serviceName, port), port);
+    }
+
+    /**
+     * Get the port definition of a service that is exposed on the given port.
+     * 
+     * @param serviceName
+     * @param port
+     * @return port definition or null if service is not known
+     */
+    public ServicePort getServicePort(String serviceName, int port) {
+	Service service = getServiceInformer().getIndexer().getByKey(getNamespace() + "/" + serviceName);
+	if (service == null || service.getSpec() == null || service.getSpec().getPorts() == null) {
+	    return null;
+	}
+	for (ServicePort candidate : service.getSpec().getPorts()) {
+	    if (candidate.getPort() != null && candidate.getPort() == port) {
+		return candidate;
+	    }
+	}
+	return null;
+    }
+
+    /**
+     * Add listener for changes to endpoints of a service.
+     * 
+     * @param serviceName
+     * @param listener
+     */
+    public void addListener(String serviceName, IEndpointsListener listener) {
+	getListeners().computeIfAbsent(serviceName, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Remove listener for changes to endpoints of a service.
+     * 
+     * @param serviceName
+     * @param listener
+     */
+    public void removeListener(String serviceName, IEndpointsListener listener) {
+	List<IEndpointsListener> matches = getListeners().get(serviceName);
+	if (matches != null) {
+	    matches.remove(listener);
+	}
+    }
+
+    /**
+     * Indicates whether the informers have completed their initial listing.
+     * 
+     * @return
+     */
+    public boolean hasSynced() {
+	return getInformer().hasSynced() && getServiceInformer().hasSynced();
+    }
+
+    /*
+     * @see
+     * io.fabric8.kubernetes.client.informers.ResourceEventHandler#onAdd(java.lang.
+     * Object)
+     */
+    @Override
+    public void onAdd(Endpoints endpoints) {
+	notifyListeners(endpoints);
+    }
+
+    /*
+     * @see
+     * io.fabric8.kubernetes.client.informers.ResourceEventHandler#onUpdate(java.
+     * lang.Object, java.lang.Object)
+     */
+    @Override
+    public void onUpdate(Endpoints previous, Endpoints endpoints) {
+	notifyListeners(endpoints);
+    }
+
+    /*
+     * @see
+     * io.fabric8.kubernetes.client.informers.ResourceEventHandler#onDelete(java.
+     * lang.Object, boolean)
+     */
+    @Override
+    public void onDelete(Endpoints endpoints, boolean deletedFinalStateUnknown) {
+	List<IEndpointsListener> matches = getListeners().get(endpoints.getMetadata().getName());
+	if (matches != null) {
+	    matches.forEach(listener -> listener.onEndpointsUpdated(null));
+	}
+    }
+
+    /**
+     * Pass updated endpoints to listeners registered for the service.
+     * 
+     * @param endpoints
+     */
+    protected void notifyListeners(Endpoints endpoints) {
+	List<IEndpointsListener> matches = getListeners().get(endpoints.getMetadata().getName());
+	if (matches == null) {
+	    return;
+	}
+	for (IEndpointsListener listener : matches) {
+	    try {
+		listener.onEndpointsUpdated(endpoints);
+	    } catch (Throwable t) {
+		LOGGER.error("Unhandled exception in endpoints listener.", t);
+	    }
+	}
+    }
+
+    /**
+     * Get ready addresses from endpoints for subsets that back the given service
+     * port. Each address uses the port of the endpoint rather than the service
+     * port.
+     * 
+     * @param endpoints
+     * @param servicePort
+     *            service port definition or null if service is not known
+     * @param port
+     *            service port
+     * @return
+     */
+    public static List<InetSocketAddress> getAddresses(Endpoints endpoints, ServicePort servicePort, int port) {
+	if (endpoints == null || endpoints.getSubsets() == null) {
+	    return Collections.emptyList();
+	}
+	List<InetSocketAddress> addresses = new ArrayList<>();
+	for (EndpointSubset subset : endpoints.getSubsets()) {
+	    Integer endpointPort = getEndpointPort(subset, servicePort, port);
+	    if (subset.getAddresses() == null || endpointPort == null) {
+		continue;
+	    }
+	    for (EndpointAddress address : subset.getAddresses()) {
+		addresses.add(new InetSocketAddress(address.getIp(), endpointPort));
+	    }
+	}
+	return addresses;
+    }
+
+    /**
+     * Get the port of an endpoint subset that backs a service port. Endpoint
+     * ports carry the name of the service port they back, so ports are matched
+     * by name. If the service is not known, a port with the same number as the
+     * service port is used.
+     * 
+     * @param subset
+     * @param servicePort
+     * @param port
+     * @return port or null if subset does not back the service port
+     */
+    protected static Integer getEndpointPort(EndpointSubset subset, ServicePort servicePort, int port) {
+	if (subset.getPorts() == null) {
+	    return null;
+	}
+	for (EndpointPort candidate : subset.getPorts()) {
+	    if (candidate.getPort() == null) {
+		continue;
+	    }
+	    if (servicePort == null) {
+		if (candidate.getPort() == port) {
+		    return candidate.getPort();
+		}
+	    } else if (getPortName(candidate.getName()).equals(getPortName(servicePort.getName()))) {
+		return candidate.getPort();
+	    }
+	}
+	return null;
+    }
+
+    /**
+     * Get port name, treating a missing name the same as an empty one since
+     * the only port of a service is not required to be named.
+     * 
+     * @param name
+     * @return
+     */
+    protected static String getPortName(String name) {
+	return name != null ? name : "";
+    }
+
+    /**
+     * Passes current endpoints to listeners when the service they belong to
+     * changes so that port mappings are recalculated.
+     */
+    private class ServiceEventHandler implements ResourceEventHandler<Service> {
+
+	/*
+	 * @see
+	 * io.fabric8.kubernetes.client.informers.ResourceEventHandler#onAdd(java.lang.
+	 * Object)
+	 */
+	@Override
+	public void onAdd(Service service) {
+	    onServiceUpdated(service);
+	}
+
+	/*
+	 * @see
+	 * io.fabric8.kubernetes.client.informers.ResourceEventHandler#onUpdate(java.
+	 * lang.Object, java.lang.Object)
+	 */
+	@Override
+	public void onUpdate(Service previous, Service service) {
+	    onServiceUpdated(service);
+	}
+
+	/*
+	 * @see
+	 * io.fabric8.kubernetes.client.informers.ResourceEventHandler#onDelete(java.
+	 * lang.Object, boolean)
+	 */
+	@Override
+	public void onDelete(Service service, boolean deletedFinalStateUnknown) {
+	}
+
+	/**
+	 * Notify listeners with the current endpoints for the service.
+	 * 
+	 * @param service
+	 */
+	protected void onServiceUpdated(Service service) {
+	    Endpoints endpoints = getInformer().getIndexer()
+		    .getByKey(getNamespace() + "/" + service.getMetadata().getName());
+	    if (endpoints != null) {
+		notifyListeners(endpoints);
+	    }
+	}
+    }
+
+    /**
+     * Receives updated endpoints for a service.
+     */
+    public static interface IEndpointsListener {
+
+	/**
+	 * Called when endpoints for a service are added, changed or deleted.
+	 * 
+	 * @param endpoints
+	 *            updated endpoints or null if deleted
+	 */
+	void onEndpointsUpdated(Endpoints endpoints);
+    }
+
+    public String getNamespace() {
+	return namespace;
+    }
+
+    protected SharedIndexInformer<Endpoints> getInformer() {
+	return informer;
+    }
+
+    protected SharedIndexInformer<Service> getServiceInformer() {
+	return serviceInformer;
+    }
+
+    protected Map<String, List<IEndpointsListener>> getListeners() {
+	return listeners;
+    }
+}
@@ -193,7 +193,9 @@ public class TenantEngineManager<F extends IFunctionIdentifier, C extends IMicro
     public void onTenantEngineDeleted(SiteWhereTenantEngine engine) {
 	getLogger().info(String.format("Tenant engine deleted for %s", engine.getMetadata().getName()));
 	try {
-	    removeTenantEngine(getTenantTokenForTenantEngine(engine));
+	    String token = getTenantTokenForTenantEngine(engine);
+	    removeTenantEngine(token);
+	    getMicroservice().getKafkaTopicNaming().invalidateTenantTopics(token);
 	} catch (SiteWhereException e) {
 	    getLogger().error("Unable to process tenant engine shutdown.", e);
 	}
@@ -0,0 +1,42 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.spi.microservice.grpc;
+
+/**
+ * State of a client-side circuit breaker.
+ */
+public enum CircuitBreakerState {
+
+    /** Calls are passed through while failures are tracked */
+    CLOSED(0),
+
+    /** A limited number of probe calls are allowed through */
+    HALF_OPEN(1),
+
+    /** Calls fail fast without reaching the remote service */
+    OPEN(2);
+
+    /** Value reported in metrics */
+    private int metricValue;
+
+    private CircuitBreakerState(int metricValue) {
+	this.metricValue = metricValue;
+    }
+
+    public int getMetricValue() {
+	return metricValue;
+    }
+}
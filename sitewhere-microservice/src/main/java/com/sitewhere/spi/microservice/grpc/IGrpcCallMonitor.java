@@ -0,0 +1,37 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.spi.microservice.grpc;
+
+/**
+ * Provides information about load on a downstream gRPC service as observed by
+ * the client side of a channel.
+ */
+public interface IGrpcCallMonitor {
+
+    /**
+     * Get number of calls that have been started but not yet completed.
+     * 
+     * @return
+     */
+    int getInFlightCallCount();
+
+    /**
+     * Get moving average of call latency in milliseconds.
+     * 
+     * @return
+     */
+    double getAverageLatencyMillis();
+}
@@ -31,4 +31,12 @@ public interface IGrpcServer extends ILifecycleComponent {
      * @return
      */
     BindableService getServiceImplementation();
+
+    /**
+     * Add a service hosted on the same port as the main service implementation.
+     * Services must be added before the server is initialized.
+     * 
+     * @param service
+     */
+    void addService(BindableService service);
 }
\ No newline at end of file
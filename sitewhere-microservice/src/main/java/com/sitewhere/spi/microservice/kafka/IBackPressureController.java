@@ -0,0 +1,32 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.spi.microservice.kafka;
+
+/**
+ * Decides whether a Kafka consumer should stop fetching records because
+ * downstream processing is not keeping up.
+ */
+public interface IBackPressureController {
+
+    /**
+     * Evaluate downstream state and indicate whether consumption should be paused.
+     * Implementations are expected to apply hysteresis so that the result does not
+     * flap around a single threshold.
+     * 
+     * @return
+     */
+    boolean shouldPause();
+}
@@ -15,6 +15,9 @@
  */
 package com.sitewhere.spi.microservice.kafka;
 
+import java.util.List;
+import java.util.regex.Pattern;
+
 import io.sitewhere.k8s.crd.tenant.SiteWhereTenant;
 
 /**
@@ -44,6 +47,39 @@ public interface IKafkaTopicNaming {
      */
     String getTenantPrefix(SiteWhereTenant tenant);
 
+    /**
+     * Get precomputed topic names for a tenant. Results are cached by tenant name.
+     * 
+     * @param tenant
+     * @return
+     */
+    ITenantTopics getTenantTopics(SiteWhereTenant tenant);
+
+    /**
+     * Get name of tenant that owns a tenant topic. Returns null if the topic is not
+     * a tenant topic for this instance.
+     * 
+     * @param topicName
+     * @return
+     */
+    String getTenantNameForTopic(String topicName);
+
+    /**
+     * Get pattern that matches topics with any of the given suffixes across all
+     * tenants of this instance.
+     * 
+     * @param suffixes
+     * @return
+     */
+    Pattern getTenantTopicPattern(List<String> suffixes);
+
+    /**
+     * Remove cached topic names for a tenant (e.g. after tenant was deleted).
+     * 
+     * @param tenantName
+     */
+    void invalidateTenantTopics(String tenantName);
+
     /**
      * Get topic name for tracking tenant model updates.
      * 
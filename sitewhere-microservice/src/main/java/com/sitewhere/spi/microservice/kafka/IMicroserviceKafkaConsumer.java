@@ -60,6 +60,14 @@ public interface IMicroserviceKafkaConsumer extends ITenantEngineLifecycleCompon
      */
     List<String> getSourceTopicNames() throws SiteWhereException;
 
+    /**
+     * Get controller used to pause consumption when downstream processing is
+     * overloaded. May be null if back-pressure is not used.
+     * 
+     * @return
+     */
+    IBackPressureController getBackPressureController();
+
     /**
      * Process a batch of records for a partition.
      * 
@@ -0,0 +1,66 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.spi.microservice.kafka;
+
+import java.util.List;
+
+import com.sitewhere.spi.SiteWhereException;
+import com.sitewhere.spi.microservice.lifecycle.ILifecycleComponent;
+
+/**
+ * Single Kafka consumer that subscribes to a set of topics across all tenants
+ * and dispatches records to handlers registered by tenant engines.
+ */
+public interface IMultitenantKafkaConsumer extends ILifecycleComponent {
+
+    /**
+     * Get unique consumer id.
+     * 
+     * @return
+     * @throws SiteWhereException
+     */
+    String getConsumerId() throws SiteWhereException;
+
+    /**
+     * Get unique consumer group id.
+     * 
+     * @return
+     * @throws SiteWhereException
+     */
+    String getConsumerGroupId() throws SiteWhereException;
+
+    /**
+     * Get suffixes of tenant topics consumed (e.g. "inbound-events").
+     * 
+     * @return
+     */
+    List<String> getTenantTopicSuffixes();
+
+    /**
+     * Register handler for records belonging to a tenant.
+     * 
+     * @param tenantName
+     * @param handler
+     */
+    void registerTenantHandler(String tenantName, ITenantRecordHandler handler);
+
+    /**
+     * Remove handler for records belonging to a tenant.
+     * 
+     * @param tenantName
+     */
+    void unregisterTenantHandler(String tenantName);
+}
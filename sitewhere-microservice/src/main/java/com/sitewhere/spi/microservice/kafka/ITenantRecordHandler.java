@@ -0,0 +1,40 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.spi.microservice.kafka;
+
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+
+import com.sitewhere.spi.SiteWhereException;
+
+/**
+ * Handles records dispatched to a tenant engine by a consumer shared across
+ * tenants.
+ */
+public interface ITenantRecordHandler {
+
+    /**
+     * Process a batch of records for a partition of one of the tenant topics.
+     * 
+     * @param topicPartition
+     * @param records
+     * @throws SiteWhereException
+     */
+    void process(TopicPartition topicPartition, List<ConsumerRecord<String, byte[]>> records)
+	    throws SiteWhereException;
+}
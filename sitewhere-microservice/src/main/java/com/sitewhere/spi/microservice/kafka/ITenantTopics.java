@@ -0,0 +1,147 @@
+/**
+ * Copyright © 2014-2021 The SiteWhere Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.sitewhere.spi.microservice.kafka;
+
+import java.util.List;
+
+/**
+ * Precomputed Kafka topic names for a single tenant. Instances are immutable
+ * and may be cached for the lifetime of the tenant.
+ */
+public interface ITenantTopics {
+
+    /**
+     * Get name of tenant the topics belong to.
+     * 
+     * @return
+     */
+    String getTenantName();
+
+    /**
+     * Get prefix shared by all topics for the tenant.
+     * 
+     * @return
+     */
+    String getTenantPrefix();
+
+    /**
+     * Get name for topic that contains events that have been decoded from inbound
+     * event sources.
+     * 
+     * @return
+     */
+    String getEventSourceDecodedEventsTopic();
+
+    /**
+     * Get name for topic that contains events that could not be decoded from event
+     * sources.
+     * 
+     * @return
+     */
+    String getEventSourceFailedDecodeTopic();
+
+    /**
+     * Get topic for inbound events that have been validated by inbound processing
+     * logic.
+     * 
+     * @return
+     */
+    String getInboundEventsTopic();
+
+    /**
+     * Get topic for inbound events that were sent for out-of-band processing, then
+     * returned to be reprocessed.
+     * 
+     * @return
+     */
+    String getInboundReprocessEventsTopic();
+
+    /**
+     * Get name for topic that contains events for device registration requests
+     * decoded by event sources.
+     * 
+     * @return
+     */
+    String getDeviceRegistrationEventsTopic();
+
+    /**
+     * Get name for topic that contains events for devices that were not registered
+     * in the system.
+     * 
+     * @return
+     */
+    String getUnregisteredDeviceEventsTopic();
+
+    /**
+     * Get topic for events that have been persisted and enriched with
+     * device/assignment data.
+     * 
+     * @return
+     */
+    String getOutboundEventsTopic();
+
+    /**
+     * Get topic for device command invocations that have been persisted and
+     * enriched with device/assignment data.
+     * 
+     * @return
+     */
+    String getOutboundCommandInvocationsTopic();
+
+    /**
+     * Get topic for device command invocations that could not be delievered.
+     * 
+     * @return
+     */
+    String getUndeliveredCommandInvocationsTopic();
+
+    /**
+     * Get topic for unprocessed batch operations.
+     * 
+     * @return
+     */
+    String getUnprocessedBatchOperationsTopic();
+
+    /**
+     * Get topic for unprocessed batch elements.
+     * 
+     * @return
+     */
+    String getUnprocessedBatchElementsTopic();
+
+    /**
+     * Get topic for failed batch elements.
+     * 
+     * @return
+     */
+    String getFailedBatchElementsTopic();
+
+    /**
+     * Get names of all topics for the tenant.
+     * 
+     * @return
+     */
+    List<String> getAllTopicNames();
+
+    /**
+     * Get UTF-8 encoded bytes for one of the tenant topic names. Returns null if
+     * the topic does not belong to the tenant.
+     * 
+     * @param topicName
+     * @return
+     */
+    byte[] getTopicNameBytes(String topicName);
+}